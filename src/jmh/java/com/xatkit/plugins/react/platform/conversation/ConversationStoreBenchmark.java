@@ -0,0 +1,95 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the latency of the conversation lookup performed when a client reconnects to a node with the identifier
+ * of a conversation started on another node.
+ * <p>
+ * The {@code file} store is created in a temporary directory, and reflects the cost of a lookup in a directory
+ * shared between the nodes of the same host.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="ConversationStoreBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationStoreBenchmark {
+
+    /**
+     * The store to benchmark.
+     */
+    @Param({"memory", "file"})
+    public String store;
+
+    /**
+     * The number of conversations in the store.
+     */
+    @Param({"1000", "100000"})
+    public int conversations;
+
+    private ConversationStore conversationStore;
+
+    private Path directory;
+
+    private String[] conversationIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (store.equals("file")) {
+            directory = Files.createTempDirectory("xatkit-react-conversations");
+            conversationStore = new FileConversationStore(directory);
+        } else {
+            conversationStore = new InMemoryConversationStore();
+        }
+        conversationIds = new String[conversations];
+        for (int i = 0; i < conversations; i++) {
+            conversationIds[i] = UUID.randomUUID().toString();
+            conversationStore.bind(UUID.randomUUID().toString(), conversationIds[i], "remote");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        conversationStore.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public ConversationRecord getConversation() {
+        return conversationStore.getConversation(conversationIds[ThreadLocalRandom.current().nextInt(conversations)]);
+    }
+
+    @Benchmark
+    public ConversationRecord getUnknownConversation() {
+        return conversationStore.getConversation(UUID.randomUUID().toString());
+    }
+}
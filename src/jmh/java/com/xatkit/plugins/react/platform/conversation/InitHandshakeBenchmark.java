@@ -0,0 +1,148 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the per-connection cost of the {@link Init} handshake during a reconnect storm, when all the clients
+ * reconnect to their existing conversation (e.g. after a deployment).
+ * <p>
+ * {@link #sharedHandshake()} processes each {@link Init} event through a single {@link InitHandshake} notifying
+ * {@link #listeners} listeners, while {@link #duplicatedHandshake()} reproduces the previous behavior where each
+ * provider listened to the {@link Init} event and repeated the conversation lookup.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="InitHandshakeBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InitHandshakeBenchmark {
+
+    /**
+     * The number of sockets reconnecting during the storm.
+     */
+    private static final int SOCKETS = 10000;
+
+    /**
+     * The number of listeners (i.e. providers) processing the handshake.
+     */
+    @Param({"1", "2", "4"})
+    public int listeners;
+
+    private Map<String, StateContext> contexts;
+
+    private String[] socketIds;
+
+    private Init[] inits;
+
+    private SocketIOClient client;
+
+    private SocketConversationRegistry registry;
+
+    private InitHandshake handshake;
+
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setUpTrial(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        client = mock(SocketIOClient.class, withSettings().stubOnly());
+        contexts = new ConcurrentHashMap<>();
+        socketIds = new String[SOCKETS];
+        inits = new Init[SOCKETS];
+        for (int i = 0; i < SOCKETS; i++) {
+            String conversationId = UUID.randomUUID().toString();
+            contexts.put(conversationId, mock(StateContext.class, withSettings().stubOnly()));
+            socketIds[i] = UUID.randomUUID().toString();
+            inits[i] = new Init();
+            inits[i].setConversationId(conversationId);
+            inits[i].setOrigin("http://localhost");
+        }
+    }
+
+    /**
+     * Creates a fresh registry for each invocation, so that all the sockets perform their first handshake.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        registry = new SocketConversationRegistry(Long.MAX_VALUE, 0, socketId -> true);
+        handshake = new InitHandshake(registry, this::getOrCreateContext, (socketId, conversationId) -> {
+            if (isNull(conversationId)) {
+                conversationId = UUID.randomUUID().toString();
+            }
+            registry.register(socketId, conversationId);
+            return getOrCreateContext(conversationId);
+        }, contexts::containsKey);
+        for (int i = 0; i < listeners; i++) {
+            handshake.addListener((socketId, socketClient, init, context, created, newConversation) ->
+                    blackhole.consume(context));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SOCKETS)
+    public void sharedHandshake() {
+        for (int i = 0; i < SOCKETS; i++) {
+            handshake.handle(socketIds[i], client, inits[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SOCKETS)
+    public void duplicatedHandshake() {
+        for (int i = 0; i < SOCKETS; i++) {
+            for (int j = 0; j < listeners; j++) {
+                blackhole.consume(legacyHandshake(socketIds[i], inits[i]));
+            }
+        }
+    }
+
+    /**
+     * Reproduces the handshake performed by each provider before the introduction of {@link InitHandshake}.
+     */
+    private StateContext legacyHandshake(String socketId, Init init) {
+        String conversationId = registry.getConversationId(socketId);
+        StateContext context = isNull(conversationId) ? null : getOrCreateContext(conversationId);
+        if (isNull(context)) {
+            conversationId = init.getConversationId();
+            if (isNull(conversationId)) {
+                conversationId = UUID.randomUUID().toString();
+            }
+            registry.register(socketId, conversationId);
+            context = getOrCreateContext(conversationId);
+            context.setOrigin(init.getOrigin());
+        }
+        return context;
+    }
+
+    private StateContext getOrCreateContext(String conversationId) {
+        return contexts.computeIfAbsent(conversationId, id -> mock(StateContext.class, withSettings().stubOnly()));
+    }
+}
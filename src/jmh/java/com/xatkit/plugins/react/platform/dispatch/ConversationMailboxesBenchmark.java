@@ -0,0 +1,114 @@
+package com.xatkit.plugins.react.platform.dispatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Measures the throughput of the {@link InboundDispatcher} when processing the messages of many concurrent
+ * conversations through per-conversation mailboxes.
+ * <p>
+ * Each invocation dispatches {@link #MESSAGES_PER_CONVERSATION} messages for each of the {@link #conversations}
+ * conversations, interleaved as they would be received from concurrent sockets. Each message burns a fixed amount
+ * of CPU to simulate intent recognition. The throughput is expected to scale with the number of {@link #threads}
+ * (up to the number of available cores), while the benchmark fails if a message is processed before a previous
+ * message of the same conversation.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="ConversationMailboxesBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationMailboxesBenchmark {
+
+    /**
+     * The number of messages sent in each conversation per benchmark invocation.
+     */
+    private static final int MESSAGES_PER_CONVERSATION = 10;
+
+    /**
+     * The number of conversations sending messages concurrently.
+     */
+    private static final int CONVERSATIONS = 1000;
+
+    /**
+     * The number of threads of the {@link InboundDispatcher}.
+     */
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    /**
+     * The amount of CPU consumed to process each message (see {@link Blackhole#consumeCPU(long)}).
+     */
+    @Param({"1000"})
+    public long workTokens;
+
+    private InboundDispatcher dispatcher;
+
+    private String[] conversationIds;
+
+    private AtomicIntegerArray lastProcessedMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dispatcher = new InboundDispatcher(threads, CONVERSATIONS * MESSAGES_PER_CONVERSATION, false);
+        conversationIds = new String[CONVERSATIONS];
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            conversationIds[i] = "conversation-" + i;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetOrdering() {
+        lastProcessedMessage = new AtomicIntegerArray(CONVERSATIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONVERSATIONS * MESSAGES_PER_CONVERSATION)
+    public void dispatchOrderedMessages() throws InterruptedException {
+        CountDownLatch processed = new CountDownLatch(CONVERSATIONS * MESSAGES_PER_CONVERSATION);
+        AtomicIntegerArray lastProcessed = this.lastProcessedMessage;
+        for (int message = 1; message <= MESSAGES_PER_CONVERSATION; message++) {
+            for (int conversation = 0; conversation < CONVERSATIONS; conversation++) {
+                int conversationIndex = conversation;
+                int messageIndex = message;
+                dispatcher.dispatch(conversationIds[conversation], () -> {
+                    Blackhole.consumeCPU(workTokens);
+                    if (!lastProcessed.compareAndSet(conversationIndex, messageIndex - 1, messageIndex)) {
+                        throw new IllegalStateException("Message " + messageIndex + " of conversation "
+                                + conversationIndex + " has been processed out of order");
+                    }
+                    processed.countDown();
+                });
+            }
+        }
+        if (!processed.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Messages have not been processed in time, an ordering violation may " +
+                    "have been reported in the logs");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.xatkit.plugins.react.platform.io;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import com.xatkit.core.ExecutionService;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.chat.ChatUtils;
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import com.xatkit.plugins.react.platform.socket.event.UserMessageReceived;
+import com.xatkit.plugins.react.platform.socket.event.UserQuickButtonSelected;
+import com.xatkit.plugins.react.platform.utils.ReactUtils;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the inbound socket pipeline, from the decoded socket events to the {@link EventInstance}s sent to the
+ * bot's {@link ExecutionService}.
+ * <p>
+ * The decoded {@link UserMessageReceived}, {@link UserQuickButtonSelected}, and {@link Init} events are delivered
+ * to the listeners registered by {@link ReactIntentProvider}, {@link ReactEventProvider}, and the
+ * {@link ReactPlatform} through the socket server's {@link Namespace}, as done by netty-socketio once a packet has
+ * been decoded. Each operation waits until the resulting event has been sent to the execution service (i.e. until
+ * {@code sendEventInstance} completes on the inbound dispatcher), and includes the conversation lookup, the
+ * dispatch to the conversation's mailbox, and the intent recognition. The {@link XatkitBot}, the intent recognizer,
+ * and the execution service are stubbed: the measures reflect the cost of the platform and of its dependencies
+ * (netty-socketio, xatkit-core), and can be compared across upgrades.
+ * <p>
+ * The throughput and the latency percentiles are reported for each benchmark. Run with
+ * {@code mvn -P benchmark verify -Djmh.args="InboundPipelineBenchmark -prof gc"} to also report the allocations
+ * per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class InboundPipelineBenchmark {
+
+    /**
+     * The maximum time (in nanoseconds) an operation waits for its event to reach the execution service.
+     */
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The number of events received by the stubbed execution service, indexed by channel.
+     */
+    private final ConcurrentMap<String, AtomicLong> handledEvents = new ConcurrentHashMap<>();
+
+    private ReactPlatform platform;
+
+    private ReactIntentProvider intentProvider;
+
+    private ReactEventProvider eventProvider;
+
+    private Namespace namespace;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        XatkitBot xatkitBot = mock(XatkitBot.class, withSettings().stubOnly());
+        when(xatkitBot.getXatkitServer()).thenReturn(mock(XatkitServer.class, withSettings().stubOnly()));
+        ConcurrentMap<String, StateContext> contexts = new ConcurrentHashMap<>();
+        when(xatkitBot.getOrCreateContext(anyString())).thenAnswer(invocation ->
+                contexts.computeIfAbsent(invocation.getArgument(0), InboundPipelineBenchmark::createContext));
+        IntentRecognitionProvider intentRecognitionProvider = mock(IntentRecognitionProvider.class,
+                withSettings().stubOnly());
+        when(intentRecognitionProvider.getIntent(anyString(), any(StateContext.class))).thenAnswer(invocation ->
+                IntentFactory.eINSTANCE.createRecognizedIntent());
+        when(xatkitBot.getIntentRecognitionProvider()).thenReturn(intentRecognitionProvider);
+        ExecutionService executionService = mock(ExecutionService.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            EventInstance eventInstance = invocation.getArgument(0);
+            handledEvents.get((String) eventInstance.getPlatformData().get(ChatUtils.CHAT_CHANNEL_CONTEXT_KEY))
+                    .incrementAndGet();
+            return null;
+        }).when(executionService).handleEventInstance(any(EventInstance.class), any(StateContext.class));
+        when(xatkitBot.getExecutionService()).thenReturn(executionService);
+
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(ReactUtils.REACT_SERVER_PORT_KEY, getFreePort());
+        configuration.addProperty(ReactUtils.REACT_ENABLE_TESTING_PAGE, false);
+        platform = new ReactPlatform();
+        platform.start(xatkitBot, configuration);
+        intentProvider = new ReactIntentProvider(platform);
+        intentProvider.start(configuration);
+        eventProvider = new ReactEventProvider(platform);
+        eventProvider.start(configuration);
+        namespace = (Namespace) platform.getSocketIOServer().getNamespace(Namespace.DEFAULT_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platform.shutdown();
+    }
+
+    /**
+     * A client sending events on its own socket and conversation.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private NamespaceClient socket;
+
+        private AckRequest ackRequest;
+
+        private AtomicLong handledEvents;
+
+        private Init init;
+
+        private UserMessageReceived message;
+
+        private UserQuickButtonSelected buttonClick;
+
+        /**
+         * Creates the client's socket and binds it to its conversation.
+         */
+        @Setup(Level.Trial)
+        public void setUp(InboundPipelineBenchmark benchmark) {
+            UUID sessionId = UUID.randomUUID();
+            socket = mock(NamespaceClient.class, withSettings().stubOnly());
+            when(socket.getSessionId()).thenReturn(sessionId);
+            ackRequest = new AckRequest(new Packet(PacketType.MESSAGE), socket);
+            handledEvents = new AtomicLong();
+            benchmark.handledEvents.put(sessionId.toString(), handledEvents);
+            init = new Init();
+            init.setConversationId(UUID.randomUUID().toString());
+            init.setHostname("localhost");
+            init.setUrl("http://localhost:5000/admin");
+            init.setOrigin("http://localhost:5000");
+            message = new UserMessageReceived();
+            message.setUsername("user");
+            message.setMessage("Hello, I would like to know the opening hours of the store");
+            buttonClick = new UserQuickButtonSelected();
+            buttonClick.setUsername("user");
+            buttonClick.setSelectedValue("Opening hours");
+            benchmark.send(this, SocketEventTypes.INIT.label, init);
+        }
+    }
+
+    @Benchmark
+    public long userMessage(Client client) {
+        return send(client, SocketEventTypes.USER_MESSAGE.label, client.message);
+    }
+
+    @Benchmark
+    public long userButtonClick(Client client) {
+        return send(client, SocketEventTypes.USER_BUTTON_CLICK.label, client.buttonClick);
+    }
+
+    @Benchmark
+    public long init(Client client) {
+        return send(client, SocketEventTypes.INIT.label, client.init);
+    }
+
+    /**
+     * Delivers the provided {@code event} to the listeners of {@code eventName}, and waits until the resulting
+     * {@link EventInstance} has been sent to the execution service.
+     */
+    private long send(Client client, String eventName, Object event) {
+        long expected = client.handledEvents.get() + 1;
+        namespace.onEvent(client.socket, eventName, Collections.singletonList(event), client.ackRequest);
+        long start = System.nanoTime();
+        while (client.handledEvents.get() < expected) {
+            if (System.nanoTime() - start > TIMEOUT) {
+                throw new IllegalStateException("The event " + eventName + " has not been sent to the execution "
+                        + "service, see the platform's logs");
+            }
+            Thread.yield();
+        }
+        return expected;
+    }
+
+    private static StateContext createContext(String conversationId) {
+        StateContext context = mock(StateContext.class, withSettings().stubOnly());
+        when(context.getContextId()).thenReturn(conversationId);
+        return context;
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
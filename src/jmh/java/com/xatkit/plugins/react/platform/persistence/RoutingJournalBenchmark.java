@@ -0,0 +1,99 @@
+package com.xatkit.plugins.react.platform.persistence;
+
+import com.xatkit.plugins.react.platform.conversation.ConversationRecord;
+import com.xatkit.plugins.react.platform.conversation.ConversationStore;
+import com.xatkit.plugins.react.platform.conversation.InMemoryConversationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the startup time of a platform reloading its {@link RoutingJournal}.
+ * <p>
+ * The journal is populated with {@link #conversations} conversations, and one pending event for
+ * {@link #eventRatio} percent of them. {@link #reload()} measures the sequential pass over the log, and
+ * {@link #reloadAndRestore()} also restores the conversations in a {@link ConversationStore}, as done by the
+ * platform when it starts.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="RoutingJournalBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RoutingJournalBenchmark {
+
+    /**
+     * The number of conversations persisted in the journal.
+     */
+    @Param({"100000", "1000000"})
+    public int conversations;
+
+    /**
+     * The percentage of conversations with a pending event.
+     */
+    @Param({"0", "10"})
+    public int eventRatio;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("xatkit-react-journal");
+        try (RoutingJournal journal = new RoutingJournal(directory, 100)) {
+            for (int i = 0; i < conversations; i++) {
+                String conversationId = UUID.randomUUID().toString();
+                journal.recordConversation(conversationId);
+                if (i % 100 < eventRatio) {
+                    journal.recordEvent(conversationId, "bot_message", "Hello " + i);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long reload() {
+        try (RoutingJournal journal = new RoutingJournal(directory, 100)) {
+            return journal.getLiveRecordCount();
+        }
+    }
+
+    @Benchmark
+    public int reloadAndRestore() {
+        try (RoutingJournal journal = new RoutingJournal(directory, 100);
+             ConversationStore store = new InMemoryConversationStore()) {
+            journal.forEachConversation((conversationId, lastAccess) ->
+                    store.restore(new ConversationRecord(conversationId, "node", lastAccess)));
+            int[] events = new int[1];
+            journal.forEachPendingEvent((conversationId, eventName, timestamp, data) -> events[0]++);
+            return store.getConversationCount() + events[0];
+        }
+    }
+}
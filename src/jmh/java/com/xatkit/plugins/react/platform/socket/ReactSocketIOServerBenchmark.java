@@ -0,0 +1,135 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketConfig;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.WriteBufferWaterMark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the effect of the socket server's transport settings on the throughput of engine.io handshakes.
+ * <p>
+ * Each invocation performs a polling handshake (the first request sent by a widget when connecting to the socket
+ * server) against a {@link ReactSocketIOServer} configured with the benchmark parameters. The parameters
+ * correspond to the {@code xatkit.react.server.*} configuration properties.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="ReactSocketIOServerBenchmark"}. Use {@code -p} to restrict
+ * the parameter combinations, e.g. {@code -Djmh.args="ReactSocketIOServerBenchmark -p nativeEpoll=false"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ReactSocketIOServerBenchmark {
+
+    /**
+     * Whether the server uses the native epoll transport (ignored if the transport is not available).
+     */
+    @Param({"false", "true"})
+    public boolean nativeEpoll;
+
+    /**
+     * The number of I/O threads of the server ({@code 0} for netty's default).
+     */
+    @Param({"1", "0"})
+    public int workerThreads;
+
+    /**
+     * Whether {@code TCP_NODELAY} is enabled on the accepted connections.
+     */
+    @Param({"true", "false"})
+    public boolean tcpNoDelay;
+
+    /**
+     * Whether the accepted connections use the pooled buffer allocator.
+     */
+    @Param({"true", "false"})
+    public boolean pooledAllocator;
+
+    /**
+     * The high water mark (in bytes) of the accepted connections' write buffers.
+     */
+    @Param({"65536"})
+    public int writeBufferHighWaterMark;
+
+    private ReactSocketIOServer server;
+
+    private URL handshakeUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        Configuration configuration = new Configuration();
+        configuration.setPort(port);
+        configuration.setRandomSession(true);
+        configuration.setUseLinuxNativeEpoll(nativeEpoll && isNativeEpollAvailable());
+        configuration.setWorkerThreads(workerThreads);
+        SocketConfig socketConfig = new SocketConfig();
+        socketConfig.setReuseAddress(true);
+        socketConfig.setTcpNoDelay(tcpNoDelay);
+        configuration.setSocketConfig(socketConfig);
+        server = new ReactSocketIOServer(configuration,
+                new WriteBufferWaterMark(writeBufferHighWaterMark / 2, writeBufferHighWaterMark),
+                pooledAllocator ? PooledByteBufAllocator.DEFAULT : UnpooledByteBufAllocator.DEFAULT);
+        server.start();
+        handshakeUrl = new URL("http://localhost:" + port + "/socket.io/?EIO=3&transport=polling");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int pollingHandshake() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) handshakeUrl.openConnection();
+        try (InputStream is = connection.getInputStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IllegalStateException("Unexpected handshake response " + connection.getResponseCode());
+            }
+            return outputStream.size();
+        }
+    }
+
+    private static boolean isNativeEpollAvailable() {
+        try {
+            return (Boolean) Class.forName("io.netty.channel.epoll.Epoll").getMethod("isAvailable").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+}
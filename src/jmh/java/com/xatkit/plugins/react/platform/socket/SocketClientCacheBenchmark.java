@@ -0,0 +1,85 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.namespace.Namespace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the resolution of the client of a channel through the socket server (parsing the channel as a
+ * {@link UUID} and looking it up in the default namespace) with the {@link SocketClientCache} lookup used to send
+ * events.
+ * <p>
+ * The socket server is not started: clients are mocked and registered directly in its default namespace.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="SocketClientCacheBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SocketClientCacheBenchmark {
+
+    /**
+     * The number of connected clients.
+     */
+    @Param({"100", "10000"})
+    public int clients;
+
+    private SocketIOServer socketIOServer;
+
+    private SocketClientCache clientCache;
+
+    private String[] channels;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        configuration.setPort(0);
+        socketIOServer = new SocketIOServer(configuration);
+        Namespace namespace = (Namespace) socketIOServer.getNamespace(Namespace.DEFAULT_NAME);
+        clientCache = new SocketClientCache();
+        channels = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            UUID sessionId = UUID.randomUUID();
+            SocketIOClient client = mock(SocketIOClient.class);
+            when(client.getSessionId()).thenReturn(sessionId);
+            namespace.addClient(client);
+            clientCache.put(client);
+            channels[i] = sessionId.toString();
+        }
+    }
+
+    @Benchmark
+    public SocketIOClient resolveFromServer() {
+        String channel = channels[ThreadLocalRandom.current().nextInt(clients)];
+        return socketIOServer.getClient(UUID.fromString(channel));
+    }
+
+    @Benchmark
+    public SocketIOClient resolveFromCache() {
+        String channel = channels[ThreadLocalRandom.current().nextInt(clients)];
+        return clientCache.get(channel);
+    }
+}
@@ -0,0 +1,100 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building and encoding a bot message with quick buttons.
+ * <p>
+ * The {@code legacy*} benchmarks reproduce the previous implementation of
+ * {@link com.xatkit.plugins.react.platform.action.PostMessage}, that created a new list of
+ * {@link QuickButtonDescriptor}s for each message. The other benchmarks use an interned {@link QuickButtonSet}. The
+ * {@code *Encode} benchmarks also encode the message with the {@link JacksonJsonSupport} of the socket server, in a
+ * buffer reused across invocations.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="QuickButtonSetBenchmark -prof gc"} to compare the allocations
+ * per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuickButtonSetBenchmark {
+
+    /**
+     * The number of buttons of the message.
+     */
+    @Param({"2", "8"})
+    public int size;
+
+    private List<String> labels;
+
+    private JacksonJsonSupport jsonSupport;
+
+    private ByteBuf buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> menu = Arrays.asList("Yes", "No", "Order status", "Track my parcel", "Return an item",
+                "Opening hours", "Talk to an agent", "Start over");
+        labels = new ArrayList<>(menu.subList(0, size));
+        jsonSupport = new JacksonJsonSupport();
+        buffer = Unpooled.buffer();
+    }
+
+    @Benchmark
+    public SendBotMessage legacyBuild() {
+        return new SendBotMessage("xatkit", "What can I do for you?", legacyButtons());
+    }
+
+    @Benchmark
+    public SendBotMessage build() {
+        return new SendBotMessage("xatkit", "What can I do for you?", QuickButtonSet.of(labels));
+    }
+
+    @Benchmark
+    public int legacyEncode() throws IOException {
+        return encode(legacyBuild());
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        return encode(build());
+    }
+
+    private List<QuickButtonDescriptor> legacyButtons() {
+        List<QuickButtonDescriptor> buttons = new ArrayList<>();
+        labels.forEach(label -> buttons.add(new QuickButtonDescriptor(label, label)));
+        return buttons;
+    }
+
+    private int encode(SendBotMessage message) throws IOException {
+        buffer.clear();
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), Arrays.asList(SocketEventTypes.BOT_MESSAGE.label,
+                message));
+        return buffer.readableBytes();
+    }
+}
@@ -0,0 +1,140 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.action.QuickButtonDescriptor;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessages;
+import com.xatkit.plugins.react.platform.socket.action.SendLinkSnippet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost and the size of the JSON and CBOR encodings of the payloads sent to the clients.
+ * <p>
+ * Each benchmark encodes a socket.io event with the {@link JacksonJsonSupport} of the socket server, and returns the
+ * number of bytes sent on the wire (text frame and binary attachments). The wire size of each payload shape is
+ * reported as the {@code wireBytes} secondary result of the benchmark (see {@link WireSize}): the CBOR attachment
+ * comes with a placeholder text frame, so the encoding only reduces the wire size of the payloads with enough
+ * structure (quick buttons, batches) to amortize it.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="PayloadEncodingBenchmark -prof gc"} to compare the
+ * allocations per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    /**
+     * The shape of the encoded payload.
+     */
+    @Param({"message", "buttons", "link", "batch"})
+    public String shape;
+
+    private JacksonJsonSupport jsonSupport;
+
+    private String eventName;
+
+    private Object payload;
+
+    private ByteBuf buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        jsonSupport = new JacksonJsonSupport(new PayloadCodecModule());
+        buffer = Unpooled.buffer();
+        List<QuickButtonDescriptor> buttons = new ArrayList<>();
+        for (String value : Arrays.asList("Yes", "No", "Maybe", "Tell me more", "Start over")) {
+            buttons.add(new QuickButtonDescriptor(value, value));
+        }
+        switch (shape) {
+            case "message":
+                eventName = SocketEventTypes.BOT_MESSAGE.label;
+                payload = new SendBotMessage("xatkit", "Hello, how can I help you today?");
+                break;
+            case "buttons":
+                eventName = SocketEventTypes.BOT_MESSAGE.label;
+                payload = new SendBotMessage("xatkit", "Do you want to continue?", buttons);
+                break;
+            case "link":
+                eventName = SocketEventTypes.LINK_SNIPPET.label;
+                payload = new SendLinkSnippet("Xatkit documentation", "https://github.com/xatkit-bot-platform",
+                        "https://xatkit.com/wp-content/uploads/2020/03/logo.png");
+                break;
+            case "batch":
+                eventName = SocketEventTypes.BOT_MESSAGES.label;
+                List<SendBotMessage> messages = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    messages.add(new SendBotMessage("xatkit", "Message n\u00b0" + i, buttons));
+                }
+                payload = new SendBotMessages(messages);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown payload shape " + shape);
+        }
+    }
+
+    @Benchmark
+    public int json(WireSize wireSize) throws IOException {
+        wireSize.wireBytes = encode(Arrays.asList(eventName, payload));
+        return wireSize.wireBytes;
+    }
+
+    @Benchmark
+    public int cbor(WireSize wireSize) throws IOException {
+        wireSize.wireBytes = encode(Arrays.asList(eventName, new CborPayload(payload)));
+        return wireSize.wireBytes;
+    }
+
+    private int encode(Object value) throws IOException {
+        buffer.clear();
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), value);
+        int size = buffer.readableBytes();
+        List<byte[]> attachments = jsonSupport.getArrays();
+        if (attachments != null) {
+            for (byte[] attachment : attachments) {
+                size += attachment.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reports the wire size of the encoded payload as a secondary result of the benchmarks.
+     * <p>
+     * The counter holds the size of the last encoded payload: all the encodings of a trial have the same size.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireSize {
+
+        /**
+         * The number of bytes sent on the wire for the encoded payload.
+         */
+        public int wireBytes;
+    }
+}
@@ -0,0 +1,127 @@
+package com.xatkit.plugins.react.platform.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the cost of the list and event link formatting of {@link MessageUtils}, used by the list-style replies.
+ * <p>
+ * The {@code legacy*} benchmarks reproduce the implementation of {@link MessageUtils} based on
+ * {@link Collectors#joining(CharSequence)}, {@link MessageFormat}, and {@link URLEncoder}. The {@code *Reused}
+ * benchmarks append to a {@link StringBuilder} reused across invocations, as done by callers formatting several
+ * messages on the same thread. {@link #eventLinkList()} renders an enumeration of event links, the typical
+ * selection message.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -Djmh.args="MessageUtilsBenchmark -prof gc"} to compare the allocations
+ * per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageUtilsBenchmark {
+
+    /**
+     * The number of elements of the formatted lists.
+     */
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<String> items;
+
+    private StringBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("Item n\u00b0" + i + " (caf\u00e9 & cr\u00e8me)");
+        }
+        builder = new StringBuilder();
+    }
+
+    @Benchmark
+    public String itemizeList() {
+        return MessageUtils.itemizeList(items);
+    }
+
+    @Benchmark
+    public String legacyItemizeList() {
+        return "- " + items.stream().map(Object::toString).collect(Collectors.joining("  \n- ")) + "  \n";
+    }
+
+    @Benchmark
+    public int itemizeListReused() {
+        builder.setLength(0);
+        return MessageUtils.appendItemizedList(builder, items).length();
+    }
+
+    @Benchmark
+    public String enumerateList() {
+        return MessageUtils.enumerateList(items);
+    }
+
+    @Benchmark
+    public String legacyEnumerateList() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            sb.append("[").append(i).append("] ").append(items.get(i).toString()).append("  \n");
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public int enumerateListReused() {
+        builder.setLength(0);
+        return MessageUtils.appendEnumeratedList(builder, items).length();
+    }
+
+    @Benchmark
+    public String eventLinkList() {
+        StringBuilder sb = new StringBuilder(items.size() * 64);
+        for (String item : items) {
+            MessageUtils.appendEventLink(sb.append("- "), item, item).append("  \n");
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String legacyEventLinkList() throws UnsupportedEncodingException {
+        List<String> links = new ArrayList<>(items.size());
+        for (String item : items) {
+            links.add(MessageFormat.format("[{0}](##{1})", item, URLEncoder.encode(item,
+                    StandardCharsets.UTF_8.toString())));
+        }
+        return "- " + links.stream().map(Object::toString).collect(Collectors.joining("  \n- ")) + "  \n";
+    }
+
+    @Benchmark
+    public int eventLinkListReused() {
+        builder.setLength(0);
+        for (String item : items) {
+            MessageUtils.appendEventLink(builder.append("- "), item, item).append("  \n");
+        }
+        return builder.length();
+    }
+}
@@ -1,8 +1,13 @@
 package com.xatkit.plugins.react.platform;
 
 import com.corundumstudio.socketio.SocketConfig;
+import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.store.StoreFactory;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
 import com.xatkit.core.XatkitBot;
+import com.xatkit.core.XatkitException;
 import com.xatkit.core.platform.action.RuntimeActionResult;
 import com.xatkit.core.server.XatkitServerUtils;
 import com.xatkit.execution.StateContext;
@@ -13,24 +18,82 @@ import com.xatkit.plugins.react.platform.action.Reply;
 import com.xatkit.plugins.react.platform.action.ReplyAudio;
 import com.xatkit.plugins.react.platform.action.ReplyFileMessage;
 import com.xatkit.plugins.react.platform.action.ReplyLinkSnippet;
+import com.xatkit.plugins.react.platform.action.ReplyStream;
 import com.xatkit.plugins.react.platform.action.ToggleDarkMode;
 import com.xatkit.plugins.react.platform.action.Wait;
+import com.xatkit.plugins.react.platform.conversation.ConversationRecord;
+import com.xatkit.plugins.react.platform.conversation.ConversationStore;
+import com.xatkit.plugins.react.platform.conversation.FileConversationStore;
+import com.xatkit.plugins.react.platform.conversation.InMemoryConversationStore;
+import com.xatkit.plugins.react.platform.conversation.InitHandshake;
+import com.xatkit.plugins.react.platform.conversation.MeteredConversationStore;
+import com.xatkit.plugins.react.platform.conversation.SocketConversationRegistry;
+import com.xatkit.plugins.react.platform.dispatch.InboundDispatcher;
 import com.xatkit.plugins.react.platform.io.ReactEventProvider;
 import com.xatkit.plugins.react.platform.io.ReactIntentProvider;
+import com.xatkit.plugins.react.platform.metrics.Counter;
+import com.xatkit.plugins.react.platform.metrics.Histogram;
+import com.xatkit.plugins.react.platform.metrics.MetricsRegistry;
+import com.xatkit.plugins.react.platform.outbound.BotMessageBatcher;
+import com.xatkit.plugins.react.platform.outbound.MessageStream;
+import com.xatkit.plugins.react.platform.outbound.OfflineEventBuffer;
+import com.xatkit.plugins.react.platform.outbound.OutboundFlowControl;
+import com.xatkit.plugins.react.platform.persistence.RoutingJournal;
+import com.xatkit.plugins.react.platform.ratelimit.InboundRateLimiter;
+import com.xatkit.plugins.react.platform.ratelimit.TokenBucketRateLimiter;
+import com.xatkit.plugins.react.platform.routing.LoopbackRoutingTransport;
+import com.xatkit.plugins.react.platform.routing.OutboundRouter;
+import com.xatkit.plugins.react.platform.routing.PubSubStoreRoutingTransport;
+import com.xatkit.plugins.react.platform.routing.RoutedEvent;
+import com.xatkit.plugins.react.platform.routing.RoutingTransport;
 import com.xatkit.plugins.react.platform.server.ReactRestEndpointsManager;
+import com.xatkit.plugins.react.platform.socket.ReactSocketIOServer;
+import com.xatkit.plugins.react.platform.socket.SocketClientCache;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.SocketRooms;
+import com.xatkit.plugins.react.platform.socket.action.InitConfirm;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessages;
+import com.xatkit.plugins.react.platform.socket.action.Throttled;
+import com.xatkit.plugins.react.platform.socket.codec.CborPayload;
+import com.xatkit.plugins.react.platform.socket.codec.EncodedPayload;
+import com.xatkit.plugins.react.platform.socket.codec.PayloadCodecModule;
+import com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import com.xatkit.plugins.react.platform.tracing.MessageTracer;
 import com.xatkit.plugins.react.platform.utils.MessageUtils;
 import com.xatkit.plugins.react.platform.utils.ReactUtils;
 import fr.inria.atlanmod.commons.log.Log;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.WriteBufferWaterMark;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
 
 import javax.annotation.Nullable;
 import java.io.File;
-import java.util.HashMap;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -43,6 +106,40 @@ import static java.util.Objects.nonNull;
  */
 public class ReactPlatform extends ChatPlatform {
 
+    /**
+     * The name of the client property storing whether the client supports batched bot messages.
+     *
+     * @see #setClientCapabilities(SocketIOClient, Init)
+     */
+    private static final String BATCH_MESSAGES_CLIENT_PROPERTY = "xatkit.react.batch_messages";
+
+    /**
+     * The labels of the events buffered for the conversations without connected socket.
+     * <p>
+     * Only the events holding the content of the conversation are buffered: replaying transient events (e.g.
+     * message loaders, dark mode toggles) after a reconnection would put the client in an outdated state.
+     *
+     * @see #sendOfflineEvent(String, String, Object...)
+     */
+    private static final Set<String> OFFLINE_BUFFERED_EVENTS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(SocketEventTypes.BOT_MESSAGE.label, SocketEventTypes.BOT_MESSAGES.label,
+                    SocketEventTypes.BOT_MESSAGE_CHUNK.label, SocketEventTypes.BOT_MESSAGE_END.label,
+                    SocketEventTypes.LINK_SNIPPET.label, SocketEventTypes.AUDIO.label)));
+
+    /**
+     * The name of the client property storing whether the client supports streamed bot messages.
+     *
+     * @see #setClientCapabilities(SocketIOClient, Init)
+     */
+    private static final String STREAM_MESSAGES_CLIENT_PROPERTY = "xatkit.react.stream_messages";
+
+    /**
+     * The name of the client property storing the {@link PayloadEncoding} of the payloads sent to the client.
+     *
+     * @see #setClientCapabilities(SocketIOClient, Init)
+     */
+    private static final String PAYLOAD_ENCODING_CLIENT_PROPERTY = "xatkit.react.payload_encoding";
+
     /**
      * The socket server used to receive and send messages.
      */
@@ -53,9 +150,238 @@ public class ReactPlatform extends ChatPlatform {
      * <p>
      * This mapping allows to retrieve the conversation associated to a given socket. Adding a new
      * socket/conversation entry allows to continue an existing conversation in a different socket connection (e.g.
-     * when the client reloads the page).
+     * when the client reloads the page). Entries are removed when their socket disconnects, and stale entries are
+     * periodically evicted.
+     *
+     * @see ReactUtils#REACT_CONVERSATION_TTL_KEY
+     * @see ReactUtils#REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD_KEY
+     */
+    private SocketConversationRegistry conversationRegistry;
+
+    /**
+     * The identifier of the node running the platform.
+     *
+     * @see ReactUtils#REACT_NODE_ID_KEY
+     */
+    private String nodeId;
+
+    /**
+     * The store holding the conversations, shareable between several nodes.
+     * <p>
+     * The {@link #conversationRegistry} only contains the sockets connected to this node, this store allows to
+     * resolve the conversations and sockets bound by other nodes.
+     *
+     * @see ReactUtils#REACT_CONVERSATION_STORE_KEY
+     */
+    private MeteredConversationStore conversationStore;
+
+    /**
+     * The handshake stage binding the sockets to their conversation when they send an {@link Init} event.
+     * <p>
+     * Providers register listeners on this stage (see {@link #addInitListener(InitHandshake.Listener)}) instead
+     * of listening to the {@link SocketEventTypes#INIT} event.
+     */
+    private InitHandshake initHandshake;
+
+    /**
+     * The scheduler shared by the platform's timers and periodic maintenance tasks.
+     * <p>
+     * This scheduler is used to complete delays (see {@link #waitAsync(StateContext, int)}) without parking a
+     * thread for each pending delay.
+     *
+     * @see ReactUtils#REACT_SCHEDULER_THREADS_KEY
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The dispatcher used by the providers to process inbound socket events outside of the socket server's event
+     * loop.
+     *
+     * @see ReactUtils#REACT_DISPATCH_THREADS_KEY
+     */
+    private InboundDispatcher inboundDispatcher;
+
+    /**
+     * The batcher combining the bot messages sent to a channel within a short window.
+     * <p>
+     * This batcher is {@code null} if message batching is disabled in the configuration.
+     *
+     * @see ReactUtils#REACT_BATCH_MESSAGES_KEY
+     */
+    private BotMessageBatcher botMessageBatcher;
+
+    /**
+     * The buffer holding the outbound events of conversations that do not have a connected socket.
+     * <p>
+     * This field is {@code null} if offline buffering is disabled.
+     *
+     * @see ReactUtils#REACT_OFFLINE_BUFFER_KEY
+     */
+    private OfflineEventBuffer offlineEventBuffer;
+
+    /**
+     * The flow control applying backpressure to the events sent to clients that do not read their socket.
+     */
+    private OutboundFlowControl outboundFlowControl;
+
+    /**
+     * The size (in characters) of the pending fragments triggering the emission of a streamed message chunk.
+     *
+     * @see ReactUtils#REACT_STREAM_CHUNK_SIZE_KEY
+     */
+    private int streamChunkSize;
+
+    /**
+     * Whether the clients can request the binary encoding of their payloads.
+     *
+     * @see ReactUtils#REACT_BINARY_ENCODING_KEY
+     */
+    private boolean binaryEncoding;
+
+    /**
+     * Whether the events sent to a socket are delivered to all the sockets of its conversation.
+     *
+     * @see ReactUtils#REACT_CONVERSATION_FANOUT_KEY
+     */
+    private boolean conversationFanout;
+
+    /**
+     * The maximum time (in milliseconds) a fragment of a streamed message is held before being sent.
+     *
+     * @see ReactUtils#REACT_STREAM_CHUNK_DELAY_KEY
+     */
+    private long streamChunkDelay;
+
+    /**
+     * The router sending the events targeting sockets connected to other nodes to these nodes.
+     * <p>
+     * This field is {@code null} if routing is disabled.
+     *
+     * @see ReactUtils#REACT_ROUTING_KEY
+     */
+    private OutboundRouter outboundRouter;
+
+    /**
+     * The journal persisting the conversations and the pending outbound events across restarts.
+     * <p>
+     * This field is {@code null} if persistence is disabled.
+     *
+     * @see ReactUtils#REACT_PERSISTENCE_KEY
+     */
+    private RoutingJournal routingJournal;
+
+    /**
+     * The rate limiter applied to the user inputs before they are dispatched.
+     * <p>
+     * This field is {@code null} if neither the sockets nor the conversations are rate limited.
+     *
+     * @see ReactUtils#REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY
+     * @see ReactUtils#REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE_KEY
+     */
+    private InboundRateLimiter inboundRateLimiter;
+
+    /**
+     * The cache storing the {@link SocketIOClient} handles of the connected sockets.
+     * <p>
+     * This cache is used to resolve the channels of the sent events without looking them up in the socket server.
+     */
+    private final SocketClientCache clientCache = new SocketClientCache();
+
+    /**
+     * The registry holding the platform's metrics, exposed by the {@code /react/metrics} endpoint.
+     *
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     */
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    /**
+     * The number of sockets connected to the platform.
+     */
+    private final Counter connectionCount = metricsRegistry.counter("xatkit_react_socket_connections_total",
+            "The number of sockets connected to the platform");
+
+    /**
+     * The number of sockets disconnected from the platform.
+     */
+    private final Counter disconnectionCount = metricsRegistry.counter("xatkit_react_socket_disconnections_total",
+            "The number of sockets disconnected from the platform");
+
+    /**
+     * The time spent in the socket listeners, indexed by the type of the received event.
+     *
+     * @see #recordSocketEvent(SocketEventTypes, long)
+     */
+    private final ConcurrentMap<SocketEventTypes, Histogram> socketEventDurations = new ConcurrentHashMap<>();
+
+    /**
+     * The number of events received from the sockets, indexed by the type of the received event.
+     *
+     * @see #recordSocketEvent(SocketEventTypes, long)
+     */
+    private final ConcurrentMap<SocketEventTypes, Counter> inboundEventCounts = new ConcurrentHashMap<>();
+
+    /**
+     * The number of events sent to the sockets connected to the platform, indexed by the name of the event.
+     *
+     * @see #countOutboundEvent(String)
+     */
+    private final ConcurrentMap<String, Counter> outboundEventCounts = new ConcurrentHashMap<>();
+
+    /**
+     * The time spent recognizing the intent of the user inputs.
+     *
+     * @see #recordRecognition(long)
+     */
+    private final Histogram recognitionDuration = metricsRegistry.histogram("xatkit_react_recognition_seconds",
+            "The time spent recognizing the intent of the user inputs");
+
+    /**
+     * The number of events dropped because their socket is disconnected and they cannot be buffered for their
+     * conversation.
+     *
+     * @see #sendOfflineEvent(String, String, Object...)
+     */
+    private final Counter disconnectedSendFailureCount = metricsRegistry.counter(
+            "xatkit_react_send_failures_total", "The number of events that could not be sent to their socket",
+            "reason", "disconnected");
+
+    /**
+     * The number of transient events dropped because their socket is disconnected.
+     *
+     * @see #OFFLINE_BUFFERED_EVENTS
+     */
+    private final Counter transientSendFailureCount = metricsRegistry.counter(
+            "xatkit_react_send_failures_total", "The number of events that could not be sent to their socket",
+            "reason", "transient");
+
+    /**
+     * The computation time of the platform's actions, indexed by the name of the action.
+     *
+     * @see #recordAction(String, long)
+     */
+    private final ConcurrentMap<String, Histogram> actionDurations = new ConcurrentHashMap<>();
+
+    /**
+     * The time spent sending the broadcast events to the members of their room.
+     *
+     * @see #broadcast(String, String, Object...)
+     */
+    private final Histogram broadcastDuration = metricsRegistry.histogram("xatkit_react_broadcast_seconds",
+            "The time spent sending the broadcast events to the members of their room");
+
+    /**
+     * The number of sockets the broadcast events have been sent to.
+     */
+    private final Counter broadcastRecipientCount = metricsRegistry.counter(
+            "xatkit_react_broadcast_recipients_total", "The number of sockets the broadcast events have been sent to");
+
+    /**
+     * The tracer recording the timings of a sample of the user inputs, exposed by the {@code /react/traces}
+     * endpoint.
+     *
+     * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
      */
-    private Map<String, String> socketToConversationMap = new HashMap<>();
+    private MessageTracer messageTracer;
 
     /**
      * {@inheritDoc}
@@ -143,18 +469,273 @@ public class ReactPlatform extends ChatPlatform {
          */
         SocketConfig socketConfig = new SocketConfig();
         socketConfig.setReuseAddress(true);
+        socketConfig.setTcpNoDelay(configuration.getBoolean(ReactUtils.REACT_SERVER_TCP_NO_DELAY_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_TCP_NO_DELAY));
+        socketConfig.setTcpKeepAlive(configuration.getBoolean(ReactUtils.REACT_SERVER_TCP_KEEP_ALIVE_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_TCP_KEEP_ALIVE));
+        socketConfig.setAcceptBackLog(configuration.getInt(ReactUtils.REACT_SERVER_ACCEPT_BACKLOG_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_ACCEPT_BACKLOG));
         socketioConfiguration.setSocketConfig(socketConfig);
+        if (configuration.containsKey(ReactUtils.REACT_SERVER_STORE_FACTORY_KEY)) {
+            socketioConfiguration.setStoreFactory(createStoreFactory(configuration));
+        }
+
+        socketioConfiguration.setUseLinuxNativeEpoll(
+                configuration.getBoolean(ReactUtils.REACT_SERVER_NATIVE_EPOLL_KEY,
+                        ReactUtils.DEFAULT_REACT_SERVER_NATIVE_EPOLL) && isNativeEpollAvailable());
+        socketioConfiguration.setBossThreads(configuration.getInt(ReactUtils.REACT_SERVER_BOSS_THREADS_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_BOSS_THREADS));
+        socketioConfiguration.setWorkerThreads(configuration.getInt(ReactUtils.REACT_SERVER_WORKER_THREADS_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_WORKER_THREADS));
+        socketioConfiguration.setMaxFramePayloadLength(
+                configuration.getInt(ReactUtils.REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH_KEY,
+                        ReactUtils.DEFAULT_REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH));
+        socketioConfiguration.setMaxHttpContentLength(
+                configuration.getInt(ReactUtils.REACT_SERVER_MAX_HTTP_CONTENT_LENGTH_KEY,
+                        ReactUtils.DEFAULT_REACT_SERVER_MAX_HTTP_CONTENT_LENGTH));
+        this.conversationFanout = configuration.getBoolean(ReactUtils.REACT_CONVERSATION_FANOUT_KEY,
+                ReactUtils.DEFAULT_REACT_CONVERSATION_FANOUT);
+        this.binaryEncoding = configuration.getBoolean(ReactUtils.REACT_BINARY_ENCODING_KEY,
+                ReactUtils.DEFAULT_REACT_BINARY_ENCODING);
+        if (binaryEncoding) {
+            /*
+             * The module only changes the serialization of the CborPayload arguments, the payloads of the clients
+             * using JSON are serialized as with the default JsonSupport.
+             */
+            socketioConfiguration.setJsonSupport(new JacksonJsonSupport(new PayloadCodecModule()));
+        }
+        /*
+         * The water marks and the allocator are not exposed by the socket.io configuration, they are set by the
+         * ReactSocketIOServer when binding the server.
+         */
+        WriteBufferWaterMark writeBufferWaterMark = new WriteBufferWaterMark(
+                configuration.getInt(ReactUtils.REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK_KEY,
+                        ReactUtils.DEFAULT_REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK),
+                configuration.getInt(ReactUtils.REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY,
+                        ReactUtils.DEFAULT_REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK));
+        boolean pooledAllocator = configuration.getBoolean(ReactUtils.REACT_SERVER_POOLED_ALLOCATOR_KEY,
+                ReactUtils.DEFAULT_REACT_SERVER_POOLED_ALLOCATOR);
+        ByteBufAllocator allocator = pooledAllocator ? PooledByteBufAllocator.DEFAULT :
+                UnpooledByteBufAllocator.DEFAULT;
+
+        AtomicInteger schedulerThreadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(
+                configuration.getInt(ReactUtils.REACT_SCHEDULER_THREADS_KEY,
+                        ReactUtils.DEFAULT_REACT_SCHEDULER_THREADS), runnable -> {
+            Thread thread = new Thread(runnable, "xatkit-react-scheduler-" + schedulerThreadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        /*
+         * Remove cancelled timers from the queue to avoid retaining them until their deadline.
+         */
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduledExecutor;
+        this.conversationRegistry = new SocketConversationRegistry(
+                configuration.getLong(ReactUtils.REACT_CONVERSATION_TTL_KEY,
+                        ReactUtils.DEFAULT_REACT_CONVERSATION_TTL),
+                configuration.getLong(ReactUtils.REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD_KEY,
+                        ReactUtils.DEFAULT_REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD),
+                this::isSocketConnected);
+        long evictionInterval = configuration.getLong(ReactUtils.REACT_CONVERSATION_EVICTION_INTERVAL_KEY,
+                ReactUtils.DEFAULT_REACT_CONVERSATION_EVICTION_INTERVAL);
+        this.scheduler.scheduleWithFixedDelay(this.conversationRegistry::evictStaleEntries, evictionInterval,
+                evictionInterval, TimeUnit.MILLISECONDS);
+        this.nodeId = configuration.getString(ReactUtils.REACT_NODE_ID_KEY, UUID.randomUUID().toString());
+        this.conversationStore = new MeteredConversationStore(createConversationStore(configuration), nodeId);
+        long conversationTtl = configuration.getLong(ReactUtils.REACT_CONVERSATION_TTL_KEY,
+                ReactUtils.DEFAULT_REACT_CONVERSATION_TTL);
+        this.scheduler.scheduleWithFixedDelay(() -> this.conversationStore.evictIdleConversations(conversationTtl),
+                evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+        this.initHandshake = new InitHandshake(this.conversationRegistry, this.xatkitBot::getOrCreateContext,
+                this::createStateContextForConversation,
+                conversationId -> nonNull(this.conversationStore.getConversation(conversationId)));
+        /*
+         * Registered first: the client must receive the confirmation before the events sent by the providers'
+         * listeners.
+         */
+        this.initHandshake.addListener(this::confirmInit);
+
+        int offlineBufferMaxEvents = configuration.getInt(ReactUtils.REACT_OFFLINE_BUFFER_MAX_EVENTS_KEY,
+                ReactUtils.DEFAULT_REACT_OFFLINE_BUFFER_MAX_EVENTS);
+        long offlineBufferMaxAge = configuration.getLong(ReactUtils.REACT_OFFLINE_BUFFER_MAX_AGE_KEY,
+                ReactUtils.DEFAULT_REACT_OFFLINE_BUFFER_MAX_AGE);
+        long offlineBufferRetention = configuration.getLong(ReactUtils.REACT_OFFLINE_BUFFER_RETENTION_KEY,
+                ReactUtils.DEFAULT_REACT_OFFLINE_BUFFER_RETENTION);
+        if (configuration.getBoolean(ReactUtils.REACT_OFFLINE_BUFFER_KEY, ReactUtils.DEFAULT_REACT_OFFLINE_BUFFER)) {
+            this.offlineEventBuffer = new OfflineEventBuffer(offlineBufferMaxEvents, offlineBufferMaxAge,
+                    offlineBufferRetention);
+            this.scheduler.scheduleWithFixedDelay(this::maintainOfflineEventBuffer, evictionInterval,
+                    evictionInterval, TimeUnit.MILLISECONDS);
+        }
+
+        if (configuration.getBoolean(ReactUtils.REACT_PERSISTENCE_KEY, ReactUtils.DEFAULT_REACT_PERSISTENCE)) {
+            this.routingJournal = new RoutingJournal(
+                    Paths.get(configuration.getString(ReactUtils.REACT_PERSISTENCE_DIRECTORY_KEY,
+                            ReactUtils.DEFAULT_REACT_PERSISTENCE_DIRECTORY)), offlineBufferMaxEvents);
+            this.restoreRoutingJournal();
+            long syncInterval = configuration.getLong(ReactUtils.REACT_PERSISTENCE_SYNC_INTERVAL_KEY,
+                    ReactUtils.DEFAULT_REACT_PERSISTENCE_SYNC_INTERVAL);
+            this.scheduler.scheduleWithFixedDelay(this.routingJournal::sync, syncInterval, syncInterval,
+                    TimeUnit.MILLISECONDS);
+            long compactionInterval = configuration.getLong(ReactUtils.REACT_PERSISTENCE_COMPACTION_INTERVAL_KEY,
+                    ReactUtils.DEFAULT_REACT_PERSISTENCE_COMPACTION_INTERVAL);
+            this.scheduler.scheduleWithFixedDelay(() -> this.routingJournal.compact(conversationTtl,
+                    offlineBufferMaxAge), compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        }
+
+        this.inboundDispatcher = new InboundDispatcher(
+                configuration.getInt(ReactUtils.REACT_DISPATCH_THREADS_KEY,
+                        ReactUtils.DEFAULT_REACT_DISPATCH_THREADS),
+                configuration.getInt(ReactUtils.REACT_DISPATCH_QUEUE_CAPACITY_KEY,
+                        ReactUtils.DEFAULT_REACT_DISPATCH_QUEUE_CAPACITY),
+                configuration.getBoolean(ReactUtils.REACT_DISPATCH_VIRTUAL_THREADS_KEY,
+                        ReactUtils.DEFAULT_REACT_DISPATCH_VIRTUAL_THREADS));
+
+        if (configuration.getBoolean(ReactUtils.REACT_BATCH_MESSAGES_KEY, ReactUtils.DEFAULT_REACT_BATCH_MESSAGES)) {
+            this.botMessageBatcher = new BotMessageBatcher(this.scheduler,
+                    configuration.getLong(ReactUtils.REACT_BATCH_MESSAGES_WINDOW_KEY,
+                            ReactUtils.DEFAULT_REACT_BATCH_MESSAGES_WINDOW), this::emitBotMessages);
+        }
+
+        this.streamChunkSize = configuration.getInt(ReactUtils.REACT_STREAM_CHUNK_SIZE_KEY,
+                ReactUtils.DEFAULT_REACT_STREAM_CHUNK_SIZE);
+        this.streamChunkDelay = configuration.getLong(ReactUtils.REACT_STREAM_CHUNK_DELAY_KEY,
+                ReactUtils.DEFAULT_REACT_STREAM_CHUNK_DELAY);
+
+        this.outboundFlowControl = new OutboundFlowControl(
+                configuration.getInt(ReactUtils.REACT_BACKPRESSURE_MAX_PENDING_EVENTS_KEY,
+                        ReactUtils.DEFAULT_REACT_BACKPRESSURE_MAX_PENDING_EVENTS),
+                getEnumProperty(configuration, ReactUtils.REACT_BACKPRESSURE_POLICY_KEY,
+                        ReactUtils.DEFAULT_REACT_BACKPRESSURE_POLICY, OutboundFlowControl.SlowConsumerPolicy.class));
+
+        if (configuration.getBoolean(ReactUtils.REACT_ROUTING_KEY, ReactUtils.DEFAULT_REACT_ROUTING)) {
+            this.outboundRouter = new OutboundRouter(nodeId, createRoutingTransport(configuration,
+                    socketioConfiguration.getStoreFactory().pubSubStore()), this.scheduler,
+                    configuration.getLong(ReactUtils.REACT_ROUTING_BATCH_WINDOW_KEY,
+                            ReactUtils.DEFAULT_REACT_ROUTING_BATCH_WINDOW),
+                    configuration.getInt(ReactUtils.REACT_ROUTING_MAX_BATCH_SIZE_KEY,
+                            ReactUtils.DEFAULT_REACT_ROUTING_MAX_BATCH_SIZE), this::deliverRoutedEvent);
+            this.outboundRouter.start();
+        }
 
-        socketIOServer = new SocketIOServer(socketioConfiguration);
-        socketIOServer.addConnectListener(socketIOClient -> Log.debug("Client connected"));
-        socketIOServer.addDisconnectListener(socketIOClient -> Log.debug("Client disconnected"));
+        this.inboundRateLimiter = createInboundRateLimiter(configuration);
+        if (nonNull(inboundRateLimiter)) {
+            this.scheduler.scheduleWithFixedDelay(this.inboundRateLimiter::evictIdleBuckets, evictionInterval,
+                    evictionInterval, TimeUnit.MILLISECONDS);
+        }
+
+        this.messageTracer = new MessageTracer(
+                configuration.getDouble(ReactUtils.REACT_TRACING_SAMPLE_RATE_KEY,
+                        ReactUtils.DEFAULT_REACT_TRACING_SAMPLE_RATE),
+                configuration.getInt(ReactUtils.REACT_TRACING_BUFFER_SIZE_KEY,
+                        ReactUtils.DEFAULT_REACT_TRACING_BUFFER_SIZE));
+
+        /*
+         * The written packets are only observed when tracing is enabled, to avoid an additional handler in the
+         * write path of every connection.
+         */
+        socketIOServer = new ReactSocketIOServer(socketioConfiguration, writeBufferWaterMark, allocator,
+                (channel, writable) -> this.outboundFlowControl.setWritable(channel, writable,
+                        this.clientCache.get(channel)),
+                this.messageTracer.isEnabled() ? this.messageTracer::onWrite : null);
+        socketIOServer.addConnectListener(socketIOClient -> {
+            Log.debug("Client connected");
+            this.connectionCount.increment();
+            this.clientCache.put(socketIOClient);
+        });
+        socketIOServer.addDisconnectListener(socketIOClient -> {
+            Log.debug("Client disconnected");
+            this.disconnectionCount.increment();
+            this.clientCache.remove(socketIOClient);
+            this.outboundFlowControl.remove(socketIOClient.getSessionId().toString());
+            this.messageTracer.removeChannel(socketIOClient.getSessionId().toString());
+            if (nonNull(inboundRateLimiter)) {
+                this.inboundRateLimiter.removeSocket(socketIOClient.getSessionId().toString());
+            }
+            if (nonNull(offlineEventBuffer)) {
+                String conversationId =
+                        this.conversationRegistry.getConversationId(socketIOClient.getSessionId().toString());
+                if (nonNull(conversationId)) {
+                    this.offlineEventBuffer.detach(socketIOClient.getSessionId().toString(), conversationId);
+                }
+            }
+            this.conversationRegistry.detach(socketIOClient.getSessionId().toString());
+            this.conversationStore.unbind(socketIOClient.getSessionId().toString());
+        });
+        socketIOServer.addEventListener(SocketEventTypes.INIT.label, Init.class,
+                (socketIOClient, initObject, ackRequest) -> {
+                    long start = System.nanoTime();
+                    this.setClientCapabilities(socketIOClient, initObject);
+                    this.joinPageRooms(socketIOClient, initObject);
+                    this.initHandshake.handle(socketIOClient.getSessionId().toString(), socketIOClient, initObject);
+                    this.recordSocketEvent(SocketEventTypes.INIT, start);
+                });
         this.socketIOServer.startAsync();
 
+        this.registerMetrics();
         ReactRestEndpointsManager restEndpointsManager =
-                new ReactRestEndpointsManager(this.xatkitBot.getXatkitServer(), configuration);
+                new ReactRestEndpointsManager(this.xatkitBot.getXatkitServer(), configuration, this.metricsRegistry,
+                        this.messageTracer);
         restEndpointsManager.registerRestEndpoints();
     }
 
+    /**
+     * Registers the statistics of the platform's components in the {@link #metricsRegistry}.
+     * <p>
+     * The registered metrics read the counters already maintained by the components when they are scraped, and do
+     * not add any cost to the components' hot paths.
+     */
+    private void registerMetrics() {
+        metricsRegistry.gauge("xatkit_react_connected_sockets", "The number of sockets connected to the platform",
+                clientCache::size);
+        metricsRegistry.gauge("xatkit_react_conversations", "The number of conversations with a connected socket",
+                conversationRegistry::getConversationCount);
+        metricsRegistry.gauge("xatkit_react_dispatch_queue_depth", "The number of inbound events waiting to be "
+                + "dispatched", inboundDispatcher::getQueueDepth);
+        metricsRegistry.histogram("xatkit_react_dispatch_wait_seconds", "The time spent by the inbound events in "
+                + "the dispatch queue", inboundDispatcher.getWaitTime());
+        metricsRegistry.histogram("xatkit_react_conversation_store_lookup_seconds", "The time spent looking up the "
+                + "conversations in the conversation store", conversationStore.getLookupTime());
+        metricsRegistry.counter("xatkit_react_dispatch_shed_total", "The number of inbound events dropped because "
+                + "the dispatch queue was full", inboundDispatcher::getShedCount);
+        metricsRegistry.gauge("xatkit_react_outbound_slow_consumers", "The number of sockets whose connection is "
+                + "not writable", outboundFlowControl::getSlowConsumerCount);
+        metricsRegistry.gauge("xatkit_react_outbound_pending_events", "The number of events waiting for their "
+                + "socket to be writable", outboundFlowControl::getPendingEventCount);
+        metricsRegistry.counter("xatkit_react_outbound_dropped_events_total", "The number of events dropped by the "
+                + "slow consumer policy", outboundFlowControl::getDroppedCount);
+        metricsRegistry.counter("xatkit_react_send_failures_total", "The number of events that could not be sent to "
+                + "their socket", outboundFlowControl::getDroppedCount, "reason", "slow_consumer");
+        if (nonNull(offlineEventBuffer)) {
+            metricsRegistry.gauge("xatkit_react_offline_pending_events", "The number of events buffered for "
+                    + "disconnected conversations", offlineEventBuffer::getPendingEventCount);
+            metricsRegistry.counter("xatkit_react_offline_replayed_events_total", "The number of buffered events "
+                    + "replayed to reconnected conversations", offlineEventBuffer::getReplayedCount);
+            metricsRegistry.counter("xatkit_react_offline_dropped_events_total", "The number of buffered events "
+                    + "dropped because their conversation's buffer was full", offlineEventBuffer::getDroppedCount);
+            metricsRegistry.counter("xatkit_react_offline_expired_events_total", "The number of buffered events "
+                    + "discarded because they exceeded the maximum age", offlineEventBuffer::getExpiredCount);
+            metricsRegistry.counter("xatkit_react_offline_discarded_events_total", "The number of events sent to "
+                    + "disconnected sockets that could not be associated to a conversation",
+                    offlineEventBuffer::getDiscardedCount);
+        }
+        if (nonNull(inboundRateLimiter)) {
+            metricsRegistry.counter("xatkit_react_rate_limit_inputs_total", "The number of user inputs submitted "
+                    + "to the rate limiter", inboundRateLimiter::getAcceptedCount, "outcome", "accepted");
+            metricsRegistry.counter("xatkit_react_rate_limit_inputs_total", "The number of user inputs submitted "
+                    + "to the rate limiter", inboundRateLimiter::getDeferredCount, "outcome", "deferred");
+            metricsRegistry.counter("xatkit_react_rate_limit_inputs_total", "The number of user inputs submitted "
+                    + "to the rate limiter", inboundRateLimiter::getDroppedCount, "outcome", "dropped");
+        }
+        if (nonNull(outboundRouter)) {
+            metricsRegistry.counter("xatkit_react_routed_events_total", "The number of events routed to other "
+                    + "nodes", outboundRouter::getRoutedEventCount);
+            metricsRegistry.histogram("xatkit_react_routing_latency_seconds", "The time between the routing of the "
+                    + "events received from other nodes and their delivery", outboundRouter.getRoutingLatency());
+        }
+    }
+
     /**
      * Formats the provided {@code list} into a markdown enumeration.
      * <p>
@@ -279,6 +860,58 @@ public class ReactPlatform extends ChatPlatform {
         RuntimeActionResult result = action.call();
     }
 
+    /**
+     * Posts a message produced incrementally in the current channel.
+     * <p>
+     * The fragments pulled from the provided {@link Iterator} (e.g. the tokens of an answer generated by a slow
+     * backend) are sent to the client as they are produced, and rendered before the message is complete by the
+     * clients supporting streamed messages. This method blocks the calling thread until the iterator is exhausted,
+     * use {@link #replyStream(StateContext)} to push the fragments from asynchronous callbacks.
+     *
+     * @param context   the {@link StateContext} of the reply
+     * @param fragments the fragments of the message to post
+     * @see ReplyStream
+     * @see MessageStream
+     */
+    public void replyStream(@NonNull StateContext context, @NonNull Iterator<? extends CharSequence> fragments) {
+        ReplyStream action = new ReplyStream(this, context, fragments);
+        RuntimeActionResult result = action.call();
+    }
+
+    /**
+     * Opens a {@link MessageStream} posting a message produced incrementally in the current channel.
+     * <p>
+     * The fragments appended to the returned stream are sent to the client as they are produced. The stream must be
+     * closed once the message is complete, it can be filled and closed from any thread (e.g. the callbacks of an
+     * asynchronous backend).
+     *
+     * @param context the {@link StateContext} of the reply
+     * @return the opened {@link MessageStream}
+     * @see #replyStream(StateContext, Iterator)
+     */
+    public MessageStream replyStream(@NonNull StateContext context) {
+        return this.openMessageStream(Reply.getChannel(context));
+    }
+
+    /**
+     * Opens a {@link MessageStream} posting a message produced incrementally in the given {@code channel}.
+     * <p>
+     * The message is sent as {@link SocketEventTypes#BOT_MESSAGE_CHUNK} events if the client supports streamed
+     * messages, otherwise it is sent as a single {@link SocketEventTypes#BOT_MESSAGE} event when the stream is
+     * closed.
+     *
+     * @param channel the identifier of the socket to post the message to
+     * @return the opened {@link MessageStream}
+     * @see ReactUtils#REACT_STREAM_CHUNK_SIZE_KEY
+     * @see ReactUtils#REACT_STREAM_CHUNK_DELAY_KEY
+     */
+    public MessageStream openMessageStream(@NonNull String channel) {
+        SocketIOClient client = this.clientCache.get(channel);
+        boolean streaming = nonNull(client) && Boolean.TRUE.equals(client.get(STREAM_MESSAGES_CLIENT_PROPERTY));
+        return new MessageStream(this, channel, "xatkit", streaming, this.scheduler, this.streamChunkSize,
+                this.streamChunkDelay);
+    }
+
     public void replyAudio(@NonNull StateContext context, @NonNull String src) {
         ReplyAudio action = new ReplyAudio(this, context, src);
         RuntimeActionResult result = action.call();
@@ -298,83 +931,1226 @@ public class ReactPlatform extends ChatPlatform {
      * Tells the client widget to wait for a given {@code delay}.
      * <p>
      * The client widget can use this information to display loading dots or notify the user about the delay.
+     * <p>
+     * This method blocks the calling thread until the delay is over, ensuring that the actions following the wait are
+     * delayed: the execution engine runs the state bodies synchronously. Use {@link #waitAsync(StateContext, int)}
+     * to chain the following actions to the end of the delay without blocking the calling thread.
      *
      * @param context the current {@link StateContext}
      * @param delay   the delay to wait for
+     * @see #waitAsync(StateContext, int)
      */
     public void wait(@NonNull StateContext context, int delay) {
+        try {
+            this.waitAsync(context, delay).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.error(e, "The thread has been interrupted while waiting {0}ms", delay);
+        } catch (ExecutionException e) {
+            Log.error(e.getCause(), "An error occurred when waiting {0}ms, see attached exception", delay);
+        }
+    }
+
+    /**
+     * Tells the client widget to wait for a given {@code delay} without blocking the calling thread.
+     * <p>
+     * The returned {@link CompletableFuture} is completed by the platform's shared scheduler once the delay is over.
+     * Dependent actions can be chained to the returned future (e.g. {@code platform.waitAsync(context, 1000)
+     * .thenRun(() -> platform.reply(context, "Hello"))}), allowing a single scheduler thread to serve thousands of
+     * concurrent delays.
+     *
+     * @param context the current {@link StateContext}
+     * @param delay   the delay to wait for
+     * @return a {@link CompletableFuture} completed when the delay is over, or completed exceptionally if the delay
+     * cannot be scheduled (e.g. if the platform is not started)
+     * @see #wait(StateContext, int)
+     * @see Wait
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Void> waitAsync(@NonNull StateContext context, int delay) {
         Wait action = new Wait(this, context, delay);
         RuntimeActionResult result = action.call();
+        if (result.isError()) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(result.getThrowable());
+            return failed;
+        }
+        return (CompletableFuture<Void>) result.getResult();
     }
 
     /**
-     * Returns the socket server used to receive and send messages.
+     * Records the capabilities advertised by the provided {@code client} in its {@code init} event.
+     * <p>
+     * This method is called by the platform when receiving an {@link Init} event, and allows to tune the events
+     * sent to the client (e.g. batched or streamed bot messages, binary payloads).
      *
-     * @return the socket server used to receive and send messages
+     * @param client the client that sent the {@code init} event
+     * @param init   the {@link Init} event sent by the client
      */
-    public SocketIOServer getSocketIOServer() {
-        return this.socketIOServer;
+    public void setClientCapabilities(@NonNull SocketIOClient client, @NonNull Init init) {
+        client.set(BATCH_MESSAGES_CLIENT_PROPERTY, init.isBatchMessages());
+        client.set(STREAM_MESSAGES_CLIENT_PROPERTY, init.isStreamMessages());
+        client.set(PAYLOAD_ENCODING_CLIENT_PROPERTY, binaryEncoding ? PayloadEncoding.fromLabel(init.getEncoding()) :
+                PayloadEncoding.JSON);
     }
 
     /**
-     * Stops the underlying socket server.
+     * Adds the provided {@code client} to the rooms of the origin and hostname of its page.
+     * <p>
+     * The values that are not set in the {@link Init} event are ignored.
+     *
+     * @param client the client that sent the {@code init} event
+     * @param init   the {@link Init} event sent by the client
+     * @see SocketRooms#origin(String)
+     * @see SocketRooms#hostname(String)
      */
-    @Override
-    public void shutdown() {
-        if (nonNull(socketIOServer)) {
-            Log.info("Stopping SocketIO server");
-            this.socketIOServer.stop();
-            this.socketIOServer = null;
+    private void joinPageRooms(SocketIOClient client, Init init) {
+        if (nonNull(init.getOrigin())) {
+            client.joinRoom(SocketRooms.origin(init.getOrigin()));
+        }
+        if (nonNull(init.getHostname())) {
+            client.joinRoom(SocketRooms.hostname(init.getHostname()));
         }
     }
 
     /**
-     * Retrieves the {@link StateContext} associated to the provided {@code socketId}.
+     * Registers the provided {@code listener} on the platform's {@link InitHandshake}.
      * <p>
-     * This method looks for an existing <i>conversation ID</i> associated to the provided {@code socketId} and
-     * returns the corresponding {@link StateContext} if it exists, or {@code null} if it cannot be found.
+     * The listener is notified once the socket that sent an {@link Init} event has been bound to its conversation.
+     * Providers should use this method instead of listening to the {@link SocketEventTypes#INIT} event, which
+     * would repeat the lookup and creation of the conversation.
      *
-     * @param socketId the socketId to create a {@link StateContext} from
-     * @return the retrieved {@link StateContext}, or {@code null} if it cannot be found
-     * @see #createStateContextForConversation(String, String) to create a {@link StateContext} for a given {@code
-     * sessionId} and {@code conversationId}.
+     * @param listener the listener to notify when a client completes its handshake
      */
-    public @Nullable
-    StateContext getStateContextForSocketId(@NonNull String socketId) {
-        String conversationId = this.socketToConversationMap.get(socketId);
-        if (isNull(conversationId)) {
-            /*
-             * The conversationId can be null if the event/intent provider ask for the session before it has been
-             * associated to a conversation. In this case the provider should include some initialization code
-             * relying on #createSessionForConversation to create a new XatkitSession.
-             */
-            return null;
+    public void addInitListener(@NonNull InitHandshake.Listener listener) {
+        this.initHandshake.addListener(listener);
+    }
+
+    /**
+     * Sends the {@link SocketEventTypes#INIT_CONFIRM} event to a client that has been bound to its conversation,
+     * and replays the events buffered for this conversation.
+     * <p>
+     * Clients sending several {@link Init} events on the same socket do not receive another confirmation.
+     *
+     * @see InitHandshake.Listener#onInit(String, SocketIOClient, Init, StateContext, boolean, boolean)
+     */
+    private void confirmInit(String socketId, SocketIOClient client, Init init, StateContext context,
+                             boolean created, boolean newConversation) {
+        if (created) {
+            client.sendEvent(SocketEventTypes.INIT_CONFIRM.label, new InitConfirm(context.getContextId(),
+                    getPayloadEncoding(client).label));
+            this.countOutboundEvent(SocketEventTypes.INIT_CONFIRM.label);
+            this.replayPendingEvents(socketId, context.getContextId());
         }
-        return this.xatkitBot.getOrCreateContext(conversationId);
     }
 
     /**
-     * Creates a {@link StateContext} for the provided {@code conversationId} hosted by the socket {@code socketId}.
+     * Sends the provided {@code message} to the given {@code channel}.
      * <p>
-     * Conversations typically live longer than socket connections (e.g. when the user reloads the page where the bot
-     * is hosted the socket changes but the conversation is the same), this implies that the {@link ReactPlatform}
-     * can only create sessions for a given {@code socketId}/{@code conversationId} pair, and will update the mapping
-     * when new socket connections are opened and referencing an existing conversation.
+     * If message batching is enabled and supported by the client the message is added to the channel's pending
+     * batch, otherwise it is sent as a single {@link SocketEventTypes#BOT_MESSAGE} event.
      * <p>
-     * <b>Note</b>: the provided {@code conversationId} can be {@code null} (i.e. a totally new conversation is
-     * created). In this case the method will create a new {@code conversationId} and affect a random identifier to
-     * it.
+     * If the conversation of the channel is hosted by other sockets (e.g. in several tabs) the message is encoded
+     * once and sent to all of them, without batching (see {@link ReactUtils#REACT_CONVERSATION_FANOUT_KEY}).
+     * Messages sent to a conversation without connected socket are buffered until the conversation is reconnected
+     * (see {@link #replayPendingEvents(String, String)}), or dropped if offline buffering is disabled.
      *
-     * @param socketId       the identifier of the socket connection hosting the conversation
-     * @param conversationId the identifier of the conversation to create a session for
-     * @return the created {@link StateContext}
+     * @param channel the identifier of the socket to send the message to
+     * @param message the message to send
+     * @return {@code true} if the message has been sent (or added to a batch or to the offline buffer),
+     * {@code false} if it has been dropped
+     * @see ReactUtils#REACT_BATCH_MESSAGES_KEY
+     * @see ReactUtils#REACT_OFFLINE_BUFFER_KEY
      */
-    public @NonNull StateContext createStateContextForConversation(@NonNull String socketId,
-                                                                   @Nullable String conversationId) {
-        if (isNull(conversationId)) {
-            conversationId = UUID.randomUUID().toString();
+    public boolean sendBotMessage(@NonNull String channel, @NonNull SendBotMessage message) {
+        Collection<SocketIOClient> conversationClients = this.getConversationClients(channel);
+        if (!conversationClients.isEmpty()) {
+            return this.fanOut(conversationClients, SocketEventTypes.BOT_MESSAGE.label, message) > 0
+                    || this.sendOfflineEvent(channel, SocketEventTypes.BOT_MESSAGE.label, message);
+        }
+        SocketIOClient client = this.getClient(channel);
+        if (isNull(client)) {
+            return this.sendOfflineEvent(channel, SocketEventTypes.BOT_MESSAGE.label, message);
+        }
+        if (nonNull(botMessageBatcher) && Boolean.TRUE.equals(client.get(BATCH_MESSAGES_CLIENT_PROPERTY))) {
+            this.botMessageBatcher.add(channel, message);
+        } else {
+            this.send(channel, client, SocketEventTypes.BOT_MESSAGE.label, message);
+        }
+        return true;
+    }
+
+    /**
+     * Sends the event {@code eventName} with the provided {@code data} to the given {@code channel}.
+     * <p>
+     * The pending batch of bot messages of the channel (if any) is sent before the event, preserving the order in
+     * which the bot produced them.
+     * <p>
+     * If the conversation of the channel is hosted by other sockets (e.g. in several tabs) the event is encoded once
+     * and sent to all of them (see {@link ReactUtils#REACT_CONVERSATION_FANOUT_KEY}). Events sent to a conversation
+     * without connected socket are buffered until the conversation is reconnected (see
+     * {@link #replayPendingEvents(String, String)}), or dropped if offline buffering is disabled.
+     *
+     * @param channel   the identifier of the socket to send the event to
+     * @param eventName the name of the event to send
+     * @param data      the data of the event
+     * @return {@code true} if the event has been sent (or added to the offline buffer), {@code false} if it has been
+     * dropped
+     * @see SocketEventTypes
+     * @see ReactUtils#REACT_OFFLINE_BUFFER_KEY
+     */
+    public boolean sendEvent(@NonNull String channel, @NonNull String eventName, Object... data) {
+        if (nonNull(botMessageBatcher)) {
+            this.botMessageBatcher.flush(channel);
+        }
+        Collection<SocketIOClient> conversationClients = this.getConversationClients(channel);
+        if (!conversationClients.isEmpty()) {
+            return this.fanOut(conversationClients, eventName, data) > 0
+                    || this.sendOfflineEvent(channel, eventName, data);
+        }
+        SocketIOClient client = this.getClient(channel);
+        if (isNull(client)) {
+            return this.sendOfflineEvent(channel, eventName, data);
+        }
+        this.send(channel, client, eventName, data);
+        return true;
+    }
+
+    /**
+     * Tags the socket of the provided {@code context} with the given {@code tag}.
+     *
+     * @param context the {@link StateContext} of the conversation to tag
+     * @param tag     the tag to set
+     * @return {@code true} if the socket has been tagged, {@code false} if it is disconnected
+     * @see #addTag(String, String)
+     */
+    public boolean addTag(@NonNull StateContext context, @NonNull String tag) {
+        return this.addTag(Reply.getChannel(context), tag);
+    }
+
+    /**
+     * Tags the socket {@code channel} with the provided {@code tag}.
+     * <p>
+     * Tagged sockets join the room {@link SocketRooms#tag(String)}, allowing to broadcast events to all the sockets
+     * with the same tag (see {@link #broadcast(String, String, Object...)}). Tags are bound to the socket: they are
+     * removed when it disconnects, and must be set again when the conversation is resumed by another socket.
+     *
+     * @param channel the identifier of the socket to tag
+     * @param tag     the tag to set
+     * @return {@code true} if the socket has been tagged, {@code false} if it is disconnected
+     */
+    public boolean addTag(@NonNull String channel, @NonNull String tag) {
+        SocketIOClient client = this.getClient(channel);
+        if (isNull(client)) {
+            return false;
+        }
+        client.joinRoom(SocketRooms.tag(tag));
+        return true;
+    }
+
+    /**
+     * Removes the provided {@code tag} from the socket of the given {@code context}.
+     *
+     * @param context the {@link StateContext} of the conversation to untag
+     * @param tag     the tag to remove
+     * @return {@code true} if the tag has been removed, {@code false} if the socket is disconnected
+     * @see #removeTag(String, String)
+     */
+    public boolean removeTag(@NonNull StateContext context, @NonNull String tag) {
+        return this.removeTag(Reply.getChannel(context), tag);
+    }
+
+    /**
+     * Removes the provided {@code tag} from the socket {@code channel}.
+     *
+     * @param channel the identifier of the socket to untag
+     * @param tag     the tag to remove
+     * @return {@code true} if the tag has been removed, {@code false} if the socket is disconnected
+     * @see #addTag(String, String)
+     */
+    public boolean removeTag(@NonNull String channel, @NonNull String tag) {
+        SocketIOClient client = this.getClient(channel);
+        if (isNull(client)) {
+            return false;
+        }
+        client.leaveRoom(SocketRooms.tag(tag));
+        return true;
+    }
+
+    /**
+     * Broadcasts the provided {@code message} to the sockets of the given {@code room}.
+     *
+     * @param room    the name of the room to broadcast the message to (see {@link SocketRooms})
+     * @param message the message to broadcast
+     * @return the number of sockets the message has been sent to
+     * @see #broadcast(String, String, Object...)
+     */
+    public int broadcastMessage(@NonNull String room, @NonNull String message) {
+        return this.broadcast(room, SocketEventTypes.BOT_MESSAGE.label, new SendBotMessage("xatkit", message));
+    }
+
+    /**
+     * Broadcasts the event {@code eventName} with the provided {@code data} to the sockets of the given
+     * {@code room}.
+     * <p>
+     * The data of the event is encoded once (see {@link EncodedPayload}), and the encoded bytes are written to each
+     * member of the room through the platform's {@link OutboundFlowControl}. The pending batch of bot messages of
+     * each member is sent before the event. Broadcast events are not buffered for the disconnected sockets, and are
+     * only sent to the members of the room connected to this node.
+     * <p>
+     * The time spent sending the event to the members of the room is recorded in the platform's metrics.
+     *
+     * @param room      the name of the room to broadcast the event to (see {@link SocketRooms})
+     * @param eventName the name of the event to broadcast
+     * @param data      the data of the event
+     * @return the number of sockets the event has been sent to
+     * @see SocketRooms
+     */
+    public int broadcast(@NonNull String room, @NonNull String eventName, Object... data) {
+        long start = System.nanoTime();
+        int recipients = this.fanOut(this.socketIOServer.getRoomOperations(room).getClients(), eventName, data);
+        this.broadcastDuration.recordSince(start);
+        this.broadcastRecipientCount.add(recipients);
+        Log.debug("Broadcast event {0} to {1} sockets of room {2} in {3} ms", eventName, recipients, room,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return recipients;
+    }
+
+    /**
+     * Sends the event {@code eventName} with the provided {@code data} to each of the given {@code clients}.
+     * <p>
+     * The data of the event is encoded once (see {@link EncodedPayload}), and the pending batch of bot messages of
+     * each client is sent before the event.
+     *
+     * @param clients   the clients to send the event to
+     * @param eventName the name of the event to send
+     * @param data      the data of the event
+     * @return the number of clients the event has been sent to
+     */
+    private int fanOut(Collection<SocketIOClient> clients, String eventName, Object... data) {
+        Object[] encodedData = new Object[data.length];
+        for (int i = 0; i < data.length; i++) {
+            encodedData[i] = data[i] instanceof EncodedPayload ? data[i] : new EncodedPayload(data[i]);
+        }
+        int recipients = 0;
+        for (SocketIOClient client : clients) {
+            String channel = client.getSessionId().toString();
+            if (nonNull(botMessageBatcher)) {
+                this.botMessageBatcher.flush(channel);
+            }
+            this.send(channel, client, eventName, encodedData);
+            recipients++;
+        }
+        return recipients;
+    }
+
+    /**
+     * Returns the clients the events sent to {@code channel} must be fanned out to.
+     * <p>
+     * The events sent to a channel are fanned out to the connected sockets of its conversation if the conversation
+     * is hosted by another socket than {@code channel}: if it is opened in several tabs, or if {@code channel} is
+     * disconnected and another tab is still connected. The sockets are resolved from the
+     * {@link SocketConversationRegistry}'s index, that is updated when the sockets are bound to their conversation
+     * and when they disconnect.
+     *
+     * @param channel the identifier of the socket the events are sent to
+     * @return the connected clients of the conversation, or an empty {@link Collection} if the events are only sent
+     * to {@code channel}
+     * @see ReactUtils#REACT_CONVERSATION_FANOUT_KEY
+     */
+    private Collection<SocketIOClient> getConversationClients(String channel) {
+        if (!conversationFanout) {
+            return Collections.emptyList();
+        }
+        String conversationId = this.conversationRegistry.getConversationId(channel);
+        if (isNull(conversationId)) {
+            return Collections.emptyList();
+        }
+        Set<String> socketIds = this.conversationRegistry.getSocketIds(conversationId);
+        if (socketIds.isEmpty() || (socketIds.size() == 1 && socketIds.contains(channel))) {
+            return Collections.emptyList();
+        }
+        List<SocketIOClient> clients = new ArrayList<>(socketIds.size());
+        for (String socketId : socketIds) {
+            SocketIOClient client = this.clientCache.get(socketId);
+            if (nonNull(client)) {
+                clients.add(client);
+            }
+        }
+        return clients;
+    }
+
+    /**
+     * Sends the event {@code eventName} with the provided {@code data} to the given {@code client} through the
+     * platform's {@link OutboundFlowControl}.
+     * <p>
+     * The arguments of the event are wrapped in {@link CborPayload}s if the client uses the
+     * {@link PayloadEncoding#CBOR} encoding.
+     *
+     * @param channel   the identifier of the client's socket
+     * @param client    the client to send the event to
+     * @param eventName the name of the event to send
+     * @param data      the data of the event
+     */
+    private void send(String channel, SocketIOClient client, String eventName, Object... data) {
+        if (data.length > 0 && getPayloadEncoding(client) == PayloadEncoding.CBOR) {
+            Object[] encodedData = new Object[data.length];
+            for (int i = 0; i < data.length; i++) {
+                encodedData[i] = data[i] instanceof CborPayload ? data[i] : new CborPayload(data[i]);
+            }
+            data = encodedData;
+        }
+        this.outboundFlowControl.send(channel, client, eventName, data);
+        this.countOutboundEvent(eventName);
+    }
+
+    /**
+     * Counts an event {@code eventName} sent to a socket connected to the platform.
+     * <p>
+     * Events dropped by the slow consumer policy of the {@link OutboundFlowControl} are counted as send failures.
+     *
+     * @param eventName the name of the sent event
+     */
+    private void countOutboundEvent(String eventName) {
+        Counter counter = outboundEventCounts.get(eventName);
+        if (isNull(counter)) {
+            counter = outboundEventCounts.computeIfAbsent(eventName, e -> metricsRegistry.counter(
+                    "xatkit_react_outbound_events_total", "The number of events sent to the sockets connected to the "
+                            + "platform", "event", e));
+        }
+        counter.increment();
+    }
+
+    /**
+     * Returns the {@link PayloadEncoding} of the payloads sent to the provided {@code client}.
+     *
+     * @param client the client to retrieve the encoding of
+     * @return the encoding of the payloads sent to the client, {@link PayloadEncoding#JSON} if the client did not
+     * request another encoding
+     * @see ReactUtils#REACT_BINARY_ENCODING_KEY
+     */
+    public PayloadEncoding getPayloadEncoding(@NonNull SocketIOClient client) {
+        PayloadEncoding encoding = client.get(PAYLOAD_ENCODING_CLIENT_PROPERTY);
+        return isNull(encoding) ? PayloadEncoding.JSON : encoding;
+    }
+
+    /**
+     * Sends the event {@code eventName} targeting the socket {@code channel}, that is not connected to this node.
+     * <p>
+     * If routing is enabled and the channel's conversation is hosted by another node the event is routed to this
+     * node. Otherwise the event is sent to another connected socket of the channel's conversation if there is one,
+     * or added to the conversation's offline buffer if it is a message event (see {@link #OFFLINE_BUFFERED_EVENTS}).
+     * <p>
+     * The conversation of a disconnected socket is retrieved from the {@link OfflineEventBuffer} once the socket has
+     * been removed from the {@link SocketConversationRegistry}, until the end of the retention period (see
+     * {@link ReactUtils#REACT_OFFLINE_BUFFER_RETENTION_KEY}). Events that cannot be associated to a conversation are
+     * dropped and counted.
+     *
+     * @param channel   the identifier of the disconnected socket
+     * @param eventName the name of the event to send
+     * @param data      the data of the event
+     * @return {@code true} if the event has been sent, routed, or buffered, {@code false} if offline buffering is
+     * disabled, if the event is transient, or if the conversation of the {@code channel} cannot be found
+     */
+    private boolean sendOfflineEvent(String channel, String eventName, Object... data) {
+        String conversationId = this.conversationRegistry.getConversationId(channel);
+        if (isNull(conversationId) && nonNull(offlineEventBuffer)) {
+            conversationId = this.offlineEventBuffer.getConversationId(channel);
+        }
+        if (nonNull(outboundRouter) && this.routeEvent(channel, conversationId, eventName, data)) {
+            return true;
+        }
+        if (isNull(offlineEventBuffer)) {
+            this.disconnectedSendFailureCount.increment();
+            return false;
+        }
+        if (isNull(conversationId)) {
+            this.offlineEventBuffer.discard(channel, eventName);
+            this.disconnectedSendFailureCount.increment();
+            return false;
+        }
+        for (String socketId : this.conversationRegistry.getSocketIds(conversationId)) {
+            SocketIOClient client = this.clientCache.get(socketId);
+            if (nonNull(client)) {
+                this.send(socketId, client, eventName, data);
+                return true;
+            }
+        }
+        if (!OFFLINE_BUFFERED_EVENTS.contains(eventName)) {
+            Log.debug("Dropping the transient event {0} sent to the disconnected channel {1}", eventName, channel);
+            this.transientSendFailureCount.increment();
+            return false;
+        }
+        this.bufferOfflineEvent(conversationId, eventName, data);
+        return true;
+    }
+
+    /**
+     * Adds the event {@code eventName} to the offline buffer of the provided {@code conversationId}, and records it
+     * in the platform's {@link RoutingJournal} if persistence is enabled.
+     *
+     * @param conversationId the identifier of the conversation to buffer the event for
+     * @param eventName      the name of the event to buffer
+     * @param data           the data of the event
+     */
+    private void bufferOfflineEvent(String conversationId, String eventName, Object... data) {
+        this.offlineEventBuffer.add(conversationId, eventName, data);
+        if (nonNull(routingJournal)) {
+            this.routingJournal.recordEvent(conversationId, eventName, data);
+        }
+    }
+
+    /**
+     * Routes the event {@code eventName} targeting the socket {@code channel} to the node hosting its conversation.
+     * <p>
+     * The conversation of the {@code channel} and its hosting node are resolved from the platform's
+     * {@link ConversationStore}.
+     *
+     * @param channel        the identifier of the socket to send the event to
+     * @param conversationId the identifier of the channel's conversation, or {@code null} if the channel is not
+     *                       known by this node
+     * @param eventName      the name of the event to send
+     * @param data           the data of the event
+     * @return {@code true} if the event has been routed, {@code false} if the conversation cannot be found or is
+     * hosted by this node
+     */
+    private boolean routeEvent(String channel, @Nullable String conversationId, String eventName, Object... data) {
+        if (isNull(conversationId)) {
+            conversationId = this.conversationStore.getConversationId(channel);
+            if (isNull(conversationId)) {
+                return false;
+            }
+        }
+        ConversationRecord record = this.conversationStore.getConversation(conversationId);
+        if (isNull(record) || nodeId.equals(record.getNodeId())) {
+            return false;
+        }
+        this.outboundRouter.route(record.getNodeId(), channel, conversationId, eventName, data);
+        return true;
+    }
+
+    /**
+     * Delivers the provided {@code event} routed by another node to the local sockets.
+     * <p>
+     * The event is sent to its channel if it is connected to this node, otherwise to another connected socket of
+     * its conversation, or added to the conversation's offline buffer. Routed events are never routed again.
+     *
+     * @param event the event to deliver
+     */
+    private void deliverRoutedEvent(RoutedEvent event) {
+        SocketIOClient client = this.clientCache.get(event.getChannel());
+        if (nonNull(client)) {
+            this.send(event.getChannel(), client, event.getEventName(), event.getData());
+            return;
+        }
+        for (String socketId : this.conversationRegistry.getSocketIds(event.getConversationId())) {
+            client = this.clientCache.get(socketId);
+            if (nonNull(client)) {
+                this.send(socketId, client, event.getEventName(), event.getData());
+                return;
+            }
+        }
+        if (nonNull(offlineEventBuffer)) {
+            this.bufferOfflineEvent(event.getConversationId(), event.getEventName(), event.getData());
+        } else {
+            Log.debug("Dropping event {0} routed to channel {1}: the channel is disconnected",
+                    event.getEventName(), event.getChannel());
+        }
+    }
+
+    /**
+     * Sends the events buffered for the provided {@code conversationId} to the socket {@code socketId}.
+     * <p>
+     * This method is called by the platform once the socket has been bound to the conversation (i.e. after
+     * sending the {@link SocketEventTypes#INIT_CONFIRM} event), and replays the events produced while the
+     * conversation did not have any connected socket.
+     *
+     * @param socketId       the identifier of the socket that opened the conversation
+     * @param conversationId the identifier of the conversation to replay the events of
+     * @return the number of replayed events
+     */
+    public int replayPendingEvents(@NonNull String socketId, @NonNull String conversationId) {
+        if (isNull(offlineEventBuffer)) {
+            return 0;
+        }
+        int replayed = this.offlineEventBuffer.replay(conversationId, (eventName, data) -> this.sendEvent(socketId,
+                eventName, data));
+        if (nonNull(routingJournal)) {
+            this.routingJournal.clearEvents(conversationId);
+        }
+        return replayed;
+    }
+
+    /**
+     * Restores the conversations and the pending events persisted in the platform's {@link RoutingJournal}.
+     * <p>
+     * The restored conversations are recorded as hosted by this node in the platform's {@link ConversationStore},
+     * and their pending events are added to the offline buffer (if enabled) with their original timestamp. They
+     * are replayed when the clients reconnect to their conversation.
+     */
+    private void restoreRoutingJournal() {
+        this.routingJournal.forEachConversation((conversationId, lastAccess) ->
+                this.conversationStore.restore(new ConversationRecord(conversationId, nodeId, lastAccess)));
+        if (nonNull(offlineEventBuffer)) {
+            this.routingJournal.forEachPendingEvent(this.offlineEventBuffer::restore);
+        }
+    }
+
+    /**
+     * Discards the expired events of the offline buffer, and replays the events of the conversations that have
+     * been reconnected.
+     * <p>
+     * Events are usually replayed when the conversation is reconnected, but an event buffered concurrently with
+     * the reconnection can be missed by the replay. This method is called periodically to deliver such events.
+     */
+    private void maintainOfflineEventBuffer() {
+        this.offlineEventBuffer.evictExpiredEvents();
+        this.offlineEventBuffer.evictDetachedSockets();
+        for (String conversationId : this.offlineEventBuffer.getConversationIds()) {
+            for (String socketId : this.conversationRegistry.getSocketIds(conversationId)) {
+                if (this.clientCache.contains(socketId)) {
+                    this.replayPendingEvents(socketId, conversationId);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the client associated to the provided {@code channel}.
+     * <p>
+     * The client is retrieved from the platform's {@link SocketClientCache}. This method logs a debug message if
+     * the {@code channel} does not correspond to a connected socket.
+     *
+     * @param channel the identifier of the socket to retrieve the client of
+     * @return the client, or {@code null} if the socket is disconnected
+     */
+    public @Nullable SocketIOClient getClient(@NonNull String channel) {
+        SocketIOClient client = this.clientCache.get(channel);
+        if (isNull(client)) {
+            Log.debug("Cannot send an event to channel {0}: the client is disconnected", channel);
+        }
+        return client;
+    }
+
+    /**
+     * Emits the provided batch of {@code messages} to the given {@code channel}.
+     * <p>
+     * Batches containing a single message are sent as regular {@link SocketEventTypes#BOT_MESSAGE} events.
+     *
+     * @param channel  the identifier of the socket to send the messages to
+     * @param messages the messages to send
+     */
+    private void emitBotMessages(String channel, List<SendBotMessage> messages) {
+        SocketIOClient client = this.getClient(channel);
+        if (isNull(client)) {
+            for (SendBotMessage message : messages) {
+                this.sendOfflineEvent(channel, SocketEventTypes.BOT_MESSAGE.label, message);
+            }
+            return;
+        }
+        if (messages.size() == 1) {
+            this.send(channel, client, SocketEventTypes.BOT_MESSAGE.label, messages.get(0));
+        } else {
+            this.send(channel, client, SocketEventTypes.BOT_MESSAGES.label,
+                    new SendBotMessages(messages));
+        }
+    }
+
+    /**
+     * Returns the batcher combining the bot messages sent to a channel within a short window.
+     *
+     * @return the batcher, or {@code null} if message batching is disabled
+     */
+    public @Nullable BotMessageBatcher getBotMessageBatcher() {
+        return this.botMessageBatcher;
+    }
+
+    /**
+     * Returns the buffer holding the outbound events of conversations that do not have a connected socket.
+     *
+     * @return the buffer, or {@code null} if offline buffering is disabled
+     */
+    public @Nullable OfflineEventBuffer getOfflineEventBuffer() {
+        return this.offlineEventBuffer;
+    }
+
+    /**
+     * Returns the flow control applying backpressure to the events sent to clients that do not read their socket.
+     *
+     * @return the flow control applying backpressure to the outbound events
+     */
+    public OutboundFlowControl getOutboundFlowControl() {
+        return this.outboundFlowControl;
+    }
+
+    /**
+     * Returns the router sending the events targeting sockets connected to other nodes to these nodes.
+     *
+     * @return the router, or {@code null} if routing is disabled
+     */
+    public @Nullable OutboundRouter getOutboundRouter() {
+        return this.outboundRouter;
+    }
+
+    /**
+     * Returns the journal persisting the conversations and the pending outbound events across restarts.
+     *
+     * @return the journal, or {@code null} if persistence is disabled
+     */
+    public @Nullable RoutingJournal getRoutingJournal() {
+        return this.routingJournal;
+    }
+
+    /**
+     * Returns the rate limiter applied to the user inputs before they are dispatched.
+     *
+     * @return the rate limiter, or {@code null} if the user inputs are not rate limited
+     */
+    public @Nullable InboundRateLimiter getInboundRateLimiter() {
+        return this.inboundRateLimiter;
+    }
+
+    /**
+     * Returns the cache storing the {@link SocketIOClient} handles of the connected sockets.
+     *
+     * @return the cache storing the {@link SocketIOClient} handles of the connected sockets
+     */
+    public SocketClientCache getClientCache() {
+        return this.clientCache;
+    }
+
+    /**
+     * Returns the socket server used to receive and send messages.
+     *
+     * @return the socket server used to receive and send messages
+     */
+    public SocketIOServer getSocketIOServer() {
+        return this.socketIOServer;
+    }
+
+    /**
+     * Returns the scheduler shared by the platform's timers and periodic maintenance tasks.
+     * <p>
+     * Tasks submitted to this scheduler must be short, and should hand over long computations to another executor.
+     *
+     * @return the scheduler shared by the platform's timers and periodic maintenance tasks
+     */
+    public ScheduledExecutorService getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Returns the registry storing the mapping between sockets and conversations.
+     *
+     * @return the registry storing the mapping between sockets and conversations
+     */
+    public SocketConversationRegistry getConversationRegistry() {
+        return this.conversationRegistry;
+    }
+
+    /**
+     * Returns the identifier of the node running the platform.
+     *
+     * @return the identifier of the node running the platform
+     */
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * Returns the store holding the conversations.
+     * <p>
+     * The returned store records the latency of the lookups performed by the platform, the configured store can be
+     * retrieved with {@link MeteredConversationStore#getDelegate()}.
+     *
+     * @return the store holding the conversations
+     */
+    public MeteredConversationStore getConversationStore() {
+        return this.conversationStore;
+    }
+
+    /**
+     * Returns the handshake stage binding the sockets to their conversation.
+     *
+     * @return the handshake stage binding the sockets to their conversation
+     */
+    public InitHandshake getInitHandshake() {
+        return this.initHandshake;
+    }
+
+    /**
+     * Returns the dispatcher used to process inbound socket events outside of the socket server's event loop.
+     *
+     * @return the dispatcher used to process inbound socket events
+     */
+    public InboundDispatcher getInboundDispatcher() {
+        return this.inboundDispatcher;
+    }
+
+    /**
+     * Returns the registry holding the platform's metrics.
+     * <p>
+     * Components extending the platform can register their own metrics in this registry, they are exposed with the
+     * platform's metrics by the {@code /react/metrics} endpoint.
+     *
+     * @return the registry holding the platform's metrics
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
+
+    /**
+     * Records the reception of an event of the provided {@code type}, and the time spent by the socket listener
+     * handling it.
+     * <p>
+     * This method is called by the socket listeners once they have handled the event. The recorded time does not
+     * include the processing dispatched outside of the socket server's event loop (e.g. the intent recognition, see
+     * {@link #recordRecognition(long)}).
+     *
+     * @param type       the type of the handled event
+     * @param startNanos the time the listener has been called at, as returned by {@link System#nanoTime()}
+     */
+    public void recordSocketEvent(@NonNull SocketEventTypes type, long startNanos) {
+        Histogram histogram = socketEventDurations.get(type);
+        if (isNull(histogram)) {
+            histogram = socketEventDurations.computeIfAbsent(type, t -> metricsRegistry.histogram(
+                    "xatkit_react_socket_listener_seconds", "The time spent by the socket listeners handling the "
+                            + "received events", "event", t.label));
+        }
+        histogram.recordSince(startNanos);
+        Counter counter = inboundEventCounts.get(type);
+        if (isNull(counter)) {
+            counter = inboundEventCounts.computeIfAbsent(type, t -> metricsRegistry.counter(
+                    "xatkit_react_inbound_events_total", "The number of events received from the sockets", "event",
+                    t.label));
+        }
+        counter.increment();
+    }
+
+    /**
+     * Records the time spent recognizing the intent of a user input.
+     * <p>
+     * This method is called by the {@link ReactIntentProvider} once the intent of a message or a button click has
+     * been recognized, outside of the socket server's event loop.
+     *
+     * @param startNanos the time the recognition started at, as returned by {@link System#nanoTime()}
+     */
+    public void recordRecognition(long startNanos) {
+        this.recognitionDuration.recordSince(startNanos);
+    }
+
+    /**
+     * Records the computation time of the action named {@code action}.
+     * <p>
+     * This method is called by the platform's actions once they have sent their events to the client. The number of
+     * recorded durations is the number of executions of the action.
+     *
+     * @param action     the name of the action
+     * @param startNanos the time the action's computation started at, as returned by {@link System#nanoTime()}
+     */
+    public void recordAction(@NonNull String action, long startNanos) {
+        Histogram histogram = actionDurations.get(action);
+        if (isNull(histogram)) {
+            histogram = actionDurations.computeIfAbsent(action, a -> metricsRegistry.histogram(
+                    "xatkit_react_action_seconds", "The computation time of the platform's actions", "action", a));
+        }
+        histogram.recordSince(startNanos);
+    }
+
+    /**
+     * Records the computation time of the action named {@code action}, and its completion in the trace
+     * {@code traceId}.
+     *
+     * @param action     the name of the action
+     * @param startNanos the time the action's computation started at, as returned by {@link System#nanoTime()}
+     * @param traceId    the identifier of the trace of the input the action replies to, as returned by
+     *                   {@link #traceActionStart(StateContext, String)}
+     * @see #recordAction(String, long)
+     */
+    public void recordAction(@NonNull String action, long startNanos, long traceId) {
+        this.recordAction(action, startNanos);
+        if (traceId != MessageTracer.NO_TRACE) {
+            this.messageTracer.actionCompleted(traceId);
+        }
+    }
+
+    /**
+     * Records the start of an action replying to the input handled by the provided {@code context}, if this input
+     * is traced.
+     * <p>
+     * This method must be called by the actions before sending their events to the {@code channel}: the trace is
+     * registered on the channel and marked as written when the next flush of event packets to its socket has
+     * completed (see {@link MessageTracer#beforeWrite(long, String)}). Actions call
+     * {@link #recordAction(String, long, long)} with the returned identifier once they have sent their events.
+     *
+     * @param context the {@link StateContext} of the action
+     * @param channel the identifier of the socket the action sends its events to
+     * @return the identifier of the trace, or {@link MessageTracer#NO_TRACE} if the input is not traced
+     * @see ReactUtils#REACT_TRACE_ID_CONTEXT_KEY
+     */
+    public long traceActionStart(@NonNull StateContext context, @NonNull String channel) {
+        long traceId = MessageTracer.getTraceId(context);
+        if (traceId != MessageTracer.NO_TRACE) {
+            this.messageTracer.actionStarted(traceId);
+            if (this.clientCache.contains(channel)) {
+                this.messageTracer.beforeWrite(traceId, channel);
+            }
+        }
+        return traceId;
+    }
+
+    /**
+     * Returns the tracer recording the timings of a sample of the user inputs.
+     *
+     * @return the tracer recording the timings of a sample of the user inputs
+     * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
+     */
+    public MessageTracer getMessageTracer() {
+        return this.messageTracer;
+    }
+
+    /**
+     * Returns the key used to order the inbound events of the provided {@code context}.
+     * <p>
+     * Inbound events are ordered per conversation. If the socket is not associated to a conversation yet the
+     * provided {@code socketId} is used as the key.
+     *
+     * @param context  the {@link StateContext} of the conversation
+     * @param socketId the identifier of the socket that received the event
+     * @return the key used to order the inbound events
+     * @see InboundDispatcher#dispatch(String, Runnable)
+     */
+    public String getDispatchKey(@Nullable StateContext context, @NonNull String socketId) {
+        return isNull(context) ? socketId : context.getContextId();
+    }
+
+    /**
+     * Dispatches the processing of a user input received from the provided {@code channel}.
+     * <p>
+     * The input is checked against the platform's rate limits before being dispatched. Inputs exceeding the limits
+     * are dropped, or deferred until the limits allow them if the {@link InboundRateLimiter.Mode#DEFER} mode is
+     * used. The client is notified with a {@link SocketEventTypes#THROTTLED} event when it starts being throttled.
+     * Inputs are also dropped if the dispatcher queue is full (see {@link InboundDispatcher#getShedCount()}).
+     *
+     * @param channel   the identifier of the socket that received the input
+     * @param context   the {@link StateContext} associated to the socket, or {@code null} if the socket is not
+     *                  associated to a conversation yet
+     * @param eventName the name of the socket event containing the input
+     * @param task      the task processing the input
+     * @return {@code true} if the input has been dispatched or deferred, {@code false} if it has been dropped
+     * @see InboundDispatcher#dispatch(String, Runnable)
+     * @see ReactUtils#REACT_RATE_LIMIT_MODE_KEY
+     */
+    public boolean dispatchUserInput(@NonNull String channel, @Nullable StateContext context,
+                                     @NonNull String eventName, @NonNull Runnable task) {
+        String dispatchKey = this.getDispatchKey(context, channel);
+        if (isNull(inboundRateLimiter)) {
+            return this.inboundDispatcher.dispatch(dispatchKey, task);
+        }
+        long delay = this.inboundRateLimiter.acquire(channel, isNull(context) ? null : context.getContextId());
+        if (delay == 0) {
+            this.inboundRateLimiter.clearThrottled(channel);
+            return this.inboundDispatcher.dispatch(dispatchKey, task);
+        }
+        boolean deferred = delay > 0;
+        if (this.inboundRateLimiter.markThrottled(channel)) {
+            Log.debug("Throttling the {0} events of channel {1}", eventName, channel);
+            this.sendEvent(channel, SocketEventTypes.THROTTLED.label, new Throttled(eventName,
+                    TimeUnit.NANOSECONDS.toMillis(Math.abs(delay)), deferred));
+        }
+        if (deferred) {
+            /*
+             * Deferred inputs of the same key are scheduled at least one refill interval apart, and are dispatched
+             * in the order they have been received.
+             */
+            this.scheduler.schedule(() -> this.inboundDispatcher.dispatch(dispatchKey, task), delay,
+                    TimeUnit.NANOSECONDS);
+        }
+        return deferred;
+    }
+
+    /**
+     * Creates the {@link ConversationStore} specified in the provided {@code configuration}.
+     *
+     * @param configuration the platform's configuration
+     * @return the created {@link ConversationStore}
+     * @throws XatkitException if the configured store cannot be created
+     * @see ReactUtils#REACT_CONVERSATION_STORE_KEY
+     */
+    private static ConversationStore createConversationStore(Configuration configuration) {
+        String store = configuration.getString(ReactUtils.REACT_CONVERSATION_STORE_KEY,
+                ReactUtils.DEFAULT_REACT_CONVERSATION_STORE);
+        switch (store) {
+            case "memory":
+                return new InMemoryConversationStore();
+            case "file":
+                return new FileConversationStore(Paths.get(configuration.getString(
+                        ReactUtils.REACT_CONVERSATION_STORE_DIRECTORY_KEY,
+                        ReactUtils.DEFAULT_REACT_CONVERSATION_STORE_DIRECTORY)));
+            default:
+                try {
+                    return Class.forName(store).asSubclass(ConversationStore.class)
+                            .getConstructor(Configuration.class).newInstance(configuration);
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new XatkitException(MessageFormat.format("Cannot create the conversation store {0}, " +
+                            "expected memory, file, or the name of a {1} implementation with a public constructor " +
+                            "accepting a Configuration", store, ConversationStore.class.getSimpleName()), e);
+                }
+        }
+    }
+
+    /**
+     * Creates the socket.io {@link StoreFactory} specified in the provided {@code configuration}.
+     *
+     * @param configuration the platform's configuration
+     * @return the created {@link StoreFactory}
+     * @throws XatkitException if the configured store factory cannot be created
+     * @see ReactUtils#REACT_SERVER_STORE_FACTORY_KEY
+     */
+    private static StoreFactory createStoreFactory(Configuration configuration) {
+        String storeFactory = configuration.getString(ReactUtils.REACT_SERVER_STORE_FACTORY_KEY);
+        try {
+            return Class.forName(storeFactory).asSubclass(StoreFactory.class)
+                    .getConstructor(Configuration.class).newInstance(configuration);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new XatkitException(MessageFormat.format("Cannot create the store factory {0}, expected the name " +
+                    "of a {1} implementation with a public constructor accepting a Configuration", storeFactory,
+                    StoreFactory.class.getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Creates the {@link RoutingTransport} specified in the provided {@code configuration}.
+     *
+     * @param configuration the platform's configuration
+     * @param pubSubStore   the {@link PubSubStore} of the socket server, used by the {@code pubsub} transport
+     * @return the created {@link RoutingTransport}
+     * @throws XatkitException if the configured transport cannot be created
+     * @see ReactUtils#REACT_ROUTING_TRANSPORT_KEY
+     */
+    private static RoutingTransport createRoutingTransport(Configuration configuration, PubSubStore pubSubStore) {
+        String transport = configuration.getString(ReactUtils.REACT_ROUTING_TRANSPORT_KEY,
+                ReactUtils.DEFAULT_REACT_ROUTING_TRANSPORT);
+        switch (transport) {
+            case "pubsub":
+                return new PubSubStoreRoutingTransport(pubSubStore);
+            case "loopback":
+                return LoopbackRoutingTransport.getSharedInstance();
+            default:
+                try {
+                    return Class.forName(transport).asSubclass(RoutingTransport.class)
+                            .getConstructor(Configuration.class).newInstance(configuration);
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new XatkitException(MessageFormat.format("Cannot create the routing transport {0}, " +
+                            "expected pubsub, loopback, or the name of a {1} implementation with a public " +
+                            "constructor accepting a Configuration", transport,
+                            RoutingTransport.class.getSimpleName()), e);
+                }
+        }
+    }
+
+    /**
+     * Returns the constant of {@code enumType} stored in the provided {@code configuration} with the given {@code key}.
+     * <p>
+     * The stored value is matched against the names of the constants ignoring the case.
+     *
+     * @param configuration the platform's configuration
+     * @param key           the key of the property to read
+     * @param defaultValue  the value to use if the {@code configuration} does not contain the {@code key}
+     * @param enumType      the type of the constant to return
+     * @param <E>           the type of the constant to return
+     * @return the constant of {@code enumType} matching the stored value
+     * @throws IllegalArgumentException if the stored value does not match any constant of {@code enumType}
+     */
+    private static <E extends Enum<E>> E getEnumProperty(Configuration configuration, String key,
+                                                         String defaultValue, Class<E> enumType) {
+        String value = configuration.getString(key, defaultValue).trim();
+        E result = null;
+        for (E constant : enumType.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                result = constant;
+                break;
+            }
+        }
+        checkArgument(nonNull(result), "Invalid value %s for the property %s, expected one of %s", value, key,
+                Arrays.toString(enumType.getEnumConstants()));
+        return result;
+    }
+
+    /**
+     * Creates the rate limiter applied to the user inputs from the provided {@code configuration}.
+     *
+     * @param configuration the platform's configuration
+     * @return the rate limiter, or {@code null} if neither the sockets nor the conversations are rate limited
+     */
+    private static @Nullable InboundRateLimiter createInboundRateLimiter(Configuration configuration) {
+        double socketRefillRate = configuration.getDouble(ReactUtils.REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY,
+                ReactUtils.DEFAULT_REACT_RATE_LIMIT_SOCKET_REFILL_RATE);
+        double conversationRefillRate =
+                configuration.getDouble(ReactUtils.REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE_KEY,
+                        ReactUtils.DEFAULT_REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE);
+        if (socketRefillRate <= 0 && conversationRefillRate <= 0) {
+            return null;
+        }
+        TokenBucketRateLimiter socketBuckets = null;
+        if (socketRefillRate > 0) {
+            socketBuckets = new TokenBucketRateLimiter(
+                    configuration.getInt(ReactUtils.REACT_RATE_LIMIT_SOCKET_CAPACITY_KEY,
+                            ReactUtils.DEFAULT_REACT_RATE_LIMIT_SOCKET_CAPACITY), socketRefillRate);
+        }
+        TokenBucketRateLimiter conversationBuckets = null;
+        if (conversationRefillRate > 0) {
+            conversationBuckets = new TokenBucketRateLimiter(
+                    configuration.getInt(ReactUtils.REACT_RATE_LIMIT_CONVERSATION_CAPACITY_KEY,
+                            ReactUtils.DEFAULT_REACT_RATE_LIMIT_CONVERSATION_CAPACITY), conversationRefillRate);
+        }
+        return new InboundRateLimiter(socketBuckets, conversationBuckets,
+                getEnumProperty(configuration, ReactUtils.REACT_RATE_LIMIT_MODE_KEY,
+                        ReactUtils.DEFAULT_REACT_RATE_LIMIT_MODE, InboundRateLimiter.Mode.class),
+                configuration.getLong(ReactUtils.REACT_RATE_LIMIT_MAX_DEFER_DELAY_KEY,
+                        ReactUtils.DEFAULT_REACT_RATE_LIMIT_MAX_DEFER_DELAY));
+    }
+
+    /**
+     * Returns whether the native epoll transport can be used by the socket server.
+     * <p>
+     * The native transport is only available on Linux, and requires the netty native libraries to be on the
+     * classpath.
+     *
+     * @return {@code true} if the native epoll transport is available, {@code false} otherwise
+     */
+    private static boolean isNativeEpollAvailable() {
+        try {
+            Class<?> epollClass = Class.forName("io.netty.channel.epoll.Epoll");
+            if ((Boolean) epollClass.getMethod("isAvailable").invoke(null)) {
+                return true;
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            /*
+             * The native transport is not on the classpath, fall back to NIO.
+             */
+        }
+        Log.warn("The native epoll transport is not available, the socket server uses the NIO transport");
+        return false;
+    }
+
+    /**
+     * Returns whether the provided {@code socketId} is connected to the socket server.
+     *
+     * @param socketId the identifier of the socket to check
+     * @return {@code true} if the socket is connected, {@code false} otherwise
+     */
+    private boolean isSocketConnected(String socketId) {
+        return this.clientCache.contains(socketId);
+    }
+
+    /**
+     * Stops the underlying socket server, the inbound dispatcher, the outbound router, and the platform's scheduler,
+     * and closes the routing journal.
+     */
+    @Override
+    public void shutdown() {
+        if (nonNull(socketIOServer)) {
+            Log.info("Stopping SocketIO server");
+            this.socketIOServer.stop();
+            this.socketIOServer = null;
+        }
+        if (nonNull(inboundDispatcher)) {
+            this.inboundDispatcher.shutdown();
+            this.inboundDispatcher = null;
+        }
+        if (nonNull(outboundRouter)) {
+            this.outboundRouter.shutdown();
+            this.outboundRouter = null;
+        }
+        if (nonNull(scheduler)) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+        if (nonNull(routingJournal)) {
+            this.routingJournal.close();
+            this.routingJournal = null;
+        }
+        if (nonNull(conversationStore)) {
+            this.conversationStore.close();
+            this.conversationStore = null;
+        }
+    }
+
+    /**
+     * Retrieves the {@link StateContext} associated to the provided {@code socketId}.
+     * <p>
+     * This method looks for an existing <i>conversation ID</i> associated to the provided {@code socketId} and
+     * returns the corresponding {@link StateContext} if it exists, or {@code null} if it cannot be found. Sockets
+     * unknown to this node are resolved from the platform's {@link ConversationStore}, and bound to this node if they
+     * are connected to it (see {@link #createStateContextForConversation(String, String)}). The last access time of
+     * the resolved conversation is updated in the store (see {@link ConversationStore#touch(String)}).
+     *
+     * @param socketId the socketId to create a {@link StateContext} from
+     * @return the retrieved {@link StateContext}, or {@code null} if it cannot be found
+     * @see #createStateContextForConversation(String, String) to create a {@link StateContext} for a given {@code
+     * sessionId} and {@code conversationId}.
+     */
+    public @Nullable
+    StateContext getStateContextForSocketId(@NonNull String socketId) {
+        String conversationId = this.conversationRegistry.getConversationId(socketId);
+        if (nonNull(conversationId)) {
+            this.conversationStore.touch(conversationId);
+            return this.xatkitBot.getOrCreateContext(conversationId);
+        }
+        conversationId = this.conversationStore.getConversationId(socketId);
+        if (isNull(conversationId)) {
+            /*
+             * The conversationId can be null if the event/intent provider ask for the session before it has been
+             * associated to a conversation. In this case the provider should include some initialization code
+             * relying on #createSessionForConversation to create a new XatkitSession.
+             */
+            return null;
+        }
+        if (isSocketConnected(socketId)) {
+            /*
+             * The socket is connected to this node but has been bound by another one: bind it to this node, so that
+             * its conversation is resolved (and its events delivered) like the ones of the other local sockets.
+             */
+            return this.createStateContextForConversation(socketId, conversationId);
+        }
+        this.conversationStore.touch(conversationId);
+        return this.xatkitBot.getOrCreateContext(conversationId);
+    }
+
+    /**
+     * Creates a {@link StateContext} for the provided {@code conversationId} hosted by the socket {@code socketId}.
+     * <p>
+     * Conversations typically live longer than socket connections (e.g. when the user reloads the page where the bot
+     * is hosted the socket changes but the conversation is the same), this implies that the {@link ReactPlatform}
+     * can only create sessions for a given {@code socketId}/{@code conversationId} pair, and will update the mapping
+     * when new socket connections are opened and referencing an existing conversation.
+     * <p>
+     * <b>Note</b>: the provided {@code conversationId} can be {@code null} (i.e. a totally new conversation is
+     * created). In this case the method will create a new {@code conversationId} and affect a random identifier to
+     * it.
+     * <p>
+     * The events sent to one of the sockets of a conversation opened in several tabs are delivered to all the
+     * sockets bound to it (see {@link ReactUtils#REACT_CONVERSATION_FANOUT_KEY}). The binding is recorded in the
+     * platform's {@link ConversationStore}, allowing the other nodes sharing the store to resolve the socket. The
+     * conversation is also recorded in the platform's {@link RoutingJournal} if persistence is enabled.
+     *
+     * @param socketId       the identifier of the socket connection hosting the conversation
+     * @param conversationId the identifier of the conversation to create a session for
+     * @return the created {@link StateContext}
+     */
+    public @NonNull StateContext createStateContextForConversation(@NonNull String socketId,
+                                                                   @Nullable String conversationId) {
+        if (isNull(conversationId)) {
+            conversationId = UUID.randomUUID().toString();
+        }
+        this.conversationRegistry.register(socketId, conversationId);
+        this.conversationStore.bind(socketId, conversationId, nodeId);
+        if (nonNull(routingJournal)) {
+            this.routingJournal.recordConversation(conversationId);
         }
-        this.socketToConversationMap.put(socketId, conversationId);
         return this.xatkitBot.getOrCreateContext(conversationId);
     }
 
@@ -4,15 +4,13 @@ import com.xatkit.core.platform.action.RuntimeMessageAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.react.platform.ReactPlatform;
 import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
-import com.xatkit.plugins.react.platform.socket.action.QuickButtonDescriptor;
+import com.xatkit.plugins.react.platform.socket.action.QuickButtonSet;
 import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
 import com.xatkit.plugins.react.platform.socket.action.SetMessageLoaderObject;
 import lombok.NonNull;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 
@@ -23,8 +21,11 @@ public class PostMessage extends RuntimeMessageAction<ReactPlatform> {
 
     /**
      * The descriptors of the <i>quick buttons</i> to print to the user.
+     * <p>
+     * This set is interned: the actions displaying the same buttons share the same descriptors and their encoding
+     * (see {@link QuickButtonSet#of(List)}).
      */
-    private List<QuickButtonDescriptor> quickButtonDescriptors;
+    private QuickButtonSet quickButtonDescriptors;
 
     /**
      * The channel to post the message to.
@@ -66,8 +67,7 @@ public class PostMessage extends RuntimeMessageAction<ReactPlatform> {
         checkArgument(!(channel.isEmpty()), "Cannot construct a %s action with the provided " +
                 "channel %s, expected a non-null and not empty String", this.getClass().getSimpleName(), channel);
         this.channel = channel;
-        this.quickButtonDescriptors = new ArrayList<>();
-        buttons.forEach(label -> this.quickButtonDescriptors.add(new QuickButtonDescriptor(label, label)));
+        this.quickButtonDescriptors = QuickButtonSet.of(buttons);
     }
 
     /**
@@ -81,23 +81,32 @@ public class PostMessage extends RuntimeMessageAction<ReactPlatform> {
     @Override
     protected void beforeDelay(int delayValue) {
         if (delayValue > 0) {
-            this.runtimePlatform.getSocketIOServer().getClient(UUID.fromString(channel))
-                    .sendEvent(SocketEventTypes.SET_MESSAGE_LOADER.label, new SetMessageLoaderObject(true));
+            this.runtimePlatform.sendEvent(channel, SocketEventTypes.SET_MESSAGE_LOADER.label,
+                    new SetMessageLoaderObject(true));
         }
     }
 
     /**
      * Posts the provided {@code message} to the given {@code channel}.
      * <p>
-     * Posted messages are pushed to the client application using the underlying socket server.
+     * Posted messages are pushed to the client application using the underlying socket server. Messages may be
+     * batched with the other messages sent to the same channel if the platform and the client support it. The
+     * computation time of the action is recorded in the platform's metrics (see
+     * {@link ReactPlatform#recordAction(String, long)}), and in the trace of the input the action replies to if it
+     * is traced (see {@link ReactPlatform#traceActionStart(StateContext, String)}).
      *
      * @return {@code null}
      */
     @Override
     protected Object compute() {
-        this.runtimePlatform.getSocketIOServer().getClient(UUID.fromString(channel))
-                .sendEvent(SocketEventTypes.BOT_MESSAGE.label, new SendBotMessage("xatkit", message,
-                        this.quickButtonDescriptors));
+        long start = System.nanoTime();
+        long traceId = this.runtimePlatform.traceActionStart(context, channel);
+        try {
+            this.runtimePlatform.sendBotMessage(channel, new SendBotMessage("xatkit", message,
+                    this.quickButtonDescriptors));
+        } finally {
+            this.runtimePlatform.recordAction(this.getClass().getSimpleName(), start, traceId);
+        }
         return null;
     }
 
@@ -7,8 +7,6 @@ import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
 import com.xatkit.plugins.react.platform.socket.action.SendAudio;
 import lombok.NonNull;
 
-import java.util.UUID;
-
 public class ReplyAudio extends RuntimeAction<ReactPlatform> {
 
     private String src;
@@ -25,8 +23,8 @@ public class ReplyAudio extends RuntimeAction<ReactPlatform> {
      */
     @Override
     protected Object compute() {
-        this.runtimePlatform.getSocketIOServer().getClient(UUID.fromString(Reply.getChannel(context)))
-                .sendEvent(SocketEventTypes.AUDIO.label, new SendAudio(this.src));
+        this.runtimePlatform.sendEvent(Reply.getChannel(context), SocketEventTypes.AUDIO.label,
+                new SendAudio(this.src));
         return null;
     }
 }
@@ -7,8 +7,6 @@ import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
 import com.xatkit.plugins.react.platform.socket.action.SendLinkSnippet;
 import lombok.NonNull;
 
-import java.util.UUID;
-
 /**
  * Tells the UI to render a link snippet with a preview image.
  */
@@ -49,13 +47,24 @@ public class ReplyLinkSnippet extends RuntimeAction<ReactPlatform> {
 
     /**
      * Notifies the client to render a link snippet with a preview image.
+     * <p>
+     * The computation time of the action is recorded in the platform's metrics (see
+     * {@link ReactPlatform#recordAction(String, long)}), and in the trace of the input the action replies to if it
+     * is traced (see {@link ReactPlatform#traceActionStart(StateContext, String)}).
      *
      * @return {@code null}
      */
     @Override
     protected Object compute() {
-        this.runtimePlatform.getSocketIOServer().getClient(UUID.fromString(Reply.getChannel(context)))
-                .sendEvent(SocketEventTypes.LINK_SNIPPET.label, new SendLinkSnippet(this.title, this.link, this.img));
+        long start = System.nanoTime();
+        String channel = Reply.getChannel(context);
+        long traceId = this.runtimePlatform.traceActionStart(context, channel);
+        try {
+            this.runtimePlatform.sendEvent(channel, SocketEventTypes.LINK_SNIPPET.label,
+                    new SendLinkSnippet(this.title, this.link, this.img));
+        } finally {
+            this.runtimePlatform.recordAction(this.getClass().getSimpleName(), start, traceId);
+        }
         return null;
     }
 }
@@ -0,0 +1,66 @@
+package com.xatkit.plugins.react.platform.action;
+
+import com.xatkit.core.platform.action.RuntimeAction;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.outbound.MessageStream;
+import lombok.NonNull;
+
+import java.util.Iterator;
+
+/**
+ * A {@link RuntimeAction} that replies to a message with a text produced incrementally.
+ * <p>
+ * This action pulls the fragments of the reply from the provided {@link Iterator} (e.g. the tokens of an answer
+ * generated by a slow backend), and sends them to the input xatkit-react channel as they are produced (see
+ * {@link MessageStream}). The executing thread is blocked until the iterator is exhausted.
+ *
+ * @see ReactPlatform#replyStream(StateContext, Iterator)
+ * @see Reply#getChannel(StateContext)
+ */
+public class ReplyStream extends RuntimeAction<ReactPlatform> {
+
+    /**
+     * The fragments of the reply.
+     */
+    private Iterator<? extends CharSequence> fragments;
+
+    /**
+     * Constructs a new {@link ReplyStream} with the provided {@code platform}, {@code context}, and
+     * {@code fragments}.
+     *
+     * @param platform  the {@link ReactPlatform} containing this action
+     * @param context   the {@link StateContext} associated to this action
+     * @param fragments the fragments of the reply
+     */
+    public ReplyStream(@NonNull ReactPlatform platform, @NonNull StateContext context,
+                       @NonNull Iterator<? extends CharSequence> fragments) {
+        super(platform, context);
+        this.fragments = fragments;
+    }
+
+    /**
+     * Sends the fragments of the reply to the input channel as they are produced.
+     * <p>
+     * The stream is closed when the iterator is exhausted or throws an exception, notifying the client that the
+     * message is complete. The computation time of the action is recorded in the platform's metrics (see
+     * {@link ReactPlatform#recordAction(String, long)}), and in the trace of the input the action replies to if it
+     * is traced (see {@link ReactPlatform#traceActionStart(StateContext, String)}).
+     *
+     * @return {@code null}
+     */
+    @Override
+    protected Object compute() {
+        long start = System.nanoTime();
+        String channel = Reply.getChannel(context);
+        long traceId = this.runtimePlatform.traceActionStart(context, channel);
+        try (MessageStream stream = this.runtimePlatform.openMessageStream(channel)) {
+            while (fragments.hasNext()) {
+                stream.append(fragments.next());
+            }
+        } finally {
+            this.runtimePlatform.recordAction(this.getClass().getSimpleName(), start, traceId);
+        }
+        return null;
+    }
+}
@@ -5,8 +5,6 @@ import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.react.platform.ReactPlatform;
 import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
 
-import java.util.UUID;
-
 /**
  * Tells the web client to toggle dark mode.
  * <p>
@@ -26,13 +24,23 @@ public class ToggleDarkMode extends RuntimeAction<ReactPlatform> {
 
     /**
      * Notifies the client to toggle dark mode.
+     * <p>
+     * The computation time of the action is recorded in the platform's metrics (see
+     * {@link ReactPlatform#recordAction(String, long)}), and in the trace of the input the action replies to if it
+     * is traced (see {@link ReactPlatform#traceActionStart(StateContext, String)}).
      *
      * @return {@code null}
      */
     @Override
     protected Object compute() {
-        this.runtimePlatform.getSocketIOServer().getClient(UUID.fromString(Reply.getChannel(context)))
-                .sendEvent(SocketEventTypes.TOGGLE_DARK_MODE.label);
+        long start = System.nanoTime();
+        String channel = Reply.getChannel(context);
+        long traceId = this.runtimePlatform.traceActionStart(context, channel);
+        try {
+            this.runtimePlatform.sendEvent(channel, SocketEventTypes.TOGGLE_DARK_MODE.label);
+        } finally {
+            this.runtimePlatform.recordAction(this.getClass().getSimpleName(), start, traceId);
+        }
         return null;
     }
 }
@@ -3,12 +3,25 @@ package com.xatkit.plugins.react.platform.action;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.react.platform.ReactPlatform;
-import fr.inria.atlanmod.commons.log.Log;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.nonNull;
 
 /**
  * Waits a given delay.
+ * <p>
+ * This action does not block the executing thread: it schedules the end of the delay on the
+ * {@link ReactPlatform}'s shared scheduler, and returns a {@link CompletableFuture} that is completed once the delay
+ * is over.
+ *
+ * @see ReactPlatform#wait(StateContext, int)
+ * @see ReactPlatform#waitAsync(StateContext, int)
  */
 public class Wait extends RuntimeAction<ReactPlatform> {
 
@@ -33,18 +46,22 @@ public class Wait extends RuntimeAction<ReactPlatform> {
     }
 
     /**
-     * Waits the given delay.
+     * Schedules the end of the delay on the platform's shared scheduler.
+     * <p>
+     * The returned future is completed outside of the scheduler thread: actions chained to the future do not delay
+     * the other timers of the platform.
      *
-     * @return {@code null}
+     * @return a {@link CompletableFuture} completed when the delay is over
+     * @throws IllegalStateException if the platform is not started
      */
     @Override
     protected Object compute() {
-        try {
-            Thread.sleep(this.delay);
-        } catch (InterruptedException e) {
-            Log.error(e, "An error occurred when computing {0}, see attached exception",
-                    this.getClass().getSimpleName());
-        }
-        return null;
+        ScheduledExecutorService scheduler = this.runtimePlatform.getScheduler();
+        checkState(nonNull(scheduler), "Cannot compute %s, the platform %s is not started (its scheduler is null)",
+                this.getClass().getSimpleName(), this.runtimePlatform.getClass().getSimpleName());
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        scheduler.schedule(() -> ForkJoinPool.commonPool().execute(() -> result.complete(null)), this.delay,
+                TimeUnit.MILLISECONDS);
+        return result;
     }
 }
@@ -0,0 +1,67 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import lombok.NonNull;
+
+/**
+ * An immutable snapshot of a conversation stored in a {@link ConversationStore}.
+ */
+public final class ConversationRecord {
+
+    /**
+     * The identifier of the conversation.
+     */
+    private final String conversationId;
+
+    /**
+     * The identifier of the node hosting the last socket bound to the conversation.
+     */
+    private final String nodeId;
+
+    /**
+     * The time (in milliseconds since the epoch) the conversation has been bound to a socket for the last time.
+     */
+    private final long lastAccess;
+
+    /**
+     * Constructs a {@link ConversationRecord} with the provided {@code conversationId}, {@code nodeId}, and
+     * {@code lastAccess}.
+     *
+     * @param conversationId the identifier of the conversation
+     * @param nodeId         the identifier of the node hosting the last socket bound to the conversation
+     * @param lastAccess     the time (in milliseconds since the epoch) the conversation has been bound to a socket
+     *                       for the last time
+     */
+    public ConversationRecord(@NonNull String conversationId, @NonNull String nodeId, long lastAccess) {
+        this.conversationId = conversationId;
+        this.nodeId = nodeId;
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * Returns the identifier of the conversation.
+     *
+     * @return the identifier of the conversation
+     */
+    public String getConversationId() {
+        return this.conversationId;
+    }
+
+    /**
+     * Returns the identifier of the node hosting the last socket bound to the conversation.
+     *
+     * @return the identifier of the node
+     */
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * Returns the time (in milliseconds since the epoch) the conversation has been bound to a socket for the last
+     * time.
+     *
+     * @return the last access time of the conversation
+     */
+    public long getLastAccess() {
+        return this.lastAccess;
+    }
+}
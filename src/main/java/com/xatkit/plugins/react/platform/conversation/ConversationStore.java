@@ -0,0 +1,110 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * A store holding the conversations and the sockets bound to them, shareable between several nodes.
+ * <p>
+ * The {@link SocketConversationRegistry} only knows the sockets connected to the local node. This store records,
+ * for each conversation, the node that currently hosts it, and for each socket the conversation it is bound to. A
+ * node receiving an {@link com.xatkit.plugins.react.platform.socket.event.Init} event for a conversation started on
+ * another node resolves it from this store, and a node computing a reply for a socket connected to another node
+ * can retrieve its conversation.
+ * <p>
+ * Implementations must be thread-safe. Custom implementations (e.g. backed by an external database) are selected
+ * with the {@link com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_CONVERSATION_STORE_KEY} configuration
+ * key, and must provide a public constructor accepting an {@link org.apache.commons.configuration2.Configuration}.
+ *
+ * @see InMemoryConversationStore
+ * @see FileConversationStore
+ * @see MeteredConversationStore
+ */
+public interface ConversationStore extends AutoCloseable {
+
+    /**
+     * Binds the provided {@code socketId} to the given {@code conversationId} hosted by {@code nodeId}.
+     * <p>
+     * This method creates the conversation if it does not exist, and otherwise updates its hosting node and its
+     * last access time.
+     *
+     * @param socketId       the identifier of the socket to bind
+     * @param conversationId the identifier of the conversation hosted by the socket
+     * @param nodeId         the identifier of the node the socket is connected to
+     */
+    void bind(@NonNull String socketId, @NonNull String conversationId, @NonNull String nodeId);
+
+    /**
+     * Unbinds the provided {@code socketId} from its conversation.
+     * <p>
+     * The conversation itself is kept in the store, so that it can be resolved when the client reconnects.
+     *
+     * @param socketId the identifier of the socket to unbind
+     */
+    void unbind(@NonNull String socketId);
+
+    /**
+     * Updates the last access time of the provided {@code conversationId}.
+     * <p>
+     * This method is called each time the conversation is used (e.g. when one of its sockets sends an input), so
+     * that active conversations are not removed by {@link #evictIdleConversations(long)}. It does nothing if the
+     * store does not contain the conversation.
+     *
+     * @param conversationId the identifier of the conversation to update
+     */
+    void touch(@NonNull String conversationId);
+
+    /**
+     * Returns the identifier of the conversation bound to the provided {@code socketId}.
+     *
+     * @param socketId the identifier of the socket to retrieve the conversation of
+     * @return the identifier of the conversation, or {@code null} if the socket is not bound
+     */
+    @Nullable String getConversationId(@NonNull String socketId);
+
+    /**
+     * Returns the {@link ConversationRecord} of the provided {@code conversationId}.
+     *
+     * @param conversationId the identifier of the conversation to retrieve
+     * @return the {@link ConversationRecord}, or {@code null} if the store does not contain the conversation
+     */
+    @Nullable ConversationRecord getConversation(@NonNull String conversationId);
+
+    /**
+     * Restores the provided {@code record} if the store does not contain its conversation.
+     * <p>
+     * This method is used to reload the conversations persisted by a node before its restart (see
+     * {@link com.xatkit.plugins.react.platform.persistence.RoutingJournal}). Conversations already contained in the
+     * store are not modified, and no socket is bound to the restored conversation.
+     *
+     * @param record the {@link ConversationRecord} to restore
+     */
+    void restore(@NonNull ConversationRecord record);
+
+    /**
+     * Removes the conversations that haven't been bound to a socket or used for longer than {@code maxIdleTime}.
+     * <p>
+     * The sockets bound to the removed conversations are unbound. Sockets bound to the remaining conversations are
+     * kept, whatever the time they have been bound for.
+     *
+     * @param maxIdleTime the time (in milliseconds) after which an idle conversation is removed
+     * @return the number of removed conversations
+     */
+    int evictIdleConversations(long maxIdleTime);
+
+    /**
+     * Returns the number of conversations stored in this store.
+     *
+     * @return the number of conversations stored in this store
+     */
+    int getConversationCount();
+
+    /**
+     * Releases the resources held by this store.
+     * <p>
+     * The content of shared stores is not removed when they are closed.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,555 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.core.XatkitException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link ConversationStore} persisting the conversations and the socket bindings as small files in a directory.
+ * <p>
+ * Several nodes can share this store by pointing to the same directory (e.g. a volume mounted on all the nodes).
+ * Each conversation and each socket is stored in its own file, named after the SHA-256 hash of its identifier:
+ * identifiers sent by the clients never appear in file paths. Files are written to a temporary file and atomically
+ * moved to their final location, so that concurrent readers never see a partially written entry.
+ * <p>
+ * Writes are performed asynchronously by a single writer thread: {@link #bind(String, String, String)},
+ * {@link #unbind(String)}, {@link #touch(String)}, and {@link #restore(ConversationRecord)} only record the
+ * pending write and return, and never block the socket event loop on the file system. Successive writes of the
+ * same entry are coalesced, and pending writes are visible to the lookups of the local node before they reach the
+ * directory.
+ * <p>
+ * This store does not cache the written entries: lookups read the shared directory, and return the latest binding
+ * written by any node. I/O errors are logged and handled as missing entries, the
+ * {@link SocketConversationRegistry} of the local node still resolves the sockets it hosts.
+ */
+public class FileConversationStore implements ConversationStore {
+
+    /**
+     * The name of the sub-directory storing the conversation files.
+     */
+    private static final String CONVERSATIONS_DIRECTORY = "conversations";
+
+    /**
+     * The name of the sub-directory storing the socket files.
+     */
+    private static final String SOCKETS_DIRECTORY = "sockets";
+
+    /**
+     * The filter excluding the temporary files from the listed entries.
+     * <p>
+     * Entry files are named after the hexadecimal SHA-256 hash of their identifier (see {@link #fileName(String)}).
+     */
+    private static final DirectoryStream.Filter<Path> ENTRY_FILTER =
+            path -> path.getFileName().toString().length() == 64;
+
+    /**
+     * The {@link MessageDigest} used to compute the file names of the entries, one per thread.
+     *
+     * @see #fileName(String)
+     */
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * SHA-256 is supported by all the Java platforms.
+             */
+            throw new XatkitException("Cannot compute the name of a conversation store file, see attached " +
+                    "exception", e);
+        }
+    });
+
+    /**
+     * The content of a pending write deleting its file.
+     * <p>
+     * The content of the other writes always starts with the identifier of the entry, and is never empty.
+     */
+    private static final String DELETION = "";
+
+    /**
+     * The directory storing the conversation files.
+     */
+    private final Path conversationsDirectory;
+
+    /**
+     * The directory storing the socket files.
+     */
+    private final Path socketsDirectory;
+
+    /**
+     * The clock used to compute the last access time of the conversations (in milliseconds).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The content of the files that have not been written yet, indexed by file.
+     * <p>
+     * A file is removed from this map once its latest content has been written by the {@link #writer}. The
+     * {@link #DELETION} content represents a file to delete.
+     */
+    private final ConcurrentMap<Path, String> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * The access times of the conversations that have not been written yet, indexed by conversation.
+     *
+     * @see #touch(String)
+     */
+    private final ConcurrentMap<String, Long> pendingAccesses = new ConcurrentHashMap<>();
+
+    /**
+     * The single thread writing the entries of this store.
+     * <p>
+     * This executor also runs the eviction of the idle conversations, so that it never interleaves with the writes
+     * of the local node.
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "xatkit-react-conversation-store-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a {@link FileConversationStore} storing its entries in the provided {@code directory}.
+     * <p>
+     * The directory is created if it does not exist. Entries already stored in the directory (e.g. by another node,
+     * or before a restart) are available in the created store.
+     *
+     * @param directory the directory to store the entries in
+     * @throws XatkitException if the directory cannot be created
+     */
+    public FileConversationStore(@NonNull Path directory) {
+        this(directory, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a {@link FileConversationStore} storing its entries in the provided {@code directory} with the
+     * given {@code clock}.
+     * <p>
+     * This constructor is used in tests to control the age of the conversations.
+     *
+     * @param directory the directory to store the entries in
+     * @param clock     the clock used to compute the last access time of the conversations
+     * @throws XatkitException if the directory cannot be created
+     */
+    FileConversationStore(@NonNull Path directory, @NonNull LongSupplier clock) {
+        this.conversationsDirectory = directory.resolve(CONVERSATIONS_DIRECTORY);
+        this.socketsDirectory = directory.resolve(SOCKETS_DIRECTORY);
+        this.clock = clock;
+        try {
+            Files.createDirectories(conversationsDirectory);
+            Files.createDirectories(socketsDirectory);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot create the directory of the {0} {1}, see " +
+                    "attached exception", this.getClass().getSimpleName(), directory), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The binding is written by the store's writer thread.
+     */
+    @Override
+    public void bind(@NonNull String socketId, @NonNull String conversationId, @NonNull String nodeId) {
+        this.pendingAccesses.remove(conversationId);
+        submitWrite(conversationsDirectory, conversationId, nodeId, Long.toString(clock.getAsLong()));
+        submitWrite(socketsDirectory, socketId, conversationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The socket file is deleted by the store's writer thread.
+     */
+    @Override
+    public void unbind(@NonNull String socketId) {
+        submitDeletion(socketsDirectory.resolve(fileName(socketId)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The access time is written by the store's writer thread, and the successive accesses of a conversation
+     * recorded before it is written are coalesced in a single write.
+     */
+    @Override
+    public void touch(@NonNull String conversationId) {
+        if (isNull(this.pendingAccesses.put(conversationId, clock.getAsLong()))) {
+            submit(() -> writeAccess(conversationId));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable String getConversationId(@NonNull String socketId) {
+        List<String> values = read(socketsDirectory.resolve(fileName(socketId)), socketId);
+        return isNull(values) ? null : values.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable ConversationRecord getConversation(@NonNull String conversationId) {
+        List<String> values = read(conversationsDirectory.resolve(fileName(conversationId)), conversationId);
+        if (isNull(values) || values.size() < 2) {
+            return null;
+        }
+        try {
+            Long pendingAccess = this.pendingAccesses.get(conversationId);
+            return new ConversationRecord(conversationId, values.get(0), nonNull(pendingAccess) ? pendingAccess :
+                    Long.parseLong(values.get(1)));
+        } catch (NumberFormatException e) {
+            Log.warn("Ignoring the malformed entry of conversation {0} in the {1}", conversationId,
+                    this.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The conversation is written by the store's writer thread.
+     */
+    @Override
+    public void restore(@NonNull ConversationRecord record) {
+        if (isNull(this.getConversation(record.getConversationId()))) {
+            submitWrite(conversationsDirectory, record.getConversationId(), record.getNodeId(),
+                    Long.toString(record.getLastAccess()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The eviction is performed by the store's writer thread once the pending writes of the local node have been
+     * written, and this method waits for its completion. The sockets bound to the removed conversations (including
+     * the bindings of a node that crashed before unbinding its sockets) are unbound, while the sockets bound to the
+     * remaining conversations are kept.
+     */
+    @Override
+    public int evictIdleConversations(long maxIdleTime) {
+        try {
+            return this.writer.submit(() -> evict(maxIdleTime)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            Log.error(e, "Cannot evict the idle conversations of the {0}, see attached exception",
+                    this.getClass().getSimpleName());
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method waits for the pending writes of the local node and lists the store's directory, and should not be
+     * called on hot paths.
+     */
+    @Override
+    public int getConversationCount() {
+        flush();
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(conversationsDirectory, ENTRY_FILTER)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        } catch (IOException e) {
+            Log.error(e, "Cannot count the conversations of the {0}, see attached exception",
+                    this.getClass().getSimpleName());
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method writes the pending entries and stops the store's writer thread. The files of the store are kept,
+     * and are available to the other nodes and to the next store created on the same directory.
+     */
+    @Override
+    public void close() {
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                Log.warn("The {0} has been closed before writing all its pending entries",
+                        this.getClass().getSimpleName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the writes submitted to this store before calling this method have been written.
+     * <p>
+     * This method returns immediately if the store is closed: its pending writes have been written when closing it.
+     */
+    void flush() {
+        try {
+            this.writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            /*
+             * The empty task cannot fail, and the store is closed if it is rejected.
+             */
+        }
+    }
+
+    /**
+     * Removes the conversations that haven't been bound or used for longer than {@code maxIdleTime}, and unbinds
+     * their sockets.
+     * <p>
+     * This method is called by the store's writer thread.
+     *
+     * @param maxIdleTime the time (in milliseconds) after which an idle conversation is removed
+     * @return the number of removed conversations
+     */
+    private int evict(long maxIdleTime) {
+        long now = clock.getAsLong();
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(conversationsDirectory, ENTRY_FILTER)) {
+            for (Path file : files) {
+                List<String> lines = readLines(file);
+                if (isNull(lines) || lines.size() < 3 || this.pendingWrites.containsKey(file)
+                        || this.pendingAccesses.containsKey(lines.get(0))) {
+                    continue;
+                }
+                try {
+                    if (now - Long.parseLong(lines.get(2)) >= maxIdleTime && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                } catch (NumberFormatException e) {
+                    Log.warn("Removing the malformed entry {0} from the {1}", file,
+                            this.getClass().getSimpleName());
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            Log.error(e, "Cannot evict the idle conversations of the {0}, see attached exception",
+                    this.getClass().getSimpleName());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(socketsDirectory, ENTRY_FILTER)) {
+            for (Path file : files) {
+                List<String> lines = readLines(file);
+                if (isNull(lines) || lines.size() < 2 || this.pendingWrites.containsKey(file)) {
+                    continue;
+                }
+                Path conversationFile = conversationsDirectory.resolve(fileName(lines.get(1)));
+                if (!this.pendingWrites.containsKey(conversationFile) && !Files.exists(conversationFile)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            Log.error(e, "Cannot unbind the sockets of the evicted conversations of the {0}, see attached exception",
+                    this.getClass().getSimpleName());
+        }
+        return removed;
+    }
+
+    /**
+     * Writes the pending access time of the provided {@code conversationId}.
+     * <p>
+     * This method is called by the store's writer thread, and does nothing if the conversation has been bound or
+     * removed since its access time has been recorded.
+     *
+     * @param conversationId the identifier of the conversation to write the access time of
+     */
+    private void writeAccess(String conversationId) {
+        Long lastAccess = this.pendingAccesses.get(conversationId);
+        if (isNull(lastAccess)) {
+            return;
+        }
+        Path file = conversationsDirectory.resolve(fileName(conversationId));
+        List<String> values = read(file, conversationId);
+        if (nonNull(values) && values.size() >= 2) {
+            this.pendingWrites.put(file, conversationId + '\n' + values.get(0) + '\n' + lastAccess);
+            writePending(file);
+        }
+        this.pendingAccesses.remove(conversationId, lastAccess);
+    }
+
+    /**
+     * Records the write of the provided {@code key} and {@code values} in the file of the {@code key} in the given
+     * {@code directory}, and submits it to the store's writer thread.
+     *
+     * @param directory the directory to write the file in
+     * @param key       the identifier of the entry to write
+     * @param values    the values of the entry
+     */
+    private void submitWrite(Path directory, String key, String... values) {
+        StringBuilder content = new StringBuilder(key);
+        for (String value : values) {
+            content.append('\n').append(value);
+        }
+        Path file = directory.resolve(fileName(key));
+        this.pendingWrites.put(file, content.toString());
+        submit(() -> writePending(file));
+    }
+
+    /**
+     * Records the deletion of the provided {@code file}, and submits it to the store's writer thread.
+     *
+     * @param file the file to delete
+     */
+    private void submitDeletion(Path file) {
+        this.pendingWrites.put(file, DELETION);
+        submit(() -> writePending(file));
+    }
+
+    /**
+     * Submits the provided {@code task} to the store's writer thread.
+     * <p>
+     * Tasks submitted after the store has been closed are logged and ignored.
+     *
+     * @param task the task to submit
+     */
+    private void submit(Runnable task) {
+        try {
+            this.writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.warn("Ignoring a write submitted to the closed {0}", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Writes the latest pending content of the provided {@code file}.
+     * <p>
+     * This method is called by the store's writer thread. It does nothing if the latest content of the
+     * {@code file} has already been written by a previous call.
+     *
+     * @param file the file to write
+     */
+    private void writePending(Path file) {
+        String content = this.pendingWrites.get(file);
+        if (isNull(content)) {
+            return;
+        }
+        if (DELETION.equals(content)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                Log.error(e, "Cannot delete the file {0}, see attached exception", file);
+            }
+        } else {
+            write(file, content);
+        }
+        this.pendingWrites.remove(file, content);
+    }
+
+    /**
+     * Atomically writes the provided {@code content} in the given {@code file}.
+     * <p>
+     * I/O errors are logged, and the previous content of the {@code file} is kept.
+     *
+     * @param file    the file to write
+     * @param content the content to write
+     */
+    private static void write(Path file, String content) {
+        try {
+            Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporaryFile, content.getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            Log.error(e, "Cannot write the file {0}, see attached exception", file);
+        }
+    }
+
+    /**
+     * Reads the values of the entry {@code key} stored in the provided {@code file}.
+     * <p>
+     * The pending content of the {@code file} is returned if it has not been written yet.
+     *
+     * @param file the file to read
+     * @param key  the identifier of the entry stored in the file
+     * @return the values of the entry, or {@code null} if the file does not exist or does not contain the entry
+     */
+    private @Nullable List<String> read(Path file, String key) {
+        String pendingContent = this.pendingWrites.get(file);
+        List<String> lines;
+        if (nonNull(pendingContent)) {
+            lines = DELETION.equals(pendingContent) ? null : Arrays.asList(pendingContent.split("\n", -1));
+        } else {
+            lines = readLines(file);
+        }
+        if (isNull(lines) || lines.size() < 2 || !lines.get(0).equals(key)) {
+            return null;
+        }
+        return lines.subList(1, lines.size());
+    }
+
+    /**
+     * Reads the lines of the provided {@code file}.
+     *
+     * @param file the file to read
+     * @return the lines of the file, or {@code null} if the file does not exist or cannot be read
+     */
+    private static @Nullable List<String> readLines(Path file) {
+        try {
+            return Arrays.asList(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).split("\n", -1));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            Log.error(e, "Cannot read the file {0}, see attached exception", file);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the name of the file storing the entry {@code key}.
+     * <p>
+     * The name is the hexadecimal SHA-256 hash of the {@code key}: it does not depend on the characters allowed by
+     * the file system, and cannot be used to access a file outside of the store's directory.
+     *
+     * @param key the identifier of the entry
+     * @return the name of the file storing the entry
+     */
+    private static String fileName(String key) {
+        byte[] digest = SHA_256.get().digest(key.getBytes(StandardCharsets.UTF_8));
+        StringBuilder builder = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link ConversationStore} holding the conversations in the heap of the local node.
+ * <p>
+ * This store is the default store of the {@link com.xatkit.plugins.react.platform.ReactPlatform}. It is not
+ * shared between nodes, and should only be used by single-node deployments or deployments relying on sticky
+ * sessions.
+ */
+public class InMemoryConversationStore implements ConversationStore {
+
+    /**
+     * The mapping from {@code conversationId} to the {@link ConversationRecord} of the conversation.
+     */
+    private final ConcurrentMap<String, ConversationRecord> conversations = new ConcurrentHashMap<>();
+
+    /**
+     * The mapping from {@code socketId} to the identifier of the conversation bound to the socket.
+     */
+    private final ConcurrentMap<String, String> sockets = new ConcurrentHashMap<>();
+
+    /**
+     * The clock used to compute the last access time of the conversations (in milliseconds).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Constructs an empty {@link InMemoryConversationStore}.
+     */
+    public InMemoryConversationStore() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an empty {@link InMemoryConversationStore} with the provided {@code clock}.
+     * <p>
+     * This constructor is used in tests to control the age of the conversations.
+     *
+     * @param clock the clock used to compute the last access time of the conversations
+     */
+    InMemoryConversationStore(@NonNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bind(@NonNull String socketId, @NonNull String conversationId, @NonNull String nodeId) {
+        this.conversations.put(conversationId, new ConversationRecord(conversationId, nodeId, clock.getAsLong()));
+        this.sockets.put(socketId, conversationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unbind(@NonNull String socketId) {
+        this.sockets.remove(socketId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void touch(@NonNull String conversationId) {
+        this.conversations.computeIfPresent(conversationId, (id, record) -> new ConversationRecord(id,
+                record.getNodeId(), clock.getAsLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable String getConversationId(@NonNull String socketId) {
+        return this.sockets.get(socketId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable ConversationRecord getConversation(@NonNull String conversationId) {
+        return this.conversations.get(conversationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(@NonNull ConversationRecord record) {
+        this.conversations.putIfAbsent(record.getConversationId(), record);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int evictIdleConversations(long maxIdleTime) {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (ConversationRecord record : this.conversations.values()) {
+            if (now - record.getLastAccess() >= maxIdleTime
+                    && this.conversations.remove(record.getConversationId(), record)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            this.sockets.values().removeIf(conversationId -> !this.conversations.containsKey(conversationId));
+        }
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getConversationCount() {
+        return this.conversations.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method clears the store.
+     */
+    @Override
+    public void close() {
+        this.conversations.clear();
+        this.sockets.clear();
+    }
+}
@@ -0,0 +1,157 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+
+/**
+ * The handshake stage processing the {@link Init} events sent by the clients.
+ * <p>
+ * This stage binds the socket that sent the {@link Init} event to its conversation, creating the conversation if
+ * needed, and notifies the registered {@link Listener}s with the resulting {@link StateContext}. The lookup and
+ * creation of the conversation are performed exactly once per {@link Init} event, regardless of the number of
+ * listeners. Listeners are notified in their registration order, and are told whether the socket has just been
+ * bound and whether its conversation is new: a conversation opened in several tabs, or resumed after a page reload,
+ * is bound to several sockets but is only new for the first one.
+ *
+ * @see com.xatkit.plugins.react.platform.ReactPlatform#addInitListener(Listener)
+ */
+public class InitHandshake {
+
+    /**
+     * A listener notified when a client completes its handshake.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Notifies the listener that the provided {@code client} completed its handshake.
+         * <p>
+         * This method is invoked on the socket server's event loop, and should hand over long computations to
+         * another executor.
+         *
+         * @param socketId        the identifier of the socket that sent the {@link Init} event
+         * @param client          the client that sent the {@link Init} event
+         * @param init            the {@link Init} event sent by the client
+         * @param context         the {@link StateContext} of the socket's conversation
+         * @param created         {@code true} if the socket has been bound to its conversation by this handshake,
+         *                        {@code false} if it was already bound (i.e. the client sent several {@link Init}
+         *                        events)
+         * @param newConversation {@code true} if the conversation has been created by this handshake, {@code false}
+         *                        if it already existed (e.g. it is hosted by another tab, or the page has been
+         *                        reloaded)
+         */
+        void onInit(String socketId, SocketIOClient client, Init init, StateContext context, boolean created,
+                    boolean newConversation);
+    }
+
+    /**
+     * The registry storing the mapping between sockets and conversations.
+     */
+    private final SocketConversationRegistry conversationRegistry;
+
+    /**
+     * The function returning the {@link StateContext} of a conversation, creating it if needed.
+     */
+    private final Function<String, StateContext> contextProvider;
+
+    /**
+     * The function binding a socket to a conversation and returning the {@link StateContext} of the conversation.
+     * <p>
+     * This function accepts a {@code null} conversation identifier, in which case it creates a new conversation.
+     */
+    private final BiFunction<String, String, StateContext> conversationBinder;
+
+    /**
+     * The predicate returning whether a conversation exists.
+     */
+    private final Predicate<String> conversationExists;
+
+    /**
+     * The listeners notified when a client completes its handshake.
+     */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an {@link InitHandshake} with the provided {@code conversationRegistry}, {@code contextProvider},
+     * {@code conversationBinder}, and {@code conversationExists} predicate.
+     *
+     * @param conversationRegistry the registry storing the mapping between sockets and conversations
+     * @param contextProvider      the function returning the {@link StateContext} of a conversation, creating it if
+     *                             needed
+     * @param conversationBinder   the function binding a socket to a conversation (or to a new conversation if the
+     *                             provided identifier is {@code null}) and returning its {@link StateContext}
+     * @param conversationExists   the predicate returning whether a conversation exists, checked before binding a
+     *                             socket to the conversation it requests
+     * @see com.xatkit.plugins.react.platform.ReactPlatform#createStateContextForConversation(String, String)
+     */
+    public InitHandshake(@NonNull SocketConversationRegistry conversationRegistry,
+                         @NonNull Function<String, StateContext> contextProvider,
+                         @NonNull BiFunction<String, String, StateContext> conversationBinder,
+                         @NonNull Predicate<String> conversationExists) {
+        this.conversationRegistry = conversationRegistry;
+        this.contextProvider = contextProvider;
+        this.conversationBinder = conversationBinder;
+        this.conversationExists = conversationExists;
+    }
+
+    /**
+     * Registers the provided {@code listener}.
+     *
+     * @param listener the listener to notify when a client completes its handshake
+     */
+    public void addListener(@NonNull Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Processes the provided {@code init} event sent by the given {@code client}.
+     * <p>
+     * If the socket is not bound to a conversation yet it is bound to the conversation requested in the {@code
+     * init} event, or to a new conversation with a random identifier if the event does not contain one. The
+     * conversation is new if the event does not contain an identifier, or if the requested conversation does not
+     * exist yet.
+     *
+     * @param socketId the identifier of the socket that sent the {@code init} event
+     * @param client   the client that sent the {@code init} event
+     * @param init     the {@link Init} event sent by the client
+     * @return the {@link StateContext} of the socket's conversation
+     */
+    public StateContext handle(@NonNull String socketId, @NonNull SocketIOClient client, @NonNull Init init) {
+        String conversationId = this.conversationRegistry.getConversationId(socketId);
+        boolean created = isNull(conversationId);
+        boolean newConversation = false;
+        StateContext context;
+        if (created) {
+            Log.debug("Client requested conversation {0}", init.getConversationId());
+            newConversation = isNull(init.getConversationId())
+                    || !this.conversationExists.test(init.getConversationId());
+            context = this.conversationBinder.apply(socketId, init.getConversationId());
+            context.setOrigin(init.getOrigin());
+        } else {
+            context = this.contextProvider.apply(conversationId);
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onInit(socketId, client, init, context, created, newConversation);
+            } catch (RuntimeException e) {
+                /*
+                 * Do not prevent the next listeners from processing the handshake.
+                 */
+                Log.error(e, "An error occurred when processing the handshake of socket {0}, see attached " +
+                        "exception", socketId);
+            }
+        }
+        return context;
+    }
+}
@@ -0,0 +1,198 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.plugins.react.platform.metrics.Histogram;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A {@link ConversationStore} decorator recording the latency and the outcome of the lookups of a delegate store.
+ * <p>
+ * Lookups are classified as <i>misses</i> (the store does not contain the entry), <i>local hits</i> (the
+ * conversation is hosted by the local node), and <i>remote hits</i> (the conversation is hosted by another node,
+ * e.g. when a client reconnects to a different node after a deployment).
+ */
+public class MeteredConversationStore implements ConversationStore {
+
+    /**
+     * The decorated store.
+     */
+    private final ConversationStore delegate;
+
+    /**
+     * The identifier of the local node.
+     */
+    private final String nodeId;
+
+    /**
+     * The latency of the lookups performed on the decorated store.
+     */
+    private final Histogram lookupTime = new Histogram();
+
+    /**
+     * The number of lookups returning a conversation hosted by the local node.
+     */
+    private final LongAdder localHitCount = new LongAdder();
+
+    /**
+     * The number of lookups returning a conversation hosted by another node.
+     */
+    private final LongAdder remoteHitCount = new LongAdder();
+
+    /**
+     * The number of lookups that did not find the requested entry.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a {@link MeteredConversationStore} decorating the provided {@code delegate}.
+     *
+     * @param delegate the store to decorate
+     * @param nodeId   the identifier of the local node
+     */
+    public MeteredConversationStore(@NonNull ConversationStore delegate, @NonNull String nodeId) {
+        this.delegate = delegate;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bind(@NonNull String socketId, @NonNull String conversationId, @NonNull String nodeId) {
+        this.delegate.bind(socketId, conversationId, nodeId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unbind(@NonNull String socketId) {
+        this.delegate.unbind(socketId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void touch(@NonNull String conversationId) {
+        this.delegate.touch(conversationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable String getConversationId(@NonNull String socketId) {
+        long start = System.nanoTime();
+        String conversationId = this.delegate.getConversationId(socketId);
+        this.lookupTime.record(System.nanoTime() - start);
+        if (isNull(conversationId)) {
+            missCount.increment();
+        } else {
+            /*
+             * The socket lookup is only performed for sockets unknown to the local node.
+             */
+            remoteHitCount.increment();
+        }
+        return conversationId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable ConversationRecord getConversation(@NonNull String conversationId) {
+        long start = System.nanoTime();
+        ConversationRecord record = this.delegate.getConversation(conversationId);
+        this.lookupTime.record(System.nanoTime() - start);
+        if (isNull(record)) {
+            missCount.increment();
+        } else if (nodeId.equals(record.getNodeId())) {
+            localHitCount.increment();
+        } else {
+            remoteHitCount.increment();
+        }
+        return record;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(@NonNull ConversationRecord record) {
+        this.delegate.restore(record);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int evictIdleConversations(long maxIdleTime) {
+        return this.delegate.evictIdleConversations(maxIdleTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getConversationCount() {
+        return this.delegate.getConversationCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        this.delegate.close();
+    }
+
+    /**
+     * Returns the decorated store.
+     *
+     * @return the decorated store
+     */
+    public ConversationStore getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Returns the {@link Histogram} holding the latency of the lookups performed on the decorated store.
+     *
+     * @return the {@link Histogram} holding the latency of the lookups
+     */
+    public Histogram getLookupTime() {
+        return this.lookupTime;
+    }
+
+    /**
+     * Returns the number of lookups returning a conversation hosted by the local node.
+     *
+     * @return the number of local hits
+     */
+    public long getLocalHitCount() {
+        return this.localHitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups returning a conversation hosted by another node.
+     *
+     * @return the number of remote hits
+     */
+    public long getRemoteHitCount() {
+        return this.remoteHitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find the requested entry.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+}
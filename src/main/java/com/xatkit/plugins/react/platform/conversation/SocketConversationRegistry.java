@@ -0,0 +1,308 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A thread-safe registry storing the mapping between socket connections and conversations.
+ * <p>
+ * This registry is accessed concurrently by the socket server's worker threads (to bind new sockets to their
+ * conversation) and by the platform's providers and actions (to retrieve the conversation associated to a socket).
+ * It also maintains a reverse {@code conversationId -> socketIds} index, allowing to retrieve all the sockets
+ * hosting a given conversation (e.g. when the conversation is opened in multiple tabs).
+ * <p>
+ * Entries are removed from the registry in two ways:
+ * <ul>
+ *     <li>When the socket disconnects: the entry is <i>detached</i> (see {@link #detach(String)}) and removed
+ *     after a short grace period. This grace period allows the disconnection listeners and the replies computed
+ *     for the closed socket to resolve its conversation.</li>
+ *     <li>When the entry is <i>stale</i>: entries that haven't been accessed for longer than the configured TTL
+ *     and whose socket is not connected anymore are evicted (e.g. if a disconnection event has been missed).</li>
+ * </ul>
+ * Both removals are performed by {@link #evictStaleEntries()}, that is expected to be called periodically by the
+ * {@link com.xatkit.plugins.react.platform.ReactPlatform}.
+ */
+public class SocketConversationRegistry {
+
+    /**
+     * The mapping from {@code socketId} to the {@link Entry} holding its conversation.
+     */
+    private final ConcurrentMap<String, Entry> socketToConversation = new ConcurrentHashMap<>();
+
+    /**
+     * The reverse index mapping {@code conversationId} to the identifiers of the attached sockets.
+     * <p>
+     * Detached sockets are removed from this index as soon as they are disconnected.
+     */
+    private final ConcurrentMap<String, Set<String>> conversationToSockets = new ConcurrentHashMap<>();
+
+    /**
+     * The time (in milliseconds) after which an idle entry whose socket is not connected is evicted.
+     */
+    private final long ttl;
+
+    /**
+     * The time (in milliseconds) a detached entry is kept in the registry before being removed.
+     */
+    private final long disconnectGracePeriod;
+
+    /**
+     * The predicate used to check whether a given {@code socketId} is still connected to the socket server.
+     * <p>
+     * Stale entries are only evicted if their socket is not connected anymore.
+     */
+    private final Predicate<String> liveSocketPredicate;
+
+    /**
+     * The clock used to compute the age of the entries (in milliseconds).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The number of stale entries evicted from the registry.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The number of detached entries removed from the registry.
+     */
+    private final LongAdder removalCount = new LongAdder();
+
+    /**
+     * Constructs a {@link SocketConversationRegistry} with the provided {@code ttl}, {@code disconnectGracePeriod},
+     * and {@code liveSocketPredicate}.
+     *
+     * @param ttl                   the time (in milliseconds) after which an idle entry whose socket is not
+     *                              connected is evicted
+     * @param disconnectGracePeriod the time (in milliseconds) a detached entry is kept in the registry
+     * @param liveSocketPredicate   the predicate used to check whether a socket is still connected
+     * @throws IllegalArgumentException if the provided {@code ttl} is lower or equal to {@code 0}, or if the
+     *                                  provided {@code disconnectGracePeriod} is lower than {@code 0}
+     */
+    public SocketConversationRegistry(long ttl, long disconnectGracePeriod,
+                                      @NonNull Predicate<String> liveSocketPredicate) {
+        this(ttl, disconnectGracePeriod, liveSocketPredicate, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a {@link SocketConversationRegistry} with the provided {@code ttl}, {@code disconnectGracePeriod},
+     * {@code liveSocketPredicate}, and {@code clock}.
+     * <p>
+     * This constructor is used in tests to control the age of the registry entries.
+     *
+     * @param ttl                   the time (in milliseconds) after which an idle entry whose socket is not
+     *                              connected is evicted
+     * @param disconnectGracePeriod the time (in milliseconds) a detached entry is kept in the registry
+     * @param liveSocketPredicate   the predicate used to check whether a socket is still connected
+     * @param clock                 the clock used to compute the age of the entries
+     * @throws IllegalArgumentException if the provided {@code ttl} is lower or equal to {@code 0}, or if the
+     *                                  provided {@code disconnectGracePeriod} is lower than {@code 0}
+     */
+    SocketConversationRegistry(long ttl, long disconnectGracePeriod, @NonNull Predicate<String> liveSocketPredicate,
+                               @NonNull LongSupplier clock) {
+        checkArgument(ttl > 0, "Cannot create a %s with the provided TTL %s, expected a value greater than 0",
+                this.getClass().getSimpleName(), ttl);
+        checkArgument(disconnectGracePeriod >= 0, "Cannot create a %s with the provided grace period %s, expected " +
+                "a value greater or equal to 0", this.getClass().getSimpleName(), disconnectGracePeriod);
+        this.ttl = ttl;
+        this.disconnectGracePeriod = disconnectGracePeriod;
+        this.liveSocketPredicate = liveSocketPredicate;
+        this.clock = clock;
+    }
+
+    /**
+     * Binds the provided {@code socketId} to the given {@code conversationId}.
+     * <p>
+     * If the socket was already bound to another conversation the previous binding is replaced.
+     *
+     * @param socketId       the identifier of the socket to bind
+     * @param conversationId the identifier of the conversation hosted by the socket
+     */
+    public void register(@NonNull String socketId, @NonNull String conversationId) {
+        Entry previous = this.socketToConversation.put(socketId, new Entry(conversationId, clock.getAsLong()));
+        if (previous != null && !previous.conversationId.equals(conversationId)) {
+            this.unindex(previous.conversationId, socketId);
+        }
+        this.conversationToSockets.compute(conversationId, (id, sockets) -> {
+            Set<String> result = isNull(sockets) ? ConcurrentHashMap.newKeySet() : sockets;
+            result.add(socketId);
+            return result;
+        });
+    }
+
+    /**
+     * Returns the identifier of the conversation bound to the provided {@code socketId}.
+     * <p>
+     * This method refreshes the access time of the retrieved entry. Detached entries can still be retrieved until
+     * they are removed from the registry.
+     *
+     * @param socketId the identifier of the socket to retrieve the conversation of
+     * @return the identifier of the conversation, or {@code null} if the socket is not bound to a conversation
+     */
+    public @Nullable String getConversationId(@NonNull String socketId) {
+        Entry entry = this.socketToConversation.get(socketId);
+        if (isNull(entry)) {
+            return null;
+        }
+        entry.lastAccess = clock.getAsLong();
+        return entry.conversationId;
+    }
+
+    /**
+     * Returns the identifiers of the connected sockets bound to the provided {@code conversationId}.
+     *
+     * @param conversationId the identifier of the conversation to retrieve the sockets of
+     * @return an unmodifiable view of the socket identifiers, or an empty {@link Set} if the conversation does not
+     * have any connected socket
+     */
+    public Set<String> getSocketIds(@NonNull String conversationId) {
+        Set<String> sockets = this.conversationToSockets.get(conversationId);
+        if (isNull(sockets)) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(sockets);
+    }
+
+    /**
+     * Detaches the provided {@code socketId} from its conversation.
+     * <p>
+     * This method is called when the socket disconnects. The socket is immediately removed from the reverse
+     * conversation index, and the entry is removed from the registry once the grace period has elapsed.
+     *
+     * @param socketId the identifier of the disconnected socket
+     */
+    public void detach(@NonNull String socketId) {
+        Entry entry = this.socketToConversation.get(socketId);
+        if (isNull(entry)) {
+            return;
+        }
+        entry.detachedAt = clock.getAsLong();
+        this.unindex(entry.conversationId, socketId);
+    }
+
+    /**
+     * Removes the detached entries older than the grace period and the stale entries older than the TTL.
+     *
+     * @return the number of entries removed from the registry
+     */
+    public int evictStaleEntries() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, Entry> mapEntry : this.socketToConversation.entrySet()) {
+            String socketId = mapEntry.getKey();
+            Entry entry = mapEntry.getValue();
+            if (entry.detachedAt >= 0) {
+                if (now - entry.detachedAt >= disconnectGracePeriod
+                        && this.socketToConversation.remove(socketId, entry)) {
+                    removalCount.increment();
+                    removed++;
+                }
+            } else if (now - entry.lastAccess >= ttl && !liveSocketPredicate.test(socketId)
+                    && this.socketToConversation.remove(socketId, entry)) {
+                this.unindex(entry.conversationId, socketId);
+                evictionCount.increment();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            Log.debug("Removed {0} entries from the {1}", removed, this.getClass().getSimpleName());
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of sockets stored in the registry (including detached ones).
+     *
+     * @return the number of sockets stored in the registry
+     */
+    public int size() {
+        return this.socketToConversation.size();
+    }
+
+    /**
+     * Returns the number of conversations with at least one connected socket.
+     *
+     * @return the number of conversations with at least one connected socket
+     */
+    public int getConversationCount() {
+        return this.conversationToSockets.size();
+    }
+
+    /**
+     * Returns the number of stale entries evicted since the creation of the registry.
+     *
+     * @return the number of stale entries evicted since the creation of the registry
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * Returns the number of detached entries removed since the creation of the registry.
+     *
+     * @return the number of detached entries removed since the creation of the registry
+     */
+    public long getRemovalCount() {
+        return this.removalCount.sum();
+    }
+
+    /**
+     * Removes the provided {@code socketId} from the reverse index of the given {@code conversationId}.
+     * <p>
+     * The index entry is removed once the conversation does not have any attached socket.
+     *
+     * @param conversationId the identifier of the conversation to remove the socket from
+     * @param socketId       the identifier of the socket to remove
+     */
+    private void unindex(String conversationId, String socketId) {
+        this.conversationToSockets.computeIfPresent(conversationId, (id, sockets) -> {
+            sockets.remove(socketId);
+            return sockets.isEmpty() ? null : sockets;
+        });
+    }
+
+    /**
+     * A registry entry holding the conversation bound to a socket and its access information.
+     */
+    private static class Entry {
+
+        /**
+         * The identifier of the conversation.
+         */
+        private final String conversationId;
+
+        /**
+         * The last time (in milliseconds) the entry has been accessed.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * The time (in milliseconds) the socket has been detached, or {@code -1} if the socket is attached.
+         */
+        private volatile long detachedAt = -1;
+
+        /**
+         * Constructs an {@link Entry} with the provided {@code conversationId} and {@code lastAccess} time.
+         *
+         * @param conversationId the identifier of the conversation
+         * @param lastAccess     the creation time of the entry
+         */
+        private Entry(String conversationId, long lastAccess) {
+            this.conversationId = conversationId;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
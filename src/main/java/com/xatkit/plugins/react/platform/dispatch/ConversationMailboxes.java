@@ -0,0 +1,183 @@
+package com.xatkit.plugins.react.platform.dispatch;
+
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A set of per-conversation serial mailboxes executing tasks on a shared {@link Executor}.
+ * <p>
+ * Tasks submitted with the same key (typically a conversation identifier) are executed one at a time, in their
+ * submission order. Tasks submitted with different keys are executed in parallel on the underlying
+ * {@link Executor}. This allows to process inbound events concurrently while ensuring that two quick messages from
+ * the same user are handled in the order they have been sent.
+ * <p>
+ * Mailboxes are created on demand, and are reclaimed as soon as they do not contain any pending task.
+ */
+public class ConversationMailboxes {
+
+    /**
+     * The maximum number of tasks a mailbox executes before yielding its thread to other mailboxes.
+     */
+    private static final int DEFAULT_THROUGHPUT = 16;
+
+    /**
+     * The active mailboxes, indexed by their key.
+     */
+    private final ConcurrentMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link Executor} used to drain the mailboxes.
+     */
+    private final Executor executor;
+
+    /**
+     * The maximum number of tasks a mailbox executes before yielding its thread to other mailboxes.
+     */
+    private final int throughput;
+
+    /**
+     * The number of mailboxes reclaimed since the creation of this instance.
+     */
+    private final LongAdder reclaimedCount = new LongAdder();
+
+    /**
+     * Constructs a {@link ConversationMailboxes} draining its mailboxes on the provided {@code executor}.
+     *
+     * @param executor the {@link Executor} used to drain the mailboxes
+     */
+    public ConversationMailboxes(@NonNull Executor executor) {
+        this(executor, DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * Constructs a {@link ConversationMailboxes} draining its mailboxes on the provided {@code executor}.
+     *
+     * @param executor   the {@link Executor} used to drain the mailboxes
+     * @param throughput the maximum number of tasks a mailbox executes before yielding its thread to other mailboxes
+     * @throws IllegalArgumentException if the provided {@code throughput} is lower or equal to {@code 0}
+     */
+    public ConversationMailboxes(@NonNull Executor executor, int throughput) {
+        checkArgument(throughput > 0, "Cannot create a %s with the provided throughput %s, expected a value greater " +
+                "than 0", this.getClass().getSimpleName(), throughput);
+        this.executor = executor;
+        this.throughput = throughput;
+    }
+
+    /**
+     * Submits the provided {@code task} to the mailbox associated to the given {@code key}.
+     * <p>
+     * The {@code task} is executed after all the tasks previously submitted with the same {@code key}.
+     *
+     * @param key  the key of the mailbox to submit the task to
+     * @param task the task to execute
+     */
+    public void submit(@NonNull String key, @NonNull Runnable task) {
+        Mailbox[] toSchedule = new Mailbox[1];
+        this.mailboxes.compute(key, (k, mailbox) -> {
+            Mailbox result = isNull(mailbox) ? new Mailbox(k) : mailbox;
+            result.tasks.add(task);
+            if (!result.scheduled) {
+                result.scheduled = true;
+                toSchedule[0] = result;
+            }
+            return result;
+        });
+        if (toSchedule[0] != null) {
+            this.executor.execute(toSchedule[0]);
+        }
+    }
+
+    /**
+     * Returns the number of mailboxes containing pending or running tasks.
+     *
+     * @return the number of active mailboxes
+     */
+    public int size() {
+        return this.mailboxes.size();
+    }
+
+    /**
+     * Returns the number of mailboxes reclaimed since the creation of this instance.
+     *
+     * @return the number of reclaimed mailboxes
+     */
+    public long getReclaimedCount() {
+        return this.reclaimedCount.sum();
+    }
+
+    /**
+     * A serial mailbox executing its tasks one at a time.
+     * <p>
+     * A mailbox is scheduled on the {@link #executor} at most once at a time. The {@link #scheduled} flag is only
+     * updated while holding the mailbox's entry in {@link #mailboxes}, ensuring that a mailbox is either scheduled
+     * or removed once its queue is empty.
+     */
+    private class Mailbox implements Runnable {
+
+        /**
+         * The key of the mailbox.
+         */
+        private final String key;
+
+        /**
+         * The pending tasks of the mailbox.
+         */
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Whether the mailbox is scheduled on the {@link #executor}.
+         */
+        private boolean scheduled;
+
+        /**
+         * Constructs a {@link Mailbox} with the provided {@code key}.
+         *
+         * @param key the key of the mailbox
+         */
+        private Mailbox(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Executes up to {@link #throughput} pending tasks, and reschedules or reclaims the mailbox.
+         */
+        @Override
+        public void run() {
+            for (int i = 0; i < throughput; i++) {
+                Runnable task = tasks.poll();
+                if (isNull(task)) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.error(e, "An error occurred when processing a task of the mailbox {0}, see attached " +
+                            "exception", key);
+                }
+            }
+            boolean[] reschedule = new boolean[1];
+            mailboxes.computeIfPresent(key, (k, mailbox) -> {
+                if (mailbox.tasks.isEmpty()) {
+                    mailbox.scheduled = false;
+                    reclaimedCount.increment();
+                    return null;
+                }
+                reschedule[0] = true;
+                return mailbox;
+            });
+            if (reschedule[0]) {
+                executor.execute(this);
+            }
+        }
+    }
+}
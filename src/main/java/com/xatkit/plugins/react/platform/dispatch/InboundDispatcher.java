@@ -0,0 +1,457 @@
+package com.xatkit.plugins.react.platform.dispatch;
+
+import com.xatkit.plugins.react.platform.metrics.Histogram;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Executes the processing of inbound socket events outside of the socket server's event loop.
+ * <p>
+ * Socket listeners are invoked on the netty I/O threads: running expensive operations (e.g. intent recognition)
+ * directly in a listener blocks all the sockets sharing the same event loop. This class runs these operations on a
+ * bounded pool of dedicated platform threads, or on a virtual thread per task when running on JDK 21+. In the
+ * latter case a {@link Semaphore} bounds the number of tasks executed concurrently to the configured number of
+ * threads.
+ * <p>
+ * The number of tasks waiting to be executed is bounded by the dispatcher's queue capacity. Tasks dispatched when
+ * the queue is full are dropped and counted (see {@link #getShedCount()}): they are never executed by the calling
+ * thread, that is typically a socket server's event loop. Tasks that must not be lost (e.g. the life-cycle events
+ * of a conversation) can be dispatched as non-sheddable tasks (see {@link #dispatch(String, Runnable, boolean)}),
+ * that are always admitted.
+ * <p>
+ * A dispatcher created with {@code 0} threads runs all the tasks in the calling thread.
+ * <p>
+ * Tasks dispatched with a key (see {@link #dispatch(String, Runnable)}) are executed in order with respect to the
+ * other tasks dispatched with the same key, using per-conversation {@link ConversationMailboxes}.
+ *
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_DISPATCH_THREADS_KEY
+ */
+public class InboundDispatcher {
+
+    /**
+     * The prefix of the names of the threads created by the dispatcher.
+     */
+    private static final String THREAD_NAME_PREFIX = "xatkit-react-dispatch-";
+
+    /**
+     * The time (in seconds) to wait for the running tasks to complete when the dispatcher is stopped.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    /**
+     * The maximum number of tasks waiting to be executed.
+     */
+    private final int queueCapacity;
+
+    /**
+     * The number of pending tasks the queue must be drained down to before the dispatcher stops dropping tasks.
+     * <p>
+     * Once the queue is full, the dispatcher drops the sheddable tasks until the queue has been drained down to this
+     * mark, instead of alternating between admitted and dropped tasks at the capacity boundary.
+     */
+    private final int lowWaterMark;
+
+    /**
+     * The executor running the dispatched tasks.
+     * <p>
+     * This executor is {@code null} if the dispatcher runs the tasks in the calling thread.
+     */
+    private final Executor executor;
+
+    /**
+     * The pool of platform threads running the dispatched tasks.
+     * <p>
+     * This pool is {@code null} if the dispatcher runs the tasks in the calling thread or on virtual threads.
+     */
+    private final ThreadPoolExecutor threadPool;
+
+    /**
+     * The permits bounding the number of tasks executed concurrently on virtual threads.
+     * <p>
+     * This semaphore is {@code null} if the dispatcher does not use virtual threads.
+     */
+    private final Semaphore virtualThreadPermits;
+
+    /**
+     * The number of virtual threads that can execute a task concurrently.
+     */
+    private final int virtualThreadCount;
+
+    /**
+     * The virtual threads currently executing or waiting to execute a task.
+     * <p>
+     * These threads are interrupted when the dispatcher is stopped.
+     */
+    private final Set<Thread> virtualThreads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The mailboxes ordering the tasks dispatched with the same key.
+     */
+    private final ConversationMailboxes mailboxes = new ConversationMailboxes(this::execute);
+
+    /**
+     * The number of dispatched tasks that have not been started yet.
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * The time spent by the dispatched tasks in the queue before being executed.
+     */
+    private final Histogram waitTime = new Histogram();
+
+    /**
+     * The number of tasks dropped because the dispatcher queue was full.
+     */
+    private final LongAdder shedCount = new LongAdder();
+
+    /**
+     * Whether the dispatcher is dropping tasks.
+     * <p>
+     * This flag is set when the queue is full, and cleared when the queue has been drained down to the
+     * {@link #lowWaterMark}. It is used to log a single warning when the dispatcher starts dropping tasks.
+     */
+    private final AtomicBoolean shedding = new AtomicBoolean();
+
+    /**
+     * Whether the dispatcher has been stopped.
+     */
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs an {@link InboundDispatcher} with the provided {@code threads}, {@code queueCapacity}, and
+     * {@code virtualThreads} setting.
+     * <p>
+     * If {@code virtualThreads} is {@code true} but the running JVM does not support virtual threads the dispatcher
+     * falls back to platform threads.
+     *
+     * @param threads        the number of threads used to process dispatched tasks, or {@code 0} to process them in
+     *                       the calling thread
+     * @param queueCapacity  the maximum number of pending tasks
+     * @param virtualThreads whether to use virtual threads to process the dispatched tasks
+     * @throws IllegalArgumentException if the provided {@code threads} is lower than {@code 0} or if the provided
+     *                                  {@code queueCapacity} is lower or equal to {@code 0}
+     */
+    public InboundDispatcher(int threads, int queueCapacity, boolean virtualThreads) {
+        checkArgument(threads >= 0, "Cannot create a %s with the provided number of threads %s, expected a value " +
+                "greater or equal to 0", this.getClass().getSimpleName(), threads);
+        checkArgument(queueCapacity > 0, "Cannot create a %s with the provided queue capacity %s, expected a value " +
+                "greater than 0", this.getClass().getSimpleName(), queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.lowWaterMark = queueCapacity / 2;
+        ThreadFactory virtualThreadFactory = (threads > 0 && virtualThreads) ? createVirtualThreadFactory() : null;
+        if (threads == 0) {
+            this.executor = null;
+            this.threadPool = null;
+            this.virtualThreadPermits = null;
+            this.virtualThreadCount = 0;
+        } else if (nonNull(virtualThreadFactory)) {
+            Semaphore permits = new Semaphore(threads);
+            this.executor = task -> virtualThreadFactory.newThread(() -> {
+                Thread currentThread = Thread.currentThread();
+                this.virtualThreads.add(currentThread);
+                try {
+                    if (shutdown) {
+                        return;
+                    }
+                    permits.acquire();
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                } catch (InterruptedException e) {
+                    /*
+                     * The dispatcher has been stopped while the task was waiting for a permit.
+                     */
+                    currentThread.interrupt();
+                } finally {
+                    this.virtualThreads.remove(currentThread);
+                }
+            }).start();
+            this.threadPool = null;
+            this.virtualThreadPermits = permits;
+            this.virtualThreadCount = threads;
+        } else {
+            /*
+             * The work queue does not need to be bounded: the dispatched tasks are admitted against the queue
+             * capacity before being submitted, and each mailbox is submitted at most once at a time.
+             */
+            this.threadPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), createPlatformThreadFactory(),
+                    new ThreadPoolExecutor.DiscardPolicy());
+            this.threadPool.allowCoreThreadTimeOut(true);
+            this.executor = this.threadPool;
+            this.virtualThreadPermits = null;
+            this.virtualThreadCount = 0;
+        }
+    }
+
+    /**
+     * Dispatches the provided {@code task}.
+     * <p>
+     * Exceptions thrown by the {@code task} are logged and do not affect the dispatcher.
+     *
+     * @param task the task to dispatch
+     * @return {@code true} if the task has been dispatched, {@code false} if it has been dropped because the
+     * dispatcher queue is full or the dispatcher has been stopped
+     */
+    public boolean dispatch(@NonNull Runnable task) {
+        if (isNull(executor)) {
+            runTask(task);
+            return true;
+        }
+        Runnable admittedTask = this.admit(task, true);
+        if (isNull(admittedTask)) {
+            return false;
+        }
+        this.execute(admittedTask);
+        return true;
+    }
+
+    /**
+     * Dispatches the provided {@code task} in the mailbox associated to the given {@code key}.
+     * <p>
+     * The {@code task} is executed after all the tasks previously dispatched with the same {@code key}, while tasks
+     * with different keys are executed in parallel. This method is typically called with a conversation identifier
+     * to ensure that the messages of a conversation are processed in the order they have been received.
+     *
+     * @param key  the key of the mailbox to dispatch the task to
+     * @param task the task to dispatch
+     * @return {@code true} if the task has been dispatched, {@code false} if it has been dropped because the
+     * dispatcher queue is full or the dispatcher has been stopped
+     * @see ConversationMailboxes
+     */
+    public boolean dispatch(@NonNull String key, @NonNull Runnable task) {
+        return this.dispatch(key, task, true);
+    }
+
+    /**
+     * Dispatches the provided {@code task} in the mailbox associated to the given {@code key}.
+     * <p>
+     * Non-sheddable tasks are admitted even if the dispatcher queue is full: this method is used to dispatch the
+     * events that must not be lost (e.g. the life-cycle events of a conversation). Non-sheddable tasks are counted
+     * in the queue depth, and can exceed the queue capacity.
+     *
+     * @param key       the key of the mailbox to dispatch the task to
+     * @param task      the task to dispatch
+     * @param sheddable whether the task can be dropped if the dispatcher queue is full
+     * @return {@code true} if the task has been dispatched, {@code false} if it has been dropped because the
+     * dispatcher queue is full or the dispatcher has been stopped
+     * @see #dispatch(String, Runnable)
+     */
+    public boolean dispatch(@NonNull String key, @NonNull Runnable task, boolean sheddable) {
+        if (isNull(executor)) {
+            this.mailboxes.submit(key, task);
+            return true;
+        }
+        Runnable admittedTask = this.admit(task, sheddable);
+        if (isNull(admittedTask)) {
+            return false;
+        }
+        this.mailboxes.submit(key, admittedTask);
+        return true;
+    }
+
+    /**
+     * Returns the number of tasks waiting to be executed.
+     *
+     * @return the number of tasks waiting to be executed
+     */
+    public int getQueueDepth() {
+        return this.pendingCount.get();
+    }
+
+    /**
+     * Returns the mailboxes ordering the tasks dispatched with the same key.
+     *
+     * @return the mailboxes ordering the tasks dispatched with the same key
+     */
+    public ConversationMailboxes getMailboxes() {
+        return this.mailboxes;
+    }
+
+    /**
+     * Returns the number of tasks currently executed by the dispatcher threads.
+     *
+     * @return the number of tasks currently executed by the dispatcher threads
+     */
+    public int getActiveCount() {
+        if (nonNull(threadPool)) {
+            return threadPool.getActiveCount();
+        }
+        if (nonNull(virtualThreadPermits)) {
+            return virtualThreadCount - virtualThreadPermits.availablePermits();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the time spent by the dispatched tasks in the queue before being executed.
+     *
+     * @return the {@link Histogram} holding the wait time of the dispatched tasks
+     */
+    public Histogram getWaitTime() {
+        return this.waitTime;
+    }
+
+    /**
+     * Returns the number of tasks dropped because the dispatcher queue was full.
+     *
+     * @return the number of dropped tasks
+     */
+    public long getShedCount() {
+        return this.shedCount.sum();
+    }
+
+    /**
+     * Stops the dispatcher.
+     * <p>
+     * Pending tasks are discarded, and the tasks dispatched after this call are rejected. The running tasks are
+     * interrupted, and this method waits for them to complete (up to {@link #SHUTDOWN_TIMEOUT} seconds).
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        try {
+            if (nonNull(threadPool)) {
+                this.threadPool.shutdownNow();
+                if (!this.threadPool.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    Log.warn("The dispatcher threads did not complete their tasks within {0} seconds",
+                            SHUTDOWN_TIMEOUT);
+                }
+            } else if (nonNull(virtualThreadPermits)) {
+                this.virtualThreads.forEach(Thread::interrupt);
+                if (this.virtualThreadPermits.tryAcquire(virtualThreadCount, SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    this.virtualThreadPermits.release(virtualThreadCount);
+                } else {
+                    Log.warn("The dispatcher virtual threads did not complete their tasks within {0} seconds",
+                            SHUTDOWN_TIMEOUT);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Admits the provided {@code task} in the dispatcher queue.
+     * <p>
+     * Once the queue is full, sheddable tasks are dropped until the queue has been drained down to the
+     * {@link #lowWaterMark}. The returned task records the time spent in the queue, releases its slot in the queue
+     * when it starts, and is discarded if the dispatcher has been stopped in the meantime.
+     *
+     * @param task      the task to admit
+     * @param sheddable whether the task can be dropped if the dispatcher queue is full
+     * @return the admitted task, or {@code null} if the task has been dropped
+     */
+    private Runnable admit(Runnable task, boolean sheddable) {
+        if (shutdown) {
+            return null;
+        }
+        int pending = pendingCount.incrementAndGet();
+        if (sheddable) {
+            if (pending > queueCapacity) {
+                if (shedding.compareAndSet(false, true)) {
+                    Log.warn("The dispatcher queue is full ({0} pending inbound events), dropping the inbound " +
+                            "events until it is drained down to {1} pending events", queueCapacity, lowWaterMark);
+                }
+            } else if (pending - 1 <= lowWaterMark && shedding.get() && shedding.compareAndSet(true, false)) {
+                Log.info("The dispatcher queue has been drained, accepting the inbound events");
+            }
+            if (shedding.get()) {
+                pendingCount.decrementAndGet();
+                shedCount.increment();
+                return null;
+            }
+        }
+        long submissionTime = System.nanoTime();
+        return () -> {
+            pendingCount.decrementAndGet();
+            if (shutdown) {
+                return;
+            }
+            waitTime.record(System.nanoTime() - submissionTime);
+            runTask(task);
+        };
+    }
+
+    /**
+     * Executes the provided {@code runnable} on the dispatcher's executor, or in the calling thread if the
+     * dispatcher does not have any thread.
+     * <p>
+     * This method does not check the queue capacity, and is used to execute admitted tasks and mailboxes.
+     *
+     * @param runnable the {@link Runnable} to execute
+     */
+    private void execute(Runnable runnable) {
+        if (isNull(executor)) {
+            runTask(runnable);
+        } else if (!shutdown) {
+            this.executor.execute(runnable);
+        }
+    }
+
+    /**
+     * Runs the provided {@code task} and logs the thrown exceptions.
+     *
+     * @param task the task to run
+     */
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            Log.error(e, "An error occurred when processing an inbound event, see attached exception");
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} creating daemon platform threads.
+     *
+     * @return the created {@link ThreadFactory}
+     */
+    private static ThreadFactory createPlatformThreadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} creating virtual threads.
+     * <p>
+     * Virtual threads are accessed reflectively to keep the platform compatible with older JVMs.
+     *
+     * @return the created {@link ThreadFactory}, or {@code null} if the JVM does not support virtual threads
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, THREAD_NAME_PREFIX, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            Log.warn("Virtual threads are not supported by the current JVM, using platform threads to dispatch " +
+                    "inbound events");
+            return null;
+        }
+    }
+}
@@ -9,15 +9,10 @@ import com.xatkit.intent.EventInstance;
 import com.xatkit.intent.IntentFactory;
 import com.xatkit.plugins.chat.ChatUtils;
 import com.xatkit.plugins.react.platform.ReactPlatform;
-import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
-import com.xatkit.plugins.react.platform.socket.action.InitConfirm;
-import com.xatkit.plugins.react.platform.socket.event.Init;
 import com.xatkit.plugins.react.platform.utils.ReactUtils;
-import fr.inria.atlanmod.commons.log.Log;
 import org.apache.commons.configuration2.Configuration;
 
 import static com.xatkit.dsl.DSL.event;
-import static java.util.Objects.isNull;
 
 /**
  * A {@link RuntimeEventProvider} that fires non-textual events related to the Xatkit react chat component.
@@ -42,6 +37,12 @@ public class ReactEventProvider extends RuntimeEventProvider<ReactPlatform> {
      * This method registers the listeners to the socker server to receive widget life-cycle notifications (client
      * connection/disconnection, etc) and creates the corresponding {@link EventInstance}s. Received notifications
      * won't be processed until this method is invoked.
+     * <p>
+     * The created {@link EventInstance}s are sent through the platform's
+     * {@link com.xatkit.plugins.react.platform.dispatch.InboundDispatcher}, ensuring that they are ordered with the
+     * messages of the same conversation. They are dispatched as non-sheddable tasks: unlike the user messages, they
+     * are never dropped when the dispatcher queue is full, so that conversations do not lose their greeting or their
+     * cleanup.
      *
      * @see #ClientReady
      * @see #ClientClosed
@@ -51,36 +52,23 @@ public class ReactEventProvider extends RuntimeEventProvider<ReactPlatform> {
         super.start(configuration);
         /*
          * Register the listener that creates the Client_Ready event.
-         * This event is fired every time the client connects to the socket server.
+         * This event is fired once per conversation, when the platform's handshake binds the first socket to it.
+         * Sockets resuming an existing conversation (e.g. page reloads, other tabs) do not fire it again.
          */
-        this.runtimePlatform.getSocketIOServer().removeAllListeners(SocketEventTypes.INIT.label);
-        this.runtimePlatform.getSocketIOServer().addEventListener(SocketEventTypes.INIT.label, Init.class,
-                (socketIOClient, initObject, ackRequest) -> {
-                    String socketId = socketIOClient.getSessionId().toString();
-
-                    StateContext context = this.runtimePlatform.getStateContextForSocketId(socketId);
-
-                    if (isNull(context)) {
-                        String conversationId = initObject.getConversationId();
-                        Log.debug("Client requested conversation {0}", conversationId);
-                        context = this.runtimePlatform.createStateContextForConversation(socketId, conversationId);
-                        context.setOrigin(initObject.getOrigin());
-                        socketIOClient.sendEvent(SocketEventTypes.INIT_CONFIRM.label,
-                                new InitConfirm(context.getContextId()));
-                    }
-                    /*
-                     * The session already exists, no need to send an ack event.
-                     */
-                    EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
-                    eventInstance.setDefinition(ClientReady);
-                    eventInstance.getPlatformData().put(ChatUtils.CHAT_CHANNEL_CONTEXT_KEY, socketId);
-                    eventInstance.getPlatformData().put(ReactUtils.REACT_HOSTNAME_CONTEXT_KEY,
-                            initObject.getHostname());
-                    eventInstance.getPlatformData().put(ReactUtils.REACT_URL_CONTEXT_KEY, initObject.getUrl());
-                    eventInstance.getPlatformData().put(ReactUtils.REACT_ORIGIN_CONTEXT_KEY, initObject.getOrigin());
-                    this.sendEventInstance(eventInstance, context);
-
-                });
+        this.runtimePlatform.addInitListener((socketId, socketIOClient, initObject, context, created,
+                                              newConversation) -> {
+            if (!newConversation) {
+                return;
+            }
+            EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+            eventInstance.setDefinition(ClientReady);
+            eventInstance.getPlatformData().put(ChatUtils.CHAT_CHANNEL_CONTEXT_KEY, socketId);
+            eventInstance.getPlatformData().put(ReactUtils.REACT_HOSTNAME_CONTEXT_KEY, initObject.getHostname());
+            eventInstance.getPlatformData().put(ReactUtils.REACT_URL_CONTEXT_KEY, initObject.getUrl());
+            eventInstance.getPlatformData().put(ReactUtils.REACT_ORIGIN_CONTEXT_KEY, initObject.getOrigin());
+            this.runtimePlatform.getInboundDispatcher().dispatch(this.runtimePlatform.getDispatchKey(context,
+                    socketId), () -> this.sendEventInstance(eventInstance, context), false);
+        });
         /*
          * Register the listener that creates the Client_Closed event.
          * This event is fired every time the client disconnects from the socket server.
@@ -91,7 +79,8 @@ public class ReactEventProvider extends RuntimeEventProvider<ReactPlatform> {
             EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
             eventInstance.setDefinition(ClientClosed);
             eventInstance.getPlatformData().put(ChatUtils.CHAT_CHANNEL_CONTEXT_KEY, channel);
-            this.sendEventInstance(eventInstance, context);
+            this.runtimePlatform.getInboundDispatcher().dispatch(this.runtimePlatform.getDispatchKey(context, channel),
+                    () -> this.sendEventInstance(eventInstance, context), false);
         });
     }
 
@@ -106,7 +95,7 @@ public class ReactEventProvider extends RuntimeEventProvider<ReactPlatform> {
     }
 
     /**
-     * The {@link EventDefinition} that is fired when a client connects to the widget.
+     * The {@link EventDefinition} that is fired when a client starts a new conversation with the widget.
      */
     public static EventDefinition ClientReady = event("Client_Ready")
             .getEventDefinition();
@@ -7,16 +7,13 @@ import com.xatkit.intent.RecognizedIntent;
 import com.xatkit.plugins.chat.platform.io.ChatIntentProvider;
 import com.xatkit.plugins.react.platform.ReactPlatform;
 import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
-import com.xatkit.plugins.react.platform.socket.action.InitConfirm;
-import com.xatkit.plugins.react.platform.socket.event.Init;
 import com.xatkit.plugins.react.platform.socket.event.UserMessageReceived;
 import com.xatkit.plugins.react.platform.socket.event.UserQuickButtonSelected;
+import com.xatkit.plugins.react.platform.tracing.MessageTracer;
 import com.xatkit.plugins.react.platform.utils.ReactUtils;
 import fr.inria.atlanmod.commons.log.Log;
 import org.apache.commons.configuration2.Configuration;
 
-import static java.util.Objects.isNull;
-
 /**
  * A {@link ChatIntentProvider} that receives message through the socket server and translates them into
  * {@link RecognizedIntent}s.
@@ -38,52 +35,83 @@ public class ReactIntentProvider extends ChatIntentProvider<ReactPlatform> {
      * This method registers the listeners on the socker server to receive user interactions (messages, button
      * clicks, etc) and translate them into {@link RecognizedIntent}s. Received interactions won't be translated
      * until this method is invoked.
+     * <p>
+     * The {@link com.xatkit.plugins.react.platform.socket.event.Init} events binding the sockets to their
+     * conversation are handled by the platform (see {@link ReactPlatform#getInitHandshake()}).
      */
     @Override
     public void start(Configuration configuration) {
         super.start(configuration);
         this.runtimePlatform.getSocketIOServer().addEventListener(SocketEventTypes.USER_MESSAGE.label,
                 UserMessageReceived.class, (socketIOClient, messageObject, ackRequest) -> {
+                    long start = System.nanoTime();
                     Log.debug("Received message {0}", messageObject.getMessage());
                     Log.debug("Session ID: {0}", socketIOClient.getSessionId());
                     String username = messageObject.getUsername();
                     String channel = socketIOClient.getSessionId().toString();
                     String rawMessage = messageObject.getMessage();
                     StateContext context = this.getRuntimePlatform().getStateContextForSocketId(channel);
-                    RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent(rawMessage,
-                            context, this.getRuntimePlatform().getXatkitBot());
-                    setEventParameterValues(recognizedIntent, username, channel, rawMessage);
-                    this.sendEventInstance(recognizedIntent, context);
+                    long traceId = this.getRuntimePlatform().getMessageTracer().start(channel,
+                            SocketEventTypes.USER_MESSAGE.label, start);
+                    this.getRuntimePlatform().dispatchUserInput(channel, context,
+                            SocketEventTypes.USER_MESSAGE.label,
+                            () -> recognizeAndSendIntent(context, username, channel, rawMessage, traceId));
+                    this.getRuntimePlatform().recordSocketEvent(SocketEventTypes.USER_MESSAGE, start);
                 });
         this.runtimePlatform.getSocketIOServer().addEventListener(SocketEventTypes.USER_BUTTON_CLICK.label,
                 UserQuickButtonSelected.class, ((socketIOClient, quickButtonEventObject, ackRequest) -> {
+                    long start = System.nanoTime();
                     Log.debug("Received click");
                     Log.debug("Session ID: {0}", socketIOClient.getSessionId());
                     String username = quickButtonEventObject.getUsername();
                     String channel = socketIOClient.getSessionId().toString();
                     String rawMessage = quickButtonEventObject.getSelectedValue();
                     StateContext context = this.getRuntimePlatform().getStateContextForSocketId(channel);
-                    RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent(rawMessage,
-                            context, this.getRuntimePlatform().getXatkitBot());
-                    setEventParameterValues(recognizedIntent, username, channel, rawMessage);
-                    this.sendEventInstance(recognizedIntent, context);
+                    long traceId = this.getRuntimePlatform().getMessageTracer().start(channel,
+                            SocketEventTypes.USER_BUTTON_CLICK.label, start);
+                    this.getRuntimePlatform().dispatchUserInput(channel, context,
+                            SocketEventTypes.USER_BUTTON_CLICK.label,
+                            () -> recognizeAndSendIntent(context, username, channel, rawMessage, traceId));
+                    this.getRuntimePlatform().recordSocketEvent(SocketEventTypes.USER_BUTTON_CLICK, start);
                 }));
-        this.runtimePlatform.getSocketIOServer().addEventListener(SocketEventTypes.INIT.label, Init.class,
-                (socketIOClient, initObject, ackRequest) -> {
-                    String socketId = socketIOClient.getSessionId().toString();
-                    StateContext context = this.runtimePlatform.getStateContextForSocketId(socketId);
-                    if (isNull(context)) {
-                        String conversationId = initObject.getConversationId();
-                        Log.debug("Client requested conversation {0}", conversationId);
-                        context = this.runtimePlatform.createStateContextForConversation(socketId, conversationId);
-                        context.setOrigin(initObject.getOrigin());
-                        socketIOClient.sendEvent(SocketEventTypes.INIT_CONFIRM.label,
-                                new InitConfirm(context.getContextId()));
-                    }
-                    /*
-                     * The session already exists, no need to send an ack event.
-                     */
-                });
+    }
+
+    /**
+     * Recognizes the intent matching the provided {@code rawMessage} and sends it to the bot.
+     * <p>
+     * This method is executed by the platform's {@link com.xatkit.plugins.react.platform.dispatch.InboundDispatcher}
+     * to avoid blocking the socket server's event loop during intent recognition. Messages of the same conversation
+     * are recognized in the order they have been received. Errors are logged, since there is
+     * no socket listener to report them to. The recognition time is recorded in the platform's metrics (see
+     * {@link ReactPlatform#recordRecognition(long)}).
+     * <p>
+     * If the message is traced its trace identifier is added to the platform data of the recognized intent,
+     * allowing the actions replying to it to record their timings (see
+     * {@link ReactPlatform#traceActionStart(StateContext, String)}).
+     *
+     * @param context    the {@link StateContext} associated to the socket that sent the message
+     * @param username   the name of the user that sent the message
+     * @param channel    the identifier of the socket that sent the message
+     * @param rawMessage the raw message sent by the user
+     * @param traceId    the identifier of the trace of the message, or {@link MessageTracer#NO_TRACE}
+     */
+    private void recognizeAndSendIntent(StateContext context, String username, String channel,
+                                        String rawMessage, long traceId) {
+        try {
+            long recognitionStart = System.nanoTime();
+            RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent(rawMessage,
+                    context, this.getRuntimePlatform().getXatkitBot());
+            this.getRuntimePlatform().recordRecognition(recognitionStart);
+            setEventParameterValues(recognizedIntent, username, channel, rawMessage);
+            if (traceId != MessageTracer.NO_TRACE) {
+                this.getRuntimePlatform().getMessageTracer().recognized(traceId);
+                recognizedIntent.getPlatformData().put(ReactUtils.REACT_TRACE_ID_CONTEXT_KEY, traceId);
+            }
+            this.sendEventInstance(recognizedIntent, context);
+        } catch (Exception e) {
+            Log.error(e, "An error occurred when recognizing the intent of the message \"{0}\" received on " +
+                    "channel {1}, see attached exception", rawMessage, channel);
+        }
     }
 
     /**
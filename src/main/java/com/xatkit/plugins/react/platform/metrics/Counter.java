@@ -0,0 +1,41 @@
+package com.xatkit.plugins.react.platform.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free monotonic counter.
+ * <p>
+ * Counters are created and registered by a {@link MetricsRegistry}, and are designed to be incremented from hot
+ * paths: incrementing a counter only updates a striped {@link LongAdder} and never blocks.
+ *
+ * @see MetricsRegistry#counter(String, String, String...)
+ */
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Increments the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds the provided {@code amount} to the counter.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current value of the counter.
+     *
+     * @return the current value of the counter
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,193 @@
+package com.xatkit.plugins.react.platform.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A lock-free histogram recording the distribution of positive {@code long} values with a bounded relative error.
+ * <p>
+ * This histogram follows the layout of HdrHistogram: values lower than {@code 128} are counted exactly, and larger
+ * values are counted in log-linear buckets, each power of two being split in {@code 64} sub-buckets. The relative
+ * error of the reported percentiles is lower than {@code 1/64} (about {@code 1.6%}) over the whole {@code long}
+ * range, and the histogram has a fixed footprint of {@value #BUCKET_COUNT} counters.
+ * <p>
+ * Recording a value increments a single bucket with an atomic operation, and never allocates nor blocks. The
+ * percentiles are computed from a scan of the buckets, that is not atomic with the concurrent recordings.
+ * <p>
+ * Histograms are used by the platform's components to record their latencies (in nanoseconds), and can be exposed
+ * by a {@link MetricsRegistry} (see {@link MetricsRegistry#histogram(String, String, Histogram, String...)}).
+ *
+ * @see MetricsRegistry#histogram(String, String, String...)
+ */
+public class Histogram {
+
+    /**
+     * The number of bits of the values counted in the same power of two sub-bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /**
+     * The number of sub-buckets in a power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of values counted exactly.
+     */
+    private static final int LINEAR_BUCKET_COUNT = 2 * SUB_BUCKET_COUNT;
+
+    /**
+     * The total number of buckets, covering the positive {@code long} range.
+     */
+    static final int BUCKET_COUNT = LINEAR_BUCKET_COUNT + (Long.SIZE - 2 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * The number of recorded values counted in each bucket (see {@link #bucketIndex(long)}).
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The number of recorded values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The maximum recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the provided {@code value}.
+     * <p>
+     * Negative values are recorded as {@code 0}.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long positiveValue = Math.max(value, 0);
+        buckets.incrementAndGet(bucketIndex(positiveValue));
+        count.increment();
+        sum.add(positiveValue);
+        max.accumulate(positiveValue);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}.
+     *
+     * @param startNanos the start of the measured operation, as returned by {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the maximum recorded value.
+     *
+     * @return the maximum recorded value, or {@code 0} if no value has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean of the recorded values, or {@code 0} if no value has been recorded
+     */
+    public double getMean() {
+        long currentCount = count.sum();
+        if (currentCount == 0) {
+            return 0;
+        }
+        return (double) sum.sum() / currentCount;
+    }
+
+    /**
+     * Returns the value below which {@code percentile} percent of the recorded values fall.
+     * <p>
+     * The returned value is the highest value counted in the same bucket as the value at the given percentile, and
+     * is never greater than the maximum recorded value.
+     *
+     * @param percentile the percentile to compute, between {@code 0} and {@code 100}
+     * @return the value at the given percentile, or {@code 0} if no value has been recorded
+     * @throws IllegalArgumentException if the provided {@code percentile} is not between {@code 0} and {@code 100}
+     */
+    public long getValueAtPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Cannot compute the percentile %s, expected a value "
+                + "between 0 and 100", percentile);
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(percentile / 100 * total), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the index of the bucket counting the provided {@code value}.
+     *
+     * @param value the positive value to get the bucket of
+     * @return the index of the bucket counting the value
+     */
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return LINEAR_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value counted in the bucket at the provided {@code index}.
+     *
+     * @param index the index of the bucket
+     * @return the highest value counted in the bucket
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT + 1;
+        long lowestValue = (long) (SUB_BUCKET_COUNT + (index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
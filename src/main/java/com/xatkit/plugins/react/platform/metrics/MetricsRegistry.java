@@ -0,0 +1,301 @@
+package com.xatkit.plugins.react.platform.metrics;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A registry of named metrics, exposed in the Prometheus text format.
+ * <p>
+ * The registry holds {@link Counter}s, {@link Histogram}s, and gauges/counters computed from a supplier (e.g. the
+ * statistics of an existing component). Metrics are identified by their name and their labels, and metrics with the
+ * same name form a family sharing the same type and help text. Registering a metric that already exists returns the
+ * existing one: instrumented code should register its metrics once and keep a reference to them, the hot paths only
+ * update the lock-free {@link Counter}s and {@link Histogram}s.
+ * <p>
+ * {@link Histogram}s record durations in nanoseconds, and are exposed as Prometheus summaries in seconds with the
+ * {@link #QUANTILES}, and an additional {@code <name>_max} gauge.
+ *
+ * @see #scrape()
+ */
+public class MetricsRegistry {
+
+    /**
+     * The content type of the Prometheus text format returned by {@link #scrape()}.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * The quantiles exposed for each {@link Histogram}.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    /**
+     * The pattern of the valid metric and label names.
+     */
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    /**
+     * The number of nanoseconds in a second, used to expose the {@link Histogram}s in seconds.
+     */
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The types of the metric families.
+     */
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * The metrics with the same name, identified by their labels.
+     */
+    private static final class MetricFamily {
+
+        private final String name;
+
+        private final String help;
+
+        private final Type type;
+
+        /**
+         * The metrics of the family, indexed by their formatted labels (e.g. {@code {event="init"}}).
+         */
+        private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+        private MetricFamily(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final ConcurrentMap<String, MetricFamily> families = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the {@link Counter} with the provided {@code name} and {@code labels}, creating it if needed.
+     * <p>
+     * Following the Prometheus conventions the name of a counter should end with {@code _total}.
+     *
+     * @param name   the name of the counter
+     * @param help   the description of the counter
+     * @param labels the labels of the counter, as a sequence of names and values
+     * @return the {@link Counter}
+     * @throws IllegalArgumentException if the name or the labels are invalid, or if a metric with the same name
+     *                                  and another type exists
+     */
+    public Counter counter(@NonNull String name, @NonNull String help, String... labels) {
+        return (Counter) getOrCreate(name, help, Type.COUNTER, labels, Counter::new);
+    }
+
+    /**
+     * Registers a counter computed by the provided {@code value} supplier.
+     * <p>
+     * This method allows to expose the counters already maintained by a component. The supplier is called when
+     * the metrics are scraped, and must be thread-safe.
+     *
+     * @param name   the name of the counter
+     * @param help   the description of the counter
+     * @param value  the supplier computing the value of the counter
+     * @param labels the labels of the counter, as a sequence of names and values
+     * @throws IllegalArgumentException if the name or the labels are invalid, or if a metric with the same name
+     *                                  and another type exists
+     */
+    public void counter(@NonNull String name, @NonNull String help, @NonNull LongSupplier value, String... labels) {
+        getOrCreate(name, help, Type.COUNTER, labels, () -> value);
+    }
+
+    /**
+     * Registers a gauge computed by the provided {@code value} supplier.
+     * <p>
+     * The supplier is called when the metrics are scraped, and must be thread-safe.
+     *
+     * @param name   the name of the gauge
+     * @param help   the description of the gauge
+     * @param value  the supplier computing the value of the gauge
+     * @param labels the labels of the gauge, as a sequence of names and values
+     * @throws IllegalArgumentException if the name or the labels are invalid, or if a metric with the same name
+     *                                  and another type exists
+     */
+    public void gauge(@NonNull String name, @NonNull String help, @NonNull DoubleSupplier value, String... labels) {
+        getOrCreate(name, help, Type.GAUGE, labels, () -> value);
+    }
+
+    /**
+     * Returns the {@link Histogram} with the provided {@code name} and {@code labels}, creating it if needed.
+     * <p>
+     * The histogram records durations in nanoseconds, that are exposed in seconds. Following the Prometheus
+     * conventions its name should end with {@code _seconds}.
+     *
+     * @param name   the name of the histogram
+     * @param help   the description of the histogram
+     * @param labels the labels of the histogram, as a sequence of names and values
+     * @return the {@link Histogram}
+     * @throws IllegalArgumentException if the name or the labels are invalid, or if a metric with the same name
+     *                                  and another type exists
+     */
+    public Histogram histogram(@NonNull String name, @NonNull String help, String... labels) {
+        return (Histogram) getOrCreate(name, help, Type.SUMMARY, labels, Histogram::new);
+    }
+
+    /**
+     * Registers the provided {@code histogram}.
+     * <p>
+     * This method allows to expose the histograms already maintained by a component (e.g. the latency of its
+     * operations). The histogram must record durations in nanoseconds, that are exposed in seconds.
+     *
+     * @param name      the name of the histogram
+     * @param help      the description of the histogram
+     * @param histogram the histogram to register
+     * @param labels    the labels of the histogram, as a sequence of names and values
+     * @throws IllegalArgumentException if the name or the labels are invalid, or if a metric with the same name
+     *                                  and another type exists
+     */
+    public void histogram(@NonNull String name, @NonNull String help, @NonNull Histogram histogram,
+                          String... labels) {
+        getOrCreate(name, help, Type.SUMMARY, labels, () -> histogram);
+    }
+
+    /**
+     * Returns the registered metrics in the Prometheus text format.
+     * <p>
+     * The families are sorted by name, and their metrics by labels.
+     *
+     * @return the registered metrics in the Prometheus text format
+     * @see #CONTENT_TYPE
+     */
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(families.size() * 256);
+        for (MetricFamily family : new TreeMap<>(families).values()) {
+            writeHeader(sb, family.name, family.help, family.type.label);
+            Map<String, Object> metrics = new TreeMap<>(family.metrics);
+            for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+                writeMetric(sb, family.name, entry.getKey(), entry.getValue());
+            }
+            if (family.type == Type.SUMMARY) {
+                writeHeader(sb, family.name + "_max", "The maximum value of " + family.name, Type.GAUGE.label);
+                for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+                    writeSample(sb, family.name + "_max", entry.getKey(),
+                            ((Histogram) entry.getValue()).getMax() / NANOS_PER_SECOND);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private Object getOrCreate(String name, String help, Type type, String[] labels, Supplier<Object> factory) {
+        checkArgument(NAME_PATTERN.matcher(name).matches(), "Invalid metric name %s, expected a name matching %s",
+                name, NAME_PATTERN);
+        MetricFamily family = families.computeIfAbsent(name, n -> new MetricFamily(n, help, type));
+        checkArgument(family.type == type, "Cannot register the %s %s, the metric is already registered as a %s",
+                type.label, name, family.type.label);
+        return family.metrics.computeIfAbsent(formatLabels(labels), l -> factory.get());
+    }
+
+    /**
+     * Formats the provided {@code labels} in the Prometheus text format (e.g. {@code {event="init"}}).
+     *
+     * @param labels the labels to format, as a sequence of names and values
+     * @return the formatted labels, or an empty {@link String} if there is no label
+     * @throws IllegalArgumentException if the labels are not a sequence of names and values, or if a name is invalid
+     */
+    private static String formatLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        checkArgument(labels.length % 2 == 0, "Invalid labels, expected a sequence of names and values, found %s "
+                + "elements", labels.length);
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            checkArgument(NAME_PATTERN.matcher(labels[i]).matches(), "Invalid label name %s, expected a name "
+                    + "matching %s", labels[i], NAME_PATTERN);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void writeHeader(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ');
+        for (int i = 0; i < help.length(); i++) {
+            char c = help.charAt(i);
+            if (c == '\\') {
+                sb.append("\\\\");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('\n').append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeMetric(StringBuilder sb, String name, String labels, Object metric) {
+        if (metric instanceof Counter) {
+            writeSample(sb, name, labels, ((Counter) metric).get());
+        } else if (metric instanceof LongSupplier) {
+            writeSample(sb, name, labels, ((LongSupplier) metric).getAsLong());
+        } else if (metric instanceof DoubleSupplier) {
+            writeSample(sb, name, labels, ((DoubleSupplier) metric).getAsDouble());
+        } else {
+            Histogram histogram = (Histogram) metric;
+            for (double quantile : QUANTILES) {
+                String quantileLabel = "quantile=\"" + quantile + "\"";
+                String quantileLabels = labels.isEmpty() ? "{" + quantileLabel + "}" :
+                        labels.substring(0, labels.length() - 1) + "," + quantileLabel + "}";
+                writeSample(sb, name, quantileLabels,
+                        histogram.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND);
+            }
+            writeSample(sb, name + "_sum", labels, histogram.getSum() / NANOS_PER_SECOND);
+            writeSample(sb, name + "_count", labels, histogram.getCount());
+        }
+    }
+
+    private static void writeSample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static void writeSample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name).append(labels).append(' ');
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            sb.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+}
@@ -0,0 +1,187 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * Combines the bot messages sent to a channel within a short window into a single batch.
+ * <p>
+ * A state typically posts several messages in a row: sending each of them in its own socket frame multiplies the
+ * encoding and write/flush costs. This class accumulates the messages sent to a channel, and emits them as a single
+ * batch once the batching window is over, or when {@link #flush(String)} is called (e.g. before sending another kind
+ * of event to the channel, to preserve the ordering of the events).
+ * <p>
+ * A batch is atomically removed from the pending batch map before being emitted, and the map is never locked while
+ * writing to a socket: the emitter can safely call back into the batcher. Batches of the same channel are emitted
+ * while holding the channel's emission lock (one of {@link #EMISSION_LOCK_COUNT} striped locks), ensuring that they
+ * are never emitted concurrently, and are emitted in the order they have been created.
+ */
+public class BotMessageBatcher {
+
+    /**
+     * The number of locks serializing the emission of the batches of a channel.
+     */
+    private static final int EMISSION_LOCK_COUNT = 64;
+
+    /**
+     * The striped locks serializing the emission of the batches of a channel.
+     *
+     * @see #getEmissionLock(String)
+     */
+    private final Object[] emissionLocks = new Object[EMISSION_LOCK_COUNT];
+
+    /**
+     * The pending batches, indexed by channel.
+     */
+    private final ConcurrentMap<String, List<SendBotMessage>> pendingBatches = new ConcurrentHashMap<>();
+
+    /**
+     * The scheduler used to emit the batches at the end of their window.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The duration (in milliseconds) of the batching window.
+     */
+    private final long window;
+
+    /**
+     * The consumer emitting the batches to their channel.
+     */
+    private final BiConsumer<String, List<SendBotMessage>> emitter;
+
+    /**
+     * The number of batches emitted since the creation of the batcher.
+     */
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * The number of messages emitted since the creation of the batcher.
+     */
+    private final LongAdder messageCount = new LongAdder();
+
+    /**
+     * Constructs a {@link BotMessageBatcher} with the provided {@code scheduler}, {@code window}, and
+     * {@code emitter}.
+     *
+     * @param scheduler the scheduler used to emit the batches at the end of their window
+     * @param window    the duration (in milliseconds) of the batching window
+     * @param emitter   the consumer emitting the batches to their channel
+     * @throws IllegalArgumentException if the provided {@code window} is lower or equal to {@code 0}
+     */
+    public BotMessageBatcher(@NonNull ScheduledExecutorService scheduler, long window,
+                             @NonNull BiConsumer<String, List<SendBotMessage>> emitter) {
+        checkArgument(window > 0, "Cannot create a %s with the provided window %s, expected a value greater than 0",
+                this.getClass().getSimpleName(), window);
+        this.scheduler = scheduler;
+        this.window = window;
+        this.emitter = emitter;
+        for (int i = 0; i < EMISSION_LOCK_COUNT; i++) {
+            this.emissionLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Adds the provided {@code message} to the pending batch of the given {@code channel}.
+     * <p>
+     * If the channel does not have a pending batch a new one is created and scheduled for emission at the end of
+     * the batching window.
+     *
+     * @param channel the channel to send the message to
+     * @param message the message to send
+     */
+    public void add(@NonNull String channel, @NonNull SendBotMessage message) {
+        boolean[] newBatch = new boolean[1];
+        this.pendingBatches.compute(channel, (k, batch) -> {
+            List<SendBotMessage> result = batch;
+            if (isNull(result)) {
+                result = new ArrayList<>();
+                newBatch[0] = true;
+            }
+            result.add(message);
+            return result;
+        });
+        if (newBatch[0]) {
+            this.scheduler.schedule(() -> flush(channel), window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Emits the pending batch of the provided {@code channel}, if any.
+     * <p>
+     * This method must be called before sending any other event to the {@code channel}, in order to preserve the
+     * ordering of the events.
+     *
+     * @param channel the channel to emit the pending batch of
+     */
+    public void flush(@NonNull String channel) {
+        synchronized (this.getEmissionLock(channel)) {
+            /*
+             * The removed batch cannot be updated anymore: messages added after its removal are added to a new batch,
+             * that is emitted after this one since its emission requires the same lock.
+             */
+            List<SendBotMessage> batch = this.pendingBatches.remove(channel);
+            if (isNull(batch)) {
+                return;
+            }
+            try {
+                emitter.accept(channel, batch);
+                batchCount.increment();
+                messageCount.add(batch.size());
+            } catch (RuntimeException e) {
+                Log.error(e, "Cannot send the batch of {0} messages to channel {1}, see attached exception",
+                        batch.size(), channel);
+            }
+        }
+    }
+
+    /**
+     * Returns the lock serializing the emission of the batches of the provided {@code channel}.
+     *
+     * @param channel the channel to retrieve the emission lock of
+     * @return the emission lock of the channel
+     */
+    private Object getEmissionLock(String channel) {
+        return this.emissionLocks[(channel.hashCode() & Integer.MAX_VALUE) % EMISSION_LOCK_COUNT];
+    }
+
+    /**
+     * Returns the number of channels with a pending batch.
+     *
+     * @return the number of channels with a pending batch
+     */
+    public int getPendingBatchCount() {
+        return this.pendingBatches.size();
+    }
+
+    /**
+     * Returns the number of batches emitted since the creation of the batcher.
+     *
+     * @return the number of batches emitted
+     */
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    /**
+     * Returns the number of messages emitted since the creation of the batcher.
+     *
+     * @return the number of messages emitted
+     */
+    public long getMessageCount() {
+        return this.messageCount.sum();
+    }
+}
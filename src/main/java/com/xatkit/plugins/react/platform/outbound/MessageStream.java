@@ -0,0 +1,246 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessageChunk;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessageEnd;
+import lombok.NonNull;
+
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+
+/**
+ * A bot message sent to a channel as its fragments are produced.
+ * <p>
+ * The fragments appended to the stream (e.g. the tokens of a generated answer) are coalesced into
+ * {@link SocketEventTypes#BOT_MESSAGE_CHUNK} events: the first fragment is sent immediately to minimize the time to
+ * the first rendered text, and the next ones are sent once their size reaches the maximum chunk size, or once the
+ * oldest of them has been held for the maximum chunk delay. Closing the stream sends the pending fragments and a
+ * {@link SocketEventTypes#BOT_MESSAGE_END} event.
+ * <p>
+ * Clients that do not support streamed messages (see
+ * {@link com.xatkit.plugins.react.platform.socket.event.Init#isStreamMessages()}) receive the complete message in a
+ * single {@link SocketEventTypes#BOT_MESSAGE} event when the stream is closed.
+ * <p>
+ * This class is thread-safe: fragments can be appended by the thread producing them while the pending fragments
+ * are sent by the platform's scheduler. Chunks are sent in the order of their fragments.
+ *
+ * @see ReactPlatform#openMessageStream(String)
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_STREAM_CHUNK_SIZE_KEY
+ */
+public class MessageStream implements AutoCloseable {
+
+    /**
+     * The platform used to send the events of the stream.
+     */
+    private final ReactPlatform platform;
+
+    /**
+     * The identifier of the socket the message is sent to.
+     */
+    private final String channel;
+
+    /**
+     * The name of the bot sending the message.
+     */
+    private final String username;
+
+    /**
+     * Whether the client supports streamed messages.
+     * <p>
+     * The fragments appended to a stream that is not sent as chunks are accumulated until the stream is closed.
+     */
+    private final boolean streaming;
+
+    /**
+     * The scheduler used to send the fragments held for the maximum chunk delay.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The size (in characters) of the pending fragments triggering the emission of a chunk.
+     */
+    private final int maxChunkSize;
+
+    /**
+     * The maximum time (in milliseconds) a fragment is held before being sent.
+     */
+    private final long maxChunkDelay;
+
+    /**
+     * The identifier of the streamed message.
+     */
+    private final String streamId = UUID.randomUUID().toString();
+
+    /**
+     * The fragments that have not been sent yet.
+     */
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * The number of chunks sent to the client.
+     */
+    private int chunkCount;
+
+    /**
+     * The task sending the pending fragments at the end of the maximum chunk delay.
+     */
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Whether the stream has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a {@link MessageStream} sending a message to the provided {@code channel}.
+     *
+     * @param platform      the platform used to send the events of the stream
+     * @param channel       the identifier of the socket to send the message to
+     * @param username      the name of the bot sending the message
+     * @param streaming     whether the client supports streamed messages
+     * @param scheduler     the scheduler used to send the fragments held for the maximum chunk delay
+     * @param maxChunkSize  the size (in characters) of the pending fragments triggering the emission of a chunk
+     * @param maxChunkDelay the maximum time (in milliseconds) a fragment is held before being sent
+     * @throws IllegalArgumentException if the provided {@code maxChunkSize} or {@code maxChunkDelay} is lower or
+     *                                  equal to {@code 0}
+     */
+    public MessageStream(@NonNull ReactPlatform platform, @NonNull String channel, @NonNull String username,
+                         boolean streaming, @NonNull ScheduledExecutorService scheduler, int maxChunkSize,
+                         long maxChunkDelay) {
+        checkArgument(maxChunkSize > 0, "Cannot create a %s with the provided chunk size %s, expected a value "
+                + "greater than 0", this.getClass().getSimpleName(), maxChunkSize);
+        checkArgument(maxChunkDelay > 0, "Cannot create a %s with the provided chunk delay %s, expected a value "
+                + "greater than 0", this.getClass().getSimpleName(), maxChunkDelay);
+        this.platform = platform;
+        this.channel = channel;
+        this.username = username;
+        this.streaming = streaming;
+        this.scheduler = scheduler;
+        this.maxChunkSize = maxChunkSize;
+        this.maxChunkDelay = maxChunkDelay;
+    }
+
+    /**
+     * Appends the provided {@code fragment} to the message.
+     * <p>
+     * The fragment is sent immediately if it is the first one of the message or if the pending fragments reach the
+     * maximum chunk size, otherwise it is sent at the latest after the maximum chunk delay. Empty fragments are
+     * ignored.
+     *
+     * @param fragment the fragment to append
+     * @throws IllegalStateException if the stream is closed
+     */
+    public synchronized void append(@NonNull CharSequence fragment) {
+        checkState(!closed, "Cannot append a fragment to the message %s, the stream is closed", streamId);
+        if (fragment.length() == 0) {
+            return;
+        }
+        this.pending.append(fragment);
+        if (!streaming) {
+            return;
+        }
+        if (chunkCount == 0 || pending.length() >= maxChunkSize) {
+            this.sendChunk();
+        } else if (flushTask == null) {
+            this.flushTask = scheduler.schedule(this::flush, maxChunkDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending fragments, if any.
+     * <p>
+     * This method is a no-op if the client does not support streamed messages, or if the stream is closed.
+     */
+    public synchronized void flush() {
+        if (streaming && !closed) {
+            this.sendChunk();
+        }
+    }
+
+    /**
+     * Sends the pending fragments and completes the message.
+     * <p>
+     * Clients that do not support streamed messages receive the complete message, unless it is empty. Closing a
+     * closed stream is a no-op.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        if (streaming) {
+            this.sendChunk();
+            this.closed = true;
+            this.platform.sendEvent(channel, SocketEventTypes.BOT_MESSAGE_END.label,
+                    new SendBotMessageEnd(streamId, chunkCount));
+        } else {
+            this.closed = true;
+            if (pending.length() > 0) {
+                this.platform.sendBotMessage(channel, new SendBotMessage(username, pending.toString()));
+            }
+        }
+    }
+
+    /**
+     * Returns the identifier of the streamed message.
+     *
+     * @return the identifier of the streamed message
+     */
+    public String getStreamId() {
+        return this.streamId;
+    }
+
+    /**
+     * Returns whether the message is sent as chunks.
+     *
+     * @return {@code true} if the client supports streamed messages, {@code false} if the message is sent when the
+     * stream is closed
+     */
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    /**
+     * Returns the number of chunks sent to the client.
+     *
+     * @return the number of chunks sent to the client
+     */
+    public synchronized int getChunkCount() {
+        return this.chunkCount;
+    }
+
+    /**
+     * Returns whether the stream has been closed.
+     *
+     * @return {@code true} if the stream has been closed, {@code false} otherwise
+     */
+    public synchronized boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Sends the pending fragments as a {@link SocketEventTypes#BOT_MESSAGE_CHUNK} event, and cancels the pending
+     * flush task.
+     */
+    private void sendChunk() {
+        if (nonNull(flushTask)) {
+            this.flushTask.cancel(false);
+            this.flushTask = null;
+        }
+        if (pending.length() == 0) {
+            return;
+        }
+        this.platform.sendEvent(channel, SocketEventTypes.BOT_MESSAGE_CHUNK.label,
+                new SendBotMessageChunk(streamId, username, chunkCount, pending.toString()));
+        this.chunkCount++;
+        this.pending.setLength(0);
+    }
+}
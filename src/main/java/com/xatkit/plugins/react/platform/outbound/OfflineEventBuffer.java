@@ -0,0 +1,450 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A bounded buffer holding the outbound events of conversations that do not have a connected socket.
+ * <p>
+ * Bot replies can be produced while the user's socket is reconnecting (e.g. page reload, mobile network switch).
+ * Instead of dropping them, the {@link com.xatkit.plugins.react.platform.ReactPlatform} stores these events in
+ * this buffer, and replays them in order when a socket opens the same conversation (see
+ * {@link #replay(String, BiConsumer)}).
+ * <p>
+ * The buffer is bounded per conversation: when a conversation holds the maximum number of events the oldest one is
+ * dropped. Events older than the maximum age are discarded when the conversation is replayed, or when
+ * {@link #evictExpiredEvents()} is called.
+ * <p>
+ * The buffer also retains the conversation of the disconnected sockets (see {@link #detach(String, String)}) for
+ * the retention period: events sent to a disconnected socket can be buffered for its conversation during this
+ * period, regardless of how long the socket is kept in the
+ * {@link com.xatkit.plugins.react.platform.conversation.SocketConversationRegistry}. Events sent to a socket that
+ * cannot be associated to a conversation are dropped and counted (see {@link #discard(String, String)}).
+ */
+public class OfflineEventBuffer {
+
+    /**
+     * The pending events, indexed by conversation.
+     * <p>
+     * The {@link Deque}s stored in this map are only accessed within the map's {@code compute} methods, or after
+     * being removed from the map.
+     */
+    private final ConcurrentMap<String, Deque<PendingEvent>> pendingEvents = new ConcurrentHashMap<>();
+
+    /**
+     * The conversations of the disconnected sockets, indexed by socket identifier.
+     */
+    private final ConcurrentMap<String, DetachedSocket> detachedSockets = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of events buffered for a conversation.
+     */
+    private final int maxEvents;
+
+    /**
+     * The time (in milliseconds) after which a buffered event is discarded.
+     */
+    private final long maxAge;
+
+    /**
+     * The time (in milliseconds) during which the conversation of a disconnected socket is retained.
+     */
+    private final long retention;
+
+    /**
+     * The clock used to timestamp the buffered events.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The number of events currently buffered.
+     */
+    private final LongAdder pendingCount = new LongAdder();
+
+    /**
+     * The number of events buffered since the creation of the buffer.
+     */
+    private final LongAdder bufferedCount = new LongAdder();
+
+    /**
+     * The number of events replayed since the creation of the buffer.
+     */
+    private final LongAdder replayedCount = new LongAdder();
+
+    /**
+     * The number of events dropped because their conversation's buffer was full.
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * The number of events discarded because they exceeded the maximum age.
+     */
+    private final LongAdder expiredCount = new LongAdder();
+
+    /**
+     * The number of events dropped because their socket could not be associated to a conversation.
+     */
+    private final LongAdder discardedCount = new LongAdder();
+
+    /**
+     * Constructs an {@link OfflineEventBuffer} with the provided {@code maxEvents}, {@code maxAge}, and
+     * {@code retention}.
+     *
+     * @param maxEvents the maximum number of events buffered for a conversation
+     * @param maxAge    the time (in milliseconds) after which a buffered event is discarded
+     * @param retention the time (in milliseconds) during which the conversation of a disconnected socket is retained
+     * @throws IllegalArgumentException if the provided {@code maxEvents}, {@code maxAge}, or {@code retention} is
+     *                                  lower or equal to {@code 0}
+     */
+    public OfflineEventBuffer(int maxEvents, long maxAge, long retention) {
+        this(maxEvents, maxAge, retention, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an {@link OfflineEventBuffer} with the provided {@code maxEvents}, {@code maxAge},
+     * {@code retention}, and {@code clock}.
+     * <p>
+     * This constructor is used in tests to control the timestamps of the buffered events.
+     *
+     * @param maxEvents the maximum number of events buffered for a conversation
+     * @param maxAge    the time (in milliseconds) after which a buffered event is discarded
+     * @param retention the time (in milliseconds) during which the conversation of a disconnected socket is retained
+     * @param clock     the clock used to timestamp the buffered events
+     * @throws IllegalArgumentException if the provided {@code maxEvents}, {@code maxAge}, or {@code retention} is
+     *                                  lower or equal to {@code 0}
+     */
+    OfflineEventBuffer(int maxEvents, long maxAge, long retention, @NonNull LongSupplier clock) {
+        checkArgument(maxEvents > 0, "Cannot create a %s with the provided maximum number of events %s, expected a " +
+                "value greater than 0", this.getClass().getSimpleName(), maxEvents);
+        checkArgument(maxAge > 0, "Cannot create a %s with the provided maximum age %s, expected a value greater " +
+                "than 0", this.getClass().getSimpleName(), maxAge);
+        checkArgument(retention > 0, "Cannot create a %s with the provided retention %s, expected a value greater " +
+                "than 0", this.getClass().getSimpleName(), retention);
+        this.maxEvents = maxEvents;
+        this.maxAge = maxAge;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Retains the {@code conversationId} of the provided disconnected {@code socketId}.
+     * <p>
+     * The events sent to the socket during the retention period can be buffered for its conversation (see
+     * {@link #getConversationId(String)}).
+     *
+     * @param socketId       the identifier of the disconnected socket
+     * @param conversationId the identifier of the conversation of the socket
+     */
+    public void detach(@NonNull String socketId, @NonNull String conversationId) {
+        this.detachedSockets.put(socketId, new DetachedSocket(conversationId, clock.getAsLong()));
+    }
+
+    /**
+     * Returns the identifier of the conversation of the provided disconnected {@code socketId}.
+     *
+     * @param socketId the identifier of the disconnected socket
+     * @return the identifier of the conversation, or {@code null} if the socket has not been detached or if it has
+     * been detached for more than the retention period
+     */
+    public @Nullable String getConversationId(@NonNull String socketId) {
+        DetachedSocket detachedSocket = this.detachedSockets.get(socketId);
+        if (isNull(detachedSocket) || clock.getAsLong() - detachedSocket.detachedAt >= retention) {
+            return null;
+        }
+        return detachedSocket.conversationId;
+    }
+
+    /**
+     * Drops the event {@code eventName} sent to the provided {@code socketId}, that cannot be associated to a
+     * conversation.
+     * <p>
+     * This method is called when the socket has been disconnected for more than the retention period, or has never
+     * been bound to a conversation. The dropped event is logged and counted (see {@link #getDiscardedCount()}).
+     *
+     * @param socketId  the identifier of the socket the event was sent to
+     * @param eventName the name of the dropped event
+     */
+    public void discard(@NonNull String socketId, @NonNull String eventName) {
+        this.discardedCount.increment();
+        Log.warn("Dropping the event {0} sent to the socket {1}: the socket is not associated to a conversation (the "
+                + "socket may have been disconnected for more than {2}ms)", eventName, socketId, retention);
+    }
+
+    /**
+     * Buffers the event {@code eventName} with the provided {@code data} for the given {@code conversationId}.
+     * <p>
+     * If the conversation's buffer is full its oldest event is dropped.
+     *
+     * @param conversationId the identifier of the conversation to buffer the event for
+     * @param eventName      the name of the event to buffer
+     * @param data           the data of the event
+     */
+    public void add(@NonNull String conversationId, @NonNull String eventName, Object... data) {
+        this.add(conversationId, new PendingEvent(eventName, data, clock.getAsLong()));
+    }
+
+    /**
+     * Buffers the event {@code eventName} with the provided {@code data} and {@code timestamp} for the given
+     * {@code conversationId}.
+     * <p>
+     * This method is used to reload the events persisted before a restart of the platform (see
+     * {@link com.xatkit.plugins.react.platform.persistence.RoutingJournal}): the restored event keeps its original
+     * timestamp, and expires at the same time as if the platform had not been restarted. Events must be restored in
+     * the order they have been buffered.
+     *
+     * @param conversationId the identifier of the conversation to buffer the event for
+     * @param eventName      the name of the event to buffer
+     * @param timestamp      the time (in milliseconds since the epoch) the event has been buffered
+     * @param data           the data of the event
+     */
+    public void restore(@NonNull String conversationId, @NonNull String eventName, long timestamp, Object... data) {
+        this.add(conversationId, new PendingEvent(eventName, data, timestamp));
+    }
+
+    /**
+     * Buffers the provided {@code event} for the given {@code conversationId}.
+     *
+     * @param conversationId the identifier of the conversation to buffer the event for
+     * @param event          the event to buffer
+     */
+    private void add(String conversationId, PendingEvent event) {
+        this.pendingEvents.compute(conversationId, (id, events) -> {
+            Deque<PendingEvent> result = isNull(events) ? new ArrayDeque<>() : events;
+            if (result.size() >= maxEvents) {
+                result.pollFirst();
+                droppedCount.increment();
+                pendingCount.decrement();
+            }
+            result.addLast(event);
+            return result;
+        });
+        pendingCount.increment();
+        bufferedCount.increment();
+    }
+
+    /**
+     * Removes the events buffered for the provided {@code conversationId} and sends them with the given
+     * {@code sender}.
+     * <p>
+     * Events are sent in the order they have been buffered. Events older than the maximum age are discarded.
+     *
+     * @param conversationId the identifier of the conversation to replay the events of
+     * @param sender         the consumer sending the name and the data of each replayed event
+     * @return the number of replayed events
+     */
+    public int replay(@NonNull String conversationId, @NonNull BiConsumer<String, Object[]> sender) {
+        Deque<PendingEvent> events = this.pendingEvents.remove(conversationId);
+        if (isNull(events)) {
+            return 0;
+        }
+        pendingCount.add(-events.size());
+        long now = clock.getAsLong();
+        int replayed = 0;
+        for (PendingEvent event : events) {
+            if (now - event.timestamp >= maxAge) {
+                expiredCount.increment();
+                continue;
+            }
+            sender.accept(event.eventName, event.data);
+            replayed++;
+        }
+        replayedCount.add(replayed);
+        Log.debug("Replayed {0} buffered events of conversation {1}", replayed, conversationId);
+        return replayed;
+    }
+
+    /**
+     * Discards the buffered events older than the maximum age.
+     *
+     * @return the number of discarded events
+     */
+    public int evictExpiredEvents() {
+        long now = clock.getAsLong();
+        int[] expired = new int[1];
+        for (String conversationId : this.pendingEvents.keySet()) {
+            this.pendingEvents.computeIfPresent(conversationId, (id, events) -> {
+                /*
+                 * Events are stored in chronological order, we can stop at the first non-expired event.
+                 */
+                while (!events.isEmpty() && now - events.peekFirst().timestamp >= maxAge) {
+                    events.pollFirst();
+                    expired[0]++;
+                }
+                return events.isEmpty() ? null : events;
+            });
+        }
+        if (expired[0] > 0) {
+            expiredCount.add(expired[0]);
+            pendingCount.add(-expired[0]);
+            Log.debug("Discarded {0} expired events from the {1}", expired[0], this.getClass().getSimpleName());
+        }
+        return expired[0];
+    }
+
+    /**
+     * Forgets the conversations of the sockets disconnected for more than the retention period.
+     *
+     * @return the number of forgotten sockets
+     */
+    public int evictDetachedSockets() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<String, DetachedSocket> entry : this.detachedSockets.entrySet()) {
+            if (now - entry.getValue().detachedAt >= retention
+                    && this.detachedSockets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the identifiers of the conversations with buffered events.
+     *
+     * @return an unmodifiable view of the identifiers of the conversations with buffered events
+     */
+    public Set<String> getConversationIds() {
+        return Collections.unmodifiableSet(this.pendingEvents.keySet());
+    }
+
+    /**
+     * Returns the number of events currently buffered.
+     *
+     * @return the number of events currently buffered
+     */
+    public long getPendingEventCount() {
+        return this.pendingCount.sum();
+    }
+
+    /**
+     * Returns the number of events buffered since the creation of the buffer.
+     *
+     * @return the number of events buffered
+     */
+    public long getBufferedCount() {
+        return this.bufferedCount.sum();
+    }
+
+    /**
+     * Returns the number of events replayed since the creation of the buffer.
+     *
+     * @return the number of events replayed
+     */
+    public long getReplayedCount() {
+        return this.replayedCount.sum();
+    }
+
+    /**
+     * Returns the number of events dropped because their conversation's buffer was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Returns the number of events discarded because they exceeded the maximum age.
+     *
+     * @return the number of expired events
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    /**
+     * Returns the number of events dropped because their socket could not be associated to a conversation.
+     *
+     * @return the number of discarded events
+     * @see #discard(String, String)
+     */
+    public long getDiscardedCount() {
+        return this.discardedCount.sum();
+    }
+
+    /**
+     * Returns the number of disconnected sockets whose conversation is retained.
+     *
+     * @return the number of disconnected sockets whose conversation is retained
+     */
+    public int getDetachedSocketCount() {
+        return this.detachedSockets.size();
+    }
+
+    /**
+     * The conversation of a disconnected socket.
+     */
+    private static final class DetachedSocket {
+
+        /**
+         * The identifier of the conversation of the socket.
+         */
+        private final String conversationId;
+
+        /**
+         * The time the socket has been disconnected.
+         */
+        private final long detachedAt;
+
+        /**
+         * Constructs a {@link DetachedSocket} with the provided {@code conversationId} and {@code detachedAt} time.
+         *
+         * @param conversationId the identifier of the conversation of the socket
+         * @param detachedAt     the time the socket has been disconnected
+         */
+        private DetachedSocket(String conversationId, long detachedAt) {
+            this.conversationId = conversationId;
+            this.detachedAt = detachedAt;
+        }
+    }
+
+    /**
+     * An outbound event waiting for its conversation to be reconnected.
+     */
+    private static final class PendingEvent {
+
+        /**
+         * The name of the event.
+         */
+        private final String eventName;
+
+        /**
+         * The data of the event.
+         */
+        private final Object[] data;
+
+        /**
+         * The time the event has been buffered.
+         */
+        private final long timestamp;
+
+        /**
+         * Constructs a {@link PendingEvent} with the provided {@code eventName}, {@code data}, and
+         * {@code timestamp}.
+         *
+         * @param eventName the name of the event
+         * @param data      the data of the event
+         * @param timestamp the time the event has been buffered
+         */
+        private PendingEvent(String eventName, Object[] data, long timestamp) {
+            this.eventName = eventName;
+            this.data = data;
+            this.timestamp = timestamp;
+        }
+    }
+}
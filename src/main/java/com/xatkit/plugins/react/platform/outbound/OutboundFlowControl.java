@@ -0,0 +1,383 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Applies backpressure to the events sent to slow clients.
+ * <p>
+ * The socket server reports when the connection of a client becomes unwritable, i.e. when the amount of data
+ * waiting to be written exceeds the connection's write buffer high water mark (see
+ * {@link com.xatkit.plugins.react.platform.socket.WritabilityHandler}). Events sent to an unwritable client are held
+ * in a bounded per-client queue instead of piling up in the connection's buffer, and are sent in order once the
+ * connection becomes writable again.
+ * <p>
+ * When the queue of a client is full, the configured {@link SlowConsumerPolicy} is applied.
+ */
+public class OutboundFlowControl {
+
+    /**
+     * The policies applied when the queue of a slow client is full.
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * Drops the oldest queued event.
+         */
+        DROP_OLDEST,
+        /**
+         * Drops the queued {@link SocketEventTypes#SET_MESSAGE_LOADER} events, and falls back to
+         * {@link #DROP_OLDEST} if the queue is still full.
+         * <p>
+         * With this policy a new loader event also replaces the loader events already queued for the client.
+         */
+        COALESCE_LOADER,
+        /**
+         * Disconnects the client and discards its queued events.
+         */
+        DISCONNECT
+    }
+
+    /**
+     * The states of the clients, indexed by channel.
+     * <p>
+     * Clients are added to this map when they become unwritable, and removed once they have sent all their queued
+     * events, or when they disconnect.
+     */
+    private final ConcurrentMap<String, ClientState> clientStates = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of events queued for an unwritable client.
+     */
+    private final int maxPendingEvents;
+
+    /**
+     * The policy applied when the queue of a client is full.
+     */
+    private final SlowConsumerPolicy policy;
+
+    /**
+     * The number of clients that are currently unwritable.
+     */
+    private final AtomicInteger slowConsumerCount = new AtomicInteger();
+
+    /**
+     * The number of events currently queued.
+     */
+    private final AtomicInteger pendingEventCount = new AtomicInteger();
+
+    /**
+     * The number of times a client became unwritable.
+     */
+    private final LongAdder slowConsumerEventCount = new LongAdder();
+
+    /**
+     * The number of events dropped because the queue of their client was full.
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * The number of loader events replaced or dropped by the {@link SlowConsumerPolicy#COALESCE_LOADER} policy.
+     */
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * The number of clients disconnected by the {@link SlowConsumerPolicy#DISCONNECT} policy.
+     */
+    private final LongAdder disconnectedCount = new LongAdder();
+
+    /**
+     * Constructs an {@link OutboundFlowControl} with the provided {@code maxPendingEvents} and {@code policy}.
+     *
+     * @param maxPendingEvents the maximum number of events queued for an unwritable client
+     * @param policy           the policy applied when the queue of a client is full
+     * @throws IllegalArgumentException if the provided {@code maxPendingEvents} is lower or equal to {@code 0}
+     */
+    public OutboundFlowControl(int maxPendingEvents, @NonNull SlowConsumerPolicy policy) {
+        checkArgument(maxPendingEvents > 0, "Cannot create a %s with the provided maximum number of pending events " +
+                "%s, expected a value greater than 0", this.getClass().getSimpleName(), maxPendingEvents);
+        this.maxPendingEvents = maxPendingEvents;
+        this.policy = policy;
+    }
+
+    /**
+     * Sends the event {@code eventName} with the provided {@code data} to the given {@code client}.
+     * <p>
+     * The event is sent immediately if the client is writable and does not have queued events, otherwise it is
+     * added to the client's queue.
+     *
+     * @param channel   the identifier of the client's socket
+     * @param client    the client to send the event to
+     * @param eventName the name of the event to send
+     * @param data      the data of the event
+     */
+    public void send(@NonNull String channel, @NonNull SocketIOClient client, @NonNull String eventName,
+                     Object... data) {
+        ClientState state = this.clientStates.get(channel);
+        if (isNull(state)) {
+            client.sendEvent(eventName, data);
+            return;
+        }
+        boolean disconnect = false;
+        synchronized (state) {
+            if (state.writable && state.pendingEvents.isEmpty()) {
+                client.sendEvent(eventName, data);
+                return;
+            }
+            if (policy == SlowConsumerPolicy.COALESCE_LOADER
+                    && SocketEventTypes.SET_MESSAGE_LOADER.label.equals(eventName)) {
+                removeLoaderEvents(state);
+            }
+            if (state.pendingEvents.size() >= maxPendingEvents) {
+                disconnect = applyPolicy(channel, state);
+            }
+            if (!disconnect) {
+                state.pendingEvents.addLast(new PendingEvent(eventName, data));
+                pendingEventCount.incrementAndGet();
+            }
+        }
+        if (disconnect) {
+            client.disconnect();
+        }
+    }
+
+    /**
+     * Sets the writability of the provided {@code channel}.
+     * <p>
+     * This method is called when the connection of a client becomes unwritable or writable again. The events queued
+     * for the client are sent in order when it becomes writable, until the queue is empty or the client becomes
+     * unwritable again.
+     *
+     * @param channel  the identifier of the client's socket
+     * @param writable whether the client's connection is writable
+     * @param client   the client to send the queued events to, or {@code null} if it is not connected anymore
+     */
+    public void setWritable(@NonNull String channel, boolean writable, @Nullable SocketIOClient client) {
+        if (!writable) {
+            while (true) {
+                ClientState state = this.clientStates.computeIfAbsent(channel, k -> new ClientState());
+                synchronized (state) {
+                    if (this.clientStates.get(channel) != state) {
+                        /*
+                         * The state has been removed concurrently, retry with a new one.
+                         */
+                        continue;
+                    }
+                    if (state.writable) {
+                        state.writable = false;
+                        slowConsumerCount.incrementAndGet();
+                        slowConsumerEventCount.increment();
+                        Log.debug("Client {0} is not reading its socket, queuing its outbound events", channel);
+                    }
+                    return;
+                }
+            }
+        }
+        ClientState state = this.clientStates.get(channel);
+        if (isNull(state)) {
+            return;
+        }
+        synchronized (state) {
+            if (!state.writable) {
+                state.writable = true;
+                slowConsumerCount.decrementAndGet();
+            }
+            /*
+             * Sending an event can make the connection unwritable again: the nested notification sets the writable
+             * flag (the lock is reentrant) and stops the loop.
+             */
+            while (state.writable && !state.pendingEvents.isEmpty() && nonNull(client)) {
+                PendingEvent event = state.pendingEvents.pollFirst();
+                pendingEventCount.decrementAndGet();
+                client.sendEvent(event.eventName, event.data);
+            }
+            if (state.writable && state.pendingEvents.isEmpty()) {
+                this.clientStates.remove(channel, state);
+            }
+        }
+    }
+
+    /**
+     * Removes the state of the provided {@code channel}.
+     * <p>
+     * This method is called when the client disconnects, and discards its queued events.
+     *
+     * @param channel the identifier of the disconnected client's socket
+     */
+    public void remove(@NonNull String channel) {
+        ClientState state = this.clientStates.remove(channel);
+        if (nonNull(state)) {
+            synchronized (state) {
+                if (!state.writable) {
+                    state.writable = true;
+                    slowConsumerCount.decrementAndGet();
+                }
+                pendingEventCount.addAndGet(-state.pendingEvents.size());
+                state.pendingEvents.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of clients that are currently unwritable.
+     *
+     * @return the number of slow clients
+     */
+    public int getSlowConsumerCount() {
+        return this.slowConsumerCount.get();
+    }
+
+    /**
+     * Returns the number of events currently queued for unwritable clients.
+     *
+     * @return the number of queued events
+     */
+    public int getPendingEventCount() {
+        return this.pendingEventCount.get();
+    }
+
+    /**
+     * Returns the number of times a client became unwritable.
+     *
+     * @return the number of times a client became unwritable
+     */
+    public long getSlowConsumerEventCount() {
+        return this.slowConsumerEventCount.sum();
+    }
+
+    /**
+     * Returns the number of events dropped because the queue of their client was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Returns the number of loader events replaced or dropped by the {@link SlowConsumerPolicy#COALESCE_LOADER}
+     * policy.
+     *
+     * @return the number of coalesced loader events
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    /**
+     * Returns the number of clients disconnected by the {@link SlowConsumerPolicy#DISCONNECT} policy.
+     *
+     * @return the number of disconnected clients
+     */
+    public long getDisconnectedCount() {
+        return this.disconnectedCount.sum();
+    }
+
+    /**
+     * Applies the {@link SlowConsumerPolicy} to the full queue of the provided {@code state}.
+     * <p>
+     * This method must be called while holding the lock of the provided {@code state}.
+     *
+     * @param channel the identifier of the client's socket
+     * @param state   the state of the client
+     * @return {@code true} if the client must be disconnected, {@code false} otherwise
+     */
+    private boolean applyPolicy(String channel, ClientState state) {
+        switch (policy) {
+            case DISCONNECT:
+                Log.warn("Disconnecting client {0}: its outbound queue is full ({1} events)", channel,
+                        state.pendingEvents.size());
+                pendingEventCount.addAndGet(-state.pendingEvents.size());
+                state.pendingEvents.clear();
+                disconnectedCount.increment();
+                return true;
+            case COALESCE_LOADER:
+                removeLoaderEvents(state);
+                if (state.pendingEvents.size() < maxPendingEvents) {
+                    return false;
+                }
+                // fall through
+            case DROP_OLDEST:
+            default:
+                state.pendingEvents.pollFirst();
+                pendingEventCount.decrementAndGet();
+                droppedCount.increment();
+                return false;
+        }
+    }
+
+    /**
+     * Removes the {@link SocketEventTypes#SET_MESSAGE_LOADER} events queued in the provided {@code state}.
+     * <p>
+     * This method must be called while holding the lock of the provided {@code state}.
+     *
+     * @param state the state of the client
+     */
+    private void removeLoaderEvents(ClientState state) {
+        Iterator<PendingEvent> it = state.pendingEvents.iterator();
+        while (it.hasNext()) {
+            if (SocketEventTypes.SET_MESSAGE_LOADER.label.equals(it.next().eventName)) {
+                it.remove();
+                pendingEventCount.decrementAndGet();
+                coalescedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * The outbound state of a client.
+     */
+    private static final class ClientState {
+
+        /**
+         * Whether the client's connection is writable.
+         */
+        private boolean writable = true;
+
+        /**
+         * The events waiting for the client's connection to become writable.
+         */
+        private final Deque<PendingEvent> pendingEvents = new ArrayDeque<>();
+    }
+
+    /**
+     * An event waiting for its client's connection to become writable.
+     */
+    private static final class PendingEvent {
+
+        /**
+         * The name of the event.
+         */
+        private final String eventName;
+
+        /**
+         * The data of the event.
+         */
+        private final Object[] data;
+
+        /**
+         * Constructs a {@link PendingEvent} with the provided {@code eventName} and {@code data}.
+         *
+         * @param eventName the name of the event
+         * @param data      the data of the event
+         */
+        private PendingEvent(String eventName, Object[] data) {
+            this.eventName = eventName;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,1002 @@
+package com.xatkit.plugins.react.platform.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xatkit.core.XatkitException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An append-only log persisting the conversations and the pending outbound events of the
+ * {@link com.xatkit.plugins.react.platform.ReactPlatform} across restarts.
+ * <p>
+ * After a restart every reconnecting client sends an {@link com.xatkit.plugins.react.platform.socket.event.Init}
+ * event with the identifier of its conversation. The journal allows the platform to reload the conversations hosted
+ * by the node and the events buffered for them (see
+ * {@link com.xatkit.plugins.react.platform.outbound.OfflineEventBuffer}) instead of losing them all at once.
+ * <p>
+ * Records are appended to a memory-mapped file: appending a record copies it in the page cache, and does not
+ * require a system call. The mapped pages survive a crash of the JVM, and are forced to the disk by
+ * {@link #sync()} (called periodically by the platform). Each record is stored as
+ * {@code [length][crc32][type][timestamp][conversationId][payload]}, and its length is written last: the log is
+ * reloaded in a single sequential pass that stops at the first empty or corrupted record (e.g. a record partially
+ * written when the host crashed).
+ * <p>
+ * The journal mirrors the live entries of the log in memory. Records made obsolete by later records (e.g. the
+ * events replayed to a client) are removed by {@link #compact(long, long)}, that rewrites the live entries in a new
+ * file on a background thread and atomically replaces the log. Records can be appended while the log is compacted.
+ * <p>
+ * The journal is not shared between nodes: each node must use its own directory.
+ */
+public class RoutingJournal implements AutoCloseable {
+
+    /**
+     * The name of the log file in the journal's directory.
+     */
+    private static final String LOG_FILE = "routing.journal";
+
+    /**
+     * The name of the file the live entries are written to during a compaction.
+     */
+    private static final String COMPACTION_FILE = "routing.journal.compaction";
+
+    /**
+     * The type of the records binding a conversation to the local node.
+     */
+    private static final byte CONVERSATION_RECORD = 1;
+
+    /**
+     * The type of the records holding an event buffered for a conversation.
+     */
+    private static final byte EVENT_RECORD = 2;
+
+    /**
+     * The type of the records removing the events buffered for a conversation.
+     */
+    private static final byte CLEAR_RECORD = 3;
+
+    /**
+     * The size of the header of the records (their length and their checksum).
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The minimum size of the body of a record (its type, its timestamp, and the length of its conversation
+     * identifier).
+     */
+    private static final int MIN_BODY_SIZE = 13;
+
+    /**
+     * The minimum size of the mapped region of the log.
+     * <p>
+     * The region is doubled when it is full. Regions that are not written are not allocated on the disk by the
+     * file systems supporting sparse files.
+     */
+    private static final int MIN_CAPACITY = 16 * 1024 * 1024;
+
+    /**
+     * The type recorded for the data of the events that are reloaded as JSON values.
+     */
+    private static final String JSON_VALUE_TYPE = "";
+
+    /**
+     * A consumer accepting the pending events reloaded from the journal.
+     */
+    @FunctionalInterface
+    public interface PendingEventConsumer {
+
+        /**
+         * Accepts the provided pending event.
+         *
+         * @param conversationId the identifier of the conversation the event has been buffered for
+         * @param eventName      the name of the event
+         * @param timestamp      the time (in milliseconds since the epoch) the event has been buffered
+         * @param data           the data of the event, decoded with their recorded type
+         */
+        void accept(String conversationId, String eventName, long timestamp, Object[] data);
+    }
+
+    /**
+     * The log file.
+     */
+    private final Path logFile;
+
+    /**
+     * The file the live entries are written to during a compaction.
+     */
+    private final Path compactionFile;
+
+    /**
+     * The maximum number of events kept for a conversation.
+     */
+    private final int maxEvents;
+
+    /**
+     * The clock used to timestamp the records (in milliseconds since the epoch).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The mapper used to encode and decode the data of the events.
+     * <p>
+     * This mapper ignores the unknown properties of the decoded data (e.g. derived properties exposed by a getter).
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * The executor rewriting the log in the background.
+     */
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "xatkit-react-routing-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The live conversations, associated to the time they have been bound to the local node.
+     */
+    private final Map<String, Long> conversations = new HashMap<>();
+
+    /**
+     * The live events, indexed by conversation.
+     */
+    private final Map<String, Deque<JournalEvent>> events = new HashMap<>();
+
+    /**
+     * The number of live events.
+     */
+    private long eventCount;
+
+    /**
+     * The number of records of the log that have been made obsolete by later records.
+     */
+    private long obsoleteRecordCount;
+
+    /**
+     * The number of compactions performed since the creation of the journal.
+     */
+    private long compactionCount;
+
+    /**
+     * Whether records have been appended since the last {@link #sync()}.
+     */
+    private boolean dirty;
+
+    /**
+     * The time (in nanoseconds) spent reloading the log.
+     */
+    private final long loadTime;
+
+    /**
+     * The mapped log file, or {@code null} if the journal is closed.
+     */
+    private Segment log;
+
+    /**
+     * Constructs a {@link RoutingJournal} stored in the provided {@code directory}, and reloads its content.
+     *
+     * @param directory the directory containing the journal
+     * @param maxEvents the maximum number of events kept for a conversation
+     * @throws IllegalArgumentException if the provided {@code maxEvents} is lower or equal to {@code 0}
+     * @throws XatkitException          if the journal cannot be created or reloaded
+     */
+    public RoutingJournal(@NonNull Path directory, int maxEvents) {
+        this(directory, maxEvents, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a {@link RoutingJournal} stored in the provided {@code directory} with the given {@code clock}, and
+     * reloads its content.
+     * <p>
+     * This constructor is used in tests to control the age of the journal's entries.
+     *
+     * @param directory the directory containing the journal
+     * @param maxEvents the maximum number of events kept for a conversation
+     * @param clock     the clock used to timestamp the records
+     * @throws IllegalArgumentException if the provided {@code maxEvents} is lower or equal to {@code 0}
+     * @throws XatkitException          if the journal cannot be created or reloaded
+     */
+    RoutingJournal(@NonNull Path directory, int maxEvents, @NonNull LongSupplier clock) {
+        checkArgument(maxEvents > 0, "Cannot create a %s with the provided maximum number of events %s, expected a " +
+                "value greater than 0", this.getClass().getSimpleName(), maxEvents);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.compactionFile = directory.resolve(COMPACTION_FILE);
+        this.maxEvents = maxEvents;
+        this.clock = clock;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            /*
+             * A compaction file is a leftover of a compaction interrupted before replacing the log.
+             */
+            Files.deleteIfExists(compactionFile);
+            this.log = Segment.open(logFile, false);
+            this.load();
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot open the {0} {1}, see attached exception",
+                    this.getClass().getSimpleName(), logFile), e);
+        }
+        this.loadTime = System.nanoTime() - start;
+        Log.info("Loaded {0} conversations and {1} pending events from the {2} {3} in {4} ms",
+                conversations.size(), eventCount, this.getClass().getSimpleName(), logFile,
+                TimeUnit.NANOSECONDS.toMillis(loadTime));
+    }
+
+    /**
+     * Records that the provided {@code conversationId} has been bound to the local node.
+     *
+     * @param conversationId the identifier of the conversation
+     */
+    public synchronized void recordConversation(@NonNull String conversationId) {
+        if (isNull(log)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (this.append(CONVERSATION_RECORD, now, conversationId, null)
+                && nonNull(this.conversations.put(conversationId, now))) {
+            obsoleteRecordCount++;
+        }
+    }
+
+    /**
+     * Records the event {@code eventName} buffered for the provided {@code conversationId}.
+     * <p>
+     * The data of the event is encoded as JSON along with its class, and is reloaded as an instance of this class.
+     * Strings, numbers, booleans, maps, collections, and arrays are reloaded as JSON values (i.e. maps, lists,
+     * strings, numbers, and booleans), as well as the data that cannot be decoded into its class (e.g. a class that
+     * does not declare a constructor usable by Jackson). If the conversation holds the maximum number of events its
+     * oldest event is dropped.
+     *
+     * @param conversationId the identifier of the conversation the event is buffered for
+     * @param eventName      the name of the event
+     * @param data           the data of the event
+     */
+    public void recordEvent(@NonNull String conversationId, @NonNull String eventName, Object... data) {
+        String[] types = new String[isNull(data) ? 0 : data.length];
+        String[] encodedData = new String[types.length];
+        try {
+            for (int i = 0; i < encodedData.length; i++) {
+                types[i] = getType(data[i]);
+                encodedData[i] = objectMapper.writeValueAsString(data[i]);
+            }
+        } catch (JsonProcessingException e) {
+            Log.error(e, "Cannot record the event {0} of conversation {1} in the {2}, see attached exception",
+                    eventName, conversationId, this.getClass().getSimpleName());
+            return;
+        }
+        synchronized (this) {
+            if (isNull(log)) {
+                return;
+            }
+            JournalEvent event = new JournalEvent(eventName, types, encodedData, clock.getAsLong());
+            if (this.append(EVENT_RECORD, event.timestamp, conversationId, event)) {
+                this.addEvent(conversationId, event);
+            }
+        }
+    }
+
+    /**
+     * Records that the events buffered for the provided {@code conversationId} have been replayed or discarded.
+     *
+     * @param conversationId the identifier of the conversation
+     */
+    public synchronized void clearEvents(@NonNull String conversationId) {
+        if (isNull(log) || !this.events.containsKey(conversationId)) {
+            return;
+        }
+        if (this.append(CLEAR_RECORD, clock.getAsLong(), conversationId, null)) {
+            this.removeEvents(conversationId);
+        }
+    }
+
+    /**
+     * Sends the live conversations of the journal to the provided {@code consumer}.
+     *
+     * @param consumer the consumer accepting the identifier of each conversation and the time (in milliseconds
+     *                 since the epoch) it has been bound to the local node
+     */
+    public synchronized void forEachConversation(@NonNull ObjLongConsumer<String> consumer) {
+        for (Map.Entry<String, Long> conversation : this.conversations.entrySet()) {
+            consumer.accept(conversation.getKey(), conversation.getValue());
+        }
+    }
+
+    /**
+     * Sends the live events of the journal to the provided {@code consumer}.
+     * <p>
+     * The events of a conversation are sent in the order they have been recorded, and their data are decoded with
+     * their recorded type (see {@link #recordEvent(String, String, Object...)}). Events with data that cannot be
+     * decoded are skipped.
+     *
+     * @param consumer the consumer accepting the live events
+     */
+    public synchronized void forEachPendingEvent(@NonNull PendingEventConsumer consumer) {
+        Map<String, Class<?>> dataClasses = new HashMap<>();
+        for (Map.Entry<String, Deque<JournalEvent>> conversationEvents : this.events.entrySet()) {
+            for (JournalEvent event : conversationEvents.getValue()) {
+                Object[] data = new Object[event.data.length];
+                try {
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = this.decode(event.types[i], event.data[i], dataClasses);
+                    }
+                } catch (IOException e) {
+                    Log.error(e, "Cannot decode the event {0} of conversation {1} from the {2}, see attached " +
+                            "exception", event.eventName, conversationEvents.getKey(), this.getClass().getSimpleName());
+                    continue;
+                }
+                consumer.accept(conversationEvents.getKey(), event.eventName, event.timestamp, data);
+            }
+        }
+    }
+
+    /**
+     * Forces the records appended since the last call to this method to the disk.
+     */
+    public synchronized void sync() {
+        if (nonNull(log) && dirty) {
+            this.log.buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Discards the expired entries, and rewrites the log in the background if it contains more obsolete records
+     * than live entries.
+     * <p>
+     * The live entries are copied and written in a new file without blocking the records appended to the journal.
+     * The records appended during the rewrite are then copied at the end of the new file, that atomically replaces
+     * the log once it has been forced to the disk. A crash during the compaction leaves the previous log untouched.
+     * Compactions are performed one at a time, in the order they have been requested.
+     *
+     * @param conversationTtl the time (in milliseconds) after which a conversation that hasn't been bound to a
+     *                        socket is discarded
+     * @param eventMaxAge     the time (in milliseconds) after which a buffered event is discarded
+     * @return a future completed with {@code true} if the log has been rewritten, {@code false} otherwise
+     */
+    public CompletableFuture<Boolean> compact(long conversationTtl, long eventMaxAge) {
+        try {
+            return CompletableFuture.supplyAsync(() -> this.rewrite(conversationTtl, eventMaxAge), this.compactor);
+        } catch (RejectedExecutionException e) {
+            /*
+             * The journal is closed.
+             */
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Waits for the running compaction, forces the log to the disk, and closes it.
+     * <p>
+     * Records sent to a closed journal are ignored.
+     */
+    @Override
+    public void close() {
+        this.compactor.shutdown();
+        try {
+            if (!this.compactor.awaitTermination(10, TimeUnit.SECONDS)) {
+                Log.warn("The {0} {1} has been closed during a compaction", this.getClass().getSimpleName(),
+                        logFile);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (isNull(log)) {
+                return;
+            }
+            this.sync();
+            this.log.close();
+            this.log = null;
+        }
+    }
+
+    /**
+     * Returns the time (in nanoseconds) spent reloading the log when the journal has been created.
+     *
+     * @return the time spent reloading the log
+     */
+    public long getLoadTime() {
+        return this.loadTime;
+    }
+
+    /**
+     * Returns the number of live conversations.
+     *
+     * @return the number of live conversations
+     */
+    public synchronized int getConversationCount() {
+        return this.conversations.size();
+    }
+
+    /**
+     * Returns the number of live events.
+     *
+     * @return the number of live events
+     */
+    public synchronized long getPendingEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Returns the number of live entries (conversations and events) of the journal.
+     *
+     * @return the number of live entries
+     */
+    public synchronized long getLiveRecordCount() {
+        return this.conversations.size() + this.eventCount;
+    }
+
+    /**
+     * Returns the number of records of the log that have been made obsolete by later records, and will be removed
+     * by the next compaction.
+     *
+     * @return the number of obsolete records
+     */
+    public synchronized long getObsoleteRecordCount() {
+        return this.obsoleteRecordCount;
+    }
+
+    /**
+     * Returns the number of compactions performed since the creation of the journal.
+     *
+     * @return the number of compactions
+     */
+    public synchronized long getCompactionCount() {
+        return this.compactionCount;
+    }
+
+    /**
+     * Returns the size (in bytes) of the records stored in the log.
+     *
+     * @return the size of the records stored in the log, or {@code 0} if the journal is closed
+     */
+    public synchronized long getLogSize() {
+        return isNull(log) ? 0 : this.log.buffer.position();
+    }
+
+    /**
+     * Reloads the records of the log in a single sequential pass.
+     * <p>
+     * The pass stops at the first empty record (the end of the log), or at the first corrupted record. The region
+     * following a corrupted record is cleared, so that it can be overwritten by the next records.
+     */
+    private void load() {
+        MappedByteBuffer buffer = this.log.buffer;
+        int position = 0;
+        boolean corrupted = false;
+        while (buffer.limit() - position >= HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < MIN_BODY_SIZE || length > buffer.limit() - position - HEADER_SIZE
+                    || buffer.getInt(position + 4) != this.log.checksum(position + HEADER_SIZE, length)) {
+                corrupted = true;
+                break;
+            }
+            buffer.position(position + HEADER_SIZE);
+            byte type = buffer.get();
+            long timestamp = buffer.getLong();
+            String conversationId = getString(buffer);
+            switch (type) {
+                case CONVERSATION_RECORD:
+                    if (nonNull(this.conversations.put(conversationId, timestamp))) {
+                        obsoleteRecordCount++;
+                    }
+                    break;
+                case EVENT_RECORD:
+                    String eventName = getString(buffer);
+                    int dataCount = buffer.getInt();
+                    String[] types = new String[dataCount];
+                    String[] data = new String[dataCount];
+                    for (int i = 0; i < dataCount; i++) {
+                        types[i] = getString(buffer);
+                        data[i] = getString(buffer);
+                    }
+                    this.addEvent(conversationId, new JournalEvent(eventName, types, data, timestamp));
+                    break;
+                case CLEAR_RECORD:
+                    this.removeEvents(conversationId);
+                    break;
+                default:
+                    Log.warn("Ignoring a record of unknown type {0} in the {1} {2}", type,
+                            this.getClass().getSimpleName(), logFile);
+                    obsoleteRecordCount++;
+            }
+            position += HEADER_SIZE + length;
+        }
+        if (corrupted) {
+            Log.warn("The {0} {1} contains a corrupted record at position {2}, ignoring the following records",
+                    this.getClass().getSimpleName(), logFile, position);
+            for (int i = position; i < buffer.limit(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            dirty = true;
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Rewrites the live entries of the log in a new file, and replaces the log with this file.
+     * <p>
+     * This method is executed by the {@link #compactor}. The lock of the journal is only held to copy the live
+     * entries, and to copy the records appended during the rewrite and swap the files.
+     *
+     * @param conversationTtl the time (in milliseconds) after which a conversation that hasn't been bound to a
+     *                        socket is discarded
+     * @param eventMaxAge     the time (in milliseconds) after which a buffered event is discarded
+     * @return {@code true} if the log has been rewritten, {@code false} otherwise
+     * @see #compact(long, long)
+     */
+    private boolean rewrite(long conversationTtl, long eventMaxAge) {
+        Map<String, Long> liveConversations;
+        Map<String, Deque<JournalEvent>> liveEvents;
+        int snapshotPosition;
+        long snapshotObsoleteRecordCount;
+        synchronized (this) {
+            if (isNull(log)) {
+                return false;
+            }
+            this.discardExpiredEntries(conversationTtl, eventMaxAge);
+            if (obsoleteRecordCount == 0 || obsoleteRecordCount < this.getLiveRecordCount()) {
+                return false;
+            }
+            liveConversations = new HashMap<>(this.conversations);
+            liveEvents = new HashMap<>(this.events.size());
+            for (Map.Entry<String, Deque<JournalEvent>> conversationEvents : this.events.entrySet()) {
+                liveEvents.put(conversationEvents.getKey(), new ArrayDeque<>(conversationEvents.getValue()));
+            }
+            snapshotPosition = this.log.buffer.position();
+            snapshotObsoleteRecordCount = obsoleteRecordCount;
+        }
+        long start = System.nanoTime();
+        Segment compaction = null;
+        try {
+            compaction = Segment.open(compactionFile, true);
+            for (Map.Entry<String, Long> conversation : liveConversations.entrySet()) {
+                compaction.write(CONVERSATION_RECORD, conversation.getValue(), conversation.getKey(), null);
+            }
+            for (Map.Entry<String, Deque<JournalEvent>> conversationEvents : liveEvents.entrySet()) {
+                for (JournalEvent event : conversationEvents.getValue()) {
+                    compaction.write(EVENT_RECORD, event.timestamp, conversationEvents.getKey(), event);
+                }
+            }
+            compaction.buffer.force();
+            synchronized (this) {
+                if (isNull(log)) {
+                    compaction.close();
+                    Files.deleteIfExists(compactionFile);
+                    return false;
+                }
+                ByteBuffer appendedRecords = this.log.buffer.duplicate();
+                appendedRecords.limit(this.log.buffer.position()).position(snapshotPosition);
+                compaction.put(appendedRecords);
+                compaction.buffer.force();
+                try {
+                    Files.move(compactionFile, logFile, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(compactionFile, logFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                this.log.close();
+                this.log = compaction;
+                /*
+                 * Records made obsolete during the rewrite are still contained in the new log.
+                 */
+                obsoleteRecordCount -= snapshotObsoleteRecordCount;
+                compactionCount++;
+                dirty = false;
+            }
+        } catch (IOException e) {
+            Log.error(e, "Cannot compact the {0} {1}, see attached exception", this.getClass().getSimpleName(),
+                    logFile);
+            if (nonNull(compaction)) {
+                compaction.close();
+            }
+            return false;
+        }
+        Log.debug("Compacted the {0} {1}: discarded {2} obsolete records in {3} ms", this.getClass().getSimpleName(),
+                logFile, snapshotObsoleteRecordCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    /**
+     * Discards the conversations and the events that have expired.
+     *
+     * @param conversationTtl the time (in milliseconds) after which a conversation that hasn't been bound to a
+     *                        socket is discarded
+     * @param eventMaxAge     the time (in milliseconds) after which a buffered event is discarded
+     */
+    private void discardExpiredEntries(long conversationTtl, long eventMaxAge) {
+        long now = clock.getAsLong();
+        Iterator<Long> conversationIterator = this.conversations.values().iterator();
+        while (conversationIterator.hasNext()) {
+            if (now - conversationIterator.next() >= conversationTtl) {
+                conversationIterator.remove();
+                obsoleteRecordCount++;
+            }
+        }
+        Iterator<Deque<JournalEvent>> eventsIterator = this.events.values().iterator();
+        while (eventsIterator.hasNext()) {
+            Deque<JournalEvent> conversationEvents = eventsIterator.next();
+            /*
+             * Events are stored in chronological order, we can stop at the first non-expired event.
+             */
+            while (!conversationEvents.isEmpty() && now - conversationEvents.peekFirst().timestamp >= eventMaxAge) {
+                conversationEvents.pollFirst();
+                eventCount--;
+                obsoleteRecordCount++;
+            }
+            if (conversationEvents.isEmpty()) {
+                eventsIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * @param type           the type of the record
+     * @param timestamp      the timestamp of the record
+     * @param conversationId the identifier of the conversation of the record
+     * @param event          the event of the record, or {@code null} if the record does not hold an event
+     * @return {@code true} if the record has been appended, {@code false} otherwise
+     */
+    private boolean append(byte type, long timestamp, String conversationId, JournalEvent event) {
+        try {
+            this.log.write(type, timestamp, conversationId, event);
+            dirty = true;
+            return true;
+        } catch (IOException e) {
+            Log.error(e, "Cannot append a record of conversation {0} to the {1} {2}, see attached exception",
+                    conversationId, this.getClass().getSimpleName(), logFile);
+            return false;
+        }
+    }
+
+    /**
+     * Decodes the provided {@code data} with the given {@code type}.
+     * <p>
+     * Data that cannot be decoded into its class (e.g. because the class cannot be loaded or does not declare a
+     * constructor usable by Jackson) is decoded as a JSON value.
+     *
+     * @param type        the name of the class of the data, or {@link #JSON_VALUE_TYPE} to decode a JSON value
+     * @param data        the data to decode, encoded as JSON
+     * @param dataClasses the classes already resolved, indexed by name
+     * @return the decoded data
+     * @throws IOException if the data cannot be decoded
+     */
+    private Object decode(String type, String data, Map<String, Class<?>> dataClasses) throws IOException {
+        Class<?> dataClass = dataClasses.computeIfAbsent(type, this::loadDataClass);
+        if (dataClass != Object.class) {
+            try {
+                return objectMapper.readValue(data, dataClass);
+            } catch (JsonMappingException e) {
+                Log.warn("Cannot decode the data {0} as a {1} ({2}), decoding it as a JSON value", data, type,
+                        e.getOriginalMessage());
+                dataClasses.put(type, Object.class);
+            }
+        }
+        return objectMapper.readValue(data, Object.class);
+    }
+
+    /**
+     * Loads the class of the data with the provided {@code type}.
+     *
+     * @param type the name of the class to load, or {@link #JSON_VALUE_TYPE}
+     * @return the loaded class, or {@link Object} if the data must be decoded as a JSON value
+     */
+    private Class<?> loadDataClass(String type) {
+        if (JSON_VALUE_TYPE.equals(type)) {
+            return Object.class;
+        }
+        try {
+            return Class.forName(type, false, this.getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            Log.warn("Cannot load the class {0}, decoding its instances as JSON values", type);
+            return Object.class;
+        }
+    }
+
+    /**
+     * Adds the provided {@code event} to the live events of the given {@code conversationId}.
+     * <p>
+     * If the conversation holds the maximum number of events its oldest event becomes obsolete.
+     *
+     * @param conversationId the identifier of the conversation
+     * @param event          the event to add
+     */
+    private void addEvent(String conversationId, JournalEvent event) {
+        Deque<JournalEvent> conversationEvents = this.events.computeIfAbsent(conversationId,
+                id -> new ArrayDeque<>());
+        if (conversationEvents.size() >= maxEvents) {
+            conversationEvents.pollFirst();
+            eventCount--;
+            obsoleteRecordCount++;
+        }
+        conversationEvents.addLast(event);
+        eventCount++;
+    }
+
+    /**
+     * Removes the live events of the provided {@code conversationId}.
+     * <p>
+     * The removed events and the record removing them become obsolete.
+     *
+     * @param conversationId the identifier of the conversation
+     */
+    private void removeEvents(String conversationId) {
+        Deque<JournalEvent> conversationEvents = this.events.remove(conversationId);
+        int removed = isNull(conversationEvents) ? 0 : conversationEvents.size();
+        eventCount -= removed;
+        obsoleteRecordCount += removed + 1;
+    }
+
+    /**
+     * Returns the type recorded for the provided {@code data}.
+     *
+     * @param data the data of an event
+     * @return the name of the class of the data, or {@link #JSON_VALUE_TYPE} if the data is reloaded as a JSON
+     * value
+     */
+    private static String getType(Object data) {
+        if (isNull(data) || data instanceof CharSequence || data instanceof Number || data instanceof Boolean
+                || data instanceof Map || data instanceof Collection || data.getClass().isArray()) {
+            return JSON_VALUE_TYPE;
+        }
+        return data.getClass().getName();
+    }
+
+    /**
+     * Reads a string at the current position of the provided {@code source}.
+     *
+     * @param source the buffer to read the string from
+     * @return the read string
+     */
+    private static String getString(ByteBuffer source) {
+        byte[] bytes = new byte[source.getInt()];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A memory-mapped file containing records.
+     * <p>
+     * The position of the mapped region is the position of the next record.
+     */
+    private static final class Segment {
+
+        /**
+         * The mapped file.
+         */
+        private final Path path;
+
+        /**
+         * The channel of the mapped file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The checksum used to validate the records.
+         */
+        private final CRC32 checksum = new CRC32();
+
+        /**
+         * The mapped region of the file.
+         */
+        private MappedByteBuffer buffer;
+
+        /**
+         * Constructs a {@link Segment} mapping the provided {@code channel}.
+         *
+         * @param path    the mapped file
+         * @param channel the channel of the mapped file
+         * @throws IOException if the file cannot be mapped
+         */
+        private Segment(Path path, FileChannel channel) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(MIN_CAPACITY, channel.size()));
+        }
+
+        /**
+         * Opens and maps the provided {@code path}.
+         *
+         * @param path     the file to map
+         * @param truncate whether the content of the file is discarded
+         * @return the mapped file
+         * @throws IOException if the file cannot be opened or mapped
+         */
+        private static Segment open(Path path, boolean truncate) throws IOException {
+            FileChannel channel = truncate ? FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                return new Segment(path, channel);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes a record at the current position of the mapped region, and grows the region if needed.
+         * <p>
+         * The length of the record is written last: a record partially written is read as the end of the log.
+         *
+         * @param type           the type of the record
+         * @param timestamp      the timestamp of the record
+         * @param conversationId the identifier of the conversation of the record
+         * @param event          the event of the record, or {@code null} if the record does not hold an event
+         * @throws IOException if the mapped region cannot be grown
+         */
+        private void write(byte type, long timestamp, String conversationId, JournalEvent event) throws IOException {
+            byte[] encodedConversationId = conversationId.getBytes(StandardCharsets.UTF_8);
+            int length = MIN_BODY_SIZE + encodedConversationId.length;
+            byte[] encodedEventName = null;
+            byte[][] encodedTypes = null;
+            byte[][] encodedData = null;
+            if (nonNull(event)) {
+                encodedEventName = event.eventName.getBytes(StandardCharsets.UTF_8);
+                encodedTypes = new byte[event.data.length][];
+                encodedData = new byte[event.data.length][];
+                length += 8 + encodedEventName.length;
+                for (int i = 0; i < encodedData.length; i++) {
+                    encodedTypes[i] = event.types[i].getBytes(StandardCharsets.UTF_8);
+                    encodedData[i] = event.data[i].getBytes(StandardCharsets.UTF_8);
+                    length += 8 + encodedTypes[i].length + encodedData[i].length;
+                }
+            }
+            this.ensureCapacity(HEADER_SIZE + length);
+            int position = buffer.position();
+            buffer.position(position + HEADER_SIZE);
+            buffer.put(type);
+            buffer.putLong(timestamp);
+            buffer.putInt(encodedConversationId.length).put(encodedConversationId);
+            if (nonNull(event)) {
+                buffer.putInt(encodedEventName.length).put(encodedEventName);
+                buffer.putInt(encodedData.length);
+                for (int i = 0; i < encodedData.length; i++) {
+                    buffer.putInt(encodedTypes[i].length).put(encodedTypes[i]);
+                    buffer.putInt(encodedData[i].length).put(encodedData[i]);
+                }
+            }
+            buffer.putInt(position + 4, this.checksum(position + HEADER_SIZE, length));
+            buffer.putInt(position, length);
+        }
+
+        /**
+         * Copies the provided {@code records} at the current position of the mapped region, and grows the region
+         * if needed.
+         *
+         * @param records the records to copy
+         * @throws IOException if the mapped region cannot be grown
+         */
+        private void put(ByteBuffer records) throws IOException {
+            this.ensureCapacity(records.remaining());
+            this.buffer.put(records);
+        }
+
+        /**
+         * Grows the mapped region if it cannot hold a record of the provided {@code size}.
+         *
+         * @param size the size of the record to write
+         * @throws IOException if the region cannot be mapped
+         */
+        private void ensureCapacity(int size) throws IOException {
+            if (buffer.remaining() >= size) {
+                return;
+            }
+            int position = buffer.position();
+            long capacity = Math.max(2L * buffer.capacity(), (long) position + size);
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IOException(MessageFormat.format("Cannot grow the {0} {1} beyond {2} bytes",
+                        RoutingJournal.class.getSimpleName(), path, Integer.MAX_VALUE));
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            this.buffer.position(position);
+        }
+
+        /**
+         * Computes the checksum of the {@code length} bytes of the mapped region starting at {@code position}.
+         *
+         * @param position the position of the first byte
+         * @param length   the number of bytes
+         * @return the checksum of the bytes
+         */
+        private int checksum(int position, int length) {
+            ByteBuffer bytes = buffer.duplicate();
+            bytes.limit(position + length).position(position);
+            checksum.reset();
+            checksum.update(bytes);
+            return (int) checksum.getValue();
+        }
+
+        /**
+         * Closes the channel of the mapped file, logging the errors.
+         */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.error(e, "Cannot close the file channel of {0}, see attached exception", path);
+            }
+        }
+    }
+
+    /**
+     * An event buffered for a conversation, with its data encoded as JSON.
+     */
+    private static final class JournalEvent {
+
+        /**
+         * The name of the event.
+         */
+        private final String eventName;
+
+        /**
+         * The names of the classes of the data of the event (see {@link #getType(Object)}).
+         */
+        private final String[] types;
+
+        /**
+         * The data of the event, encoded as JSON.
+         */
+        private final String[] data;
+
+        /**
+         * The time the event has been buffered.
+         */
+        private final long timestamp;
+
+        /**
+         * Constructs a {@link JournalEvent} with the provided {@code eventName}, {@code types}, {@code data}, and
+         * {@code timestamp}.
+         *
+         * @param eventName the name of the event
+         * @param types     the names of the classes of the data of the event
+         * @param data      the data of the event, encoded as JSON
+         * @param timestamp the time the event has been buffered
+         */
+        private JournalEvent(String eventName, String[] types, String[] data, long timestamp) {
+            this.eventName = eventName;
+            this.types = types;
+            this.data = data;
+            this.timestamp = timestamp;
+        }
+    }
+}
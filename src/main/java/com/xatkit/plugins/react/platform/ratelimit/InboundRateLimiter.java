@@ -0,0 +1,234 @@
+package com.xatkit.plugins.react.platform.ratelimit;
+
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Limits the rate of the user inputs received from the socket clients.
+ * <p>
+ * Each user input consumes a token from the bucket of its socket, and from the bucket of its conversation (a
+ * conversation can be open in several sockets). Inputs exceeding one of these limits are either dropped or deferred
+ * until a token is available, according to the limiter's {@link Mode}. Inputs are checked before intent
+ * recognition, so flooding clients cannot monopolize the platform's dispatcher.
+ *
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_RATE_LIMIT_MODE_KEY
+ */
+public class InboundRateLimiter {
+
+    /**
+     * The actions applied to the inputs exceeding the rate limits.
+     */
+    public enum Mode {
+        /**
+         * Drops the input.
+         */
+        DROP,
+        /**
+         * Defers the input until a token is available, and drops it if it would be deferred for more than the
+         * limiter's maximum delay.
+         */
+        DEFER
+    }
+
+    /**
+     * The buckets of the sockets.
+     * <p>
+     * This field is {@code null} if the inputs are not limited per socket.
+     */
+    private final TokenBucketRateLimiter socketBuckets;
+
+    /**
+     * The buckets of the conversations.
+     * <p>
+     * This field is {@code null} if the inputs are not limited per conversation.
+     */
+    private final TokenBucketRateLimiter conversationBuckets;
+
+    /**
+     * The action applied to the inputs exceeding the rate limits.
+     */
+    private final Mode mode;
+
+    /**
+     * The maximum time (in nanoseconds) an input can be deferred.
+     */
+    private final long maxDeferDelay;
+
+    /**
+     * The sockets that have been throttled since their last accepted input.
+     */
+    private final Set<String> throttledSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of inputs accepted without delay.
+     */
+    private final LongAdder acceptedCount = new LongAdder();
+
+    /**
+     * The number of deferred inputs.
+     */
+    private final LongAdder deferredCount = new LongAdder();
+
+    /**
+     * The number of dropped inputs.
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Constructs an {@link InboundRateLimiter} with the provided buckets, {@code mode}, and {@code maxDeferDelay}.
+     *
+     * @param socketBuckets       the buckets of the sockets, or {@code null} to not limit the inputs per socket
+     * @param conversationBuckets the buckets of the conversations, or {@code null} to not limit the inputs per
+     *                            conversation
+     * @param mode                the action applied to the inputs exceeding the rate limits
+     * @param maxDeferDelay       the maximum time (in milliseconds) an input can be deferred
+     * @throws IllegalArgumentException if the provided {@code maxDeferDelay} is lower than {@code 0}
+     */
+    public InboundRateLimiter(@Nullable TokenBucketRateLimiter socketBuckets,
+                              @Nullable TokenBucketRateLimiter conversationBuckets, @NonNull Mode mode,
+                              long maxDeferDelay) {
+        checkArgument(maxDeferDelay >= 0, "Cannot create a %s with the provided maximum defer delay %s, expected a " +
+                "value greater or equal to 0", this.getClass().getSimpleName(), maxDeferDelay);
+        this.socketBuckets = socketBuckets;
+        this.conversationBuckets = conversationBuckets;
+        this.mode = mode;
+        this.maxDeferDelay = TimeUnit.MILLISECONDS.toNanos(maxDeferDelay);
+    }
+
+    /**
+     * Acquires the tokens needed to process an input received from the provided {@code socketId}.
+     * <p>
+     * The token of the socket is consumed even if the conversation's limit is exceeded: inputs received from a
+     * flooding socket keep being counted while its conversation is throttled.
+     *
+     * @param socketId       the identifier of the socket that received the input
+     * @param conversationId the identifier of the socket's conversation, or {@code null} if the socket is not
+     *                       associated to a conversation yet
+     * @return the time (in nanoseconds) to wait before processing the input ({@code 0} to process it immediately),
+     * or a negative value if the input must be dropped. In this case the returned value is the opposite of the
+     * time to wait before sending another input
+     */
+    public long acquire(@NonNull String socketId, @Nullable String conversationId) {
+        long maxDelay = mode == Mode.DEFER ? maxDeferDelay : 0;
+        long delay = 0;
+        if (nonNull(socketBuckets)) {
+            delay = socketBuckets.acquire(socketId, maxDelay);
+        }
+        if (delay >= 0 && nonNull(conversationBuckets) && nonNull(conversationId)) {
+            long conversationDelay = conversationBuckets.acquire(conversationId, maxDelay);
+            delay = conversationDelay < 0 ? conversationDelay : Math.max(delay, conversationDelay);
+        }
+        if (delay == 0) {
+            acceptedCount.increment();
+        } else if (delay > 0) {
+            deferredCount.increment();
+        } else {
+            droppedCount.increment();
+        }
+        return delay;
+    }
+
+    /**
+     * Marks the provided {@code socketId} as throttled.
+     * <p>
+     * This method is used to notify a client once when it starts exceeding the rate limits, instead of notifying it
+     * for each throttled input.
+     *
+     * @param socketId the identifier of the throttled socket
+     * @return {@code true} if the socket was not already throttled, {@code false} otherwise
+     * @see #clearThrottled(String)
+     */
+    public boolean markThrottled(@NonNull String socketId) {
+        return this.throttledSockets.add(socketId);
+    }
+
+    /**
+     * Clears the throttled mark of the provided {@code socketId}.
+     * <p>
+     * This method is called when an input of the socket is accepted without delay.
+     *
+     * @param socketId the identifier of the socket
+     * @see #markThrottled(String)
+     */
+    public void clearThrottled(@NonNull String socketId) {
+        if (!this.throttledSockets.isEmpty()) {
+            this.throttledSockets.remove(socketId);
+        }
+    }
+
+    /**
+     * Removes the bucket and the throttled mark of the provided {@code socketId}.
+     * <p>
+     * This method is called when the socket disconnects. The bucket of its conversation is kept, since the
+     * conversation can be resumed from another socket.
+     *
+     * @param socketId the identifier of the disconnected socket
+     */
+    public void removeSocket(@NonNull String socketId) {
+        if (nonNull(socketBuckets)) {
+            this.socketBuckets.remove(socketId);
+        }
+        this.throttledSockets.remove(socketId);
+    }
+
+    /**
+     * Removes the socket and conversation buckets that are full.
+     *
+     * @return the number of removed buckets
+     * @see TokenBucketRateLimiter#evictIdleBuckets()
+     */
+    public int evictIdleBuckets() {
+        int evicted = 0;
+        if (nonNull(socketBuckets)) {
+            evicted += this.socketBuckets.evictIdleBuckets();
+        }
+        if (nonNull(conversationBuckets)) {
+            evicted += this.conversationBuckets.evictIdleBuckets();
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the action applied to the inputs exceeding the rate limits.
+     *
+     * @return the action applied to the inputs exceeding the rate limits
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Returns the number of inputs accepted without delay.
+     *
+     * @return the number of accepted inputs
+     */
+    public long getAcceptedCount() {
+        return this.acceptedCount.sum();
+    }
+
+    /**
+     * Returns the number of inputs deferred because they exceeded a rate limit.
+     *
+     * @return the number of deferred inputs
+     */
+    public long getDeferredCount() {
+        return this.deferredCount.sum();
+    }
+
+    /**
+     * Returns the number of inputs dropped because they exceeded a rate limit.
+     *
+     * @return the number of dropped inputs
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+}
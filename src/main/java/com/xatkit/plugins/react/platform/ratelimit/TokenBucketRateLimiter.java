@@ -0,0 +1,178 @@
+package com.xatkit.plugins.react.platform.ratelimit;
+
+import lombok.NonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * Limits the rate of the events associated to a key using lock-free token buckets.
+ * <p>
+ * Each key has a bucket holding up to {@code capacity} tokens and refilled with {@code refillRate} tokens per
+ * second. The bucket of a key is stored as a single {@code long} (the time at which the bucket will be full again,
+ * as in the generic cell rate algorithm), and is updated with a compare-and-set: acquiring a token never blocks,
+ * even when many threads acquire tokens for the same key.
+ * <p>
+ * A full bucket is equivalent to a missing one: buckets are created when their key acquires a token, and can be
+ * removed once they are full again (see {@link #evictIdleBuckets()}).
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * The buckets of the keys, storing the time (in nanoseconds) at which the bucket will be full again.
+     */
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of tokens of a bucket.
+     */
+    private final int capacity;
+
+    /**
+     * The time (in nanoseconds) needed to refill a single token.
+     */
+    private final long refillInterval;
+
+    /**
+     * The time (in nanoseconds) needed to refill a bucket from a single token to its {@code capacity}.
+     * <p>
+     * A token can be acquired as long as the bucket will be full again within this time.
+     */
+    private final long burstTolerance;
+
+    /**
+     * The clock used to refill the buckets, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a {@link TokenBucketRateLimiter} with the provided {@code capacity} and {@code refillRate}.
+     *
+     * @param capacity   the maximum number of tokens of a bucket
+     * @param refillRate the number of tokens added to a bucket per second
+     * @throws IllegalArgumentException if the provided {@code capacity} or {@code refillRate} is lower or equal to
+     *                                  {@code 0}
+     */
+    public TokenBucketRateLimiter(int capacity, double refillRate) {
+        this(capacity, refillRate, System::nanoTime);
+    }
+
+    /**
+     * Constructs a {@link TokenBucketRateLimiter} with the provided {@code capacity}, {@code refillRate}, and
+     * {@code clock}.
+     *
+     * @param capacity   the maximum number of tokens of a bucket
+     * @param refillRate the number of tokens added to a bucket per second
+     * @param clock      the clock used to refill the buckets, in nanoseconds
+     * @throws IllegalArgumentException if the provided {@code capacity} or {@code refillRate} is lower or equal to
+     *                                  {@code 0}
+     */
+    public TokenBucketRateLimiter(int capacity, double refillRate, @NonNull LongSupplier clock) {
+        checkArgument(capacity > 0, "Cannot create a %s with the provided capacity %s, expected a value greater " +
+                "than 0", this.getClass().getSimpleName(), capacity);
+        checkArgument(refillRate > 0, "Cannot create a %s with the provided refill rate %s, expected a value " +
+                "greater than 0", this.getClass().getSimpleName(), refillRate);
+        this.capacity = capacity;
+        this.refillInterval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillRate));
+        this.burstTolerance = this.refillInterval * (capacity - 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Acquires a token from the bucket of the provided {@code key}.
+     * <p>
+     * If the bucket is empty the token is reserved in advance, as long as it is refilled within the provided
+     * {@code maxDelay}: the caller must wait for the returned delay before processing its event. Tokens reserved in
+     * advance are consumed in order, a caller cannot acquire a token before the ones reserved by the previous
+     * callers.
+     *
+     * @param key      the key to acquire a token for
+     * @param maxDelay the maximum time (in nanoseconds) to wait for a token, or {@code 0} to only acquire available
+     *                 tokens
+     * @return the time (in nanoseconds) to wait before using the acquired token ({@code 0} if the token is available
+     * immediately), or a negative value if no token can be acquired within {@code maxDelay}. In this case the
+     * returned value is the opposite of the time to wait for a token to be available
+     */
+    public long acquire(@NonNull String key, long maxDelay) {
+        AtomicLong bucket = this.buckets.computeIfAbsent(key, k -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long fullTime = bucket.get();
+            long refilledFullTime = fullTime - now < 0 ? now : fullTime;
+            long delay = refilledFullTime - burstTolerance - now;
+            if (delay > maxDelay) {
+                return -delay;
+            }
+            if (bucket.compareAndSet(fullTime, refilledFullTime + refillInterval)) {
+                return Math.max(0, delay);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens currently available in the bucket of the provided {@code key}.
+     *
+     * @param key the key to retrieve the available tokens of
+     * @return the number of available tokens, or a negative value if tokens have been reserved in advance
+     */
+    public long getAvailableTokens(@NonNull String key) {
+        AtomicLong bucket = this.buckets.get(key);
+        if (isNull(bucket)) {
+            return capacity;
+        }
+        long fullTime = bucket.get();
+        long now = clock.getAsLong();
+        if (fullTime - now <= 0) {
+            return capacity;
+        }
+        return capacity - (fullTime - now + refillInterval - 1) / refillInterval;
+    }
+
+    /**
+     * Removes the bucket of the provided {@code key}.
+     *
+     * @param key the key to remove the bucket of
+     */
+    public void remove(@NonNull String key) {
+        this.buckets.remove(key);
+    }
+
+    /**
+     * Removes the buckets that are full.
+     * <p>
+     * A full bucket is equivalent to a missing one. A token acquired concurrently with the removal of its bucket may
+     * be lost, which lets its key acquire one more token than its limit.
+     *
+     * @return the number of removed buckets
+     */
+    public int evictIdleBuckets() {
+        long now = clock.getAsLong();
+        int size = this.buckets.size();
+        this.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return size - this.buckets.size();
+    }
+
+    /**
+     * Returns the number of buckets currently stored.
+     *
+     * @return the number of buckets
+     */
+    public int size() {
+        return this.buckets.size();
+    }
+
+    /**
+     * Returns the maximum number of tokens of a bucket.
+     *
+     * @return the maximum number of tokens of a bucket
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+}
@@ -0,0 +1,101 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubListener;
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An in-process {@link RoutingTransport} delivering the published messages to the listeners of the same JVM.
+ * <p>
+ * Messages are delivered synchronously, on the thread publishing them. This transport is used to run several
+ * platforms in the same JVM (e.g. in tests), the {@link #getSharedInstance() shared instance} is used by all the
+ * platforms configured with the {@code loopback} transport.
+ */
+public class LoopbackRoutingTransport implements RoutingTransport {
+
+    /**
+     * The instance shared by the platforms of the JVM.
+     */
+    private static final LoopbackRoutingTransport SHARED_INSTANCE = new LoopbackRoutingTransport();
+
+    /**
+     * Returns the {@link LoopbackRoutingTransport} shared by the platforms of the JVM.
+     *
+     * @return the shared {@link LoopbackRoutingTransport}
+     */
+    public static LoopbackRoutingTransport getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * The listeners subscribed to each topic.
+     */
+    private final ConcurrentMap<String, List<PubSubListener<PubSubMessage>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The message is delivered to the listeners of the {@code topic} before this method returns. Errors thrown by
+     * the listeners are logged.
+     */
+    @Override
+    public void publish(@NonNull String topic, @NonNull PubSubMessage message) {
+        List<PubSubListener<PubSubMessage>> topicListeners = this.listeners.get(topic);
+        if (isNull(topicListeners)) {
+            Log.debug("Dropping message published on topic {0}: the topic does not have any subscriber", topic);
+            return;
+        }
+        for (PubSubListener<PubSubMessage> listener : topicListeners) {
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException e) {
+                Log.error(e, "An error occurred when delivering a message published on topic {0}, see attached " +
+                        "exception", topic);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Messages that are not instances of the provided {@code messageClass} are ignored by the {@code listener}.
+     */
+    @Override
+    public <T extends PubSubMessage> void subscribe(@NonNull String topic, @NonNull PubSubListener<T> listener,
+                                                    @NonNull Class<T> messageClass) {
+        this.listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(message -> {
+            if (messageClass.isInstance(message)) {
+                listener.onMessage(messageClass.cast(message));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(@NonNull String topic) {
+        this.listeners.remove(topic);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@link #getSharedInstance() shared instance} cannot be shut down, its topics are removed when the
+     * platforms unsubscribe from them.
+     */
+    @Override
+    public void shutdown() {
+        if (this != SHARED_INSTANCE) {
+            this.listeners.clear();
+        }
+    }
+}
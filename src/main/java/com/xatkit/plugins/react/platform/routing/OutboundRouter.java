@@ -0,0 +1,328 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.xatkit.plugins.react.platform.metrics.Histogram;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * Routes the outbound events targeting sockets connected to other nodes of the deployment.
+ * <p>
+ * A reply can be computed on a node that does not host the socket of the conversation (e.g. when the conversation
+ * has been resumed on another node). This class sends such events to the node hosting the socket through a
+ * {@link RoutingTransport}, and delivers the events routed by the other nodes to the local sockets.
+ * <p>
+ * Events routed to the same node within a short window are sent as a single {@link RoutedEvents} batch, reducing
+ * the number of messages exchanged through the transport. A batch is atomically removed from the pending batch map
+ * before being published, and the map is never locked while publishing. Batches are published while holding the
+ * publication lock of their target node: the events routed to a node are published in the order they have been
+ * routed.
+ */
+public class OutboundRouter {
+
+    /**
+     * The prefix of the topics the nodes subscribe to.
+     */
+    private static final String TOPIC_PREFIX = "xatkit.react.node.";
+
+    /**
+     * A consumer delivering a routed event to the local sockets.
+     */
+    @FunctionalInterface
+    public interface LocalDelivery {
+
+        /**
+         * Delivers the provided {@code event} to the local sockets.
+         * <p>
+         * Implementations must not route the event again.
+         *
+         * @param event the event to deliver
+         */
+        void deliver(RoutedEvent event);
+    }
+
+    /**
+     * The identifier of the local node.
+     */
+    private final String nodeId;
+
+    /**
+     * The transport used to exchange the events with the other nodes.
+     */
+    private final RoutingTransport transport;
+
+    /**
+     * The scheduler used to publish the batches at the end of their window.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The duration (in milliseconds) of the batching window.
+     * <p>
+     * Events are published immediately if the window is {@code 0}.
+     */
+    private final long window;
+
+    /**
+     * The maximum number of events in a batch.
+     * <p>
+     * Batches reaching this size are published before the end of their window.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The consumer delivering the events routed by the other nodes to the local sockets.
+     */
+    private final LocalDelivery localDelivery;
+
+    /**
+     * The clock used to compute the routing latency (in milliseconds since the epoch).
+     * <p>
+     * The latency of an event is computed from the clocks of two nodes, and is only accurate if their clocks are
+     * synchronized.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The pending batches, indexed by target node.
+     */
+    private final ConcurrentMap<String, List<RoutedEvent>> pendingBatches = new ConcurrentHashMap<>();
+
+    /**
+     * The locks serializing the publication of the batches of a node, indexed by target node.
+     */
+    private final ConcurrentMap<String, Object> publicationLocks = new ConcurrentHashMap<>();
+
+    /**
+     * The time between the routing of the events and their delivery on the target node.
+     */
+    private final Histogram routingLatency = new Histogram();
+
+    /**
+     * The number of events routed to other nodes.
+     */
+    private final LongAdder routedEventCount = new LongAdder();
+
+    /**
+     * The number of batches published to other nodes.
+     */
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * The number of events received from other nodes.
+     */
+    private final LongAdder receivedEventCount = new LongAdder();
+
+    /**
+     * Constructs an {@link OutboundRouter} with the provided parameters.
+     *
+     * @param nodeId        the identifier of the local node
+     * @param transport     the transport used to exchange the events with the other nodes
+     * @param scheduler     the scheduler used to publish the batches at the end of their window
+     * @param window        the duration (in milliseconds) of the batching window
+     * @param maxBatchSize  the maximum number of events in a batch
+     * @param localDelivery the consumer delivering the events routed by the other nodes to the local sockets
+     * @throws IllegalArgumentException if the provided {@code window} is lower than {@code 0} or if the provided
+     *                                  {@code maxBatchSize} is lower or equal to {@code 0}
+     */
+    public OutboundRouter(@NonNull String nodeId, @NonNull RoutingTransport transport,
+                          @NonNull ScheduledExecutorService scheduler, long window, int maxBatchSize,
+                          @NonNull LocalDelivery localDelivery) {
+        this(nodeId, transport, scheduler, window, maxBatchSize, localDelivery, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an {@link OutboundRouter} with the provided parameters and {@code clock}.
+     * <p>
+     * This constructor is used in tests to control the routing latency.
+     *
+     * @param nodeId        the identifier of the local node
+     * @param transport     the transport used to exchange the events with the other nodes
+     * @param scheduler     the scheduler used to publish the batches at the end of their window
+     * @param window        the duration (in milliseconds) of the batching window
+     * @param maxBatchSize  the maximum number of events in a batch
+     * @param localDelivery the consumer delivering the events routed by the other nodes to the local sockets
+     * @param clock         the clock used to compute the routing latency
+     * @throws IllegalArgumentException if the provided {@code window} is lower than {@code 0} or if the provided
+     *                                  {@code maxBatchSize} is lower or equal to {@code 0}
+     */
+    OutboundRouter(@NonNull String nodeId, @NonNull RoutingTransport transport,
+                   @NonNull ScheduledExecutorService scheduler, long window, int maxBatchSize,
+                   @NonNull LocalDelivery localDelivery, @NonNull LongSupplier clock) {
+        checkArgument(window >= 0, "Cannot create a %s with the provided window %s, expected a value greater or " +
+                "equal to 0", this.getClass().getSimpleName(), window);
+        checkArgument(maxBatchSize > 0, "Cannot create a %s with the provided maximum batch size %s, expected a " +
+                "value greater than 0", this.getClass().getSimpleName(), maxBatchSize);
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.localDelivery = localDelivery;
+        this.clock = clock;
+    }
+
+    /**
+     * Subscribes to the events routed to the local node.
+     */
+    public void start() {
+        this.transport.subscribe(TOPIC_PREFIX + nodeId, this::onRoutedEvents, RoutedEvents.class);
+    }
+
+    /**
+     * Routes the event {@code eventName} targeting the socket {@code channel} to the node {@code targetNodeId}.
+     * <p>
+     * The event is added to the pending batch of the target node, and published at the end of the batching window
+     * or when the batch is full.
+     *
+     * @param targetNodeId   the identifier of the node hosting the socket
+     * @param channel        the identifier of the socket to send the event to
+     * @param conversationId the identifier of the conversation of the socket
+     * @param eventName      the name of the event to send
+     * @param data           the data of the event
+     */
+    public void route(@NonNull String targetNodeId, @NonNull String channel, @NonNull String conversationId,
+                      @NonNull String eventName, Object... data) {
+        RoutedEvent event = new RoutedEvent(channel, conversationId, eventName, isNull(data) ? new Object[0] : data,
+                clock.getAsLong());
+        boolean[] batchState = new boolean[2];
+        this.pendingBatches.compute(targetNodeId, (k, batch) -> {
+            List<RoutedEvent> result = batch;
+            if (isNull(result)) {
+                result = new ArrayList<>();
+                batchState[0] = true;
+            }
+            result.add(event);
+            batchState[1] = result.size() >= maxBatchSize;
+            return result;
+        });
+        routedEventCount.increment();
+        if (window == 0 || batchState[1]) {
+            this.flush(targetNodeId);
+        } else if (batchState[0]) {
+            this.scheduler.schedule(() -> flush(targetNodeId), window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publishes the pending batch of the provided {@code targetNodeId}, if any.
+     *
+     * @param targetNodeId the identifier of the node to publish the pending batch of
+     */
+    public void flush(@NonNull String targetNodeId) {
+        synchronized (this.publicationLocks.computeIfAbsent(targetNodeId, k -> new Object())) {
+            /*
+             * The removed batch cannot be updated anymore: events routed after its removal are added to a new batch,
+             * that is published after this one since its publication requires the same lock.
+             */
+            List<RoutedEvent> batch = this.pendingBatches.remove(targetNodeId);
+            if (isNull(batch)) {
+                return;
+            }
+            try {
+                this.transport.publish(TOPIC_PREFIX + targetNodeId, new RoutedEvents(nodeId, batch));
+                batchCount.increment();
+            } catch (RuntimeException e) {
+                Log.error(e, "Cannot route {0} events to node {1}, see attached exception", batch.size(),
+                        targetNodeId);
+            }
+        }
+    }
+
+    /**
+     * Publishes the pending batches, unsubscribes from the events routed to the local node, and shuts down the
+     * transport.
+     */
+    public void shutdown() {
+        for (String targetNodeId : this.pendingBatches.keySet()) {
+            this.flush(targetNodeId);
+        }
+        this.transport.unsubscribe(TOPIC_PREFIX + nodeId);
+        this.transport.shutdown();
+    }
+
+    /**
+     * Delivers the provided {@code routedEvents} to the local sockets.
+     *
+     * @param routedEvents the events routed to the local node
+     */
+    private void onRoutedEvents(RoutedEvents routedEvents) {
+        long now = clock.getAsLong();
+        for (RoutedEvent event : routedEvents.getEvents()) {
+            routingLatency.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - event.getRoutedAt())));
+            receivedEventCount.increment();
+            try {
+                this.localDelivery.deliver(event);
+            } catch (RuntimeException e) {
+                Log.error(e, "Cannot deliver the event {0} routed by node {1} to channel {2}, see attached " +
+                        "exception", event.getEventName(), routedEvents.getSourceNodeId(), event.getChannel());
+            }
+        }
+    }
+
+    /**
+     * Returns the identifier of the local node.
+     *
+     * @return the identifier of the local node
+     */
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * Returns the {@link Histogram} holding the time between the routing of the received events and their
+     * delivery on the local node.
+     *
+     * @return the {@link Histogram} holding the routing latency
+     */
+    public Histogram getRoutingLatency() {
+        return this.routingLatency;
+    }
+
+    /**
+     * Returns the number of events routed to other nodes.
+     *
+     * @return the number of routed events
+     */
+    public long getRoutedEventCount() {
+        return this.routedEventCount.sum();
+    }
+
+    /**
+     * Returns the number of batches published to other nodes.
+     *
+     * @return the number of published batches
+     */
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    /**
+     * Returns the number of events received from other nodes.
+     *
+     * @return the number of received events
+     */
+    public long getReceivedEventCount() {
+        return this.receivedEventCount.sum();
+    }
+
+    /**
+     * Returns the number of nodes with a pending batch.
+     *
+     * @return the number of nodes with a pending batch
+     */
+    public int getPendingBatchCount() {
+        return this.pendingBatches.size();
+    }
+}
@@ -0,0 +1,154 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.store.pubsub.DispatchMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubListener;
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A {@link RoutingTransport} exchanging the messages through the {@link PubSubStore} of the socket server.
+ * <p>
+ * The socket server's {@link com.corundumstudio.socketio.store.StoreFactory} already connects the nodes of a
+ * deployment to share the socket.io rooms (e.g. with a Redis or Hazelcast store factory). This transport reuses
+ * its {@link PubSubType#DISPATCH} channel: each message is wrapped in a {@link DispatchMessage} addressed to a room
+ * named after its topic, in the default namespace. The socket.io listener of the store dispatches it to this room
+ * (that does not contain any client), and the listener of this transport delivers it to the subscribers of the
+ * topic.
+ * <p>
+ * The {@link PubSubStore} keys its channels by {@link PubSubType}, and removes all the listeners of a channel when
+ * unsubscribing from it: this transport subscribes to the store once, and never unsubscribes from it, so that the
+ * listeners of the socket server are preserved. The store is owned (and shut down) by the socket server.
+ * <p>
+ * The messages are serialized by the store's codec, and the messages published by a node are not delivered to the
+ * listeners of the same node. The default {@link com.corundumstudio.socketio.store.MemoryStoreFactory} does not
+ * exchange any message, and can only be used by single-node deployments.
+ */
+public class PubSubStoreRoutingTransport implements RoutingTransport {
+
+    /**
+     * The name of the socket.io packets wrapping the published messages.
+     */
+    static final String PACKET_NAME = "xatkit.react.routing";
+
+    /**
+     * The store used to exchange the messages.
+     */
+    private final PubSubStore pubSubStore;
+
+    /**
+     * The listeners subscribed to each topic.
+     */
+    private final ConcurrentMap<String, List<PubSubListener<PubSubMessage>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Whether this transport is subscribed to the {@link PubSubType#DISPATCH} channel of the store.
+     */
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructs a {@link PubSubStoreRoutingTransport} exchanging the messages through the provided
+     * {@code pubSubStore}.
+     *
+     * @param pubSubStore the store used to exchange the messages
+     */
+    public PubSubStoreRoutingTransport(@NonNull PubSubStore pubSubStore) {
+        this.pubSubStore = pubSubStore;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The message is wrapped in a {@link DispatchMessage} addressed to the room {@code topic}.
+     */
+    @Override
+    public void publish(@NonNull String topic, @NonNull PubSubMessage message) {
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName(PACKET_NAME);
+        packet.setData(message);
+        this.pubSubStore.publish(PubSubType.DISPATCH, new DispatchMessage(topic, packet, Namespace.DEFAULT_NAME));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Messages that are not instances of the provided {@code messageClass} are ignored by the {@code listener}.
+     */
+    @Override
+    public <T extends PubSubMessage> void subscribe(@NonNull String topic, @NonNull PubSubListener<T> listener,
+                                                    @NonNull Class<T> messageClass) {
+        this.listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(message -> {
+            if (messageClass.isInstance(message)) {
+                listener.onMessage(messageClass.cast(message));
+            }
+        });
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.pubSubStore.subscribe(PubSubType.DISPATCH, this::onDispatch, DispatchMessage.class);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method only removes the listeners of this transport: the store's {@link PubSubType#DISPATCH} channel
+     * is still used by the socket server.
+     */
+    @Override
+    public void unsubscribe(@NonNull String topic) {
+        this.listeners.remove(topic);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method removes the listeners of this transport. The store is shut down by the socket server.
+     */
+    @Override
+    public void shutdown() {
+        this.listeners.clear();
+    }
+
+    /**
+     * Delivers the message wrapped in the provided {@code dispatchMessage} to the listeners of its topic.
+     * <p>
+     * Dispatch messages published by the socket server (e.g. room broadcasts) and messages published on topics
+     * without subscriber are ignored. Errors thrown by the listeners are logged.
+     *
+     * @param dispatchMessage the message received from the store's {@link PubSubType#DISPATCH} channel
+     */
+    private void onDispatch(DispatchMessage dispatchMessage) {
+        Packet packet = dispatchMessage.getPacket();
+        if (isNull(packet) || !PACKET_NAME.equals(packet.getName()) || !(packet.getData() instanceof PubSubMessage)) {
+            return;
+        }
+        List<PubSubListener<PubSubMessage>> topicListeners = this.listeners.get(dispatchMessage.getRoom());
+        if (isNull(topicListeners)) {
+            Log.debug("Dropping message published on topic {0}: the topic does not have any subscriber",
+                    dispatchMessage.getRoom());
+            return;
+        }
+        PubSubMessage message = packet.getData();
+        for (PubSubListener<PubSubMessage> listener : topicListeners) {
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException e) {
+                Log.error(e, "An error occurred when delivering a message published on topic {0}, see attached " +
+                        "exception", dispatchMessage.getRoom());
+            }
+        }
+    }
+}
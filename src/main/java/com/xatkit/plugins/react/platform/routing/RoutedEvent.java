@@ -0,0 +1,103 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import lombok.NonNull;
+
+import java.io.Serializable;
+
+/**
+ * An outbound socket event computed on a node and routed to the node hosting its socket.
+ * <p>
+ * The data of the event must be serializable by the {@link RoutingTransport} used to route it.
+ */
+public final class RoutedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The identifier of the socket to send the event to.
+     */
+    private final String channel;
+
+    /**
+     * The identifier of the conversation of the socket.
+     */
+    private final String conversationId;
+
+    /**
+     * The name of the socket event.
+     */
+    private final String eventName;
+
+    /**
+     * The data of the socket event.
+     */
+    private final Object[] data;
+
+    /**
+     * The time (in milliseconds since the epoch) the event has been routed.
+     */
+    private final long routedAt;
+
+    /**
+     * Constructs a {@link RoutedEvent} with the provided parameters.
+     *
+     * @param channel        the identifier of the socket to send the event to
+     * @param conversationId the identifier of the conversation of the socket
+     * @param eventName      the name of the socket event
+     * @param data           the data of the socket event
+     * @param routedAt       the time (in milliseconds since the epoch) the event has been routed
+     */
+    public RoutedEvent(@NonNull String channel, @NonNull String conversationId, @NonNull String eventName,
+                       @NonNull Object[] data, long routedAt) {
+        this.channel = channel;
+        this.conversationId = conversationId;
+        this.eventName = eventName;
+        this.data = data;
+        this.routedAt = routedAt;
+    }
+
+    /**
+     * Returns the identifier of the socket to send the event to.
+     *
+     * @return the identifier of the socket
+     */
+    public String getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Returns the identifier of the conversation of the socket.
+     *
+     * @return the identifier of the conversation
+     */
+    public String getConversationId() {
+        return this.conversationId;
+    }
+
+    /**
+     * Returns the name of the socket event.
+     *
+     * @return the name of the socket event
+     */
+    public String getEventName() {
+        return this.eventName;
+    }
+
+    /**
+     * Returns the data of the socket event.
+     *
+     * @return the data of the socket event
+     */
+    public Object[] getData() {
+        return this.data;
+    }
+
+    /**
+     * Returns the time (in milliseconds since the epoch) the event has been routed.
+     *
+     * @return the time the event has been routed
+     */
+    public long getRoutedAt() {
+        return this.routedAt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * A batch of {@link RoutedEvent}s sent by a node to another node of the deployment.
+ * <p>
+ * The events of a batch are delivered in the order they have been routed.
+ */
+public class RoutedEvents extends PubSubMessage {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The identifier of the node that routed the events.
+     */
+    private String sourceNodeId;
+
+    /**
+     * The routed events.
+     */
+    private List<RoutedEvent> events;
+
+    /**
+     * Constructs an empty {@link RoutedEvents}.
+     * <p>
+     * This constructor is required by the transports deserializing the messages.
+     */
+    public RoutedEvents() {
+    }
+
+    /**
+     * Constructs a {@link RoutedEvents} with the provided {@code sourceNodeId} and {@code events}.
+     *
+     * @param sourceNodeId the identifier of the node that routed the events
+     * @param events       the routed events
+     */
+    public RoutedEvents(@NonNull String sourceNodeId, @NonNull List<RoutedEvent> events) {
+        this.sourceNodeId = sourceNodeId;
+        this.events = events;
+    }
+
+    /**
+     * Returns the identifier of the node that routed the events.
+     *
+     * @return the identifier of the node that routed the events
+     */
+    public String getSourceNodeId() {
+        return this.sourceNodeId;
+    }
+
+    /**
+     * Returns the routed events.
+     *
+     * @return the routed events
+     */
+    public List<RoutedEvent> getEvents() {
+        return this.events;
+    }
+}
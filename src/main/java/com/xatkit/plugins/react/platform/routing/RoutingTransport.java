@@ -0,0 +1,58 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.corundumstudio.socketio.store.pubsub.PubSubListener;
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import lombok.NonNull;
+
+/**
+ * A publish/subscribe transport used to exchange events between the nodes of a deployment.
+ * <p>
+ * This interface mirrors netty-socketio's {@link com.corundumstudio.socketio.store.pubsub.PubSubStore}, and reuses
+ * its {@link PubSubMessage} and {@link PubSubListener} types. Topics are identified by name instead of
+ * {@link com.corundumstudio.socketio.store.pubsub.PubSubType}, allowing each node to subscribe to its own topic.
+ * The default {@link PubSubStoreRoutingTransport} exchanges the messages through the {@code PubSubStore} of the
+ * socket server's {@link com.corundumstudio.socketio.store.StoreFactory}, i.e. with the broker already used to
+ * share the socket.io rooms between the nodes (e.g. Redis or Hazelcast).
+ * <p>
+ * Implementations must be thread-safe, and must deliver the messages published on a topic in the order they have
+ * been published. Custom implementations are selected with the
+ * {@link com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_ROUTING_TRANSPORT_KEY} configuration key, and
+ * must provide a public constructor accepting an {@link org.apache.commons.configuration2.Configuration}.
+ *
+ * @see PubSubStoreRoutingTransport
+ * @see LoopbackRoutingTransport
+ */
+public interface RoutingTransport {
+
+    /**
+     * Publishes the provided {@code message} on the given {@code topic}.
+     *
+     * @param topic   the topic to publish the message on
+     * @param message the message to publish
+     */
+    void publish(@NonNull String topic, @NonNull PubSubMessage message);
+
+    /**
+     * Subscribes the provided {@code listener} to the messages of type {@code messageClass} published on the given
+     * {@code topic}.
+     *
+     * @param topic        the topic to subscribe to
+     * @param listener     the listener notified with the messages published on the topic
+     * @param messageClass the type of the messages published on the topic
+     * @param <T>          the type of the messages published on the topic
+     */
+    <T extends PubSubMessage> void subscribe(@NonNull String topic, @NonNull PubSubListener<T> listener,
+                                             @NonNull Class<T> messageClass);
+
+    /**
+     * Removes the listeners subscribed to the provided {@code topic}.
+     *
+     * @param topic the topic to unsubscribe from
+     */
+    void unsubscribe(@NonNull String topic);
+
+    /**
+     * Releases the resources held by this transport.
+     */
+    void shutdown();
+}
@@ -0,0 +1,317 @@
+package com.xatkit.plugins.react.platform.server;
+
+import com.xatkit.core.XatkitException;
+import lombok.NonNull;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An immutable HTTP resource held in memory in its raw and gzipped forms.
+ * <p>
+ * The resources served by the {@link ReactRestEndpointsManager} do not change while the bot is running: this class
+ * allows to load (or render) them once, and to serve them without reading the classpath or compressing them for
+ * each request. Each resource is identified by a strong entity tag computed from its content, that can be used to
+ * check whether the version cached by a client is still valid (see {@link #isNotModified(List)}).
+ * <p>
+ * The responses created by {@link #createResponse(List)} carry the {@code ETag} and {@code Cache-Control} headers
+ * of the resource, allowing clients to revalidate their cached copy with an {@code If-None-Match} request and to
+ * receive a {@code 304 Not Modified} response without body if it is still valid.
+ */
+public class CachedResource {
+
+    /**
+     * The {@code gzip} content coding.
+     */
+    private static final String GZIP_ENCODING = "gzip";
+
+    /**
+     * The {@code Cache-Control} directives of the served resources.
+     * <p>
+     * The resources may change when the bot is restarted with a different configuration: clients can store them,
+     * but have to revalidate their copy (using its entity tag) before reusing it.
+     */
+    static final String CACHE_CONTROL = "public, no-cache";
+
+    /**
+     * The raw content of the resource.
+     */
+    private final byte[] content;
+
+    /**
+     * The gzipped content of the resource.
+     */
+    private final byte[] gzippedContent;
+
+    /**
+     * The MIME type of the resource.
+     */
+    private final String contentType;
+
+    /**
+     * The entity tag identifying the content of the resource.
+     */
+    private final String etag;
+
+    /**
+     * Constructs a {@link CachedResource} with the provided {@code content} and {@code contentType}.
+     *
+     * @param content     the raw content of the resource
+     * @param contentType the MIME type of the resource
+     * @throws XatkitException if an error occurred when compressing the {@code content}
+     */
+    public CachedResource(@NonNull byte[] content, @NonNull String contentType) {
+        this.content = content;
+        this.gzippedContent = gzip(content);
+        this.contentType = contentType;
+        this.etag = computeEtag(content);
+    }
+
+    /**
+     * Loads the classpath resource located at {@code path} in a {@link CachedResource}.
+     *
+     * @param path        the classpath location of the resource to load
+     * @param contentType the MIME type of the resource
+     * @return the created {@link CachedResource}
+     * @throws XatkitException if the resource does not exist or if an error occurred when reading it
+     */
+    public static CachedResource fromClasspath(@NonNull String path, @NonNull String contentType) {
+        return new CachedResource(readClasspathResource(path), contentType);
+    }
+
+    /**
+     * Reads the content of the classpath resource located at {@code path}.
+     *
+     * @param path the classpath location of the resource to read
+     * @return the content of the resource
+     * @throws XatkitException if the resource does not exist or if an error occurred when reading it
+     */
+    public static byte[] readClasspathResource(@NonNull String path) {
+        try (InputStream is = CachedResource.class.getClassLoader().getResourceAsStream(path)) {
+            if (isNull(is)) {
+                throw new XatkitException(MessageFormat.format("Cannot find the resource {0}", path));
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("An error occurred when reading the resource {0}, see " +
+                    "attached exception", path), e);
+        }
+    }
+
+    /**
+     * Returns whether the provided request {@code headers} contain an {@code If-None-Match} header matching the
+     * resource's entity tag.
+     *
+     * @param headers the headers of the request
+     * @return {@code true} if the client already holds the current version of the resource, {@code false} otherwise
+     */
+    public boolean isNotModified(@NonNull List<Header> headers) {
+        for (Header header : headers) {
+            if (HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(header.getName())) {
+                for (String tag : header.getValue().split(",")) {
+                    String trimmedTag = tag.trim();
+                    if (trimmedTag.equals(etag) || trimmedTag.equals("*")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the {@link HttpResponse} answering a request with the provided {@code headers}.
+     * <p>
+     * The returned response has a {@code 304 Not Modified} status and no entity if the request's
+     * {@code If-None-Match} header matches the resource's entity tag (see {@link #isNotModified(List)}). Otherwise
+     * it has a {@code 200 OK} status and contains the entity created by {@link #createEntity(List)}. In both cases
+     * the response carries the {@code ETag} and {@code Cache-Control} headers of the resource.
+     *
+     * @param headers the headers of the request
+     * @return the created {@link HttpResponse}
+     */
+    public HttpResponse createResponse(@NonNull List<Header> headers) {
+        HttpResponse response;
+        if (isNotModified(headers)) {
+            response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_MODIFIED, "Not Modified");
+        } else {
+            response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+            response.setEntity(createEntity(headers));
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader("Vary", HttpHeaders.ACCEPT_ENCODING);
+        return response;
+    }
+
+    /**
+     * Creates an {@link HttpEntity} containing the resource.
+     * <p>
+     * The returned entity contains the gzipped content of the resource if the provided request {@code headers}
+     * accept the {@code gzip} content coding, and the raw content otherwise.
+     *
+     * @param headers the headers of the request
+     * @return the created {@link HttpEntity}
+     */
+    public HttpEntity createEntity(@NonNull List<Header> headers) {
+        ByteArrayEntity entity;
+        if (acceptsGzip(headers)) {
+            entity = new ByteArrayEntity(gzippedContent);
+            entity.setContentEncoding(GZIP_ENCODING);
+        } else {
+            entity = new ByteArrayEntity(content);
+            entity.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        entity.setContentType(contentType);
+        return entity;
+    }
+
+    /**
+     * Returns the entity tag identifying the content of the resource.
+     *
+     * @return the entity tag (including its surrounding quotes)
+     */
+    public String getEtag() {
+        return this.etag;
+    }
+
+    /**
+     * Returns the size (in bytes) of the raw content of the resource.
+     *
+     * @return the size of the raw content of the resource
+     */
+    public int getContentLength() {
+        return this.content.length;
+    }
+
+    /**
+     * Returns the size (in bytes) of the gzipped content of the resource.
+     *
+     * @return the size of the gzipped content of the resource
+     */
+    public int getGzippedContentLength() {
+        return this.gzippedContent.length;
+    }
+
+    /**
+     * Returns whether the provided request {@code headers} accept the {@code gzip} content coding.
+     * <p>
+     * The {@code gzip} coding is accepted if the {@code Accept-Encoding} header lists it (or the {@code *} wildcard
+     * when it is not listed) with a quality value greater than {@code 0}. Quality values are compared numerically,
+     * meaning that {@code gzip;q=0}, {@code gzip;q=0.0}, and {@code gzip;q=0.000} all reject the coding.
+     *
+     * @param headers the headers of the request
+     * @return {@code true} if the request accepts gzipped content, {@code false} otherwise
+     */
+    static boolean acceptsGzip(List<Header> headers) {
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (Header header : headers) {
+            if (HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(header.getName())) {
+                for (String coding : header.getValue().split(",")) {
+                    String[] parts = coding.split(";");
+                    String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                    if (name.equals(GZIP_ENCODING)) {
+                        gzipQuality = parseQuality(parts);
+                    } else if (name.equals("*")) {
+                        wildcardQuality = parseQuality(parts);
+                    }
+                }
+            }
+        }
+        if (gzipQuality >= 0) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality > 0;
+    }
+
+    /**
+     * Parses the quality value of a content coding from its {@code ;}-separated {@code parts}.
+     * <p>
+     * The quality value defaults to {@code 1} if the coding does not define a {@code q} parameter, and is considered
+     * as {@code 0} (i.e. not acceptable) if the parameter is not a valid number.
+     *
+     * @param parts the name and the parameters of the content coding
+     * @return the quality value of the content coding
+     */
+    private static double parseQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            int separatorIndex = parameter.indexOf('=');
+            if (separatorIndex > 0 && parameter.substring(0, separatorIndex).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter.substring(separatorIndex + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Compresses the provided {@code content} with gzip.
+     *
+     * @param content the content to compress
+     * @return the compressed content
+     * @throws XatkitException if an error occurred when compressing the content
+     */
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(content);
+        } catch (IOException e) {
+            throw new XatkitException("An error occurred when compressing a cached resource, see attached " +
+                    "exception", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Computes a strong entity tag from the provided {@code content}.
+     *
+     * @param content the content to compute the entity tag of
+     * @return the computed entity tag (including its surrounding quotes)
+     */
+    private static String computeEtag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder builder = new StringBuilder("\"");
+            for (int i = 0; i < 16; i++) {
+                builder.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return builder.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * SHA-256 is supported by all the Java platforms.
+             */
+            throw new XatkitException("Cannot compute the entity tag of a cached resource, see attached exception",
+                    e);
+        }
+    }
+}
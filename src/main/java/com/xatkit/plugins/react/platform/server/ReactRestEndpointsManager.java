@@ -2,52 +2,56 @@ package com.xatkit.plugins.react.platform.server;
 
 import com.xatkit.core.XatkitException;
 import com.xatkit.core.server.HttpMethod;
-import com.xatkit.core.server.RestHandlerException;
 import com.xatkit.core.server.RestHandlerFactory;
 import com.xatkit.core.server.XatkitServer;
 import com.xatkit.core.server.XatkitServerUtils;
+import com.xatkit.plugins.react.platform.metrics.MetricsRegistry;
+import com.xatkit.plugins.react.platform.tracing.MessageTracer;
 import com.xatkit.plugins.react.platform.utils.ReactUtils;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.http.HttpEntity;
-import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import javax.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * Manages the REST endpoints of the {@link com.xatkit.plugins.react.platform.ReactPlatform}.
  * <p>
  * This class registers the {@code admin/*} handlers that are used to test a react-based bot through the browser.
+ * The served resources are loaded (and the testing page rendered) once when the endpoints are registered, and held
+ * in memory in their raw and gzipped forms (see {@link CachedResource}). The admin handlers return complete
+ * {@link org.apache.http.HttpResponse}s carrying the {@code ETag} and {@code Cache-Control} headers of the served
+ * resource, and answer conditional requests matching its entity tag with a {@code 304 Not Modified} response.
+ * <p>
+ * This class also registers the {@code /react/metrics} handler returning the platform's metrics in the Prometheus
+ * text format, and the {@code /react/traces} handler returning the traces of the sampled user inputs in JSON.
  */
 public class ReactRestEndpointsManager {
 
     /**
-     * The pattern used to print the location of the Xatkit server in the rendered {@code admin.html} file.
+     * The placeholder used to print the location of the Xatkit server in the rendered {@code admin.html} file.
      */
-    private static final String BASE_SERVER_LOCATION_PATTERN = "#xatkit\\.server";
+    private static final String BASE_SERVER_LOCATION_PLACEHOLDER = "#xatkit.server";
 
     /**
-     * The pattern used to print the location of the ReactPlatform's server in the rendered {@code admin.html} file.
+     * The placeholder used to print the location of the ReactPlatform's server in the rendered {@code admin.html}
+     * file.
      */
-    private static final String SERVER_LOCATION_PATTERN = "#xatkit\\.react_server";
+    private static final String SERVER_LOCATION_PLACEHOLDER = "#xatkit.react_server";
 
     /**
-     * The pattern used to print the username in the rendered {@code admin.html} file.
+     * The placeholder used to print the username in the rendered {@code admin.html} file.
      * <p>
-     * This pattern is replaced with a random name from {@link #TEST_CLIENT_NAMES} when the page is displayed to
+     * This placeholder is replaced with a name from {@link #TEST_CLIENT_NAMES} when the page is displayed to
      * simulate multiple users.
      */
-    private static final String USERNAME_PATTERN = "#xatkit\\.username";
+    private static final String USERNAME_PLACEHOLDER = "#xatkit.username";
 
     /**
      * A {@link List} of test client names used to render the {@code /admin} page and simulate multiple users.
@@ -71,7 +75,22 @@ public class ReactRestEndpointsManager {
      *
      * @see #TEST_CLIENT_NAMES
      */
-    private static int TEMPLATE_FILLED_COUNT = 0;
+    private static final AtomicInteger TEMPLATE_FILLED_COUNT = new AtomicInteger();
+
+    /**
+     * The path of the endpoint returning the platform's metrics.
+     */
+    private static final String METRICS_PATH = "/react/metrics";
+
+    /**
+     * The content type of the metrics returned by the {@link #METRICS_PATH} endpoint.
+     */
+    private static final ContentType METRICS_CONTENT_TYPE = ContentType.parse(MetricsRegistry.CONTENT_TYPE);
+
+    /**
+     * The path of the endpoint returning the traces of the sampled user inputs.
+     */
+    private static final String TRACES_PATH = "/react/traces";
 
     /**
      * The {@link XatkitServer} to register the endpoints to.
@@ -103,13 +122,68 @@ public class ReactRestEndpointsManager {
      */
     private boolean enableTestingPage;
 
+    /**
+     * The registry containing the metrics returned by the {@link #METRICS_PATH} endpoint.
+     * <p>
+     * This field is {@code null} if the metrics endpoint is disabled.
+     *
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     */
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * The tracer holding the traces returned by the {@link #TRACES_PATH} endpoint.
+     * <p>
+     * This field is {@code null} if tracing is disabled.
+     *
+     * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
+     */
+    private MessageTracer messageTracer;
+
     /**
      * Constructs a {@link ReactRestEndpointsManager} with the provided {@code xatkitServer} and {@code configuration}.
+     * <p>
+     * This constructor is similar to {@code new ReactRestEndpointsManager(xatkitServer, configuration, null)}, and
+     * does not register the metrics endpoint.
      *
      * @param xatkitServer  the {@link XatkitServer} to register the endpoints to
      * @param configuration the Xatkit configuration
      */
     public ReactRestEndpointsManager(XatkitServer xatkitServer, Configuration configuration) {
+        this(xatkitServer, configuration, null);
+    }
+
+    /**
+     * Constructs a {@link ReactRestEndpointsManager} with the provided {@code xatkitServer}, {@code configuration},
+     * and {@code metricsRegistry}.
+     *
+     * @param xatkitServer    the {@link XatkitServer} to register the endpoints to
+     * @param configuration   the Xatkit configuration
+     * @param metricsRegistry the {@link MetricsRegistry} exposed by the metrics endpoint, or {@code null} to not
+     *                        register the metrics endpoint
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     */
+    public ReactRestEndpointsManager(XatkitServer xatkitServer, Configuration configuration,
+                                     @Nullable MetricsRegistry metricsRegistry) {
+        this(xatkitServer, configuration, metricsRegistry, null);
+    }
+
+    /**
+     * Constructs a {@link ReactRestEndpointsManager} with the provided {@code xatkitServer}, {@code configuration},
+     * {@code metricsRegistry}, and {@code messageTracer}.
+     *
+     * @param xatkitServer    the {@link XatkitServer} to register the endpoints to
+     * @param configuration   the Xatkit configuration
+     * @param metricsRegistry the {@link MetricsRegistry} exposed by the metrics endpoint, or {@code null} to not
+     *                        register the metrics endpoint
+     * @param messageTracer   the {@link MessageTracer} exposed by the traces endpoint, or {@code null} to not
+     *                        register the traces endpoint
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
+     */
+    public ReactRestEndpointsManager(XatkitServer xatkitServer, Configuration configuration,
+                                     @Nullable MetricsRegistry metricsRegistry,
+                                     @Nullable MessageTracer messageTracer) {
         this.xatkitServer = xatkitServer;
         int socketServerPort = configuration.getInt(ReactUtils.REACT_SERVER_PORT_KEY,
                 ReactUtils.DEFAULT_REACT_SERVER_PORT);
@@ -122,14 +196,25 @@ public class ReactRestEndpointsManager {
                 XatkitServerUtils.DEFAULT_SERVER_LOCATION + ":" + xatkitServerPort);
         this.enableTestingPage = configuration.getBoolean(ReactUtils.REACT_ENABLE_TESTING_PAGE,
                 ReactUtils.DEFAULT_REACT_ENABLE_TESTING_PAGE);
+        if (configuration.getBoolean(ReactUtils.REACT_METRICS_ENDPOINT_KEY,
+                ReactUtils.DEFAULT_REACT_METRICS_ENDPOINT)) {
+            this.metricsRegistry = metricsRegistry;
+        }
+        if (nonNull(messageTracer) && messageTracer.isEnabled()) {
+            this.messageTracer = messageTracer;
+        }
     }
 
     /**
-     * Registers the REST endpoints if the testing page is enabled in the Xatkit {@link Configuration}.
+     * Registers the REST endpoints enabled in the Xatkit {@link Configuration}.
      * <p>
-     * This method registers the {@code admin/*} handlers that are used to test a react-based bot through the browser.
+     * This method registers the {@code admin/*} handlers that are used to test a react-based bot through the browser
+     * if the testing page is enabled, the {@code /react/metrics} handler if the metrics endpoint is enabled, and the
+     * {@code /react/traces} handler if tracing is enabled.
      *
      * @see ReactUtils#REACT_ENABLE_TESTING_PAGE
+     * @see ReactUtils#REACT_METRICS_ENDPOINT_KEY
+     * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
      */
     public void registerRestEndpoints() {
         if (enableTestingPage) {
@@ -137,24 +222,45 @@ public class ReactRestEndpointsManager {
             this.registerAdminCSSEndpoints();
             this.registerAdminJSEndpoints();
         }
+        if (nonNull(metricsRegistry)) {
+            this.registerMetricsEndpoint();
+        }
+        if (nonNull(messageTracer)) {
+            this.registerTracesEndpoint();
+        }
+    }
+
+    /**
+     * Registers the endpoint returning the platform's metrics in the Prometheus text format.
+     * <p>
+     * The metrics are rendered for each request, and are not cached.
+     */
+    private void registerMetricsEndpoint() {
+        this.xatkitServer.registerRestEndpoint(HttpMethod.GET, METRICS_PATH,
+                RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) ->
+                        new StringEntity(metricsRegistry.scrape(), METRICS_CONTENT_TYPE)));
+    }
+
+    /**
+     * Registers the endpoint returning the traces of the sampled user inputs in JSON.
+     * <p>
+     * The traces are serialized for each request, and are ordered from the oldest to the most recent one.
+     */
+    private void registerTracesEndpoint() {
+        this.xatkitServer.registerRestEndpoint(HttpMethod.GET, TRACES_PATH,
+                RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) ->
+                        new StringEntity(messageTracer.toJson(), ContentType.APPLICATION_JSON)));
     }
 
     /**
      * Registers the endpoint returning the HTML testing page located at {@code /admin}.
      */
     private void registerAdminHTMLEndpoint() {
+        List<CachedResource> renderedPages = renderHtmlTemplates("admin/admin.html");
         this.xatkitServer.registerRestEndpoint(HttpMethod.GET, "/admin",
                 RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
-                    InputStream is = this.getClass().getClassLoader().getResourceAsStream("admin/admin.html");
-                    if (isNull(is)) {
-                        throw new RestHandlerException("Cannot return the resource admin/admin.html");
-                    }
-                    BasicHttpEntity entity = new BasicHttpEntity();
-                    InputStream entityContent = replaceHtmlTemplates(is);
-                    entity.setContent(entityContent);
-                    entity.setContentType(ContentType.TEXT_HTML.getMimeType());
-                    entity.setContentEncoding(StandardCharsets.UTF_8.name());
-                    return entity;
+                    int pageIndex = Math.floorMod(TEMPLATE_FILLED_COUNT.incrementAndGet(), renderedPages.size());
+                    return renderedPages.get(pageIndex).createResponse(headers);
                 }));
     }
 
@@ -163,10 +269,10 @@ public class ReactRestEndpointsManager {
      */
     private void registerAdminCSSEndpoints() {
         for (String cssPath : CSS_FILE_PATHS) {
+            CachedResource resource = CachedResource.fromClasspath(cssPath.substring(1), "text/css");
             this.xatkitServer.registerRestEndpoint(HttpMethod.GET, cssPath,
-                    RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
-                        return createEntityForAdminResource(cssPath.substring(1));
-                    }));
+                    RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) ->
+                            resource.createResponse(headers)));
         }
     }
 
@@ -175,65 +281,35 @@ public class ReactRestEndpointsManager {
      */
     private void registerAdminJSEndpoints() {
         for (String jsPath : JS_FILE_PATHS) {
+            CachedResource resource = CachedResource.fromClasspath(jsPath.substring(1), "application/javascript");
             this.xatkitServer.registerRestEndpoint(HttpMethod.GET, jsPath,
-                    RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
-                        return createEntityForAdminResource(jsPath.substring(1));
-                    }));
+                    RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) ->
+                            resource.createResponse(headers)));
         }
     }
 
     /**
-     * Replaces the template values in the provided {@code from} {@link InputStream} by {@link Configuration} values.
+     * Renders the HTML template located at {@code templatePath} with the {@link Configuration} values.
      * <p>
      * This method ensures that the chatbox integrated in the testing page targets the socket.io server (using the
-     * public URL and port number specified in the {@link Configuration}).
+     * public URL and port number specified in the {@link Configuration}). The template is rendered once for each
+     * name in {@link #TEST_CLIENT_NAMES}, allowing to serve the rendered pages without processing the template for
+     * each request.
      *
-     * @param from the {@link InputStream} to replace the template values from
-     * @return an {@link InputStream} with the template values replaced
-     * @throws XatkitException if an error occurred when processing the {@code from} {@link InputStream}
-     */
-    private InputStream replaceHtmlTemplates(InputStream from) {
-        TEMPLATE_FILLED_COUNT++;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(from));
-        StringBuilder builder = new StringBuilder();
-        try {
-            while (reader.ready()) {
-                builder.append(reader.readLine());
-            }
-        } catch (IOException e) {
-            throw new XatkitException(MessageFormat.format("An error occurred when replacing templates in {0}, see " +
-                    "attached exception", this.getClass().getSimpleName()), e);
-        }
-        String content = builder.toString();
-        content = content.replaceAll(SERVER_LOCATION_PATTERN, reactServerURL);
-        String clientName = TEST_CLIENT_NAMES.get(TEMPLATE_FILLED_COUNT % TEST_CLIENT_NAMES.size());
-        content = content.replaceAll(USERNAME_PATTERN, clientName);
-        content = content.replaceAll(BASE_SERVER_LOCATION_PATTERN, serverURL);
-        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
-    }
-
-    /**
-     * Creates an {@link HttpEntity} for the provided {@code uri} representing an {@code /admin} resource.
-     * <p>
-     * This {@link HttpEntity} is returned as is by the {@link XatkitServer}.
-     *
-     * @param uri the URI of the {@code /admin} resource to wrap in an {@link HttpEntity}
-     * @return the created {@link HttpEntity}
-     * @throws RestHandlerException if the provided {@code uri} does not correspond to an existing file in the classpath
-     */
-    private HttpEntity createEntityForAdminResource(String uri) throws RestHandlerException {
-        InputStream is = this.getClass().getClassLoader().getResourceAsStream(uri);
-        if (isNull(is)) {
-            throw new RestHandlerException(MessageFormat.format("Cannot return the resource {0}", uri));
-        }
-        BasicHttpEntity entity = new BasicHttpEntity();
-        entity.setContent(is);
-        if (uri.endsWith(".css")) {
-            entity.setContentType("text/css");
-        } else if (uri.endsWith(".js")) {
-            entity.setContentType("application/javascript");
+     * @param templatePath the classpath location of the HTML template to render
+     * @return the rendered pages, one for each name in {@link #TEST_CLIENT_NAMES}
+     * @throws XatkitException if the template does not exist or if an error occurred when reading it
+     */
+    private List<CachedResource> renderHtmlTemplates(String templatePath) {
+        String template = new String(CachedResource.readClasspathResource(templatePath), StandardCharsets.UTF_8)
+                .replace(SERVER_LOCATION_PLACEHOLDER, reactServerURL)
+                .replace(BASE_SERVER_LOCATION_PLACEHOLDER, serverURL);
+        CachedResource[] renderedPages = new CachedResource[TEST_CLIENT_NAMES.size()];
+        for (int i = 0; i < TEST_CLIENT_NAMES.size(); i++) {
+            String content = template.replace(USERNAME_PLACEHOLDER, TEST_CLIENT_NAMES.get(i));
+            renderedPages[i] = new CachedResource(content.getBytes(StandardCharsets.UTF_8),
+                    ContentType.TEXT_HTML.getMimeType());
         }
-        entity.setContentEncoding(StandardCharsets.UTF_8.name());
-        return entity;
+        return Arrays.asList(renderedPages);
     }
 }
@@ -0,0 +1,87 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import lombok.NonNull;
+
+import java.util.Queue;
+import java.util.function.BiConsumer;
+
+/**
+ * A netty handler reporting the packets written to the socket server's connections.
+ * <p>
+ * The socket server writes the packets queued for a client as an {@link OutPacketMessage}, whose promise is
+ * completed once the encoded packets have been written to the connection. The message does not reference its
+ * packets: the encoder drains all the packets queued for the client when it handles the message. This handler is
+ * added at the end of the pipeline, and inspects the queue before the encoder drains it: it notifies the provided
+ * listener with the session identifier of the client and the promise of the {@link OutPacketMessage}s flushing at
+ * least one event packet, allowing to observe when the events sent to a client actually leave the server.
+ * Messages that only flush control packets (e.g. pings) or packets already drained by a previous message are not
+ * reported.
+ *
+ * @see com.xatkit.plugins.react.platform.tracing.MessageTracer#onWrite(String, io.netty.channel.ChannelFuture)
+ */
+@ChannelHandler.Sharable
+public class PacketWriteHandler extends ChannelOutboundHandlerAdapter {
+
+    /**
+     * The name of the handler in the connection pipelines.
+     */
+    public static final String NAME = "xatkitPacketWriteHandler";
+
+    /**
+     * The listener notified with the session identifier and the promise of the written packets.
+     */
+    private final BiConsumer<String, ChannelPromise> listener;
+
+    /**
+     * Constructs a {@link PacketWriteHandler} notifying the provided {@code listener}.
+     *
+     * @param listener the listener notified with the session identifier and the promise of the written packets
+     */
+    public PacketWriteHandler(@NonNull BiConsumer<String, ChannelPromise> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Notifies the listener if the written message is an {@link OutPacketMessage} flushing event packets, and
+     * forwards the message.
+     * <p>
+     * Void promises are not reported, since they cannot be listened to.
+     *
+     * @param ctx     the context of the handler
+     * @param msg     the written message
+     * @param promise the promise notified when the message is written
+     * @throws Exception if an error occurred when forwarding the message
+     */
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof OutPacketMessage && !promise.isVoid()) {
+            OutPacketMessage outPacketMessage = (OutPacketMessage) msg;
+            if (hasEventPacket(outPacketMessage.getClientHead().getPacketsQueue(outPacketMessage.getTransport()))) {
+                listener.accept(outPacketMessage.getSessionId().toString(), promise);
+            }
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Returns whether the provided {@code packets} contain an event packet.
+     *
+     * @param packets the packets queued for a client
+     * @return {@code true} if the {@code packets} contain an event packet, {@code false} otherwise
+     */
+    static boolean hasEventPacket(@NonNull Queue<Packet> packets) {
+        for (Packet packet : packets) {
+            if (packet.getType() == PacketType.MESSAGE && packet.getSubType() == PacketType.EVENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,144 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import com.corundumstudio.socketio.SocketIOServer;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.WriteBufferWaterMark;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link SocketIOServer} applying the netty channel options that are not exposed by the socket.io
+ * {@link Configuration}.
+ * <p>
+ * This server sets the write buffer water marks and the buffer allocator of the accepted connections, in addition
+ * to the connection options defined in the socket.io {@link Configuration} (e.g. {@code TCP_NODELAY}, accept
+ * backlog). It can also report the writability changes of the connections (see {@link WritabilityHandler}), and
+ * the packets written to them (see {@link PacketWriteHandler}).
+ *
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_SERVER_POOLED_ALLOCATOR_KEY
+ */
+public class ReactSocketIOServer extends SocketIOServer {
+
+    /**
+     * The write buffer water marks of the accepted connections.
+     */
+    private final WriteBufferWaterMark writeBufferWaterMark;
+
+    /**
+     * The buffer allocator of the accepted connections.
+     */
+    private final ByteBufAllocator allocator;
+
+    /**
+     * Constructs a {@link ReactSocketIOServer} with the provided {@code configuration}, {@code
+     * writeBufferWaterMark}, and {@code allocator}.
+     *
+     * @param configuration        the socket.io configuration of the server
+     * @param writeBufferWaterMark the write buffer water marks of the accepted connections
+     * @param allocator            the buffer allocator of the accepted connections
+     */
+    public ReactSocketIOServer(@NonNull Configuration configuration, @NonNull WriteBufferWaterMark writeBufferWaterMark,
+                               @NonNull ByteBufAllocator allocator) {
+        this(configuration, writeBufferWaterMark, allocator, null);
+    }
+
+    /**
+     * Constructs a {@link ReactSocketIOServer} with the provided {@code configuration}, {@code
+     * writeBufferWaterMark}, {@code allocator}, and {@code writabilityListener}.
+     *
+     * @param configuration        the socket.io configuration of the server
+     * @param writeBufferWaterMark the write buffer water marks of the accepted connections
+     * @param allocator            the buffer allocator of the accepted connections
+     * @param writabilityListener  the listener notified with the session identifier and the new writability of a
+     *                             connection, or {@code null} to ignore the writability changes
+     * @see WritabilityHandler
+     */
+    public ReactSocketIOServer(@NonNull Configuration configuration, @NonNull WriteBufferWaterMark writeBufferWaterMark,
+                               @NonNull ByteBufAllocator allocator,
+                               @Nullable BiConsumer<String, Boolean> writabilityListener) {
+        this(configuration, writeBufferWaterMark, allocator, writabilityListener, null);
+    }
+
+    /**
+     * Constructs a {@link ReactSocketIOServer} with the provided {@code configuration}, {@code
+     * writeBufferWaterMark}, {@code allocator}, {@code writabilityListener}, and {@code writeListener}.
+     *
+     * @param configuration        the socket.io configuration of the server
+     * @param writeBufferWaterMark the write buffer water marks of the accepted connections
+     * @param allocator            the buffer allocator of the accepted connections
+     * @param writabilityListener  the listener notified with the session identifier and the new writability of a
+     *                             connection, or {@code null} to ignore the writability changes
+     * @param writeListener        the listener notified with the session identifier and the promise of the event
+     *                             packets written to a connection, or {@code null} to ignore the written packets
+     * @see WritabilityHandler
+     * @see PacketWriteHandler
+     */
+    public ReactSocketIOServer(@NonNull Configuration configuration, @NonNull WriteBufferWaterMark writeBufferWaterMark,
+                               @NonNull ByteBufAllocator allocator,
+                               @Nullable BiConsumer<String, Boolean> writabilityListener,
+                               @Nullable BiConsumer<String, ChannelPromise> writeListener) {
+        super(configuration);
+        this.writeBufferWaterMark = writeBufferWaterMark;
+        this.allocator = allocator;
+        if (nonNull(writabilityListener) || nonNull(writeListener)) {
+            WritabilityHandler writabilityHandler = nonNull(writabilityListener) ?
+                    new WritabilityHandler(writabilityListener) : null;
+            PacketWriteHandler packetWriteHandler = nonNull(writeListener) ? new PacketWriteHandler(writeListener) :
+                    null;
+            this.setPipelineFactory(new SocketIOChannelInitializer() {
+                @Override
+                protected void initChannel(Channel channel) throws Exception {
+                    super.initChannel(channel);
+                    if (nonNull(writabilityHandler)) {
+                        channel.pipeline().addLast(WritabilityHandler.NAME, writabilityHandler);
+                    }
+                    if (nonNull(packetWriteHandler)) {
+                        channel.pipeline().addLast(PacketWriteHandler.NAME, packetWriteHandler);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method also sets the write buffer water marks and the buffer allocator of the accepted connections.
+     */
+    @Override
+    protected void applyConnectionOptions(ServerBootstrap bootstrap) {
+        super.applyConnectionOptions(bootstrap);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+    }
+
+    /**
+     * Returns the write buffer water marks of the accepted connections.
+     *
+     * @return the write buffer water marks of the accepted connections
+     */
+    public WriteBufferWaterMark getWriteBufferWaterMark() {
+        return this.writeBufferWaterMark;
+    }
+
+    /**
+     * Returns the buffer allocator of the accepted connections.
+     *
+     * @return the buffer allocator of the accepted connections
+     */
+    public ByteBufAllocator getAllocator() {
+        return this.allocator;
+    }
+}
@@ -0,0 +1,99 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Caches the {@link SocketIOClient} handles of the connected sockets, indexed by channel.
+ * <p>
+ * Actions identify their target socket with a channel (the {@link String} representation of the socket's session
+ * identifier). Resolving a channel through the socket server requires to parse it as a {@link java.util.UUID} and
+ * to look it up in the namespace's clients for every sent event. This cache is filled when a socket connects and
+ * cleared when it disconnects, allowing to retrieve the client of a channel with a single lookup.
+ * <p>
+ * Resolving the channel of a disconnected socket returns {@code null}: callers are expected to drop the events
+ * sent to vanished clients instead of failing.
+ */
+public class SocketClientCache {
+
+    /**
+     * The cached clients, indexed by channel.
+     */
+    private final Map<String, SocketIOClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * The number of lookups of channels that are not in the cache.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Adds the provided {@code client} to the cache.
+     *
+     * @param client the connected client to add
+     */
+    public void put(@NonNull SocketIOClient client) {
+        this.clients.put(client.getSessionId().toString(), client);
+    }
+
+    /**
+     * Removes the provided {@code client} from the cache.
+     * <p>
+     * The cached entry is removed only if it holds the provided {@code client}.
+     *
+     * @param client the disconnected client to remove
+     */
+    public void remove(@NonNull SocketIOClient client) {
+        this.clients.remove(client.getSessionId().toString(), client);
+    }
+
+    /**
+     * Returns the client associated to the provided {@code channel}.
+     *
+     * @param channel the channel to retrieve the client of
+     * @return the client, or {@code null} if the channel does not correspond to a connected socket
+     */
+    public @Nullable SocketIOClient get(@NonNull String channel) {
+        SocketIOClient client = this.clients.get(channel);
+        if (isNull(client)) {
+            missCount.increment();
+        }
+        return client;
+    }
+
+    /**
+     * Returns whether the provided {@code channel} corresponds to a connected socket.
+     *
+     * @param channel the channel to check
+     * @return {@code true} if the channel corresponds to a connected socket, {@code false} otherwise
+     */
+    public boolean contains(@NonNull String channel) {
+        return this.clients.containsKey(channel);
+    }
+
+    /**
+     * Returns the number of cached clients.
+     *
+     * @return the number of cached clients
+     */
+    public int size() {
+        return this.clients.size();
+    }
+
+    /**
+     * Returns the number of lookups of channels that are not in the cache.
+     * <p>
+     * Each miss corresponds to an event that could not be sent because its target socket is disconnected.
+     *
+     * @return the number of lookups of channels that are not in the cache
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+}
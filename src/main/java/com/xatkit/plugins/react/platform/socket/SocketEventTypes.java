@@ -9,6 +9,24 @@ public enum SocketEventTypes {
      * A message sent by the bot.
      */
     BOT_MESSAGE("bot_message"),
+    /**
+     * A batch of messages sent by the bot.
+     * <p>
+     * This event is only sent to clients that support batched messages.
+     */
+    BOT_MESSAGES("bot_messages"),
+    /**
+     * A fragment of a message streamed by the bot.
+     * <p>
+     * This event is only sent to clients that support streamed messages.
+     */
+    BOT_MESSAGE_CHUNK("bot_message_chunk"),
+    /**
+     * The end of a message streamed by the bot.
+     * <p>
+     * This event is only sent to clients that support streamed messages.
+     */
+    BOT_MESSAGE_END("bot_message_end"),
     /**
      * A link snippet with preview image sent by the bot.
      */
@@ -38,7 +56,11 @@ public enum SocketEventTypes {
     /**
      * The ACK message sent to the client after receiving an INIT event.
      */
-    INIT_CONFIRM("init_confirm");
+    INIT_CONFIRM("init_confirm"),
+    /**
+     * Tells the client that its inputs exceed the rate limits of the platform.
+     */
+    THROTTLED("throttled");
 
     /**
      * The label of the enumeration value.
@@ -0,0 +1,68 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import lombok.NonNull;
+
+/**
+ * The names of the socket.io rooms joined by the platform's sockets.
+ * <p>
+ * Sockets join the rooms of the origin and hostname of their page when they send their {@code init} event (see
+ * {@link com.xatkit.plugins.react.platform.socket.event.Init}), and the rooms of the tags set by the bot (see
+ * {@link com.xatkit.plugins.react.platform.ReactPlatform#addTag(String, String)}). The prefix of each room name
+ * prevents the collision of a tag with an origin or a hostname. Sockets leave their rooms when they disconnect.
+ *
+ * @see com.xatkit.plugins.react.platform.ReactPlatform#broadcast(String, String, Object...)
+ */
+public final class SocketRooms {
+
+    /**
+     * The prefix of the rooms grouping the sockets by the origin of their page.
+     */
+    public static final String ORIGIN_PREFIX = "origin:";
+
+    /**
+     * The prefix of the rooms grouping the sockets by the hostname of their page.
+     */
+    public static final String HOSTNAME_PREFIX = "hostname:";
+
+    /**
+     * The prefix of the rooms grouping the sockets by the tags set by the bot.
+     */
+    public static final String TAG_PREFIX = "tag:";
+
+    /**
+     * Returns the name of the room containing the sockets of the pages with the provided {@code origin}.
+     *
+     * @param origin the origin of the pages (e.g. {@code https://example.com})
+     * @return the name of the room
+     */
+    public static String origin(@NonNull String origin) {
+        return ORIGIN_PREFIX + origin;
+    }
+
+    /**
+     * Returns the name of the room containing the sockets of the pages with the provided {@code hostname}.
+     *
+     * @param hostname the hostname of the pages (e.g. {@code example.com})
+     * @return the name of the room
+     */
+    public static String hostname(@NonNull String hostname) {
+        return HOSTNAME_PREFIX + hostname;
+    }
+
+    /**
+     * Returns the name of the room containing the sockets tagged with the provided {@code tag}.
+     *
+     * @param tag the tag set by the bot
+     * @return the name of the room
+     */
+    public static String tag(@NonNull String tag) {
+        return TAG_PREFIX + tag;
+    }
+
+    /**
+     * Disable constructor, this is an utility class.
+     */
+    private SocketRooms() {
+
+    }
+}
@@ -0,0 +1,116 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.messages.HttpMessage;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
+import lombok.NonNull;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A netty handler reporting the writability changes of the socket server's connections.
+ * <p>
+ * A connection becomes unwritable when the amount of data waiting to be written exceeds its write buffer high
+ * water mark (e.g. when the client does not read its socket), and becomes writable again once this amount drops
+ * below the low water mark. This handler associates each connection to the session of the socket.io client it
+ * transports (using the first packet written to the connection), and notifies the provided listener with the
+ * session identifier when the connection's writability changes.
+ *
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY
+ */
+@ChannelHandler.Sharable
+public class WritabilityHandler extends ChannelDuplexHandler {
+
+    /**
+     * The name of the handler in the connection pipelines.
+     */
+    public static final String NAME = "xatkitWritabilityHandler";
+
+    /**
+     * The attribute storing the session identifier of the client transported by a connection.
+     */
+    private static final AttributeKey<UUID> SESSION_ID = AttributeKey.valueOf(WritabilityHandler.class,
+            "sessionId");
+
+    /**
+     * The attribute set when the connection has been reported as unwritable.
+     */
+    private static final AttributeKey<Boolean> UNWRITABLE = AttributeKey.valueOf(WritabilityHandler.class,
+            "unwritable");
+
+    /**
+     * The listener notified with the session identifier and the new writability of a connection.
+     */
+    private final BiConsumer<String, Boolean> listener;
+
+    /**
+     * Constructs a {@link WritabilityHandler} notifying the provided {@code listener}.
+     *
+     * @param listener the listener notified with the session identifier and the new writability of a connection
+     */
+    public WritabilityHandler(@NonNull BiConsumer<String, Boolean> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Associates the connection to the session of the written packet, and forwards the packet.
+     *
+     * @param ctx     the context of the handler
+     * @param msg     the written message
+     * @param promise the promise notified when the message is written
+     * @throws Exception if an error occurred when forwarding the message
+     */
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof HttpMessage) {
+            UUID sessionId = ((HttpMessage) msg).getSessionId();
+            if (nonNull(sessionId) && isNull(ctx.channel().attr(SESSION_ID).get())) {
+                ctx.channel().attr(SESSION_ID).set(sessionId);
+            }
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Notifies the listener that the writability of the connection has changed.
+     *
+     * @param ctx the context of the handler
+     * @throws Exception if an error occurred when forwarding the event
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        UUID sessionId = ctx.channel().attr(SESSION_ID).get();
+        if (nonNull(sessionId)) {
+            boolean writable = ctx.channel().isWritable();
+            ctx.channel().attr(UNWRITABLE).set(!writable);
+            listener.accept(sessionId.toString(), writable);
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * Notifies the listener that the connection is not blocking its session anymore if it has been closed while
+     * unwritable.
+     * <p>
+     * Polling clients use a new connection for each request: the session is not blocked by the closed connection
+     * and can receive its packets through the next one.
+     *
+     * @param ctx the context of the handler
+     * @throws Exception if an error occurred when forwarding the event
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        UUID sessionId = ctx.channel().attr(SESSION_ID).get();
+        if (nonNull(sessionId) && Boolean.TRUE.equals(ctx.channel().attr(UNWRITABLE).get())) {
+            listener.accept(sessionId.toString(), true);
+        }
+        super.channelInactive(ctx);
+    }
+}
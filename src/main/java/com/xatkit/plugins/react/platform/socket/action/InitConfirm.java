@@ -1,7 +1,10 @@
 package com.xatkit.plugins.react.platform.socket.action;
 
+import com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding;
 import lombok.Data;
 
+import java.beans.ConstructorProperties;
+
 /**
  * The acknowledgement event sent by the server after processing a received
  * {@link com.xatkit.plugins.react.platform.socket.event.Init} event.
@@ -24,12 +27,36 @@ public class InitConfirm {
      */
     private String conversationId;
 
+    /**
+     * The encoding of the payloads sent to the client.
+     * <p>
+     * This value is the encoding requested in the Init event if the server supports it, and {@code json}
+     * otherwise. The {@link InitConfirm} event itself is always encoded in JSON.
+     *
+     * @see com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding
+     */
+    private String encoding;
+
     /**
      * Creates an {@link InitConfirm} event with the provided {@code conversationId}.
+     * <p>
+     * This constructor is similar to {@code new InitConfirm(conversationId, "json")}.
      *
      * @param conversationId the identifier of the conversation to set in the event
      */
     public InitConfirm(String conversationId) {
+        this(conversationId, PayloadEncoding.JSON.label);
+    }
+
+    /**
+     * Creates an {@link InitConfirm} event with the provided {@code conversationId} and {@code encoding}.
+     *
+     * @param conversationId the identifier of the conversation to set in the event
+     * @param encoding       the encoding of the payloads sent to the client
+     */
+    @ConstructorProperties({"conversationId", "encoding"})
+    public InitConfirm(String conversationId, String encoding) {
         this.conversationId = conversationId;
+        this.encoding = encoding;
     }
 }
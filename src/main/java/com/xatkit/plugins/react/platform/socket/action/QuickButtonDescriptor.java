@@ -2,6 +2,8 @@ package com.xatkit.plugins.react.platform.socket.action;
 
 import lombok.Data;
 
+import java.beans.ConstructorProperties;
+
 /**
  * Describe the content of a <i>quick button</i> to be printed to the user.
  */
@@ -24,6 +26,7 @@ public class QuickButtonDescriptor {
      * @param label the label of the quick button
      * @param value the value of the quick button
      */
+    @ConstructorProperties({"label", "value"})
     public QuickButtonDescriptor(String label, String value) {
         this.label = label;
         this.value = value;
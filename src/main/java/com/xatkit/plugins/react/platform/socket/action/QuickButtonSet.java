@@ -0,0 +1,189 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An immutable list of {@link QuickButtonDescriptor}s, interned and serialized once.
+ * <p>
+ * Bots typically reuse a few button sets (e.g. yes/no, menus) in most of their messages. The sets returned by
+ * {@link #of(List)} are interned: the messages displaying the same buttons share the same set and descriptors
+ * instead of allocating their own. The shared descriptors are never exposed: {@link #get(int)} returns a copy of
+ * the requested descriptor, so that updating it does not alter the set. The JSON encoding of a set is computed
+ * the first time it is serialized and written as is in the next payloads, so that a message with a known button
+ * set only costs the encoding of its text. Sets serialized with another format (e.g. CBOR, see
+ * {@link com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding}) are written as regular arrays.
+ * <p>
+ * The number of interned sets is bounded by {@link #MAX_INTERNED_SETS}: once it is reached, {@link #of(List)}
+ * returns new sets that are not interned, so that bots generating their buttons dynamically do not grow the cache
+ * indefinitely.
+ *
+ * @see SendBotMessage#getQuickButtonValues()
+ */
+@JsonSerialize(using = QuickButtonSet.Serializer.class)
+public final class QuickButtonSet extends AbstractList<QuickButtonDescriptor> implements RandomAccess {
+
+    /**
+     * The maximum number of interned sets.
+     */
+    public static final int MAX_INTERNED_SETS = 4096;
+
+    /**
+     * The empty {@link QuickButtonSet}.
+     */
+    public static final QuickButtonSet EMPTY = new QuickButtonSet(Collections.emptyList());
+
+    /**
+     * The mapper used to compute the JSON encoding of the sets.
+     * <p>
+     * This mapper omits {@code null} values, like the mapper of the socket server.
+     */
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    /**
+     * The interned sets, indexed by their labels.
+     */
+    private static final ConcurrentMap<List<String>, QuickButtonSet> INTERNED_SETS = new ConcurrentHashMap<>();
+
+    /**
+     * The descriptors of the set.
+     */
+    private final QuickButtonDescriptor[] descriptors;
+
+    /**
+     * The JSON encoding of the set.
+     * <p>
+     * This field is computed the first time the set is serialized in JSON. Concurrent serializations may compute
+     * it more than once, producing the same value.
+     */
+    private volatile SerializedString json;
+
+    /**
+     * Constructs a {@link QuickButtonSet} with a button for each of the provided {@code labels}.
+     * <p>
+     * The value of each button is its label.
+     *
+     * @param labels the labels of the buttons
+     */
+    private QuickButtonSet(List<String> labels) {
+        this.descriptors = new QuickButtonDescriptor[labels.size()];
+        for (int i = 0; i < descriptors.length; i++) {
+            String label = labels.get(i);
+            this.descriptors[i] = new QuickButtonDescriptor(label, label);
+        }
+    }
+
+    /**
+     * Returns the {@link QuickButtonSet} with a button for each of the provided {@code labels}.
+     * <p>
+     * The value of each button is its label. This method returns the interned set for the provided
+     * {@code labels} if it exists, and interns the created set unless {@link #MAX_INTERNED_SETS} sets are already
+     * interned. Looking up an interned set does not copy the provided {@code labels}.
+     *
+     * @param labels the labels of the buttons
+     * @return the {@link QuickButtonSet} with a button for each of the provided {@code labels}
+     * @throws NullPointerException if the provided {@code labels} is {@code null}
+     */
+    public static QuickButtonSet of(@NonNull List<String> labels) {
+        if (labels.isEmpty()) {
+            return EMPTY;
+        }
+        QuickButtonSet set = INTERNED_SETS.get(labels);
+        if (isNull(set)) {
+            List<String> key = Collections.unmodifiableList(new ArrayList<>(labels));
+            set = new QuickButtonSet(key);
+            if (INTERNED_SETS.size() < MAX_INTERNED_SETS) {
+                QuickButtonSet existing = INTERNED_SETS.putIfAbsent(key, set);
+                if (nonNull(existing)) {
+                    set = existing;
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of interned sets.
+     *
+     * @return the number of interned sets
+     */
+    public static int getInternedSetCount() {
+        return INTERNED_SETS.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method returns a copy of the descriptor: the descriptors of the set are shared and must not be updated.
+     */
+    @Override
+    public QuickButtonDescriptor get(int index) {
+        QuickButtonDescriptor descriptor = this.descriptors[index];
+        return new QuickButtonDescriptor(descriptor.getLabel(), descriptor.getValue());
+    }
+
+    @Override
+    public int size() {
+        return this.descriptors.length;
+    }
+
+    /**
+     * Returns the JSON encoding of the set.
+     *
+     * @return the JSON encoding of the set
+     * @throws IOException if an error occurred when encoding the descriptors
+     */
+    private SerializedString getJson() throws IOException {
+        SerializedString result = this.json;
+        if (isNull(result)) {
+            result = new SerializedString(OBJECT_MAPPER.writeValueAsString(this.descriptors));
+            this.json = result;
+        }
+        return result;
+    }
+
+    /**
+     * Writes the cached JSON encoding of a {@link QuickButtonSet} in JSON outputs, and its descriptors in other
+     * outputs.
+     */
+    static final class Serializer extends StdSerializer<QuickButtonSet> {
+
+        Serializer() {
+            super(QuickButtonSet.class);
+        }
+
+        @Override
+        public void serialize(QuickButtonSet set, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (generator instanceof JsonGeneratorImpl) {
+                generator.writeRawValue(set.getJson());
+            } else {
+                generator.writeStartArray(set.size());
+                for (QuickButtonDescriptor descriptor : set.descriptors) {
+                    provider.defaultSerializeValue(descriptor, generator);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.xatkit.plugins.react.platform.socket.action;
 
 import lombok.Data;
 
+import java.beans.ConstructorProperties;
+
 @Data
 public class SendAudio {
 
     private String src;
 
+    @ConstructorProperties({"src"})
     public SendAudio(String src) {
         this.src = src;
     }
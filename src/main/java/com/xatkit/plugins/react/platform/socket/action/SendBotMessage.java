@@ -3,6 +3,7 @@ package com.xatkit.plugins.react.platform.socket.action;
 import lombok.Data;
 
 import javax.annotation.Nullable;
+import java.beans.ConstructorProperties;
 import java.util.Collections;
 import java.util.List;
 
@@ -35,6 +36,7 @@ public class SendBotMessage {
      * @param message           the message to render
      * @param quickButtonDescriptors the optional quick button descriptors to render
      */
+    @ConstructorProperties({"username", "message", "quickButtonValues"})
     public SendBotMessage(String username, String message, @Nullable List<QuickButtonDescriptor> quickButtonDescriptors) {
         this.username = username;
         this.message = message;
@@ -0,0 +1,56 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import lombok.Data;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Tells the bot UI to append a fragment to a message streamed by the bot.
+ * <p>
+ * This event is only sent to clients that support streamed messages (see
+ * {@link com.xatkit.plugins.react.platform.socket.event.Init#isStreamMessages()}). The chunks of a message share
+ * the same {@code streamId}, and the message is complete when the {@link SendBotMessageEnd} event with this
+ * identifier is received.
+ *
+ * @see com.xatkit.plugins.react.platform.outbound.MessageStream
+ */
+@Data
+public class SendBotMessageChunk {
+
+    /**
+     * The identifier of the streamed message.
+     */
+    private String streamId;
+
+    /**
+     * The name of the bot.
+     */
+    private String username;
+
+    /**
+     * The position of the chunk in the streamed message, starting at {@code 0}.
+     */
+    private int index;
+
+    /**
+     * The text to append to the streamed message.
+     */
+    private String text;
+
+    /**
+     * Creates a {@link SendBotMessageChunk} event with the provided {@code streamId}, {@code username},
+     * {@code index}, and {@code text}.
+     *
+     * @param streamId the identifier of the streamed message
+     * @param username the name of the bot
+     * @param index    the position of the chunk in the streamed message
+     * @param text     the text to append to the streamed message
+     */
+    @ConstructorProperties({"streamId", "username", "index", "text"})
+    public SendBotMessageChunk(String streamId, String username, int index, String text) {
+        this.streamId = streamId;
+        this.username = username;
+        this.index = index;
+        this.text = text;
+    }
+}
@@ -0,0 +1,39 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import lombok.Data;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Tells the bot UI that a message streamed by the bot is complete.
+ * <p>
+ * This event is sent after the last {@link SendBotMessageChunk} of the message, and allows the client to check
+ * that it received all the chunks of the message.
+ *
+ * @see com.xatkit.plugins.react.platform.outbound.MessageStream
+ */
+@Data
+public class SendBotMessageEnd {
+
+    /**
+     * The identifier of the streamed message.
+     */
+    private String streamId;
+
+    /**
+     * The number of chunks of the streamed message.
+     */
+    private int chunkCount;
+
+    /**
+     * Creates a {@link SendBotMessageEnd} event with the provided {@code streamId} and {@code chunkCount}.
+     *
+     * @param streamId   the identifier of the streamed message
+     * @param chunkCount the number of chunks of the streamed message
+     */
+    @ConstructorProperties({"streamId", "chunkCount"})
+    public SendBotMessageEnd(String streamId, int chunkCount) {
+        this.streamId = streamId;
+        this.chunkCount = chunkCount;
+    }
+}
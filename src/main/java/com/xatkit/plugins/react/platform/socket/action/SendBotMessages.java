@@ -0,0 +1,32 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import lombok.Data;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * Tells the bot UI to render a batch of messages.
+ * <p>
+ * This event is only sent to clients that support batched messages (see
+ * {@link com.xatkit.plugins.react.platform.socket.event.Init#isBatchMessages()}), and is rendered as a sequence of
+ * {@link SendBotMessage} events.
+ */
+@Data
+public class SendBotMessages {
+
+    /**
+     * The messages to render, in the order they have been produced by the bot.
+     */
+    private List<SendBotMessage> messages;
+
+    /**
+     * Creates a {@link SendBotMessages} event with the provided {@code messages}.
+     *
+     * @param messages the messages to render
+     */
+    @ConstructorProperties({"messages"})
+    public SendBotMessages(List<SendBotMessage> messages) {
+        this.messages = messages;
+    }
+}
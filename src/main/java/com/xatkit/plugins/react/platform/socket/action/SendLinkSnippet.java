@@ -2,6 +2,8 @@ package com.xatkit.plugins.react.platform.socket.action;
 
 import lombok.Data;
 
+import java.beans.ConstructorProperties;
+
 /**
  * Tells the bot UI to render a message with a link snippet containing a preview image.
  */
@@ -30,6 +32,7 @@ public class SendLinkSnippet {
      * @param link  the link of the snippet
      * @param img   the image of the snippet
      */
+    @ConstructorProperties({"title", "link", "img"})
     public SendLinkSnippet(String title, String link, String img) {
         this.title = title;
         this.link = link;
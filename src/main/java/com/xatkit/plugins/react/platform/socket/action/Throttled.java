@@ -0,0 +1,47 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import lombok.Data;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Tells the bot UI that the user inputs of the socket exceed the platform's rate limits.
+ * <p>
+ * This event is sent once when a socket starts being throttled, and is sent again if the socket is throttled after
+ * an input has been accepted.
+ *
+ * @see com.xatkit.plugins.react.platform.ratelimit.InboundRateLimiter
+ */
+@Data
+public class Throttled {
+
+    /**
+     * The name of the throttled socket event (e.g. {@code user_message}).
+     */
+    private String event;
+
+    /**
+     * The time (in milliseconds) to wait before the next input is accepted.
+     */
+    private long retryAfter;
+
+    /**
+     * Whether the throttled input has been deferred ({@code true}) or dropped ({@code false}).
+     */
+    private boolean deferred;
+
+    /**
+     * Creates a {@link Throttled} event with the provided {@code event}, {@code retryAfter}, and {@code deferred}
+     * values.
+     *
+     * @param event      the name of the throttled socket event
+     * @param retryAfter the time (in milliseconds) to wait before the next input is accepted
+     * @param deferred   whether the throttled input has been deferred or dropped
+     */
+    @ConstructorProperties({"event", "retryAfter", "deferred"})
+    public Throttled(String event, long retryAfter, boolean deferred) {
+        this.event = event;
+        this.retryAfter = retryAfter;
+        this.deferred = deferred;
+    }
+}
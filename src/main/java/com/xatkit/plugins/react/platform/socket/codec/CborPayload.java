@@ -0,0 +1,37 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import lombok.NonNull;
+
+/**
+ * A socket event argument encoded in CBOR.
+ * <p>
+ * The wrapped value is serialized in CBOR by the {@link PayloadCodecModule}, and sent as a binary attachment of the
+ * socket.io event: the JSON text frame of the event only contains a placeholder referencing the attachment.
+ *
+ * @see PayloadEncoding#CBOR
+ */
+public final class CborPayload {
+
+    /**
+     * The value to encode.
+     */
+    private final Object value;
+
+    /**
+     * Constructs a {@link CborPayload} encoding the provided {@code value}.
+     *
+     * @param value the value to encode
+     */
+    public CborPayload(@NonNull Object value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the value to encode.
+     *
+     * @return the value to encode
+     */
+    public Object getValue() {
+        return this.value;
+    }
+}
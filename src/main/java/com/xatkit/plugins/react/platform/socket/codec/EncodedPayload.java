@@ -0,0 +1,125 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.NonNull;
+
+import java.io.IOException;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A socket event argument encoded once and sent to many clients.
+ * <p>
+ * The JSON and CBOR encodings of the wrapped value are computed the first time they are needed, and reused for each
+ * client the event is sent to: the socket server only copies the encoded bytes in the packet of each client. Values
+ * wrapped in an {@link EncodedPayload} must not be modified once they have been sent.
+ *
+ * @see com.xatkit.plugins.react.platform.ReactPlatform#broadcast(String, String, Object...)
+ */
+@JsonSerialize(using = EncodedPayload.Serializer.class)
+public final class EncodedPayload {
+
+    /**
+     * The mapper used to compute the JSON encoding of the payloads.
+     * <p>
+     * This mapper omits {@code null} values, like the mapper of the socket server.
+     */
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    /**
+     * The value to encode.
+     */
+    private final Object value;
+
+    /**
+     * The JSON encoding of the value.
+     * <p>
+     * Concurrent serializations may compute the encodings more than once, producing the same value.
+     */
+    private volatile SerializedString json;
+
+    /**
+     * The CBOR encoding of the value.
+     */
+    private volatile byte[] cbor;
+
+    /**
+     * Constructs an {@link EncodedPayload} encoding the provided {@code value}.
+     *
+     * @param value the value to encode
+     */
+    public EncodedPayload(@NonNull Object value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the value to encode.
+     *
+     * @return the value to encode
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * Returns the JSON encoding of the value.
+     *
+     * @return the JSON encoding of the value
+     * @throws JsonProcessingException if an error occurred when encoding the value
+     */
+    public SerializedString getJson() throws JsonProcessingException {
+        SerializedString result = this.json;
+        if (isNull(result)) {
+            result = new SerializedString(OBJECT_MAPPER.writeValueAsString(value));
+            this.json = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the CBOR encoding of the value.
+     * <p>
+     * The returned array is shared by all the clients the payload is sent to, and must not be modified.
+     *
+     * @return the CBOR encoding of the value
+     * @throws JsonProcessingException if an error occurred when encoding the value
+     * @see PayloadCodecModule#getCborMapper()
+     */
+    public byte[] getCbor() throws JsonProcessingException {
+        byte[] result = this.cbor;
+        if (isNull(result)) {
+            result = PayloadCodecModule.getCborMapper().writeValueAsBytes(value);
+            this.cbor = result;
+        }
+        return result;
+    }
+
+    /**
+     * Writes the cached JSON encoding of an {@link EncodedPayload} in JSON outputs, and its value in other outputs.
+     */
+    static final class Serializer extends StdSerializer<EncodedPayload> {
+
+        Serializer() {
+            super(EncodedPayload.class);
+        }
+
+        @Override
+        public void serialize(EncodedPayload payload, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (generator instanceof JsonGeneratorImpl) {
+                generator.writeRawValue(payload.getJson());
+            } else {
+                provider.defaultSerializeValue(payload.getValue(), generator);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+
+/**
+ * A Jackson module encoding the {@link CborPayload} socket event arguments in CBOR.
+ * <p>
+ * This module is registered in the {@link com.corundumstudio.socketio.protocol.JacksonJsonSupport} of the socket
+ * server. It serializes the value of a {@link CborPayload} in CBOR, and hands the resulting {@code byte[]} to the
+ * socket server's {@code byte[]} serializer, that sends it as a binary attachment of the event. The other values
+ * are serialized in JSON as usual.
+ *
+ * @see PayloadEncoding#CBOR
+ */
+public class PayloadCodecModule extends SimpleModule {
+
+    /**
+     * The mapper used to encode the {@link CborPayload} values.
+     * <p>
+     * This mapper omits {@code null} values, like the JSON mapper of the socket server.
+     */
+    private static final ObjectMapper CBOR_MAPPER =
+            new ObjectMapper(new CBORFactory()).setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    /**
+     * Constructs a {@link PayloadCodecModule}.
+     */
+    public PayloadCodecModule() {
+        super(PayloadCodecModule.class.getSimpleName());
+        this.addSerializer(CborPayload.class, new CborPayloadSerializer());
+    }
+
+    /**
+     * Returns the mapper used to encode the {@link CborPayload} values.
+     * <p>
+     * This mapper can be used to decode the attachments produced by this module.
+     *
+     * @return the mapper used to encode the {@link CborPayload} values
+     */
+    public static ObjectMapper getCborMapper() {
+        return CBOR_MAPPER;
+    }
+
+    /**
+     * Serializes the value of a {@link CborPayload} in CBOR, and writes the result as a {@code byte[]}.
+     * <p>
+     * The cached CBOR encoding of {@link EncodedPayload} values is written as is.
+     */
+    private static final class CborPayloadSerializer extends StdSerializer<CborPayload> {
+
+        private CborPayloadSerializer() {
+            super(CborPayload.class);
+        }
+
+        @Override
+        public void serialize(CborPayload payload, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            byte[] encoded;
+            if (payload.getValue() instanceof EncodedPayload) {
+                encoded = ((EncodedPayload) payload.getValue()).getCbor();
+            } else {
+                encoded = CBOR_MAPPER.writeValueAsBytes(payload.getValue());
+            }
+            provider.findValueSerializer(byte[].class).serialize(encoded, generator, provider);
+        }
+    }
+}
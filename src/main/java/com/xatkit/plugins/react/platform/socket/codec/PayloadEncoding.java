@@ -0,0 +1,56 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import javax.annotation.Nullable;
+
+/**
+ * The encodings of the payloads sent to the clients.
+ * <p>
+ * Clients request an encoding in their {@code init} event (see
+ * {@link com.xatkit.plugins.react.platform.socket.event.Init#getEncoding()}), and are notified of the accepted one
+ * in the {@code init_confirm} event. Clients that do not request an encoding receive JSON payloads.
+ *
+ * @see com.xatkit.plugins.react.platform.utils.ReactUtils#REACT_BINARY_ENCODING_KEY
+ */
+public enum PayloadEncoding {
+
+    /**
+     * The payloads are encoded in JSON in the socket.io text frames.
+     */
+    JSON("json"),
+    /**
+     * The payloads are encoded in CBOR, and sent as binary attachments of the socket.io events.
+     *
+     * @see CborPayload
+     */
+    CBOR("cbor");
+
+    /**
+     * The label of the enumeration value.
+     */
+    public final String label;
+
+    /**
+     * Constructs a new value for the enum with the given label.
+     *
+     * @param label the label of the enum value
+     */
+    PayloadEncoding(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the encoding with the provided {@code label}.
+     *
+     * @param label the label of the encoding requested by a client
+     * @return the encoding with the provided {@code label}, or {@link #JSON} if the {@code label} is {@code null}
+     * or does not correspond to a supported encoding
+     */
+    public static PayloadEncoding fromLabel(@Nullable String label) {
+        for (PayloadEncoding encoding : values()) {
+            if (encoding.label.equalsIgnoreCase(label)) {
+                return encoding;
+            }
+        }
+        return JSON;
+    }
+}
@@ -32,4 +32,35 @@ public class Init {
      * {@code null} this means that the client is asking for a fresh conversation (with an empty session).
      */
     private String conversationId;
+
+    /**
+     * Whether the client supports batched bot messages.
+     * <p>
+     * Clients supporting batched messages can receive multiple bot messages in a single
+     * {@link com.xatkit.plugins.react.platform.socket.SocketEventTypes#BOT_MESSAGES} event. This value is
+     * {@code false} for clients that do not send it.
+     */
+    private boolean batchMessages;
+
+    /**
+     * Whether the client supports streamed bot messages.
+     * <p>
+     * Clients supporting streamed messages render the
+     * {@link com.xatkit.plugins.react.platform.socket.SocketEventTypes#BOT_MESSAGE_CHUNK} events of a message as
+     * they arrive, other clients receive the complete message in a single
+     * {@link com.xatkit.plugins.react.platform.socket.SocketEventTypes#BOT_MESSAGE} event. This value is
+     * {@code false} for clients that do not send it.
+     */
+    private boolean streamMessages;
+
+    /**
+     * The encoding of the payloads requested by the client (e.g. {@code cbor}).
+     * <p>
+     * The encoding accepted by the server is returned in the
+     * {@link com.xatkit.plugins.react.platform.socket.action.InitConfirm} event. This value is {@code null} for
+     * clients that do not send it, and receive JSON payloads.
+     *
+     * @see com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding
+     */
+    private String encoding;
 }
@@ -0,0 +1,207 @@
+package com.xatkit.plugins.react.platform.tracing;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The timings of a traced user input, from its reception to the socket writes of the replies.
+ * <p>
+ * A trace records the time the input has been received by the socket listener, the time its intent has been
+ * recognized, the time the first action replying to it has started, the time the last action has completed, and the
+ * time the last reply has been written to the client's socket. The timings are reported in microseconds since the
+ * reception of the input, and are {@code null} if the stage has not been reached (yet).
+ * <p>
+ * A trace is updated by the threads processing its input (the socket server's event loop, the dispatcher, the
+ * execution service), and can be read concurrently by {@link MessageTracer#getTraces()}.
+ *
+ * @see MessageTracer
+ */
+@JsonPropertyOrder({"id", "channel", "event", "timestamp", "recognized", "actionStart", "actionEnd",
+        "written", "actionCount", "writeCount"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MessageTrace {
+
+    private final long id;
+
+    private final String channel;
+
+    private final String event;
+
+    /**
+     * The time the input has been received at (in milliseconds since the epoch).
+     */
+    private final long timestamp;
+
+    /**
+     * The time the input has been received at (as a {@link System#nanoTime()} value).
+     */
+    private final long receivedNanos;
+
+    private volatile long recognizedNanos;
+
+    private volatile long actionStartNanos;
+
+    private volatile long actionEndNanos;
+
+    private volatile long writtenNanos;
+
+    private volatile int actionCount;
+
+    private volatile int writeCount;
+
+    /**
+     * Constructs a {@link MessageTrace} for an input received at {@code receivedNanos}.
+     *
+     * @param id            the identifier of the trace
+     * @param channel       the identifier of the socket that received the input
+     * @param event         the name of the socket event containing the input
+     * @param timestamp     the time the input has been received at (in milliseconds since the epoch)
+     * @param receivedNanos the time the input has been received at (as a {@link System#nanoTime()} value)
+     */
+    MessageTrace(long id, String channel, String event, long timestamp, long receivedNanos) {
+        this.id = id;
+        this.channel = channel;
+        this.event = event;
+        this.timestamp = timestamp;
+        this.receivedNanos = receivedNanos;
+    }
+
+    /**
+     * Returns the identifier of the trace.
+     *
+     * @return the identifier of the trace
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the identifier of the socket that received the input.
+     *
+     * @return the identifier of the socket that received the input
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the name of the socket event containing the input.
+     *
+     * @return the name of the socket event containing the input
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the time the input has been received at.
+     *
+     * @return the time the input has been received at (in milliseconds since the epoch)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the time elapsed between the reception of the input and the recognition of its intent.
+     *
+     * @return the time (in microseconds) elapsed before the recognition, or {@code null} if the intent has not
+     * been recognized
+     */
+    public Long getRecognized() {
+        return sinceReceived(recognizedNanos);
+    }
+
+    /**
+     * Returns the time elapsed between the reception of the input and the start of the first action replying to it.
+     *
+     * @return the time (in microseconds) elapsed before the first action, or {@code null} if no action has started
+     */
+    public Long getActionStart() {
+        return sinceReceived(actionStartNanos);
+    }
+
+    /**
+     * Returns the time elapsed between the reception of the input and the end of the last action replying to it.
+     *
+     * @return the time (in microseconds) elapsed before the end of the last action, or {@code null} if no action
+     * has completed
+     */
+    public Long getActionEnd() {
+        return sinceReceived(actionEndNanos);
+    }
+
+    /**
+     * Returns the time elapsed between the reception of the input and the last write of a reply to the client's
+     * socket.
+     *
+     * @return the time (in microseconds) elapsed before the last write, or {@code null} if no reply has been written
+     */
+    public Long getWritten() {
+        return sinceReceived(writtenNanos);
+    }
+
+    /**
+     * Returns the number of actions that replied to the input.
+     *
+     * @return the number of actions that replied to the input
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Returns the number of socket writes containing a reply to the input.
+     *
+     * @return the number of socket writes containing a reply to the input
+     */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    void recognized(long nanos) {
+        this.recognizedNanos = nanos;
+    }
+
+    /**
+     * Records the start of an action.
+     * <p>
+     * The actions replying to an input are executed sequentially, the non-atomic updates of this method are not
+     * subject to concurrent calls.
+     */
+    void actionStarted(long nanos) {
+        if (actionStartNanos == 0) {
+            this.actionStartNanos = nanos;
+        }
+    }
+
+    /**
+     * Records the end of an action.
+     *
+     * @see #actionStarted(long)
+     */
+    void actionCompleted(long nanos) {
+        this.actionEndNanos = nanos;
+        this.actionCount++;
+    }
+
+    /**
+     * Records the completion of a socket write.
+     * <p>
+     * The writes of a socket complete on its event loop, the non-atomic updates of this method are not subject to
+     * concurrent calls.
+     */
+    void written(long nanos) {
+        this.writtenNanos = nanos;
+        this.writeCount++;
+    }
+
+    private Long sinceReceived(long nanos) {
+        if (nanos == 0) {
+            return null;
+        }
+        return TimeUnit.NANOSECONDS.toMicros(nanos - receivedNanos);
+    }
+}
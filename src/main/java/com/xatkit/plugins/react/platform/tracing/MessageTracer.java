@@ -0,0 +1,302 @@
+package com.xatkit.plugins.react.platform.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xatkit.core.XatkitException;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.plugins.react.platform.utils.ReactUtils;
+import io.netty.channel.ChannelFuture;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Records the timings of a sample of the user inputs, from their reception to the socket writes of the replies.
+ * <p>
+ * The socket listeners start a trace when they receive an input (see {@link #start(String, String, long)}), and the
+ * returned identifier is stored in the platform data of the {@link EventInstance} sent to the bot (see
+ * {@link ReactUtils#REACT_TRACE_ID_CONTEXT_KEY}). The actions replying to the input retrieve it from their
+ * {@link StateContext} (see {@link #getTraceId(StateContext)}) to record their timings, and register the trace
+ * on the channel they write to: the trace is marked as written when the next flush of event packets to this
+ * channel has completed (see {@link #onWrite(String, ChannelFuture)}).
+ * <p>
+ * The written timing is an approximation: the socket server does not identify the packets of a flush, and the
+ * trace is credited to the first flush of event packets following its registration. This flush contains the
+ * reply if the action does not send other events before it, but it may also be a flush of an event sent to the
+ * channel by another action (e.g. a broadcast), or the flush of a batch containing the reply and other events.
+ * <p>
+ * The traces are stored in a fixed-size ring buffer indexed by their identifier: starting a trace overwrites the
+ * oldest one, and recording a stage of an overwritten trace is a no-op. Inputs that are not sampled are not
+ * allocated a trace, and the recording methods return immediately for their {@link #NO_TRACE} identifier.
+ *
+ * @see ReactUtils#REACT_TRACING_SAMPLE_RATE_KEY
+ * @see ReactUtils#REACT_TRACING_BUFFER_SIZE_KEY
+ */
+public class MessageTracer {
+
+    /**
+     * The identifier returned for the inputs that are not traced.
+     */
+    public static final long NO_TRACE = -1;
+
+    /**
+     * The mapper used to serialize the traces.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The fraction of the user inputs that are traced.
+     */
+    private final double sampleRate;
+
+    /**
+     * The ring buffer holding the traces, indexed by their identifier.
+     */
+    private final AtomicReferenceArray<MessageTrace> traces;
+
+    /**
+     * The mask computing the index of a trace in the {@link #traces} buffer from its identifier.
+     */
+    private final int mask;
+
+    /**
+     * The sequence generating the identifiers of the traces.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The traces waiting for the next write of a channel, indexed by the channel identifier.
+     */
+    private final ConcurrentMap<String, Queue<MessageTrace>> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@link MessageTracer} tracing the provided fraction of the user inputs.
+     *
+     * @param sampleRate the fraction of the user inputs to trace, between {@code 0} and {@code 1}
+     * @param bufferSize the number of traces to hold, rounded up to a power of two
+     * @throws IllegalArgumentException if the {@code sampleRate} is not between {@code 0} and {@code 1}, or if
+     *                                  the {@code bufferSize} is not strictly positive
+     */
+    public MessageTracer(double sampleRate, int bufferSize) {
+        checkArgument(sampleRate >= 0 && sampleRate <= 1, "Cannot construct a %s with the provided sample rate %s, "
+                + "expected a value between 0 and 1", MessageTracer.class.getSimpleName(), sampleRate);
+        checkArgument(bufferSize > 0 && bufferSize <= 1 << 30, "Cannot construct a %s with the provided buffer size "
+                + "%s, expected a value between 1 and 2^30", MessageTracer.class.getSimpleName(), bufferSize);
+        this.sampleRate = sampleRate;
+        int capacity = Integer.highestOneBit(bufferSize);
+        if (capacity < bufferSize) {
+            capacity <<= 1;
+        }
+        this.traces = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the identifier of the trace of the input handled by the provided {@code context}.
+     *
+     * @param context the {@link StateContext} handling the input
+     * @return the identifier of the trace, or {@link #NO_TRACE} if the input is not traced
+     * @see ReactUtils#REACT_TRACE_ID_CONTEXT_KEY
+     */
+    public static long getTraceId(@Nullable StateContext context) {
+        if (isNull(context)) {
+            return NO_TRACE;
+        }
+        EventInstance eventInstance = context.getEventInstance();
+        if (isNull(eventInstance)) {
+            return NO_TRACE;
+        }
+        Object traceId = eventInstance.getPlatformData().get(ReactUtils.REACT_TRACE_ID_CONTEXT_KEY);
+        return traceId instanceof Long ? (Long) traceId : NO_TRACE;
+    }
+
+    /**
+     * Returns whether the tracer samples user inputs.
+     *
+     * @return {@code true} if the sample rate is strictly positive, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Returns the number of traces held by the tracer.
+     *
+     * @return the number of traces held by the tracer
+     */
+    public int getCapacity() {
+        return traces.length();
+    }
+
+    /**
+     * Starts the trace of an input received on the provided {@code channel}, if the input is sampled.
+     *
+     * @param channel       the identifier of the socket that received the input
+     * @param event         the name of the socket event containing the input
+     * @param receivedNanos the time the input has been received at, as returned by {@link System#nanoTime()}
+     * @return the identifier of the trace, or {@link #NO_TRACE} if the input is not sampled
+     */
+    public long start(@NonNull String channel, @NonNull String event, long receivedNanos) {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return NO_TRACE;
+        }
+        long id = sequence.getAndIncrement();
+        traces.set((int) id & mask, new MessageTrace(id, channel, event, System.currentTimeMillis(),
+                receivedNanos));
+        return id;
+    }
+
+    /**
+     * Records that the intent of the traced input has been recognized.
+     *
+     * @param traceId the identifier of the trace
+     */
+    public void recognized(long traceId) {
+        MessageTrace trace = getTrace(traceId);
+        if (nonNull(trace)) {
+            trace.recognized(System.nanoTime());
+        }
+    }
+
+    /**
+     * Records that an action replying to the traced input has started.
+     *
+     * @param traceId the identifier of the trace
+     */
+    public void actionStarted(long traceId) {
+        MessageTrace trace = getTrace(traceId);
+        if (nonNull(trace)) {
+            trace.actionStarted(System.nanoTime());
+        }
+    }
+
+    /**
+     * Records that an action replying to the traced input has completed.
+     *
+     * @param traceId the identifier of the trace
+     */
+    public void actionCompleted(long traceId) {
+        MessageTrace trace = getTrace(traceId);
+        if (nonNull(trace)) {
+            trace.actionCompleted(System.nanoTime());
+        }
+    }
+
+    /**
+     * Registers the traced input on the provided {@code channel}, before a reply is sent to it.
+     * <p>
+     * The trace is marked as written when the next flush of event packets to the {@code channel} has completed
+     * (see {@link #onWrite(String, ChannelFuture)}). This method must be called right before sending the reply,
+     * and only for connected channels: the registered traces are discarded when the channel is removed.
+     *
+     * @param traceId the identifier of the trace
+     * @param channel the identifier of the socket the reply is sent to
+     */
+    public void beforeWrite(long traceId, @NonNull String channel) {
+        MessageTrace trace = getTrace(traceId);
+        if (nonNull(trace)) {
+            pendingWrites.computeIfAbsent(channel, c -> new ConcurrentLinkedQueue<>()).add(trace);
+        }
+    }
+
+    /**
+     * Marks the traces registered on the provided {@code channel} as written when the {@code writeFuture} completes.
+     * <p>
+     * This method is called by the socket server for each flush of event packets to a connection (see
+     * {@link com.xatkit.plugins.react.platform.socket.PacketWriteHandler}). Flushes to a channel without registered
+     * traces are ignored.
+     *
+     * @param channel     the identifier of the socket the packets are written to
+     * @param writeFuture the future completed when the packets have been written
+     */
+    public void onWrite(@NonNull String channel, @NonNull ChannelFuture writeFuture) {
+        Queue<MessageTrace> pending = pendingWrites.get(channel);
+        if (isNull(pending) || pending.isEmpty()) {
+            return;
+        }
+        List<MessageTrace> writtenTraces = new ArrayList<>();
+        MessageTrace trace;
+        while (nonNull(trace = pending.poll())) {
+            writtenTraces.add(trace);
+        }
+        writeFuture.addListener(future -> {
+            if (future.isSuccess()) {
+                long now = System.nanoTime();
+                writtenTraces.forEach(t -> t.written(now));
+            }
+        });
+    }
+
+    /**
+     * Discards the traces registered on the provided {@code channel}.
+     * <p>
+     * This method is called when the socket disconnects.
+     *
+     * @param channel the identifier of the disconnected socket
+     */
+    public void removeChannel(@NonNull String channel) {
+        pendingWrites.remove(channel);
+    }
+
+    /**
+     * Returns the trace with the provided identifier.
+     *
+     * @param traceId the identifier of the trace
+     * @return the trace, or {@code null} if the identifier is {@link #NO_TRACE} or if the trace has been overwritten
+     */
+    public @Nullable MessageTrace getTrace(long traceId) {
+        if (traceId < 0) {
+            return null;
+        }
+        MessageTrace trace = traces.get((int) traceId & mask);
+        return nonNull(trace) && trace.getId() == traceId ? trace : null;
+    }
+
+    /**
+     * Returns the traces held by the tracer, ordered by identifier.
+     *
+     * @return the traces held by the tracer
+     */
+    public List<MessageTrace> getTraces() {
+        List<MessageTrace> result = new ArrayList<>(traces.length());
+        for (int i = 0; i < traces.length(); i++) {
+            MessageTrace trace = traces.get(i);
+            if (nonNull(trace)) {
+                result.add(trace);
+            }
+        }
+        result.sort(Comparator.comparingLong(MessageTrace::getId));
+        return result;
+    }
+
+    /**
+     * Returns the traces held by the tracer in JSON.
+     *
+     * @return a JSON array containing the traces held by the tracer, ordered by identifier
+     * @throws XatkitException if an error occurred when serializing the traces
+     */
+    public String toJson() {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(getTraces());
+        } catch (JsonProcessingException e) {
+            throw new XatkitException(MessageFormat.format("Cannot serialize the traces of the {0}, see attached "
+                    + "exception", this.getClass().getSimpleName()), e);
+        }
+    }
+}
@@ -2,12 +2,9 @@ package com.xatkit.plugins.react.platform.utils;
 
 import lombok.NonNull;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Utility class for message formatting.
@@ -22,6 +19,11 @@ public final class MessageUtils {
      */
     public static String NEW_LINE = "  \n";
 
+    /**
+     * The hexadecimal digits used to percent-encode the values of event links.
+     */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     /**
      * Creates a string that is rendered as an event link in the client widget.
      * <p>
@@ -49,13 +51,53 @@ public final class MessageUtils {
      * @return the string representing the event link
      */
     public static String eventLink(@NonNull String name, @NonNull String value) {
+        StringBuilder builder = new StringBuilder(name.length() + value.length() + 6);
+        return appendEventLink(builder, name, value).toString();
+    }
+
+    /**
+     * Appends an event link to the provided {@code builder}.
+     * <p>
+     * This method produces the same output as {@link #eventLink(String, String)} without creating intermediate
+     * strings: the {@code value} is URL-encoded (see {@link java.net.URLEncoder}) directly into the
+     * {@code builder}.
+     *
+     * @param builder the builder to append the event link to
+     * @param name    the name of the event link
+     * @param value   the value of the event link
+     * @return the provided {@code builder}
+     */
+    public static StringBuilder appendEventLink(@NonNull StringBuilder builder, @NonNull String name,
+                                                @NonNull String value) {
         try {
-            return MessageFormat.format("[{0}](##{1})", name, URLEncoder.encode(value, StandardCharsets.UTF_8.toString()));
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+            writeEventLink(builder, name, value);
+        } catch (IOException e) {
+            /*
+             * Cannot happen, StringBuilder does not throw IOException.
+             */
+            throw new UncheckedIOException(e);
         }
+        return builder;
     }
 
+    /**
+     * Appends an event link to the provided {@code appendable}.
+     * <p>
+     * This method produces the same output as {@link #eventLink(String, String)} without creating intermediate
+     * strings.
+     *
+     * @param appendable the {@link Appendable} to append the event link to
+     * @param name       the name of the event link
+     * @param value      the value of the event link
+     * @param <A>        the type of the {@link Appendable}
+     * @return the provided {@code appendable}
+     * @throws IOException if an error occurred when appending to the {@code appendable}
+     */
+    public static <A extends Appendable> A appendEventLink(@NonNull A appendable, @NonNull String name,
+                                                           @NonNull String value) throws IOException {
+        writeEventLink(appendable, name, value);
+        return appendable;
+    }
 
     /**
      * Creates a string from the provided {@code list} that is rendered as a bullet list in the client widget.
@@ -74,11 +116,49 @@ public final class MessageUtils {
     public static String itemizeList(@NonNull List<?> list) {
         if (list.isEmpty()) {
             return "";
-        } else {
-            return "- " + list.stream().map(Object::toString)
-                    .collect(Collectors.joining("  \n- "))
-                    + "  \n";
         }
+        return appendItemizedList(new StringBuilder(estimateListLength(list, 5)), list).toString();
+    }
+
+    /**
+     * Appends the provided {@code list} rendered as a bullet list to the given {@code builder}.
+     * <p>
+     * This method produces the same output as {@link #itemizeList(List)}, and allows to reuse the {@code builder}
+     * across messages.
+     *
+     * @param builder the builder to append the bullet list to
+     * @param list    the list of elements to render as a bullet list
+     * @return the provided {@code builder}
+     * @throws NullPointerException if the provided {@code list} is {@code null}
+     */
+    public static StringBuilder appendItemizedList(@NonNull StringBuilder builder, @NonNull List<?> list) {
+        try {
+            writeItemizedList(builder, list);
+        } catch (IOException e) {
+            /*
+             * Cannot happen, StringBuilder does not throw IOException.
+             */
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Appends the provided {@code list} rendered as a bullet list to the given {@code appendable}.
+     * <p>
+     * This method produces the same output as {@link #itemizeList(List)}.
+     *
+     * @param appendable the {@link Appendable} to append the bullet list to
+     * @param list       the list of elements to render as a bullet list
+     * @param <A>        the type of the {@link Appendable}
+     * @return the provided {@code appendable}
+     * @throws IOException          if an error occurred when appending to the {@code appendable}
+     * @throws NullPointerException if the provided {@code list} is {@code null}
+     */
+    public static <A extends Appendable> A appendItemizedList(@NonNull A appendable, @NonNull List<?> list)
+            throws IOException {
+        writeItemizedList(appendable, list);
+        return appendable;
     }
 
     /**
@@ -96,15 +176,176 @@ public final class MessageUtils {
      * @throws NullPointerException if the provided {@code list} is {@code null}
      */
     public static String enumerateList(@NonNull List<?> list) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < list.size(); i++) {
-            sb.append("[")
-                    .append(i)
-                    .append("] ")
-                    .append(list.get(i).toString())
-                    .append("  \n");
+        if (list.isEmpty()) {
+            return "";
+        }
+        /*
+         * The overhead includes the brackets, the separators, and the digits of the largest index.
+         */
+        int overhead = 6 + Integer.toString(list.size()).length();
+        return appendEnumeratedList(new StringBuilder(estimateListLength(list, overhead)), list).toString();
+    }
+
+    /**
+     * Appends the provided {@code list} rendered as an enumeration to the given {@code builder}.
+     * <p>
+     * This method produces the same output as {@link #enumerateList(List)}, and allows to reuse the {@code builder}
+     * across messages.
+     *
+     * @param builder the builder to append the enumeration to
+     * @param list    the list of elements to render as an enumeration
+     * @return the provided {@code builder}
+     * @throws NullPointerException if the provided {@code list} is {@code null}
+     */
+    public static StringBuilder appendEnumeratedList(@NonNull StringBuilder builder, @NonNull List<?> list) {
+        try {
+            writeEnumeratedList(builder, list);
+        } catch (IOException e) {
+            /*
+             * Cannot happen, StringBuilder does not throw IOException.
+             */
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Appends the provided {@code list} rendered as an enumeration to the given {@code appendable}.
+     * <p>
+     * This method produces the same output as {@link #enumerateList(List)}.
+     *
+     * @param appendable the {@link Appendable} to append the enumeration to
+     * @param list       the list of elements to render as an enumeration
+     * @param <A>        the type of the {@link Appendable}
+     * @return the provided {@code appendable}
+     * @throws IOException          if an error occurred when appending to the {@code appendable}
+     * @throws NullPointerException if the provided {@code list} is {@code null}
+     */
+    public static <A extends Appendable> A appendEnumeratedList(@NonNull A appendable, @NonNull List<?> list)
+            throws IOException {
+        writeEnumeratedList(appendable, list);
+        return appendable;
+    }
+
+    /**
+     * Writes an event link to the provided {@code appendable}.
+     * <p>
+     * The {@code value} is encoded with the {@code application/x-www-form-urlencoded} format (the format of
+     * {@link java.net.URLEncoder} with the {@code UTF-8} charset), one character at a time.
+     *
+     * @param appendable the {@link Appendable} to write the event link to
+     * @param name       the name of the event link
+     * @param value      the value of the event link
+     * @throws IOException if an error occurred when appending to the {@code appendable}
+     */
+    private static void writeEventLink(Appendable appendable, String name, String value) throws IOException {
+        appendable.append('[').append(name).append("](##");
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                appendable.append(c);
+            } else if (c == ' ') {
+                appendable.append('+');
+            } else if (c < 0x80) {
+                appendEncodedByte(appendable, c);
+            } else if (c < 0x800) {
+                appendEncodedByte(appendable, 0xC0 | (c >> 6));
+                appendEncodedByte(appendable, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEncodedByte(appendable, 0xF0 | (codePoint >> 18));
+                appendEncodedByte(appendable, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEncodedByte(appendable, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEncodedByte(appendable, 0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                /*
+                 * Unpaired surrogates cannot be encoded in UTF-8, URLEncoder replaces them with '?'.
+                 */
+                appendEncodedByte(appendable, '?');
+            } else {
+                appendEncodedByte(appendable, 0xE0 | (c >> 12));
+                appendEncodedByte(appendable, 0x80 | ((c >> 6) & 0x3F));
+                appendEncodedByte(appendable, 0x80 | (c & 0x3F));
+            }
+        }
+        appendable.append(')');
+    }
+
+    /**
+     * Writes the provided {@code list} rendered as a bullet list to the given {@code appendable}.
+     *
+     * @param appendable the {@link Appendable} to write the bullet list to
+     * @param list       the list of elements to render as a bullet list
+     * @throws IOException if an error occurred when appending to the {@code appendable}
+     */
+    private static void writeItemizedList(Appendable appendable, List<?> list) throws IOException {
+        for (Object item : list) {
+            appendable.append("- ").append(item.toString()).append("  \n");
+        }
+    }
+
+    /**
+     * Writes the provided {@code list} rendered as an enumeration to the given {@code appendable}.
+     *
+     * @param appendable the {@link Appendable} to write the enumeration to
+     * @param list       the list of elements to render as an enumeration
+     * @throws IOException if an error occurred when appending to the {@code appendable}
+     */
+    private static void writeEnumeratedList(Appendable appendable, List<?> list) throws IOException {
+        int index = 0;
+        for (Object item : list) {
+            appendable.append('[');
+            if (appendable instanceof StringBuilder) {
+                ((StringBuilder) appendable).append(index);
+            } else {
+                appendable.append(Integer.toString(index));
+            }
+            appendable.append("] ").append(item.toString()).append("  \n");
+            index++;
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code c} is left unchanged by the {@code application/x-www-form-urlencoded}
+     * encoding.
+     *
+     * @param c the character to check
+     * @return {@code true} if the character is not encoded, {@code false} otherwise
+     */
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-'
+                || c == '*' || c == '_';
+    }
+
+    /**
+     * Appends the provided {@code b} as a percent-encoded byte (e.g. {@code %C3}).
+     *
+     * @param appendable the {@link Appendable} to append the byte to
+     * @param b          the byte to append
+     * @throws IOException if an error occurred when appending to the {@code appendable}
+     */
+    private static void appendEncodedByte(Appendable appendable, int b) throws IOException {
+        appendable.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+
+    /**
+     * Estimates the length of the provided {@code list} rendered as a bullet list or an enumeration.
+     * <p>
+     * The estimate is used to size the builder of the rendered list, avoiding the copies performed when growing
+     * it. The length of {@link CharSequence} elements is known, other elements are estimated.
+     *
+     * @param list            the list to estimate the rendered length of
+     * @param elementOverhead the number of characters added to each element by the rendering
+     * @return the estimated length
+     */
+    private static int estimateListLength(List<?> list, int elementOverhead) {
+        long length = 0;
+        for (Object item : list) {
+            length += elementOverhead + (item instanceof CharSequence ? ((CharSequence) item).length() : 16);
         }
-        return sb.toString();
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
     }
 
     /**
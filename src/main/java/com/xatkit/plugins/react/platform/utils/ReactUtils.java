@@ -61,6 +61,854 @@ public interface ReactUtils extends ChatUtils {
      */
     boolean DEFAULT_REACT_ENABLE_TESTING_PAGE = true;
 
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the metrics endpoint.
+     * <p>
+     * The metrics endpoint is located at {@code xatkit.server.public_url/react/metrics}, and returns the platform's
+     * metrics in the Prometheus text format. The endpoint is not authenticated, and should only be enabled if it
+     * is not reachable by the bot's users (e.g. behind a reverse proxy). The default value of this property is
+     * {@code false} (see {@link #DEFAULT_REACT_METRICS_ENDPOINT}).
+     *
+     * @see com.xatkit.plugins.react.platform.metrics.MetricsRegistry
+     */
+    String REACT_METRICS_ENDPOINT_KEY = "xatkit.react.metrics.enabled";
+
+    /**
+     * The default value of the {@link #REACT_METRICS_ENDPOINT_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_METRICS_ENDPOINT = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of threads of the
+     * platform's shared scheduler.
+     * <p>
+     * The scheduler completes the delays of {@link com.xatkit.plugins.react.platform.action.Wait} actions and runs
+     * the platform's periodic maintenance tasks. The default value of this property is {@code 2} (see
+     * {@link #DEFAULT_REACT_SCHEDULER_THREADS}).
+     */
+    String REACT_SCHEDULER_THREADS_KEY = "xatkit.react.scheduler.threads";
+
+    /**
+     * The default value of the {@link #REACT_SCHEDULER_THREADS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SCHEDULER_THREADS = 2;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the native epoll
+     * transport of the socket server.
+     * <p>
+     * The native transport is only available on Linux, the socket server falls back to the NIO transport if it
+     * cannot be loaded. The default value of this property is {@code false} (see
+     * {@link #DEFAULT_REACT_SERVER_NATIVE_EPOLL}).
+     */
+    String REACT_SERVER_NATIVE_EPOLL_KEY = "xatkit.react.server.native_epoll";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_NATIVE_EPOLL_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_SERVER_NATIVE_EPOLL = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of threads accepting
+     * the socket server's connections.
+     * <p>
+     * The default value of this property is {@code 0}, meaning that netty's default number of threads is used
+     * (see {@link #DEFAULT_REACT_SERVER_BOSS_THREADS}).
+     */
+    String REACT_SERVER_BOSS_THREADS_KEY = "xatkit.react.server.boss_threads";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_BOSS_THREADS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_BOSS_THREADS = 0;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of threads handling
+     * the I/O of the socket server's connections.
+     * <p>
+     * The default value of this property is {@code 0}, meaning that netty's default number of threads (twice the
+     * number of available processors) is used (see {@link #DEFAULT_REACT_SERVER_WORKER_THREADS}).
+     */
+    String REACT_SERVER_WORKER_THREADS_KEY = "xatkit.react.server.worker_threads";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_WORKER_THREADS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_WORKER_THREADS = 0;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable {@code TCP_NODELAY} on
+     * the socket server's connections.
+     * <p>
+     * The default value of this property is {@code true} (see {@link #DEFAULT_REACT_SERVER_TCP_NO_DELAY}).
+     */
+    String REACT_SERVER_TCP_NO_DELAY_KEY = "xatkit.react.server.tcp_no_delay";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_TCP_NO_DELAY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_SERVER_TCP_NO_DELAY = true;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable TCP keep-alive on the
+     * socket server's connections.
+     * <p>
+     * The default value of this property is {@code false} (see {@link #DEFAULT_REACT_SERVER_TCP_KEEP_ALIVE}).
+     */
+    String REACT_SERVER_TCP_KEEP_ALIVE_KEY = "xatkit.react.server.tcp_keep_alive";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_TCP_KEEP_ALIVE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_SERVER_TCP_KEEP_ALIVE = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of pending
+     * connections of the socket server.
+     * <p>
+     * The default value of this property is {@code 1024} (see {@link #DEFAULT_REACT_SERVER_ACCEPT_BACKLOG}).
+     */
+    String REACT_SERVER_ACCEPT_BACKLOG_KEY = "xatkit.react.server.accept_backlog";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_ACCEPT_BACKLOG_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_ACCEPT_BACKLOG = 1024;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the low water mark
+     * (in bytes) of the socket server's connection write buffers.
+     * <p>
+     * A connection becomes writable again once its pending outbound bytes drop below this value. The default value
+     * of this property is {@code 32768} (see {@link #DEFAULT_REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK}).
+     */
+    String REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK_KEY = "xatkit.react.server.write_buffer_low_water_mark";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_WRITE_BUFFER_LOW_WATER_MARK = 32768;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the high water mark
+     * (in bytes) of the socket server's connection write buffers.
+     * <p>
+     * A connection becomes unwritable once its pending outbound bytes exceed this value. The default value of this
+     * property is {@code 65536} (see {@link #DEFAULT_REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK}).
+     */
+    String REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY = "xatkit.react.server.write_buffer_high_water_mark";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK = 65536;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum payload length
+     * (in bytes) of the websocket frames received by the socket server.
+     * <p>
+     * The default value of this property is {@code 65536} (see
+     * {@link #DEFAULT_REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH}).
+     */
+    String REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH_KEY = "xatkit.react.server.max_frame_payload_length";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_MAX_FRAME_PAYLOAD_LENGTH = 65536;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum content length
+     * (in bytes) of the HTTP requests received by the socket server.
+     * <p>
+     * The default value of this property is {@code 65536} (see
+     * {@link #DEFAULT_REACT_SERVER_MAX_HTTP_CONTENT_LENGTH}).
+     */
+    String REACT_SERVER_MAX_HTTP_CONTENT_LENGTH_KEY = "xatkit.react.server.max_http_content_length";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_MAX_HTTP_CONTENT_LENGTH_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_SERVER_MAX_HTTP_CONTENT_LENGTH = 65536;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the socket.io store factory of the
+     * socket server.
+     * <p>
+     * The value of this property is the fully qualified name of a
+     * {@link com.corundumstudio.socketio.store.StoreFactory} implementation with a public constructor accepting a
+     * {@link org.apache.commons.configuration2.Configuration} (e.g. a subclass of the Redisson or Hazelcast store
+     * factories creating its client from the configuration). The store factory shares the socket.io rooms between
+     * the nodes of a deployment, and its {@code PubSubStore} is used to route the events between the nodes (see
+     * {@link #REACT_ROUTING_TRANSPORT_KEY}). The socket server uses netty-socketio's in-memory store factory if this
+     * property is not set.
+     */
+    String REACT_SERVER_STORE_FACTORY_KEY = "xatkit.react.server.store_factory";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the pooled buffer
+     * allocator of the socket server's connections.
+     * <p>
+     * When disabled, the connections allocate unpooled buffers. The default value of this property is {@code true}
+     * (see {@link #DEFAULT_REACT_SERVER_POOLED_ALLOCATOR}).
+     */
+    String REACT_SERVER_POOLED_ALLOCATOR_KEY = "xatkit.react.server.pooled_allocator";
+
+    /**
+     * The default value of the {@link #REACT_SERVER_POOLED_ALLOCATOR_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_SERVER_POOLED_ALLOCATOR = true;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the time (in milliseconds) after
+     * which an idle socket/conversation mapping whose socket is not connected anymore is evicted.
+     * <p>
+     * The default value of this property is {@code 3600000} (1 hour, see
+     * {@link #DEFAULT_REACT_CONVERSATION_TTL}).
+     *
+     * @see com.xatkit.plugins.react.platform.conversation.SocketConversationRegistry
+     */
+    String REACT_CONVERSATION_TTL_KEY = "xatkit.react.conversation.ttl";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_TTL_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_CONVERSATION_TTL = 3600000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the time (in milliseconds) a
+     * socket/conversation mapping is kept after the socket disconnected.
+     * <p>
+     * This grace period allows disconnection listeners and in-flight replies to resolve the conversation of a
+     * closed socket. The default value of this property is {@code 30000} (see
+     * {@link #DEFAULT_REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD}).
+     *
+     * @see com.xatkit.plugins.react.platform.conversation.SocketConversationRegistry
+     */
+    String REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD_KEY = "xatkit.react.conversation.disconnect_grace_period";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_CONVERSATION_DISCONNECT_GRACE_PERIOD = 30000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the interval (in milliseconds)
+     * between two evictions of stale socket/conversation mappings.
+     * <p>
+     * The default value of this property is {@code 60000} (see
+     * {@link #DEFAULT_REACT_CONVERSATION_EVICTION_INTERVAL}).
+     */
+    String REACT_CONVERSATION_EVICTION_INTERVAL_KEY = "xatkit.react.conversation.eviction_interval";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_EVICTION_INTERVAL_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_CONVERSATION_EVICTION_INTERVAL = 60000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the delivery of the events
+     * sent to a socket to all the sockets of its conversation.
+     * <p>
+     * When enabled, the events sent to a socket are also sent to the other sockets hosting the same conversation
+     * (e.g. when the conversation is opened in several tabs), and to the remaining sockets of the conversation if
+     * the target socket is disconnected. The payload of the event is encoded once for all the sockets. The default
+     * value of this property is {@code true} (see {@link #DEFAULT_REACT_CONVERSATION_FANOUT}).
+     */
+    String REACT_CONVERSATION_FANOUT_KEY = "xatkit.react.conversation.fanout";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_FANOUT_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_CONVERSATION_FANOUT = true;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the {@link
+     * com.xatkit.plugins.react.platform.conversation.ConversationStore} holding the conversations.
+     * <p>
+     * Accepted values are {@code memory} (the conversations are stored in the heap of the node), {@code file} (the
+     * conversations are stored in the directory specified by {@link #REACT_CONVERSATION_STORE_DIRECTORY_KEY}, that
+     * can be shared between nodes), or the fully qualified name of a custom
+     * {@link com.xatkit.plugins.react.platform.conversation.ConversationStore} implementation. The default value of
+     * this property is {@code memory} (see {@link #DEFAULT_REACT_CONVERSATION_STORE}).
+     */
+    String REACT_CONVERSATION_STORE_KEY = "xatkit.react.conversation.store";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_STORE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_CONVERSATION_STORE = "memory";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the directory of the {@code file}
+     * conversation store.
+     * <p>
+     * Nodes sharing this directory can resolve the conversations started on each other. The default value of this
+     * property is the {@code xatkit-react-conversations} directory in the temporary directory of the system (see
+     * {@link #DEFAULT_REACT_CONVERSATION_STORE_DIRECTORY}).
+     *
+     * @see com.xatkit.plugins.react.platform.conversation.FileConversationStore
+     */
+    String REACT_CONVERSATION_STORE_DIRECTORY_KEY = "xatkit.react.conversation.store.directory";
+
+    /**
+     * The default value of the {@link #REACT_CONVERSATION_STORE_DIRECTORY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_CONVERSATION_STORE_DIRECTORY = System.getProperty("java.io.tmpdir")
+            + "/xatkit-react-conversations";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the identifier of the node running
+     * the platform.
+     * <p>
+     * This identifier is recorded in the conversation store for the conversations hosted by the node, and must be
+     * unique among the nodes sharing the same store. A random identifier is generated if this property is not
+     * specified.
+     */
+    String REACT_NODE_ID_KEY = "xatkit.react.node_id";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store whether the events targeting sockets
+     * connected to other nodes are routed to these nodes.
+     * <p>
+     * Routing requires a {@link #REACT_CONVERSATION_STORE_KEY conversation store} shared between the nodes. The
+     * default value of this property is {@code false} (see {@link #DEFAULT_REACT_ROUTING}).
+     *
+     * @see com.xatkit.plugins.react.platform.routing.OutboundRouter
+     */
+    String REACT_ROUTING_KEY = "xatkit.react.routing.enabled";
+
+    /**
+     * The default value of the {@link #REACT_ROUTING_KEY} {@link org.apache.commons.configuration2.Configuration}
+     * key.
+     */
+    boolean DEFAULT_REACT_ROUTING = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the transport used to route the
+     * events between the nodes.
+     * <p>
+     * Accepted values are {@code pubsub} (the events are exchanged through the {@code PubSubStore} of the socket
+     * server's store factory, see {@link #REACT_SERVER_STORE_FACTORY_KEY}), {@code loopback} (the events are routed
+     * to the platforms running in the same JVM), or the fully qualified name of a custom
+     * {@link com.xatkit.plugins.react.platform.routing.RoutingTransport} implementation. The default value of this
+     * property is {@code pubsub} (see {@link #DEFAULT_REACT_ROUTING_TRANSPORT}).
+     *
+     * @see com.xatkit.plugins.react.platform.routing.PubSubStoreRoutingTransport
+     */
+    String REACT_ROUTING_TRANSPORT_KEY = "xatkit.react.routing.transport";
+
+    /**
+     * The default value of the {@link #REACT_ROUTING_TRANSPORT_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_ROUTING_TRANSPORT = "pubsub";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the duration (in milliseconds) of the
+     * window during which the events routed to the same node are combined into a single batch.
+     * <p>
+     * Setting this property to {@code 0} routes each event in its own message. The default value of this property
+     * is {@code 5} (see {@link #DEFAULT_REACT_ROUTING_BATCH_WINDOW}).
+     */
+    String REACT_ROUTING_BATCH_WINDOW_KEY = "xatkit.react.routing.batch_window";
+
+    /**
+     * The default value of the {@link #REACT_ROUTING_BATCH_WINDOW_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_ROUTING_BATCH_WINDOW = 5;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of events in a
+     * batch routed to another node.
+     * <p>
+     * The default value of this property is {@code 100} (see {@link #DEFAULT_REACT_ROUTING_MAX_BATCH_SIZE}).
+     */
+    String REACT_ROUTING_MAX_BATCH_SIZE_KEY = "xatkit.react.routing.max_batch_size";
+
+    /**
+     * The default value of the {@link #REACT_ROUTING_MAX_BATCH_SIZE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_ROUTING_MAX_BATCH_SIZE = 100;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store whether the conversations and the
+     * pending outbound events are persisted across restarts.
+     * <p>
+     * Persisted conversations and events are reloaded when the platform starts, allowing the clients reconnecting
+     * after a restart to resume their conversation and receive their pending events. The default value of this
+     * property is {@code false} (see {@link #DEFAULT_REACT_PERSISTENCE}).
+     *
+     * @see com.xatkit.plugins.react.platform.persistence.RoutingJournal
+     */
+    String REACT_PERSISTENCE_KEY = "xatkit.react.persistence.enabled";
+
+    /**
+     * The default value of the {@link #REACT_PERSISTENCE_KEY} {@link org.apache.commons.configuration2.Configuration}
+     * key.
+     */
+    boolean DEFAULT_REACT_PERSISTENCE = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the directory of the journal
+     * persisting the conversations and the pending outbound events.
+     * <p>
+     * This directory must not be shared between nodes. The default value of this property is the
+     * {@code xatkit-react-journal} directory in the temporary directory of the system (see
+     * {@link #DEFAULT_REACT_PERSISTENCE_DIRECTORY}).
+     *
+     * @see #REACT_PERSISTENCE_KEY
+     */
+    String REACT_PERSISTENCE_DIRECTORY_KEY = "xatkit.react.persistence.directory";
+
+    /**
+     * The default value of the {@link #REACT_PERSISTENCE_DIRECTORY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_PERSISTENCE_DIRECTORY = System.getProperty("java.io.tmpdir") + "/xatkit-react-journal";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the interval (in milliseconds) at
+     * which the journal is forced to the disk.
+     * <p>
+     * The journal survives a crash of the JVM regardless of this property, which bounds the records lost when the
+     * host itself crashes. The default value of this property is {@code 1000} (see
+     * {@link #DEFAULT_REACT_PERSISTENCE_SYNC_INTERVAL}).
+     *
+     * @see #REACT_PERSISTENCE_KEY
+     */
+    String REACT_PERSISTENCE_SYNC_INTERVAL_KEY = "xatkit.react.persistence.sync_interval";
+
+    /**
+     * The default value of the {@link #REACT_PERSISTENCE_SYNC_INTERVAL_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_PERSISTENCE_SYNC_INTERVAL = 1000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the interval (in milliseconds) at
+     * which the journal discards its expired entries and is compacted.
+     * <p>
+     * The journal is only rewritten if it contains more obsolete records than live entries. The rewrite is
+     * performed in the background, and does not block the conversations bound in the meantime. The default value of
+     * this property is {@code 600000} (see {@link #DEFAULT_REACT_PERSISTENCE_COMPACTION_INTERVAL}).
+     *
+     * @see #REACT_PERSISTENCE_KEY
+     */
+    String REACT_PERSISTENCE_COMPACTION_INTERVAL_KEY = "xatkit.react.persistence.compaction_interval";
+
+    /**
+     * The default value of the {@link #REACT_PERSISTENCE_COMPACTION_INTERVAL_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_PERSISTENCE_COMPACTION_INTERVAL = 600000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of threads used to
+     * process inbound socket events (e.g. intent recognition) outside of the socket server's event loop.
+     * <p>
+     * Setting this property to {@code 0} processes inbound events directly in the socket server's event loop. When
+     * virtual threads are enabled (see {@link #REACT_DISPATCH_VIRTUAL_THREADS_KEY}) this property sets the maximum
+     * number of inbound events processed concurrently. The default value of this property is {@code 16} (see
+     * {@link #DEFAULT_REACT_DISPATCH_THREADS}).
+     *
+     * @see com.xatkit.plugins.react.platform.dispatch.InboundDispatcher
+     */
+    String REACT_DISPATCH_THREADS_KEY = "xatkit.react.dispatch.threads";
+
+    /**
+     * The default value of the {@link #REACT_DISPATCH_THREADS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_DISPATCH_THREADS = 16;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of inbound socket
+     * events waiting to be processed.
+     * <p>
+     * Inbound events received when the queue is full are dropped, and counted in the
+     * {@code xatkit_react_dispatch_shed_total} metric. The default value of this property is {@code 10000} (see
+     * {@link #DEFAULT_REACT_DISPATCH_QUEUE_CAPACITY}).
+     */
+    String REACT_DISPATCH_QUEUE_CAPACITY_KEY = "xatkit.react.dispatch.queue_capacity";
+
+    /**
+     * The default value of the {@link #REACT_DISPATCH_QUEUE_CAPACITY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_DISPATCH_QUEUE_CAPACITY = 10000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the use of virtual threads
+     * to process inbound socket events.
+     * <p>
+     * Each inbound event is processed in its own virtual thread, and the number of events processed concurrently is
+     * bounded by {@link #REACT_DISPATCH_THREADS_KEY}. This property is ignored if the JVM does not support virtual
+     * threads (JDK 21+). The default value of this property is {@code false} (see
+     * {@link #DEFAULT_REACT_DISPATCH_VIRTUAL_THREADS}).
+     */
+    String REACT_DISPATCH_VIRTUAL_THREADS_KEY = "xatkit.react.dispatch.virtual_threads";
+
+    /**
+     * The default value of the {@link #REACT_DISPATCH_VIRTUAL_THREADS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_DISPATCH_VIRTUAL_THREADS = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the batching of bot messages.
+     * <p>
+     * When enabled, the bot messages sent to a client within a short window (see
+     * {@link #REACT_BATCH_MESSAGES_WINDOW_KEY}) are combined into a single {@code bot_messages} socket event. Batches
+     * are only sent to clients that advertise their support in their {@code init} event, other clients receive
+     * individual {@code bot_message} events. The default value of this property is {@code false} (see
+     * {@link #DEFAULT_REACT_BATCH_MESSAGES}).
+     */
+    String REACT_BATCH_MESSAGES_KEY = "xatkit.react.batch_messages.enabled";
+
+    /**
+     * The default value of the {@link #REACT_BATCH_MESSAGES_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_BATCH_MESSAGES = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the duration (in milliseconds) of
+     * the bot message batching window.
+     * <p>
+     * The default value of this property is {@code 20} (see {@link #DEFAULT_REACT_BATCH_MESSAGES_WINDOW}).
+     *
+     * @see #REACT_BATCH_MESSAGES_KEY
+     */
+    String REACT_BATCH_MESSAGES_WINDOW_KEY = "xatkit.react.batch_messages.window";
+
+    /**
+     * The default value of the {@link #REACT_BATCH_MESSAGES_WINDOW_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_BATCH_MESSAGES_WINDOW = 20;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the offline buffering of
+     * outbound events.
+     * <p>
+     * When enabled, the message events (bot messages, link snippets, audio) sent to a disconnected socket are
+     * buffered for its conversation, and replayed when a socket opens the same conversation. Transient events (e.g.
+     * message loaders, dark mode toggles) are not buffered. Events can only be associated to their conversation
+     * during the retention period (see {@link #REACT_OFFLINE_BUFFER_RETENTION_KEY}). The default value of this
+     * property is {@code true} (see {@link #DEFAULT_REACT_OFFLINE_BUFFER}).
+     */
+    String REACT_OFFLINE_BUFFER_KEY = "xatkit.react.offline_buffer.enabled";
+
+    /**
+     * The default value of the {@link #REACT_OFFLINE_BUFFER_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_OFFLINE_BUFFER = true;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of events buffered
+     * for a disconnected conversation.
+     * <p>
+     * When this limit is reached the oldest buffered event is dropped. The default value of this property is
+     * {@code 100} (see {@link #DEFAULT_REACT_OFFLINE_BUFFER_MAX_EVENTS}).
+     *
+     * @see #REACT_OFFLINE_BUFFER_KEY
+     */
+    String REACT_OFFLINE_BUFFER_MAX_EVENTS_KEY = "xatkit.react.offline_buffer.max_events";
+
+    /**
+     * The default value of the {@link #REACT_OFFLINE_BUFFER_MAX_EVENTS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_OFFLINE_BUFFER_MAX_EVENTS = 100;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the time (in milliseconds) after
+     * which a buffered event is discarded.
+     * <p>
+     * The default value of this property is {@code 120000} (see {@link #DEFAULT_REACT_OFFLINE_BUFFER_MAX_AGE}).
+     *
+     * @see #REACT_OFFLINE_BUFFER_KEY
+     */
+    String REACT_OFFLINE_BUFFER_MAX_AGE_KEY = "xatkit.react.offline_buffer.max_age";
+
+    /**
+     * The default value of the {@link #REACT_OFFLINE_BUFFER_MAX_AGE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_OFFLINE_BUFFER_MAX_AGE = 120000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the time (in milliseconds) during
+     * which the events sent to a disconnected socket are buffered for its conversation.
+     * <p>
+     * Events sent to a socket disconnected for more than this period cannot be associated to a conversation: they are
+     * dropped, logged, and counted in the {@code xatkit_react_offline_discarded_events_total} metric. The default
+     * value of this property is {@code 120000} (see {@link #DEFAULT_REACT_OFFLINE_BUFFER_RETENTION}).
+     *
+     * @see #REACT_OFFLINE_BUFFER_KEY
+     */
+    String REACT_OFFLINE_BUFFER_RETENTION_KEY = "xatkit.react.offline_buffer.retention";
+
+    /**
+     * The default value of the {@link #REACT_OFFLINE_BUFFER_RETENTION_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_OFFLINE_BUFFER_RETENTION = 120000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of events queued
+     * for a client that does not read its socket.
+     * <p>
+     * A client's events are queued when its connection becomes unwritable (see
+     * {@link #REACT_SERVER_WRITE_BUFFER_HIGH_WATER_MARK_KEY}), and the policy specified by
+     * {@link #REACT_BACKPRESSURE_POLICY_KEY} is applied when the queue is full. The default value of this property
+     * is {@code 100} (see {@link #DEFAULT_REACT_BACKPRESSURE_MAX_PENDING_EVENTS}).
+     */
+    String REACT_BACKPRESSURE_MAX_PENDING_EVENTS_KEY = "xatkit.react.backpressure.max_pending_events";
+
+    /**
+     * The default value of the {@link #REACT_BACKPRESSURE_MAX_PENDING_EVENTS_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_BACKPRESSURE_MAX_PENDING_EVENTS = 100;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the policy applied when the queue of
+     * a client that does not read its socket is full.
+     * <p>
+     * Accepted values are {@code DROP_OLDEST}, {@code COALESCE_LOADER}, and {@code DISCONNECT} (see
+     * {@link com.xatkit.plugins.react.platform.outbound.OutboundFlowControl.SlowConsumerPolicy}), ignoring the case.
+     * The platform fails to start with an {@link IllegalArgumentException} listing these values if this property
+     * contains another value. The default value of this property is {@code DROP_OLDEST} (see
+     * {@link #DEFAULT_REACT_BACKPRESSURE_POLICY}).
+     *
+     * @see #REACT_BACKPRESSURE_MAX_PENDING_EVENTS_KEY
+     */
+    String REACT_BACKPRESSURE_POLICY_KEY = "xatkit.react.backpressure.policy";
+
+    /**
+     * The default value of the {@link #REACT_BACKPRESSURE_POLICY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_BACKPRESSURE_POLICY = "DROP_OLDEST";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of user inputs a
+     * socket can send in a burst.
+     * <p>
+     * The default value of this property is {@code 10} (see {@link #DEFAULT_REACT_RATE_LIMIT_SOCKET_CAPACITY}).
+     *
+     * @see #REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY
+     */
+    String REACT_RATE_LIMIT_SOCKET_CAPACITY_KEY = "xatkit.react.rate_limit.socket.capacity";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_SOCKET_CAPACITY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_RATE_LIMIT_SOCKET_CAPACITY = 10;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of user inputs per second
+     * a socket can send once it has consumed its burst.
+     * <p>
+     * Set this property to {@code 0} to disable the per-socket rate limit. The default value of this property is
+     * {@code 0} (see {@link #DEFAULT_REACT_RATE_LIMIT_SOCKET_REFILL_RATE}): the limit is opt-in.
+     *
+     * @see #REACT_RATE_LIMIT_SOCKET_CAPACITY_KEY
+     */
+    String REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY = "xatkit.react.rate_limit.socket.refill_rate";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    double DEFAULT_REACT_RATE_LIMIT_SOCKET_REFILL_RATE = 0;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum number of user inputs a
+     * conversation can receive in a burst, from all its sockets.
+     * <p>
+     * The default value of this property is {@code 20} (see
+     * {@link #DEFAULT_REACT_RATE_LIMIT_CONVERSATION_CAPACITY}).
+     *
+     * @see #REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE_KEY
+     */
+    String REACT_RATE_LIMIT_CONVERSATION_CAPACITY_KEY = "xatkit.react.rate_limit.conversation.capacity";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_CONVERSATION_CAPACITY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_RATE_LIMIT_CONVERSATION_CAPACITY = 20;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of user inputs per second
+     * a conversation can receive once it has consumed its burst.
+     * <p>
+     * Set this property to {@code 0} to disable the per-conversation rate limit. The default value of this property
+     * is {@code 0} (see {@link #DEFAULT_REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE}): the limit is opt-in.
+     *
+     * @see #REACT_RATE_LIMIT_CONVERSATION_CAPACITY_KEY
+     */
+    String REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE_KEY = "xatkit.react.rate_limit.conversation.refill_rate";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    double DEFAULT_REACT_RATE_LIMIT_CONVERSATION_REFILL_RATE = 0;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the action applied to the user
+     * inputs exceeding the rate limits.
+     * <p>
+     * Accepted values are {@code DROP} and {@code DEFER} (see
+     * {@link com.xatkit.plugins.react.platform.ratelimit.InboundRateLimiter.Mode}), ignoring the case. The platform
+     * fails to start with an {@link IllegalArgumentException} listing these values if this property contains
+     * another value. The default value of this property is {@code DROP} (see {@link #DEFAULT_REACT_RATE_LIMIT_MODE}).
+     *
+     * @see #REACT_RATE_LIMIT_MAX_DEFER_DELAY_KEY
+     */
+    String REACT_RATE_LIMIT_MODE_KEY = "xatkit.react.rate_limit.mode";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_MODE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    String DEFAULT_REACT_RATE_LIMIT_MODE = "DROP";
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum time (in milliseconds)
+     * a user input can be deferred when the {@code DEFER} mode is used.
+     * <p>
+     * Inputs that would be deferred longer are dropped. The default value of this property is {@code 5000} (see
+     * {@link #DEFAULT_REACT_RATE_LIMIT_MAX_DEFER_DELAY}).
+     *
+     * @see #REACT_RATE_LIMIT_MODE_KEY
+     */
+    String REACT_RATE_LIMIT_MAX_DEFER_DELAY_KEY = "xatkit.react.rate_limit.max_defer_delay";
+
+    /**
+     * The default value of the {@link #REACT_RATE_LIMIT_MAX_DEFER_DELAY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_RATE_LIMIT_MAX_DEFER_DELAY = 5000;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to enable/disable the binary encoding of the
+     * payloads sent to the clients.
+     * <p>
+     * When enabled, clients requesting the {@code cbor} encoding in their {@code init} event receive the payloads of
+     * their events in CBOR, as binary attachments of the socket.io events. Other clients receive JSON payloads. The
+     * default value of this property is {@code false} (see {@link #DEFAULT_REACT_BINARY_ENCODING}).
+     *
+     * @see com.xatkit.plugins.react.platform.socket.codec.PayloadEncoding
+     */
+    String REACT_BINARY_ENCODING_KEY = "xatkit.react.binary_encoding.enabled";
+
+    /**
+     * The default value of the {@link #REACT_BINARY_ENCODING_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    boolean DEFAULT_REACT_BINARY_ENCODING = false;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of characters of a
+     * streamed message chunk.
+     * <p>
+     * The fragments of a streamed message are coalesced until their size reaches this value or until the oldest
+     * fragment is older than {@link #REACT_STREAM_CHUNK_DELAY_KEY}, the first fragment is sent immediately. The
+     * default value of this property is {@code 128} (see {@link #DEFAULT_REACT_STREAM_CHUNK_SIZE}).
+     *
+     * @see com.xatkit.plugins.react.platform.outbound.MessageStream
+     */
+    String REACT_STREAM_CHUNK_SIZE_KEY = "xatkit.react.stream.chunk_size";
+
+    /**
+     * The default value of the {@link #REACT_STREAM_CHUNK_SIZE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_STREAM_CHUNK_SIZE = 128;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the maximum time (in milliseconds)
+     * a fragment of a streamed message is held before being sent.
+     * <p>
+     * The default value of this property is {@code 50} (see {@link #DEFAULT_REACT_STREAM_CHUNK_DELAY}).
+     *
+     * @see #REACT_STREAM_CHUNK_SIZE_KEY
+     */
+    String REACT_STREAM_CHUNK_DELAY_KEY = "xatkit.react.stream.chunk_delay";
+
+    /**
+     * The default value of the {@link #REACT_STREAM_CHUNK_DELAY_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    long DEFAULT_REACT_STREAM_CHUNK_DELAY = 50;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the fraction of the user inputs
+     * traced by the platform.
+     * <p>
+     * Traced inputs record the time they are received, recognized, handled by the actions replying to them, and
+     * written to the client's socket. The written time is the completion of the first flush of events to the
+     * socket after the reply action started, which approximates the write of the reply. The traces are held in a
+     * ring buffer (see {@link #REACT_TRACING_BUFFER_SIZE_KEY}) and returned by the {@code /react/traces} endpoint.
+     * The value must be between {@code 0} and {@code 1}, the default value of this property is {@code 0} (see
+     * {@link #DEFAULT_REACT_TRACING_SAMPLE_RATE}): tracing is disabled.
+     *
+     * @see com.xatkit.plugins.react.platform.tracing.MessageTracer
+     */
+    String REACT_TRACING_SAMPLE_RATE_KEY = "xatkit.react.tracing.sample_rate";
+
+    /**
+     * The default value of the {@link #REACT_TRACING_SAMPLE_RATE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    double DEFAULT_REACT_TRACING_SAMPLE_RATE = 0;
+
+    /**
+     * The {@link org.apache.commons.configuration2.Configuration} key to store the number of traces held by the
+     * platform.
+     * <p>
+     * The traces are held in a ring buffer: the oldest traces are overwritten by the new ones. The value is rounded
+     * up to a power of two, the default value of this property is {@code 1024} (see
+     * {@link #DEFAULT_REACT_TRACING_BUFFER_SIZE}).
+     *
+     * @see #REACT_TRACING_SAMPLE_RATE_KEY
+     */
+    String REACT_TRACING_BUFFER_SIZE_KEY = "xatkit.react.tracing.buffer_size";
+
+    /**
+     * The default value of the {@link #REACT_TRACING_BUFFER_SIZE_KEY}
+     * {@link org.apache.commons.configuration2.Configuration} key.
+     */
+    int DEFAULT_REACT_TRACING_BUFFER_SIZE = 1024;
+
     /**
      * The name of the platform data entry used to store React-related information.
      */
@@ -80,4 +928,12 @@ public interface ReactUtils extends ChatUtils {
      * The name of the platform data entry used to store the React origin information.
      */
     String REACT_ORIGIN_CONTEXT_KEY = REACT_CONTEXT_KEY + ".origin";
+
+    /**
+     * The name of the platform data entry used to store the identifier of the trace of a user input.
+     * <p>
+     * This entry is only set for the traced inputs (see {@link #REACT_TRACING_SAMPLE_RATE_KEY}), and allows the
+     * actions replying to the input to record their timings in its trace.
+     */
+    String REACT_TRACE_ID_CONTEXT_KEY = REACT_CONTEXT_KEY + ".trace_id";
 }
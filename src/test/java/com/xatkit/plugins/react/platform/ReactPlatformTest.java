@@ -1,17 +1,38 @@
 package com.xatkit.plugins.react.platform;
 
 import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.xatkit.AbstractPlatformTest;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandler;
 import com.xatkit.core.server.XatkitServer;
 import com.xatkit.core.server.XatkitServerUtils;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.SocketRooms;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SetMessageLoaderObject;
+import com.xatkit.plugins.react.platform.socket.codec.EncodedPayload;
 import com.xatkit.plugins.react.platform.utils.ReactUtils;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ReactPlatformTest extends AbstractPlatformTest<ReactPlatform> {
@@ -89,6 +110,263 @@ public class ReactPlatformTest extends AbstractPlatformTest<ReactPlatform> {
         assertThat(configuration.getOrigin()).as("Origin is null").isEqualTo(null);
     }
 
+    @Test
+    public void startLowerCaseBackpressurePolicy() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_BACKPRESSURE_POLICY_KEY, "disconnect");
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        assertThat(checkAndGetConfiguration(platform)).as("Socket server configured").isNotNull();
+    }
+
+    @Test
+    public void startInvalidBackpressurePolicy() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_BACKPRESSURE_POLICY_KEY, "drop-oldest");
+        platform = new ReactPlatform();
+        assertThatThrownBy(() -> platform.start(mockedXatkitBot, platformConfiguration))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(ReactUtils.REACT_BACKPRESSURE_POLICY_KEY)
+                .hasMessageContaining("[DROP_OLDEST, COALESCE_LOADER, DISCONNECT]");
+    }
+
+    @Test
+    public void startInvalidRateLimitMode() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY, 5);
+        platformConfiguration.addProperty(ReactUtils.REACT_RATE_LIMIT_MODE_KEY, "delay");
+        platform = new ReactPlatform();
+        assertThatThrownBy(() -> platform.start(mockedXatkitBot, platformConfiguration))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(ReactUtils.REACT_RATE_LIMIT_MODE_KEY)
+                .hasMessageContaining("[DROP, DEFER]");
+    }
+
+    @Test
+    public void startMetricsEndpointDisabledByDefault() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        verify(mockedXatkitServer, never()).registerRestEndpoint(eq(HttpMethod.GET), eq("/react/metrics"),
+                any(RestHandler.class));
+    }
+
+    @Test
+    public void startRegistersMetricsEndpoint() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_METRICS_ENDPOINT_KEY, true);
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        verify(mockedXatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/react/metrics"),
+                any(RestHandler.class));
+        assertThat(platform.getMetricsRegistry().scrape()).contains("xatkit_react_connected_sockets 0.0\n")
+                .contains("# TYPE xatkit_react_recognition_seconds summary\n")
+                .contains("# TYPE xatkit_react_dispatch_wait_seconds summary\n")
+                .contains("xatkit_react_send_failures_total{reason=\"disconnected\"} 0\n")
+                .contains("xatkit_react_send_failures_total{reason=\"slow_consumer\"} 0\n");
+    }
+
+    @Test
+    public void sendEventDisconnectedChannelCountsSendFailure() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        assertThat(platform.sendEvent("unknown", SocketEventTypes.BOT_MESSAGE.label, "Hello")).isFalse();
+        assertThat(platform.getMetricsRegistry().scrape())
+                .contains("xatkit_react_send_failures_total{reason=\"disconnected\"} 1\n");
+    }
+
+    @Test
+    public void recordSocketEventCountsInboundEvents() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        platform.recordSocketEvent(SocketEventTypes.USER_MESSAGE, System.nanoTime());
+        platform.recordSocketEvent(SocketEventTypes.USER_MESSAGE, System.nanoTime());
+        assertThat(platform.getMetricsRegistry().scrape())
+                .contains("xatkit_react_inbound_events_total{event=\"" + SocketEventTypes.USER_MESSAGE.label
+                        + "\"} 2\n");
+    }
+
+    @Test
+    public void startMetricsEndpointDisabled() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_METRICS_ENDPOINT_KEY, false);
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        verify(mockedXatkitServer, never()).registerRestEndpoint(eq(HttpMethod.GET), eq("/react/metrics"),
+                any(RestHandler.class));
+    }
+
+    @Test
+    public void startTracingDisabledByDefault() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        assertThat(platform.getMessageTracer().isEnabled()).as("Tracing is disabled").isFalse();
+        verify(mockedXatkitServer, never()).registerRestEndpoint(eq(HttpMethod.GET), eq("/react/traces"),
+                any(RestHandler.class));
+    }
+
+    @Test
+    public void startTracingEnabled() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_TRACING_SAMPLE_RATE_KEY, 0.5);
+        platformConfiguration.addProperty(ReactUtils.REACT_TRACING_BUFFER_SIZE_KEY, 100);
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        assertThat(platform.getMessageTracer().isEnabled()).as("Tracing is enabled").isTrue();
+        assertThat(platform.getMessageTracer().getCapacity()).as("Buffer size rounded up").isEqualTo(128);
+        verify(mockedXatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/react/traces"),
+                any(RestHandler.class));
+    }
+
+    @Test
+    public void broadcastEmptyRoom() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        assertThat(platform.broadcastMessage(SocketRooms.hostname("example.com"), "Maintenance at 10pm"))
+                .as("No recipient").isEqualTo(0);
+        assertThat(platform.getMetricsRegistry().scrape()).contains("xatkit_react_broadcast_seconds_count 1\n");
+    }
+
+    @Test
+    public void addTagDisconnectedSocket() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        assertThat(platform.addTag("disconnected", "beta")).as("Disconnected socket not tagged").isFalse();
+    }
+
+    @Test
+    public void waitBlocksUntilDelay() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        long start = System.nanoTime();
+        platform.wait(mock(StateContext.class), 50);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void waitNotStartedPlatformDoesNotThrow() {
+        platform = new ReactPlatform();
+        platform.wait(mock(StateContext.class), 10);
+    }
+
+    @Test
+    public void waitAsyncCompletesAfterDelay() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        long start = System.nanoTime();
+        CompletableFuture<Void> delay = platform.waitAsync(mock(StateContext.class), 50);
+        assertThat(delay).as("Calling thread not blocked").isNotDone();
+        delay.join();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void waitAsyncDoesNotHoldSchedulerThread() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_SCHEDULER_THREADS_KEY, 1);
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        AtomicReference<Thread> chainedActionThread = new AtomicReference<>();
+        platform.waitAsync(mock(StateContext.class), 10).thenRun(() -> chainedActionThread.set(Thread.currentThread()))
+                .join();
+        assertThat(chainedActionThread.get().getName()).as("Chained action not executed by the scheduler")
+                .doesNotStartWith("xatkit-react-scheduler-");
+    }
+
+    @Test
+    public void waitAsyncNotStartedPlatform() {
+        platform = new ReactPlatform();
+        CompletableFuture<Void> delay = platform.waitAsync(mock(StateContext.class), 10);
+        assertThat(delay).isCompletedExceptionally();
+        assertThatThrownBy(delay::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void sendEventDisconnectedSocketBuffersMessageEvents() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        platform.createStateContextForConversation("disconnected", "conversation");
+        assertThat(platform.sendBotMessage("disconnected", new SendBotMessage("xatkit", "Hello"))).isTrue();
+        assertThat(platform.sendEvent("disconnected", SocketEventTypes.SET_MESSAGE_LOADER.label,
+                new SetMessageLoaderObject(true))).as("Transient event not buffered").isFalse();
+        assertThat(platform.sendEvent("disconnected", SocketEventTypes.TOGGLE_DARK_MODE.label))
+                .as("Transient event not buffered").isFalse();
+        assertThat(platform.getOfflineEventBuffer().getPendingEventCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sendEventUnboundSocketDiscarded() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        assertThat(platform.sendBotMessage("unbound", new SendBotMessage("xatkit", "Hello"))).isFalse();
+        assertThat(platform.getOfflineEventBuffer().getDiscardedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sendEventSingleSocket() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        SocketIOClient client = connectClient();
+        String channel = client.getSessionId().toString();
+        platform.createStateContextForConversation(channel, "conversation");
+        verify(client, never()).joinRoom(anyString());
+        assertThat(platform.sendEvent(channel, "event", "data")).isTrue();
+        verify(client).sendEvent("event", "data");
+    }
+
+    @Test
+    public void sendEventFansOutToConversationSockets() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        SocketIOClient tab1 = connectClient();
+        SocketIOClient tab2 = connectClient();
+        platform.createStateContextForConversation(tab1.getSessionId().toString(), "conversation");
+        platform.createStateContextForConversation(tab2.getSessionId().toString(), "conversation");
+        assertThat(platform.sendEvent(tab1.getSessionId().toString(), "event", "data")).isTrue();
+        ArgumentCaptor<Object> tab1Payload = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> tab2Payload = ArgumentCaptor.forClass(Object.class);
+        verify(tab1).sendEvent(eq("event"), tab1Payload.capture());
+        verify(tab2).sendEvent(eq("event"), tab2Payload.capture());
+        assertThat(tab1Payload.getValue()).as("Payload encoded once").isInstanceOf(EncodedPayload.class)
+                .isSameAs(tab2Payload.getValue());
+    }
+
+    @Test
+    public void sendEventDisconnectedSocketFansOutToRemainingSockets() {
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        SocketIOClient staleTab = connectClient();
+        SocketIOClient tab = connectClient();
+        platform.createStateContextForConversation(staleTab.getSessionId().toString(), "conversation");
+        platform.createStateContextForConversation(tab.getSessionId().toString(), "conversation");
+        platform.getClientCache().remove(staleTab);
+        platform.getConversationRegistry().detach(staleTab.getSessionId().toString());
+        assertThat(platform.sendEvent(staleTab.getSessionId().toString(), "event", "data")).isTrue();
+        verify(tab).sendEvent(eq("event"), any(EncodedPayload.class));
+        verify(staleTab, never()).sendEvent(anyString(), any());
+    }
+
+    @Test
+    public void sendEventConversationFanoutDisabled() {
+        org.apache.commons.configuration2.Configuration platformConfiguration = new BaseConfiguration();
+        platformConfiguration.addProperty(ReactUtils.REACT_CONVERSATION_FANOUT_KEY, false);
+        platform = new ReactPlatform();
+        platform.start(mockedXatkitBot, platformConfiguration);
+        SocketIOClient tab1 = connectClient();
+        SocketIOClient tab2 = connectClient();
+        platform.createStateContextForConversation(tab1.getSessionId().toString(), "conversation");
+        platform.createStateContextForConversation(tab2.getSessionId().toString(), "conversation");
+        platform.sendEvent(tab1.getSessionId().toString(), "event", "data");
+        verify(tab1).sendEvent("event", "data");
+        verify(tab2, never()).sendEvent(anyString(), any());
+    }
+
+    private SocketIOClient connectClient() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        platform.getClientCache().put(client);
+        return client;
+    }
+
     private Configuration checkAndGetConfiguration(ReactPlatform reactPlatform) {
         assertThat(reactPlatform.getSocketIOServer()).as("Socket server not null").isNotNull();
         SocketIOServer server = reactPlatform.getSocketIOServer();
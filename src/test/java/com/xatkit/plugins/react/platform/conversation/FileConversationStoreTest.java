@@ -0,0 +1,160 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileConversationStoreTest extends AbstractXatkitTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private AtomicLong clock;
+
+    private Path directory;
+
+    private FileConversationStore store;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(0);
+        directory = temporaryFolder.getRoot().toPath();
+        store = new FileConversationStore(directory, clock::get);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void bindAndGet() {
+        clock.set(10);
+        store.bind("socket", "conversation", "node");
+        assertThat(store.getConversationId("socket")).isEqualTo("conversation");
+        ConversationRecord record = store.getConversation("conversation");
+        assertThat(record).isNotNull();
+        assertThat(record.getNodeId()).isEqualTo("node");
+        assertThat(record.getLastAccess()).isEqualTo(10);
+        assertThat(store.getConversationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void bindVisibleFromStoreSharingDirectory() {
+        store.bind("socket", "conversation", "node1");
+        store.flush();
+        FileConversationStore otherNodeStore = new FileConversationStore(directory, clock::get);
+        assertThat(otherNodeStore.getConversationId("socket")).isEqualTo("conversation");
+        assertThat(otherNodeStore.getConversation("conversation").getNodeId()).isEqualTo("node1");
+        otherNodeStore.bind("socket2", "conversation", "node2");
+        otherNodeStore.close();
+        assertThat(store.getConversation("conversation").getNodeId()).isEqualTo("node2");
+    }
+
+    @Test
+    public void unbindKeepsConversation() {
+        store.bind("socket", "conversation", "node");
+        store.unbind("socket");
+        assertThat(store.getConversationId("socket")).isNull();
+        assertThat(store.getConversation("conversation")).isNotNull();
+    }
+
+    @Test
+    public void getUnknownEntries() {
+        assertThat(store.getConversationId("socket")).isNull();
+        assertThat(store.getConversation("conversation")).isNull();
+    }
+
+    @Test
+    public void bindIdentifierWithPathCharacters() throws IOException {
+        store.bind("socket", "../../conversation", "node");
+        assertThat(store.getConversation("../../conversation")).isNotNull();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactlyInAnyOrder(
+                    "conversations", "sockets");
+        }
+    }
+
+    @Test
+    public void evictIdleConversations() {
+        store.bind("socket1", "conversation1", "node");
+        clock.set(100);
+        store.bind("socket2", "conversation2", "node");
+        clock.set(150);
+        assertThat(store.evictIdleConversations(100)).isEqualTo(1);
+        assertThat(store.getConversation("conversation1")).isNull();
+        assertThat(store.getConversation("conversation2")).isNotNull();
+    }
+
+    @Test
+    public void evictIdleConversationsUnbindsSockets() {
+        store.bind("socket1", "conversation1", "node");
+        clock.set(100);
+        store.bind("socket2", "conversation2", "node");
+        clock.set(150);
+        store.evictIdleConversations(100);
+        assertThat(store.getConversationId("socket1")).isNull();
+        assertThat(store.getConversationId("socket2")).isEqualTo("conversation2");
+    }
+
+    @Test
+    public void evictIdleConversationsKeepsSocketsOfUsedConversations() {
+        store.bind("socket", "conversation", "node");
+        clock.set(100);
+        store.touch("conversation");
+        clock.set(150);
+        assertThat(store.evictIdleConversations(100)).isEqualTo(0);
+        assertThat(store.getConversationId("socket")).as("Socket bound for longer than the idle time")
+                .isEqualTo("conversation");
+    }
+
+    @Test
+    public void touchUpdatesLastAccess() {
+        store.bind("socket", "conversation", "node");
+        clock.set(100);
+        store.touch("conversation");
+        assertThat(store.getConversation("conversation").getLastAccess()).isEqualTo(100);
+        store.flush();
+        FileConversationStore otherNodeStore = new FileConversationStore(directory, clock::get);
+        assertThat(otherNodeStore.getConversation("conversation").getLastAccess()).isEqualTo(100);
+        otherNodeStore.close();
+    }
+
+    @Test
+    public void touchUnknownConversation() {
+        store.touch("conversation");
+        store.flush();
+        assertThat(store.getConversation("conversation")).isNull();
+        assertThat(store.getConversationCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void closeWritesPendingEntries() {
+        store.bind("socket", "conversation", "node");
+        store.close();
+        FileConversationStore otherNodeStore = new FileConversationStore(directory, clock::get);
+        assertThat(otherNodeStore.getConversationId("socket")).isEqualTo("conversation");
+        otherNodeStore.close();
+    }
+
+    @Test
+    public void restoreKeepsExistingConversation() {
+        store.bind("socket", "conversation1", "node1");
+        store.restore(new ConversationRecord("conversation1", "node2", 5));
+        store.restore(new ConversationRecord("conversation2", "node2", 5));
+        assertThat(store.getConversation("conversation1").getNodeId()).isEqualTo("node1");
+        assertThat(store.getConversation("conversation2").getLastAccess()).isEqualTo(5);
+        assertThat(store.getConversationCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,101 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryConversationStoreTest extends AbstractXatkitTest {
+
+    private AtomicLong clock;
+
+    private InMemoryConversationStore store;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(0);
+        store = new InMemoryConversationStore(clock::get);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void bindNullSocketId() {
+        store.bind(null, "conversation", "node");
+    }
+
+    @Test
+    public void bindAndGet() {
+        clock.set(10);
+        store.bind("socket", "conversation", "node");
+        assertThat(store.getConversationId("socket")).isEqualTo("conversation");
+        ConversationRecord record = store.getConversation("conversation");
+        assertThat(record).isNotNull();
+        assertThat(record.getNodeId()).isEqualTo("node");
+        assertThat(record.getLastAccess()).isEqualTo(10);
+        assertThat(store.getConversationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void bindExistingConversationUpdatesNode() {
+        store.bind("socket1", "conversation", "node1");
+        store.bind("socket2", "conversation", "node2");
+        assertThat(store.getConversation("conversation").getNodeId()).isEqualTo("node2");
+        assertThat(store.getConversationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void unbindKeepsConversation() {
+        store.bind("socket", "conversation", "node");
+        store.unbind("socket");
+        assertThat(store.getConversationId("socket")).isNull();
+        assertThat(store.getConversation("conversation")).isNotNull();
+    }
+
+    @Test
+    public void getUnknownEntries() {
+        assertThat(store.getConversationId("socket")).isNull();
+        assertThat(store.getConversation("conversation")).isNull();
+    }
+
+    @Test
+    public void evictIdleConversations() {
+        store.bind("socket1", "conversation1", "node");
+        clock.set(100);
+        store.bind("socket2", "conversation2", "node");
+        clock.set(150);
+        assertThat(store.evictIdleConversations(100)).isEqualTo(1);
+        assertThat(store.getConversation("conversation1")).isNull();
+        assertThat(store.getConversationId("socket1")).isNull();
+        assertThat(store.getConversation("conversation2")).isNotNull();
+        assertThat(store.getConversationId("socket2")).isEqualTo("conversation2");
+    }
+
+    @Test
+    public void touchKeepsConversation() {
+        store.bind("socket", "conversation", "node");
+        clock.set(100);
+        store.touch("conversation");
+        clock.set(150);
+        assertThat(store.getConversation("conversation").getLastAccess()).isEqualTo(100);
+        assertThat(store.evictIdleConversations(100)).isEqualTo(0);
+        assertThat(store.getConversationId("socket")).isEqualTo("conversation");
+    }
+
+    @Test
+    public void touchUnknownConversation() {
+        store.touch("conversation");
+        assertThat(store.getConversation("conversation")).isNull();
+    }
+
+    @Test
+    public void restoreKeepsExistingConversation() {
+        store.bind("socket", "conversation1", "node1");
+        store.restore(new ConversationRecord("conversation1", "node2", 5));
+        store.restore(new ConversationRecord("conversation2", "node2", 5));
+        assertThat(store.getConversation("conversation1").getNodeId()).isEqualTo("node1");
+        assertThat(store.getConversation("conversation2").getLastAccess()).isEqualTo(5);
+        assertThat(store.getConversationCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,141 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class InitHandshakeTest extends AbstractXatkitTest {
+
+    private SocketConversationRegistry registry;
+
+    private AtomicInteger contextLookups;
+
+    private List<String> requestedConversationIds;
+
+    private Set<String> conversations;
+
+    private StateContext context;
+
+    private SocketIOClient client;
+
+    private InitHandshake handshake;
+
+    @Before
+    public void setUp() {
+        registry = new SocketConversationRegistry(1000, 100, socketId -> true);
+        contextLookups = new AtomicInteger();
+        context = mock(StateContext.class);
+        client = mock(SocketIOClient.class);
+        requestedConversationIds = new ArrayList<>();
+        conversations = new HashSet<>();
+        handshake = new InitHandshake(registry, conversationId -> {
+            contextLookups.incrementAndGet();
+            return context;
+        }, (socketId, conversationId) -> {
+            contextLookups.incrementAndGet();
+            requestedConversationIds.add(conversationId);
+            registry.register(socketId, isNull(conversationId) ? "random" : conversationId);
+            conversations.add(isNull(conversationId) ? "random" : conversationId);
+            return context;
+        }, conversations::contains);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullRegistry() {
+        new InitHandshake(null, conversationId -> context, (socketId, conversationId) -> context,
+                conversationId -> false);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void addNullListener() {
+        handshake.addListener(null);
+    }
+
+    @Test
+    public void handleRequestedConversation() {
+        Init init = createInit("conversation");
+        StateContext result = handshake.handle("socket", client, init);
+        assertThat(result).isSameAs(context);
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation");
+        verify(context).setOrigin("origin");
+    }
+
+    @Test
+    public void handleNullConversationRequestsNewConversation() {
+        handshake.handle("socket", client, createInit(null));
+        assertThat(requestedConversationIds).containsExactly((String) null);
+    }
+
+    @Test
+    public void handleLooksUpContextOnceForAllListeners() {
+        List<Boolean> notifications = new ArrayList<>();
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(created));
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(created));
+        handshake.handle("socket", client, createInit("conversation"));
+        assertThat(contextLookups).hasValue(1);
+        assertThat(notifications).containsExactly(true, true);
+    }
+
+    @Test
+    public void handleSecondInitDoesNotRebindSocket() {
+        List<Boolean> notifications = new ArrayList<>();
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(created));
+        handshake.handle("socket", client, createInit("conversation1"));
+        handshake.handle("socket", client, createInit("conversation2"));
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation1");
+        assertThat(notifications).containsExactly(true, false);
+        verify(context, times(1)).setOrigin("origin");
+    }
+
+    @Test
+    public void handleNewConversation() {
+        List<Boolean> notifications = new ArrayList<>();
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(newConversation));
+        handshake.handle("socket1", client, createInit(null));
+        handshake.handle("socket2", client, createInit("conversation"));
+        assertThat(notifications).containsExactly(true, true);
+    }
+
+    @Test
+    public void handleExistingConversation() {
+        List<Boolean> notifications = new ArrayList<>();
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(newConversation));
+        handshake.handle("tab1", client, createInit("conversation"));
+        handshake.handle("tab2", client, createInit("conversation"));
+        handshake.handle("tab1", client, createInit("conversation"));
+        assertThat(notifications).containsExactly(true, false, false);
+    }
+
+    @Test
+    public void handleListenerErrorNotifiesNextListeners() {
+        List<String> notifications = new ArrayList<>();
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> {
+            throw new RuntimeException("error");
+        });
+        handshake.addListener((socketId, c, init, ctx, created, newConversation) -> notifications.add(socketId));
+        handshake.handle("socket", client, createInit("conversation"));
+        assertThat(notifications).containsExactly("socket");
+    }
+
+    private static Init createInit(String conversationId) {
+        Init init = new Init();
+        init.setConversationId(conversationId);
+        init.setOrigin("origin");
+        return init;
+    }
+}
@@ -0,0 +1,45 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MeteredConversationStoreTest extends AbstractXatkitTest {
+
+    private MeteredConversationStore store;
+
+    @Before
+    public void setUp() {
+        store = new MeteredConversationStore(new InMemoryConversationStore(), "local");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullDelegate() {
+        new MeteredConversationStore(null, "local");
+    }
+
+    @Test
+    public void getConversationRecordsOutcome() {
+        store.bind("socket1", "localConversation", "local");
+        store.bind("socket2", "remoteConversation", "remote");
+        store.getConversation("localConversation");
+        store.getConversation("remoteConversation");
+        store.getConversation("unknownConversation");
+        assertThat(store.getLocalHitCount()).isEqualTo(1);
+        assertThat(store.getRemoteHitCount()).isEqualTo(1);
+        assertThat(store.getMissCount()).isEqualTo(1);
+        assertThat(store.getLookupTime().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void getConversationIdRecordsOutcome() {
+        store.bind("socket", "conversation", "remote");
+        assertThat(store.getConversationId("socket")).isEqualTo("conversation");
+        assertThat(store.getConversationId("unknownSocket")).isNull();
+        assertThat(store.getRemoteHitCount()).isEqualTo(1);
+        assertThat(store.getMissCount()).isEqualTo(1);
+        assertThat(store.getLookupTime().getCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,121 @@
+package com.xatkit.plugins.react.platform.conversation;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SocketConversationRegistryTest extends AbstractXatkitTest {
+
+    private static final long TTL = 1000;
+
+    private static final long GRACE_PERIOD = 100;
+
+    private AtomicLong clock;
+
+    private Set<String> liveSockets;
+
+    private SocketConversationRegistry registry;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(0);
+        liveSockets = new HashSet<>();
+        registry = new SocketConversationRegistry(TTL, GRACE_PERIOD, liveSockets::contains, clock::get);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroTtl() {
+        new SocketConversationRegistry(0, GRACE_PERIOD, socketId -> true);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void registerNullSocketId() {
+        registry.register(null, "conversation");
+    }
+
+    @Test
+    public void registerAndGetConversationId() {
+        registry.register("socket", "conversation");
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation");
+        assertThat(registry.getSocketIds("conversation")).containsExactly("socket");
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void registerSameConversationMultipleSockets() {
+        registry.register("socket1", "conversation");
+        registry.register("socket2", "conversation");
+        assertThat(registry.getSocketIds("conversation")).containsExactlyInAnyOrder("socket1", "socket2");
+        assertThat(registry.getConversationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void registerExistingSocketNewConversation() {
+        registry.register("socket", "conversation1");
+        registry.register("socket", "conversation2");
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation2");
+        assertThat(registry.getSocketIds("conversation1")).isEmpty();
+        assertThat(registry.getSocketIds("conversation2")).containsExactly("socket");
+    }
+
+    @Test
+    public void getConversationIdUnknownSocket() {
+        assertThat(registry.getConversationId("socket")).isNull();
+    }
+
+    @Test
+    public void detachKeepsEntryDuringGracePeriod() {
+        registry.register("socket", "conversation");
+        registry.detach("socket");
+        clock.set(GRACE_PERIOD - 1);
+        assertThat(registry.evictStaleEntries()).isEqualTo(0);
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation");
+        assertThat(registry.getSocketIds("conversation")).isEmpty();
+    }
+
+    @Test
+    public void detachRemovesEntryAfterGracePeriod() {
+        registry.register("socket", "conversation");
+        registry.detach("socket");
+        clock.set(GRACE_PERIOD);
+        assertThat(registry.evictStaleEntries()).isEqualTo(1);
+        assertThat(registry.getConversationId("socket")).isNull();
+        assertThat(registry.size()).isEqualTo(0);
+        assertThat(registry.getRemovalCount()).isEqualTo(1);
+        assertThat(registry.getEvictionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void evictStaleEntryNotConnected() {
+        registry.register("socket", "conversation");
+        clock.set(TTL);
+        assertThat(registry.evictStaleEntries()).isEqualTo(1);
+        assertThat(registry.getConversationId("socket")).isNull();
+        assertThat(registry.getConversationCount()).isEqualTo(0);
+        assertThat(registry.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictStaleEntryStillConnected() {
+        registry.register("socket", "conversation");
+        liveSockets.add("socket");
+        clock.set(TTL);
+        assertThat(registry.evictStaleEntries()).isEqualTo(0);
+        assertThat(registry.getConversationId("socket")).isEqualTo("conversation");
+    }
+
+    @Test
+    public void getConversationIdRefreshesEntry() {
+        registry.register("socket", "conversation");
+        clock.set(TTL - 1);
+        registry.getConversationId("socket");
+        clock.set(TTL + 1);
+        assertThat(registry.evictStaleEntries()).isEqualTo(0);
+    }
+}
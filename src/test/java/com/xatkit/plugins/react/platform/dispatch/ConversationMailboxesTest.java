@@ -0,0 +1,107 @@
+package com.xatkit.plugins.react.platform.dispatch;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConversationMailboxesTest extends AbstractXatkitTest {
+
+    private ExecutorService executor;
+
+    private ConversationMailboxes mailboxes;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        mailboxes = new ConversationMailboxes(executor, 2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullExecutor() {
+        new ConversationMailboxes(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroThroughput() {
+        new ConversationMailboxes(executor, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void submitNullKey() {
+        mailboxes.submit(null, () -> {
+        });
+    }
+
+    @Test
+    public void submitSameKeyPreservesOrder() throws InterruptedException {
+        int taskCount = 1000;
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            int value = i;
+            mailboxes.submit("conversation", () -> {
+                executed.add(value);
+                latch.countDown();
+            });
+        }
+        assertThat(latch.await(10, TimeUnit.SECONDS)).as("All the tasks have been executed").isTrue();
+        for (int i = 0; i < taskCount; i++) {
+            assertThat(executed.get(i)).as("Task %s executed in order", i).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void submitDifferentKeysRunInParallel() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blockingTask = () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        mailboxes.submit("conversation1", blockingTask);
+        mailboxes.submit("conversation2", blockingTask);
+        assertThat(started.await(10, TimeUnit.SECONDS)).as("Both tasks are running concurrently").isTrue();
+        release.countDown();
+    }
+
+    @Test
+    public void submitThrowingTaskDoesNotBlockMailbox() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        mailboxes.submit("conversation", () -> {
+            throw new RuntimeException("Test exception");
+        });
+        mailboxes.submit("conversation", latch::countDown);
+        assertThat(latch.await(10, TimeUnit.SECONDS)).as("The task following the failing one is executed").isTrue();
+    }
+
+    @Test
+    public void idleMailboxIsReclaimed() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        mailboxes.submit("conversation", latch::countDown);
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(mailboxes.size()).as("The mailbox has been reclaimed").isEqualTo(0);
+        assertThat(mailboxes.getReclaimedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,272 @@
+package com.xatkit.plugins.react.platform.dispatch;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InboundDispatcherTest extends AbstractXatkitTest {
+
+    private InboundDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeThreads() {
+        new InboundDispatcher(-1, 10, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroQueueCapacity() {
+        new InboundDispatcher(1, 0, false);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void dispatchNullTask() {
+        dispatcher = new InboundDispatcher(1, 10, false);
+        dispatcher.dispatch((Runnable) null);
+    }
+
+    @Test
+    public void dispatchZeroThreadsRunsInCallingThread() {
+        dispatcher = new InboundDispatcher(0, 10, false);
+        AtomicReference<Thread> executingThread = new AtomicReference<>();
+        assertThat(dispatcher.dispatch("conversation", () -> executingThread.set(Thread.currentThread()))).isTrue();
+        assertThat(executingThread.get()).isEqualTo(Thread.currentThread());
+    }
+
+    @Test
+    public void dispatchRunsOnDispatcherThread() throws InterruptedException {
+        dispatcher = new InboundDispatcher(2, 10, false);
+        AtomicReference<Thread> executingThread = new AtomicReference<>();
+        CountDownLatch executed = new CountDownLatch(1);
+        assertThat(dispatcher.dispatch(() -> {
+            executingThread.set(Thread.currentThread());
+            executed.countDown();
+        })).isTrue();
+        assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executingThread.get()).isNotEqualTo(Thread.currentThread());
+        assertThat(executingThread.get().getName()).startsWith("xatkit-react-dispatch-");
+        assertThat(dispatcher.getWaitTime().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void dispatchQueueFullShedsTask() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch queuedExecuted = new CountDownLatch(1);
+        assertThat(dispatcher.dispatch(queuedExecuted::countDown)).isTrue();
+        assertThat(dispatcher.getQueueDepth()).isEqualTo(1);
+        AtomicReference<Thread> shedThread = new AtomicReference<>();
+        assertThat(dispatcher.dispatch(() -> shedThread.set(Thread.currentThread()))).as("Task shed").isFalse();
+        assertThat(shedThread.get()).as("Shed task not run by the calling thread").isNull();
+        assertThat(dispatcher.getShedCount()).isEqualTo(1);
+        release.countDown();
+        assertThat(queuedExecuted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(shedThread.get()).as("Shed task never run").isNull();
+    }
+
+    @Test
+    public void dispatchKeyQueueFullDoesNotBlockMailbox() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch("conversation", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).isTrue();
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).as("Task shed").isFalse();
+        release.countDown();
+        CountDownLatch nextExecuted = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!dispatcher.dispatch("conversation", nextExecuted::countDown) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(nextExecuted.await(5, TimeUnit.SECONDS)).as("Mailbox still drained after a shed task").isTrue();
+        assertThat(dispatcher.getShedCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void dispatchQueueFullShedsUntilLowWaterMark() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 4, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch("blocking", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch[] queued = new CountDownLatch[4];
+        CountDownLatch[] queuedRelease = new CountDownLatch[4];
+        for (int i = 0; i < 4; i++) {
+            CountDownLatch executed = new CountDownLatch(1);
+            CountDownLatch taskRelease = new CountDownLatch(1);
+            queued[i] = executed;
+            queuedRelease[i] = taskRelease;
+            assertThat(dispatcher.dispatch("conversation", () -> {
+                executed.countDown();
+                awaitQuietly(taskRelease);
+            })).isTrue();
+        }
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).as("Task shed").isFalse();
+        release.countDown();
+        assertThat(queued[0].await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.getQueueDepth()).isEqualTo(3);
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).as("Still shedding above the low-water mark").isFalse();
+        queuedRelease[0].countDown();
+        assertThat(queued[1].await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.getQueueDepth()).isEqualTo(2);
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).as("Accepted once drained down to the low-water mark").isTrue();
+        assertThat(dispatcher.getShedCount()).isEqualTo(2);
+        for (CountDownLatch taskRelease : queuedRelease) {
+            taskRelease.countDown();
+        }
+    }
+
+    @Test
+    public void dispatchNonSheddableQueueFull() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).isTrue();
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        })).as("Sheddable task shed").isFalse();
+        CountDownLatch lifecycleExecuted = new CountDownLatch(1);
+        assertThat(dispatcher.dispatch("conversation", lifecycleExecuted::countDown, false))
+                .as("Non-sheddable task admitted").isTrue();
+        assertThat(dispatcher.getQueueDepth()).isEqualTo(2);
+        release.countDown();
+        assertThat(lifecycleExecuted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.getShedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void dispatchTaskThrowsException() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 10, false);
+        dispatcher.dispatch("conversation", () -> {
+            throw new RuntimeException("Task failure");
+        });
+        CountDownLatch executed = new CountDownLatch(1);
+        dispatcher.dispatch("conversation", executed::countDown);
+        assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void dispatchVirtualThreadsBoundsConcurrency() throws InterruptedException {
+        /*
+         * Falls back to platform threads on JVMs that do not support virtual threads, the concurrency is bounded in
+         * both cases.
+         */
+        dispatcher = new InboundDispatcher(2, 100, true);
+        int taskCount = 20;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch executed = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            dispatcher.dispatch(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                executed.countDown();
+            });
+        }
+        assertThat(executed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isBetween(1, 2);
+        assertThat(dispatcher.getShedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shutdownDiscardsPendingTasks() throws InterruptedException {
+        dispatcher = new InboundDispatcher(1, 10, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicInteger executed = new AtomicInteger();
+        dispatcher.dispatch(executed::incrementAndGet);
+        dispatcher.shutdown();
+        release.countDown();
+        Thread.sleep(50);
+        assertThat(executed.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void dispatchAfterShutdownRejected() {
+        dispatcher = new InboundDispatcher(1, 10, false);
+        dispatcher.shutdown();
+        assertThat(dispatcher.dispatch(() -> {
+        })).isFalse();
+        assertThat(dispatcher.dispatch("conversation", () -> {
+        }, false)).isFalse();
+    }
+
+    @Test
+    public void shutdownVirtualThreadsStopsRunningTasks() throws InterruptedException {
+        /*
+         * Falls back to platform threads on JVMs that do not support virtual threads.
+         */
+        dispatcher = new InboundDispatcher(1, 10, true);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Boolean> interrupted = new AtomicReference<>(false);
+        dispatcher.dispatch(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        AtomicInteger executed = new AtomicInteger();
+        dispatcher.dispatch(executed::incrementAndGet);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.shutdown();
+        assertThat(interrupted.get()).as("Running task interrupted and awaited").isTrue();
+        assertThat(dispatcher.getActiveCount()).isEqualTo(0);
+        assertThat(executed.get()).as("Waiting task discarded").isEqualTo(0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
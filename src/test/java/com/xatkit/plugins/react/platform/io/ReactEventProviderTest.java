@@ -0,0 +1,106 @@
+package com.xatkit.plugins.react.platform.io;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.AbstractEventProviderTest;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.dispatch.InboundDispatcher;
+import com.xatkit.plugins.react.platform.socket.event.Init;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static java.util.Objects.nonNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReactEventProviderTest extends AbstractEventProviderTest<ReactEventProvider, ReactPlatform> {
+
+    private XatkitServer mockedXatkitServer;
+
+    private InboundDispatcher mockedDispatcher;
+
+    @Before
+    public void setUp() {
+        /*
+         * Can't call super.setUp because we need to mock the XatkitServer before calling getPlatform.
+         */
+        mockedXatkitBot = mock(XatkitBot.class);
+        mockedXatkitServer = mock(XatkitServer.class);
+        when(mockedXatkitBot.getXatkitServer()).thenReturn(mockedXatkitServer);
+        when(mockedXatkitBot.getOrCreateContext(anyString())).thenAnswer(invocation -> {
+            StateContext context = mock(StateContext.class);
+            when(context.getContextId()).thenReturn(invocation.getArgument(0));
+            return context;
+        });
+        platform = getPlatform();
+        platform.start(mockedXatkitBot, new BaseConfiguration());
+        /*
+         * Capture the Client_Ready events dispatched by the provider instead of sending them to the bot.
+         */
+        mockedDispatcher = mock(InboundDispatcher.class);
+        doReturn(mockedDispatcher).when(platform).getInboundDispatcher();
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(provider)) {
+            provider.close();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullPlatform() {
+        provider = new ReactEventProvider(null);
+    }
+
+    @Test
+    public void initNewConversationFiresClientReady() {
+        provider = new ReactEventProvider(platform);
+        provider.start(new BaseConfiguration());
+        SocketIOClient client = connectClient();
+        platform.getInitHandshake().handle(client.getSessionId().toString(), client, createInit(null));
+        verify(mockedDispatcher, times(1)).dispatch(anyString(), any(Runnable.class), eq(false));
+    }
+
+    @Test
+    public void initTwoSocketsSameConversationFiresSingleClientReady() {
+        provider = new ReactEventProvider(platform);
+        provider.start(new BaseConfiguration());
+        SocketIOClient tab1 = connectClient();
+        SocketIOClient tab2 = connectClient();
+        platform.getInitHandshake().handle(tab1.getSessionId().toString(), tab1, createInit("conversation"));
+        platform.getInitHandshake().handle(tab2.getSessionId().toString(), tab2, createInit("conversation"));
+        verify(mockedDispatcher, times(1)).dispatch(anyString(), any(Runnable.class), eq(false));
+    }
+
+    @Override
+    protected ReactPlatform getPlatform() {
+        return spy(new ReactPlatform());
+    }
+
+    private SocketIOClient connectClient() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        platform.getClientCache().put(client);
+        return client;
+    }
+
+    private static Init createInit(String conversationId) {
+        Init init = new Init();
+        init.setConversationId(conversationId);
+        return init;
+    }
+}
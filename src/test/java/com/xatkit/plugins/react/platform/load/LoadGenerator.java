@@ -0,0 +1,330 @@
+package com.xatkit.plugins.react.platform.load;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import lombok.NonNull;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Generates socket.io load on a socket server, simulating chat widgets.
+ * <p>
+ * The generator opens {@link #connections} websocket connections (at most {@link #connectConcurrency} of them
+ * being established at the same time), each of them sending an {@code init} event and waiting for the
+ * {@code init_confirm} reply. Once all the connections are established each of them sends {@code user_message}
+ * events at {@link #messageRate} messages per second, and records the round-trip time to the {@code bot_message}
+ * echoing the message. Only the messages sent within the measurement window (after {@link #warmupMillis}, and for
+ * {@link #durationMillis}) are included in the latency distribution, the replies to the last messages are awaited
+ * for {@link #drainMillis} before the connections are closed.
+ * <p>
+ * The server must echo the {@code message} of each {@code user_message} event in a {@code bot_message} event sent to
+ * the same socket.
+ * <p>
+ * If broadcasts are configured (see {@link #setBroadcasts(int, ToIntFunction)}), the generator then asks the server
+ * to broadcast {@code bot_message} events to all the connections, one after the other and spaced by
+ * {@link #drainMillis}, and records the time each connection receives them.
+ *
+ * @see SocketIOLoadClient
+ * @see LoadReport
+ */
+public class LoadGenerator {
+
+    /**
+     * The maximum content length of the HTTP responses of the websocket handshakes.
+     */
+    private static final int MAX_HANDSHAKE_CONTENT_LENGTH = 8192;
+
+    private final URI uri;
+
+    private final int connections;
+
+    private final double messageRate;
+
+    private final int connectConcurrency;
+
+    private final long connectTimeoutMillis;
+
+    private final long warmupMillis;
+
+    private final long durationMillis;
+
+    private final long drainMillis;
+
+    /**
+     * The number of messages broadcast to the connections once the measurement window is over.
+     */
+    private int broadcasts;
+
+    /**
+     * The function broadcasting a message to the connections, and returning the number of recipients.
+     */
+    private ToIntFunction<String> broadcaster;
+
+    /**
+     * The start of the measurement window (as a {@link System#nanoTime()} value).
+     */
+    private volatile long measurementStart;
+
+    /**
+     * The end of the measurement window (as a {@link System#nanoTime()} value).
+     */
+    private volatile long measurementEnd;
+
+    /**
+     * Constructs a {@link LoadGenerator} targeting the socket server listening on the provided {@code port}.
+     *
+     * @param host                 the host of the socket server
+     * @param port                 the port of the socket server
+     * @param connections          the number of connections to open
+     * @param messageRate          the number of {@code user_message} events sent per second by each connection
+     * @param connectConcurrency   the maximum number of connections established at the same time
+     * @param connectTimeoutMillis the maximum time (in milliseconds) to wait for all the connections to be
+     *                             established
+     * @param warmupMillis         the time (in milliseconds) the connections send messages before the measurement
+     *                             window
+     * @param durationMillis       the duration (in milliseconds) of the measurement window
+     * @param drainMillis          the time (in milliseconds) to wait for the last replies after the measurement
+     *                             window
+     * @throws IllegalArgumentException if one of the provided values is not strictly positive (or negative for
+     *                                  {@code warmupMillis} and {@code drainMillis})
+     */
+    public LoadGenerator(@NonNull String host, int port, int connections, double messageRate, int connectConcurrency,
+                         long connectTimeoutMillis, long warmupMillis, long durationMillis, long drainMillis) {
+        checkArgument(connections > 0, "Cannot create a %s with %s connections, expected a strictly positive value",
+                LoadGenerator.class.getSimpleName(), connections);
+        checkArgument(messageRate > 0, "Cannot create a %s with a message rate of %s, expected a strictly positive "
+                + "value", LoadGenerator.class.getSimpleName(), messageRate);
+        checkArgument(connectConcurrency > 0, "Cannot create a %s with a connect concurrency of %s, expected a "
+                + "strictly positive value", LoadGenerator.class.getSimpleName(), connectConcurrency);
+        checkArgument(connectTimeoutMillis > 0 && durationMillis > 0 && warmupMillis >= 0 && drainMillis >= 0,
+                "Cannot create a %s with the timings (connect timeout=%s, warmup=%s, duration=%s, drain=%s)",
+                LoadGenerator.class.getSimpleName(), connectTimeoutMillis, warmupMillis, durationMillis,
+                drainMillis);
+        this.uri = URI.create("ws://" + host + ":" + port + "/socket.io/?EIO=3&transport=websocket");
+        this.connections = connections;
+        this.messageRate = messageRate;
+        this.connectConcurrency = connectConcurrency;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+        this.drainMillis = drainMillis;
+    }
+
+    /**
+     * Sets the number of messages broadcast to the connections once the measurement window is over.
+     * <p>
+     * The provided {@code broadcaster} is called with the message to broadcast, and must send it to all the
+     * connections of the generator in a {@code bot_message} event. The next broadcast is started {@link #drainMillis}
+     * after the previous one, so that the fan-outs do not overlap.
+     *
+     * @param broadcasts  the number of messages to broadcast
+     * @param broadcaster the function broadcasting a message to the connections, and returning the number of
+     *                    recipients
+     * @throws IllegalArgumentException if the provided {@code broadcasts} is negative
+     */
+    public void setBroadcasts(int broadcasts, @NonNull ToIntFunction<String> broadcaster) {
+        checkArgument(broadcasts >= 0, "Cannot set %s broadcasts, expected a positive value", broadcasts);
+        this.broadcasts = broadcasts;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Returns the number of messages broadcast to the connections once the measurement window is over.
+     *
+     * @return the number of messages broadcast to the connections
+     */
+    int getBroadcasts() {
+        return broadcasts;
+    }
+
+    /**
+     * Opens the connections, sends the messages, and closes the connections.
+     *
+     * @return the {@link LoadReport} containing the measures of the run
+     * @throws InterruptedException if the current thread is interrupted while waiting for the connections or the
+     *                              replies
+     */
+    public LoadReport run() throws InterruptedException {
+        EventLoopGroup group = new NioEventLoopGroup();
+        try {
+            Queue<SocketIOLoadClient> clients = new ConcurrentLinkedQueue<>();
+            long[] setupTimes = new long[connections];
+            AtomicInteger connected = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger disconnected = new AtomicInteger();
+            Semaphore pendingConnections = new Semaphore(connectConcurrency);
+            CountDownLatch settled = new CountDownLatch(connections);
+            SocketIOLoadClient.Listener listener = new SocketIOLoadClient.Listener() {
+                @Override
+                public void connected(SocketIOLoadClient client, long setupNanos) {
+                    int index = connected.getAndIncrement();
+                    if (index < setupTimes.length) {
+                        setupTimes[index] = setupNanos;
+                    }
+                    clients.add(client);
+                    pendingConnections.release();
+                    settled.countDown();
+                }
+
+                @Override
+                public void disconnected(SocketIOLoadClient client) {
+                    if (client.isConfirmed()) {
+                        disconnected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                        pendingConnections.release();
+                        settled.countDown();
+                    }
+                }
+            };
+            Bootstrap bootstrap = new Bootstrap()
+                    .group(group)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true);
+
+            long setupStart = System.nanoTime();
+            long setupDeadline = setupStart + TimeUnit.MILLISECONDS.toNanos(connectTimeoutMillis);
+            for (int i = 0; i < connections; i++) {
+                if (!pendingConnections.tryAcquire(setupDeadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    /*
+                     * The pending connections have not been established in time, the remaining ones are not opened.
+                     */
+                    failed.addAndGet(connections - i);
+                    break;
+                }
+                SocketIOLoadClient client = new SocketIOLoadClient(this, listener, System.nanoTime());
+                bootstrap.clone().handler(createInitializer(client)).connect(uri.getHost(), uri.getPort())
+                        .addListener(future -> {
+                            if (!future.isSuccess()) {
+                                failed.incrementAndGet();
+                                pendingConnections.release();
+                                settled.countDown();
+                            }
+                        });
+            }
+            settled.await(Math.max(setupDeadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            long setupNanos = System.nanoTime() - setupStart;
+            long[] connectedSetupTimes = new long[Math.min(connected.get(), setupTimes.length)];
+            System.arraycopy(setupTimes, 0, connectedSetupTimes, 0, connectedSetupTimes.length);
+
+            long now = System.nanoTime();
+            measurementStart = now + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+            measurementEnd = measurementStart + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / messageRate);
+            List<SocketIOLoadClient> activeClients = new ArrayList<>(clients);
+            activeClients.forEach(client -> client.startMessages(periodNanos));
+            Thread.sleep(warmupMillis + durationMillis);
+            activeClients.forEach(SocketIOLoadClient::stopMessages);
+            Thread.sleep(drainMillis);
+
+            long[] broadcastTimes = new long[broadcasts];
+            int broadcastRecipients = 0;
+            for (int i = 0; i < broadcasts; i++) {
+                long broadcastStart = System.nanoTime();
+                broadcastRecipients = broadcaster.applyAsInt(SocketIOLoadClient.BROADCAST_PREFIX + i + " "
+                        + broadcastStart);
+                broadcastTimes[i] = System.nanoTime() - broadcastStart;
+                Thread.sleep(drainMillis);
+            }
+
+            long sentMessages = 0;
+            long receivedReplies = 0;
+            List<long[]> clientSamples = new ArrayList<>(activeClients.size());
+            int sampleCount = 0;
+            long[] fanoutTimes = new long[broadcasts];
+            long[] deliveryTimes = new long[activeClients.size() * broadcasts];
+            int deliveryCount = 0;
+            for (SocketIOLoadClient client : activeClients) {
+                /*
+                 * The clients' counters are only accessed from their event loop.
+                 */
+                Object[] measures;
+                try {
+                    measures = client.getChannel().eventLoop().submit(() -> new Object[]{client.getSamples(),
+                            client.getSentMessages(), client.getReceivedReplies(),
+                            client.getBroadcastLatencies()}).get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Cannot collect the measures of a client", e.getCause());
+                }
+                long[] samples = (long[]) measures[0];
+                clientSamples.add(samples);
+                sampleCount += samples.length;
+                sentMessages += (long) measures[1];
+                receivedReplies += (long) measures[2];
+                long[] broadcastLatencies = (long[]) measures[3];
+                for (int i = 0; i < broadcastLatencies.length; i++) {
+                    if (broadcastLatencies[i] > 0) {
+                        deliveryTimes[deliveryCount++] = broadcastLatencies[i];
+                        /*
+                         * A broadcast is fanned out once its last recipient has received it.
+                         */
+                        fanoutTimes[i] = Math.max(fanoutTimes[i], broadcastLatencies[i]);
+                    }
+                }
+            }
+            long[] replyTimes = new long[sampleCount];
+            int offset = 0;
+            for (long[] samples : clientSamples) {
+                System.arraycopy(samples, 0, replyTimes, offset, samples.length);
+                offset += samples.length;
+            }
+            return new LoadReport(connections, failed.get(), disconnected.get(), setupNanos, connectedSetupTimes,
+                    messageRate, durationMillis, sentMessages, receivedReplies, replyTimes, broadcastRecipients,
+                    broadcastTimes, fanoutTimes, Arrays.copyOf(deliveryTimes, deliveryCount));
+        } finally {
+            group.shutdownGracefully(0, 5, TimeUnit.SECONDS).await();
+        }
+    }
+
+    /**
+     * Returns whether the round-trip time of a message sent at {@code sentAt} is included in the report.
+     *
+     * @param sentAt the time (as a {@link System#nanoTime()} value) the message has been sent at
+     * @return {@code true} if the message has been sent within the measurement window, {@code false} otherwise
+     */
+    boolean isMeasured(long sentAt) {
+        return sentAt - measurementStart >= 0 && sentAt - measurementEnd < 0;
+    }
+
+    /**
+     * Creates the pipeline of a connection: the HTTP codec performing the websocket handshake, the websocket
+     * protocol handler, and the provided {@code client}.
+     */
+    private ChannelInitializer<SocketChannel> createInitializer(SocketIOLoadClient client) {
+        return new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel channel) {
+                channel.pipeline().addLast(
+                        new HttpClientCodec(),
+                        new HttpObjectAggregator(MAX_HANDSHAKE_CONTENT_LENGTH),
+                        new WebSocketClientProtocolHandler(WebSocketClientHandshakerFactory.newHandshaker(uri,
+                                WebSocketVersion.V13, null, false, EmptyHttpHeaders.INSTANCE)),
+                        client);
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package com.xatkit.plugins.react.platform.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The result of a {@link LoadGenerator} run.
+ * <p>
+ * The report is serialized in JSON (see {@link #toJson()}), and can be compared across runs and builds. Durations
+ * are reported in milliseconds, and rates in events per second.
+ */
+@Getter
+public class LoadReport {
+
+    /**
+     * The number of connections opened by the generator.
+     */
+    private final int connections;
+
+    /**
+     * The number of connections that received their {@code init_confirm} event.
+     */
+    private final int connected;
+
+    /**
+     * The number of connections that failed or have been closed before receiving their {@code init_confirm} event.
+     */
+    private final int failedConnections;
+
+    /**
+     * The number of established connections closed during the run.
+     */
+    private final int disconnected;
+
+    /**
+     * The time (in milliseconds) needed to establish all the connections.
+     */
+    private final double connectionSetupMillis;
+
+    /**
+     * The number of connections established per second.
+     */
+    private final double connectionSetupRate;
+
+    /**
+     * The distribution of the time (in milliseconds) between the start of a connection and its
+     * {@code init_confirm} event.
+     */
+    private final Percentiles connectionSetupLatency;
+
+    /**
+     * The number of {@code user_message} events sent per second by each connection.
+     */
+    private final double messageRate;
+
+    /**
+     * The duration (in milliseconds) of the measurement window.
+     */
+    private final long durationMillis;
+
+    /**
+     * The number of {@code user_message} events sent, including the warmup.
+     */
+    private final long sentMessages;
+
+    /**
+     * The number of {@code bot_message} replies received, including the warmup.
+     */
+    private final long receivedReplies;
+
+    /**
+     * The number of replies to the messages sent within the measurement window.
+     */
+    private final long measuredReplies;
+
+    /**
+     * The number of replies to the messages sent within the measurement window per second.
+     */
+    private final double replyThroughput;
+
+    /**
+     * The distribution of the round-trip time (in milliseconds) between a {@code user_message} event and its
+     * {@code bot_message} reply.
+     */
+    private final Percentiles replyLatency;
+
+    /**
+     * The number of messages broadcast to the connections.
+     */
+    private final int broadcasts;
+
+    /**
+     * The number of sockets the last broadcast message has been sent to, as reported by the server.
+     */
+    private final int broadcastRecipients;
+
+    /**
+     * The number of broadcast messages received by the connections.
+     */
+    private final long broadcastDeliveries;
+
+    /**
+     * The distribution of the time (in milliseconds) spent by the server sending a broadcast message to its
+     * recipients.
+     */
+    private final Percentiles broadcastSendLatency;
+
+    /**
+     * The distribution of the time (in milliseconds) between the start of a broadcast and its reception by the last
+     * connection.
+     */
+    private final Percentiles broadcastFanoutLatency;
+
+    /**
+     * The distribution of the time (in milliseconds) between the start of a broadcast and its reception by a
+     * connection.
+     */
+    private final Percentiles broadcastDeliveryLatency;
+
+    /**
+     * Constructs a {@link LoadReport} from the raw measures of a {@link LoadGenerator}.
+     *
+     * @param connections         the number of connections opened by the generator
+     * @param failedConnections   the number of connections that failed
+     * @param disconnected        the number of established connections closed during the run
+     * @param setupNanos          the time (in nanoseconds) needed to establish all the connections
+     * @param setupTimes          the setup times (in nanoseconds) of the established connections
+     * @param messageRate         the number of messages sent per second by each connection
+     * @param durationMillis      the duration (in milliseconds) of the measurement window
+     * @param sentMessages        the number of messages sent
+     * @param receivedReplies     the number of replies received
+     * @param replyTimes          the round-trip times (in nanoseconds) of the messages sent within the measurement
+     *                            window
+     * @param broadcastRecipients the number of sockets the last broadcast message has been sent to
+     * @param broadcastTimes      the times (in nanoseconds) spent by the server sending each broadcast message
+     * @param fanoutTimes         the times (in nanoseconds) between the start of each broadcast and its reception by
+     *                            the last connection
+     * @param deliveryTimes       the times (in nanoseconds) between the start of a broadcast and its reception by a
+     *                            connection
+     */
+    LoadReport(int connections, int failedConnections, int disconnected, long setupNanos, long[] setupTimes,
+               double messageRate, long durationMillis, long sentMessages, long receivedReplies,
+               long[] replyTimes, int broadcastRecipients, long[] broadcastTimes, long[] fanoutTimes,
+               long[] deliveryTimes) {
+        this.connections = connections;
+        this.connected = setupTimes.length;
+        this.failedConnections = failedConnections;
+        this.disconnected = disconnected;
+        this.connectionSetupMillis = toMillis(setupNanos);
+        this.connectionSetupRate = setupNanos == 0 ? 0 : setupTimes.length * 1e9 / setupNanos;
+        this.connectionSetupLatency = new Percentiles(setupTimes);
+        this.messageRate = messageRate;
+        this.durationMillis = durationMillis;
+        this.sentMessages = sentMessages;
+        this.receivedReplies = receivedReplies;
+        this.measuredReplies = replyTimes.length;
+        this.replyThroughput = durationMillis == 0 ? 0 : replyTimes.length * 1000d / durationMillis;
+        this.replyLatency = new Percentiles(replyTimes);
+        this.broadcasts = broadcastTimes.length;
+        this.broadcastRecipients = broadcastRecipients;
+        this.broadcastDeliveries = deliveryTimes.length;
+        this.broadcastSendLatency = new Percentiles(broadcastTimes);
+        this.broadcastFanoutLatency = new Percentiles(fanoutTimes);
+        this.broadcastDeliveryLatency = new Percentiles(deliveryTimes);
+    }
+
+    /**
+     * Returns the JSON representation of this report.
+     *
+     * @return the JSON representation of this report
+     */
+    public String toJson() {
+        try {
+            return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the load report", e);
+        }
+    }
+
+    /**
+     * Writes the JSON representation of this report in the provided {@code file}.
+     *
+     * @param file the file to write the report to
+     * @throws IOException if an error occurred when writing the file
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * The percentiles (in milliseconds) of a distribution of durations.
+     * <p>
+     * The percentiles are computed with the nearest-rank method on all the recorded values.
+     */
+    @Getter
+    public static class Percentiles {
+
+        private final long count;
+
+        private final double mean;
+
+        private final double p50;
+
+        private final double p95;
+
+        private final double p99;
+
+        private final double max;
+
+        /**
+         * Computes the percentiles of the provided {@code nanos} durations.
+         *
+         * @param nanos the durations (in nanoseconds), sorted in place
+         */
+        Percentiles(long[] nanos) {
+            Arrays.sort(nanos);
+            this.count = nanos.length;
+            long total = 0;
+            for (long value : nanos) {
+                total += value;
+            }
+            this.mean = nanos.length == 0 ? 0 : toMillis(total) / nanos.length;
+            this.p50 = percentile(nanos, 0.5);
+            this.p95 = percentile(nanos, 0.95);
+            this.p99 = percentile(nanos, 0.99);
+            this.max = nanos.length == 0 ? 0 : toMillis(nanos[nanos.length - 1]);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return toMillis(sorted[Math.max(rank, 1) - 1]);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.xatkit.plugins.react.platform.load;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.core.ExecutionService;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.io.ReactIntentProvider;
+import com.xatkit.plugins.react.platform.socket.SocketRooms;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.utils.ReactUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures how many concurrent widgets a {@link ReactPlatform} can serve, and the reply latency they experience.
+ * <p>
+ * This test starts a {@link ReactPlatform} and its {@link ReactIntentProvider} with a stubbed bot echoing each user
+ * message in a {@code bot_message} event, and runs a {@link LoadGenerator} against its socket server. The
+ * {@link LoadReport} (connection setup rate and latency, reply throughput, and p50/p95/p99/max reply latency) is
+ * logged and written in JSON to the file specified by {@code xatkit.react.load.report}.
+ * <p>
+ * The test is skipped unless the number of connections is specified, e.g.:
+ * {@code mvn test -Dtest=ReactPlatformLoadTest -Dxatkit.react.load.connections=5000}. The load is configured with
+ * the following system properties:
+ * <ul>
+ * <li>{@code xatkit.react.load.connections}: the number of connections to open</li>
+ * <li>{@code xatkit.react.load.message_rate}: the number of messages sent per second by each connection (default
+ * {@code 1}). Note that the platform's rate limits, if enabled (see
+ * {@link ReactUtils#REACT_RATE_LIMIT_SOCKET_REFILL_RATE_KEY}), drop the messages exceeding the configured rates</li>
+ * <li>{@code xatkit.react.load.connect_concurrency}: the maximum number of connections established at the same
+ * time (default {@code 256})</li>
+ * <li>{@code xatkit.react.load.connect_timeout}: the maximum time (in milliseconds) to establish all the
+ * connections (default {@code 60000})</li>
+ * <li>{@code xatkit.react.load.warmup}, {@code xatkit.react.load.duration}, {@code xatkit.react.load.drain}: the
+ * warmup, measurement, and drain durations (in milliseconds, defaults {@code 5000}, {@code 30000}, and
+ * {@code 2000})</li>
+ * <li>{@code xatkit.react.load.broadcasts}: the number of messages broadcast to all the connections once the
+ * measurement window is over (default {@code 0}). The report contains the time spent by the platform sending each
+ * broadcast (see {@link ReactPlatform#broadcastMessage(String, String)}), and the time until its reception by the
+ * last connection, e.g. {@code -Dxatkit.react.load.connections=50000 -Dxatkit.react.load.broadcasts=10} measures
+ * the fan-out latency for 50k recipients. Note that a single client host may need a wider ephemeral port range to
+ * open that many connections</li>
+ * <li>{@code xatkit.react.load.report}: the file to write the report to (default
+ * {@code target/react-load-report.json})</li>
+ * </ul>
+ * The other {@code xatkit.react.*} system properties are added to the configuration of the platform, allowing to
+ * compare the settings of the socket server, dispatcher, or outbound pipeline under the same load.
+ */
+public class ReactPlatformLoadTest extends AbstractXatkitTest {
+
+    private static final String LOAD_PROPERTY_PREFIX = "xatkit.react.load.";
+
+    private static final String CONNECTIONS_PROPERTY = LOAD_PROPERTY_PREFIX + "connections";
+
+    private ReactPlatform platform;
+
+    private int port;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("The load test is skipped, set " + CONNECTIONS_PROPERTY + " to run it",
+                nonNull(System.getProperty(CONNECTIONS_PROPERTY)));
+        port = getFreePort();
+        Configuration configuration = new BaseConfiguration();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith("xatkit.react.") && !key.startsWith(LOAD_PROPERTY_PREFIX))
+                .forEach(key -> configuration.addProperty(key, System.getProperty(key)));
+        configuration.setProperty(ReactUtils.REACT_SERVER_PORT_KEY, port);
+        configuration.setProperty(ReactUtils.REACT_ENABLE_TESTING_PAGE, false);
+        platform = new ReactPlatform();
+        platform.start(createEchoBot(), configuration);
+        new ReactIntentProvider(platform).start(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(platform)) {
+            platform.shutdown();
+        }
+    }
+
+    @Test
+    public void load() throws Exception {
+        LoadGenerator generator = new LoadGenerator("localhost", port,
+                Integer.getInteger(CONNECTIONS_PROPERTY),
+                Double.parseDouble(System.getProperty(LOAD_PROPERTY_PREFIX + "message_rate", "1")),
+                Integer.getInteger(LOAD_PROPERTY_PREFIX + "connect_concurrency", 256),
+                Long.getLong(LOAD_PROPERTY_PREFIX + "connect_timeout", 60000),
+                Long.getLong(LOAD_PROPERTY_PREFIX + "warmup", 5000),
+                Long.getLong(LOAD_PROPERTY_PREFIX + "duration", 30000),
+                Long.getLong(LOAD_PROPERTY_PREFIX + "drain", 2000));
+        /*
+         * The load clients send the hostname localhost in their init event.
+         */
+        generator.setBroadcasts(Integer.getInteger(LOAD_PROPERTY_PREFIX + "broadcasts", 0),
+                message -> platform.broadcastMessage(SocketRooms.hostname("localhost"), message));
+        LoadReport report = generator.run();
+        Path reportFile = Paths.get(System.getProperty(LOAD_PROPERTY_PREFIX + "report",
+                "target/react-load-report.json"));
+        report.write(reportFile);
+        Log.info("Load report (written to {0}):\n{1}", reportFile.toAbsolutePath(), report.toJson());
+        assertThat(report.getConnected()).as("All the connections are established")
+                .isEqualTo(report.getConnections());
+        assertThat(report.getMeasuredReplies()).as("Replies have been received").isPositive();
+        if (report.getBroadcasts() > 0) {
+            assertThat(report.getBroadcastDeliveries()).as("Broadcast messages have been received").isPositive();
+        }
+    }
+
+    /**
+     * Creates a stubbed {@link XatkitBot} replying to each user message with a {@code bot_message} containing the
+     * user message.
+     * <p>
+     * The stubs do not record their invocations, and the intent recognition returns an empty
+     * {@link com.xatkit.intent.RecognizedIntent}: the measures reflect the cost of the platform and of the socket
+     * server.
+     */
+    private XatkitBot createEchoBot() {
+        XatkitBot xatkitBot = mock(XatkitBot.class, withSettings().stubOnly());
+        when(xatkitBot.getXatkitServer()).thenReturn(mock(XatkitServer.class, withSettings().stubOnly()));
+        ConcurrentMap<String, StateContext> contexts = new ConcurrentHashMap<>();
+        when(xatkitBot.getOrCreateContext(anyString())).thenAnswer(invocation ->
+                contexts.computeIfAbsent(invocation.getArgument(0), ReactPlatformLoadTest::createContext));
+        IntentRecognitionProvider intentRecognitionProvider = mock(IntentRecognitionProvider.class,
+                withSettings().stubOnly());
+        when(intentRecognitionProvider.getIntent(anyString(), any(StateContext.class))).thenAnswer(invocation ->
+                IntentFactory.eINSTANCE.createRecognizedIntent());
+        when(xatkitBot.getIntentRecognitionProvider()).thenReturn(intentRecognitionProvider);
+        ExecutionService executionService = mock(ExecutionService.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            EventInstance eventInstance = invocation.getArgument(0);
+            Object rawMessage = eventInstance.getPlatformData().get(ReactUtils.CHAT_RAW_MESSAGE_CONTEXT_KEY);
+            if (nonNull(rawMessage)) {
+                platform.sendBotMessage((String) eventInstance.getPlatformData()
+                        .get(ReactUtils.CHAT_CHANNEL_CONTEXT_KEY), new SendBotMessage("xatkit", (String) rawMessage));
+            }
+            return null;
+        }).when(executionService).handleEventInstance(any(EventInstance.class), any(StateContext.class));
+        when(xatkitBot.getExecutionService()).thenReturn(executionService);
+        return xatkitBot;
+    }
+
+    private static StateContext createContext(String conversationId) {
+        StateContext context = mock(StateContext.class, withSettings().stubOnly());
+        when(context.getContextId()).thenReturn(conversationId);
+        return context;
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
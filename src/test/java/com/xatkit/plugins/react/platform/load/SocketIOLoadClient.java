@@ -0,0 +1,311 @@
+package com.xatkit.plugins.react.platform.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A minimal socket.io client simulating a chat widget over a websocket connection.
+ * <p>
+ * This client implements the subset of the socket.io protocol (v2, engine.io v3) spoken by the platform's
+ * netty-socketio server that is needed to simulate a widget: it answers the server's ping interval, sends an
+ * {@code init} event once the default namespace is connected, and then sends {@code user_message} events at a fixed
+ * rate (see {@link #startMessages(long)}). Each message contains the time it has been sent at, and the round-trip
+ * time is recorded when the bot echoes it back in a {@code bot_message} event. The delivery latency of the
+ * {@code bot_message} events broadcast by the generator (see {@link #BROADCAST_PREFIX}) is recorded as well.
+ * <p>
+ * The client is used from a single netty event loop: the recorded round-trip times are not synchronized, and must
+ * be read from the client's event loop (see {@link #getSamples()}).
+ *
+ * @see LoadGenerator
+ */
+final class SocketIOLoadClient extends SimpleChannelInboundHandler<TextWebSocketFrame> {
+
+    /**
+     * The prefix of the messages sent by the client, followed by the time (in nanoseconds) they have been sent at.
+     */
+    static final String MESSAGE_PREFIX = "load ";
+
+    /**
+     * The prefix of the messages broadcast by the generator, followed by the index of the broadcast and the time (in
+     * nanoseconds) it has been started at, separated by a space.
+     */
+    static final String BROADCAST_PREFIX = "broadcast ";
+
+    /**
+     * The {@link ObjectMapper} used to parse the events received by the clients.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Receives the connection events of a {@link SocketIOLoadClient}.
+     */
+    interface Listener {
+
+        /**
+         * Notifies the listener that the provided {@code client} has received its {@code init_confirm} event.
+         *
+         * @param client     the connected client
+         * @param setupNanos the time (in nanoseconds) elapsed since the client started to connect
+         */
+        void connected(SocketIOLoadClient client, long setupNanos);
+
+        /**
+         * Notifies the listener that the provided {@code client} has been disconnected.
+         *
+         * @param client the disconnected client
+         */
+        void disconnected(SocketIOLoadClient client);
+    }
+
+    private final LoadGenerator generator;
+
+    private final Listener listener;
+
+    /**
+     * The time (in nanoseconds) the client started to connect at.
+     */
+    private final long connectStart;
+
+    private Channel channel;
+
+    private ScheduledFuture<?> pingTask;
+
+    private ScheduledFuture<?> messageTask;
+
+    private boolean confirmed;
+
+    /**
+     * The round-trip times (in nanoseconds) of the messages sent within the generator's measurement window.
+     */
+    private long[] samples = new long[64];
+
+    private int sampleCount;
+
+    private long sentMessages;
+
+    private long receivedReplies;
+
+    /**
+     * The delivery latencies (in nanoseconds) of the broadcast messages, indexed by broadcast, or {@code 0} if the
+     * broadcast has not been received.
+     */
+    private final long[] broadcastLatencies;
+
+    /**
+     * Constructs a {@link SocketIOLoadClient} reporting its round-trip times to the provided {@code generator}.
+     *
+     * @param generator    the {@link LoadGenerator} defining the measurement window
+     * @param listener     the {@link Listener} to notify of the connection events
+     * @param connectStart the time (in nanoseconds) the client started to connect at
+     */
+    SocketIOLoadClient(LoadGenerator generator, Listener listener, long connectStart) {
+        this.generator = generator;
+        this.listener = listener;
+        this.connectStart = connectStart;
+        this.broadcastLatencies = new long[generator.getBroadcasts()];
+    }
+
+    /**
+     * Sends a {@code user_message} event every {@code periodNanos} nanoseconds, starting after a random delay
+     * spreading the messages of the clients over the period.
+     *
+     * @param periodNanos the time (in nanoseconds) between two messages
+     */
+    void startMessages(long periodNanos) {
+        channel.eventLoop().execute(() -> {
+            if (channel.isActive()) {
+                long initialDelay = (long) (Math.random() * periodNanos);
+                messageTask = channel.eventLoop().scheduleAtFixedRate(this::sendMessage, initialDelay, periodNanos,
+                        TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Stops sending {@code user_message} events.
+     * <p>
+     * The replies to the messages already sent are still recorded.
+     */
+    void stopMessages() {
+        channel.eventLoop().execute(() -> {
+            if (nonNull(messageTask)) {
+                messageTask.cancel(false);
+            }
+        });
+    }
+
+    /**
+     * Returns the channel of the client's connection.
+     *
+     * @return the channel of the client's connection
+     */
+    Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns whether the client has received its {@code init_confirm} event.
+     * <p>
+     * This method must be called from the client's event loop.
+     *
+     * @return {@code true} if the client has received its {@code init_confirm} event, {@code false} otherwise
+     */
+    boolean isConfirmed() {
+        return confirmed;
+    }
+
+    /**
+     * Returns a copy of the recorded round-trip times (in nanoseconds).
+     * <p>
+     * This method must be called from the client's event loop.
+     *
+     * @return a copy of the recorded round-trip times
+     */
+    long[] getSamples() {
+        return Arrays.copyOf(samples, sampleCount);
+    }
+
+    /**
+     * Returns the number of {@code user_message} events sent by the client.
+     * <p>
+     * This method must be called from the client's event loop.
+     *
+     * @return the number of {@code user_message} events sent by the client
+     */
+    long getSentMessages() {
+        return sentMessages;
+    }
+
+    /**
+     * Returns the number of {@code bot_message} events echoing a message of the client.
+     * <p>
+     * This method must be called from the client's event loop.
+     *
+     * @return the number of {@code bot_message} events echoing a message of the client
+     */
+    long getReceivedReplies() {
+        return receivedReplies;
+    }
+
+    /**
+     * Returns a copy of the delivery latencies (in nanoseconds) of the broadcast messages, indexed by broadcast.
+     * <p>
+     * This method must be called from the client's event loop.
+     *
+     * @return a copy of the delivery latencies of the broadcast messages, {@code 0} for the broadcasts that have not
+     * been received
+     */
+    long[] getBroadcastLatencies() {
+        return broadcastLatencies.clone();
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        this.channel = ctx.channel();
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (nonNull(pingTask)) {
+            pingTask.cancel(false);
+        }
+        if (nonNull(messageTask)) {
+            messageTask.cancel(false);
+        }
+        listener.disconnected(this);
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        ctx.close();
+    }
+
+    /**
+     * Handles the engine.io packet contained in the provided {@code frame}.
+     * <p>
+     * The engine.io packet type is the first character of the frame, and socket.io packets are embedded in engine.io
+     * {@code message} packets ({@code 4}) with their own type as second character.
+     */
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) throws IOException {
+        String packet = frame.text();
+        if (packet.startsWith("0")) {
+            /*
+             * engine.io open packet, containing the ping interval expected by the server.
+             */
+            long pingInterval = OBJECT_MAPPER.readTree(packet.substring(1)).path("pingInterval").asLong(25000);
+            pingTask = ctx.channel().eventLoop().scheduleAtFixedRate(() -> ctx.writeAndFlush(
+                    new TextWebSocketFrame("2")), pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+        } else if (packet.startsWith("40")) {
+            /*
+             * socket.io connect packet for the default namespace.
+             */
+            ctx.writeAndFlush(new TextWebSocketFrame("42[\"" + SocketEventTypes.INIT.label + "\",{\"hostname\":"
+                    + "\"localhost\",\"url\":\"http://localhost/load\",\"origin\":\"http://localhost\"}]"));
+        } else if (packet.startsWith("42")) {
+            handleEvent(OBJECT_MAPPER.readTree(packet.substring(2)));
+        }
+    }
+
+    /**
+     * Handles the socket.io event contained in the provided {@code event} array.
+     *
+     * @param event the JSON array containing the name of the event followed by its data
+     */
+    private void handleEvent(JsonNode event) {
+        String eventName = event.path(0).asText();
+        if (SocketEventTypes.INIT_CONFIRM.label.equals(eventName)) {
+            if (!confirmed) {
+                confirmed = true;
+                listener.connected(this, System.nanoTime() - connectStart);
+            }
+        } else if (SocketEventTypes.BOT_MESSAGE.label.equals(eventName)) {
+            String message = event.path(1).path("message").asText();
+            if (message.startsWith(MESSAGE_PREFIX)) {
+                long now = System.nanoTime();
+                long sentAt = Long.parseLong(message.substring(MESSAGE_PREFIX.length()));
+                receivedReplies++;
+                if (generator.isMeasured(sentAt)) {
+                    record(now - sentAt);
+                }
+            } else if (message.startsWith(BROADCAST_PREFIX)) {
+                long now = System.nanoTime();
+                String[] parts = message.substring(BROADCAST_PREFIX.length()).split(" ");
+                int index = Integer.parseInt(parts[0]);
+                if (index < broadcastLatencies.length) {
+                    broadcastLatencies[index] = Math.max(now - Long.parseLong(parts[1]), 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a {@code user_message} event containing the current time.
+     */
+    private void sendMessage() {
+        sentMessages++;
+        channel.writeAndFlush(new TextWebSocketFrame("42[\"" + SocketEventTypes.USER_MESSAGE.label
+                + "\",{\"username\":\"load\",\"message\":\"" + MESSAGE_PREFIX + System.nanoTime() + "\"}]"));
+    }
+
+    private void record(long rtt) {
+        if (sampleCount == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[sampleCount++] = rtt;
+    }
+}
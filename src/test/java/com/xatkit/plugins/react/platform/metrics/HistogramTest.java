@@ -0,0 +1,118 @@
+package com.xatkit.plugins.react.platform.metrics;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class HistogramTest extends AbstractXatkitTest {
+
+    @Test
+    public void bucketIndexBoundaries() {
+        assertThat(Histogram.bucketIndex(0)).isEqualTo(0);
+        assertThat(Histogram.bucketIndex(127)).isEqualTo(127);
+        assertThat(Histogram.bucketIndex(128)).isEqualTo(128);
+        assertThat(Histogram.bucketIndex(129)).isEqualTo(128);
+        assertThat(Histogram.bucketIndex(130)).isEqualTo(129);
+        assertThat(Histogram.bucketIndex(256)).isEqualTo(192);
+        assertThat(Histogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(Histogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    public void highestEquivalentValueMatchesBucketIndex() {
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i++) {
+            long highest = Histogram.highestEquivalentValue(i);
+            assertThat(Histogram.bucketIndex(highest)).isEqualTo(i);
+            if (i < Histogram.BUCKET_COUNT - 1) {
+                assertThat(Histogram.bucketIndex(highest + 1)).isEqualTo(i + 1);
+            }
+        }
+    }
+
+    @Test
+    public void emptyHistogram() {
+        Histogram histogram = new Histogram();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMax()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    public void record() {
+        Histogram histogram = new Histogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getSum()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(4));
+        assertThat(histogram.getMax()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(histogram.getMean()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(2), offset(1e-9));
+    }
+
+    @Test
+    public void recordConcurrently() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                for (int j = 1; j <= 1000; j++) {
+                    histogram.record(j);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(histogram.getCount()).isEqualTo(4000);
+        assertThat(histogram.getSum()).isEqualTo(4 * 500500);
+        assertThat(histogram.getMax()).isEqualTo(1000);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    public void recordNegativeValue() {
+        Histogram histogram = new Histogram();
+        histogram.record(-10);
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getSum()).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isZero();
+    }
+
+    @Test
+    public void percentilesWithinRelativeError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertThat(histogram.getCount()).isEqualTo(100_000);
+        assertThat(histogram.getMax()).isEqualTo(100_000_000);
+        assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(50_000_000, offset(50_000_000 / 64d));
+        assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(99_000_000, offset(99_000_000 / 64d));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000_000);
+    }
+
+    @Test
+    public void percentilesOfRandomValues() {
+        Histogram histogram = new Histogram();
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextDouble() * 30));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        long p95 = values[(int) Math.ceil(0.95 * values.length) - 1];
+        assertThat(histogram.getValueAtPercentile(95)).isBetween(p95, p95 + p95 / 64 + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValueAtInvalidPercentile() {
+        new Histogram().getValueAtPercentile(101);
+    }
+}
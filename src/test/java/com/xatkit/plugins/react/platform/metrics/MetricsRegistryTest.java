@@ -0,0 +1,92 @@
+package com.xatkit.plugins.react.platform.metrics;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsRegistryTest extends AbstractXatkitTest {
+
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void counterReturnsRegisteredCounter() {
+        Counter counter = registry.counter("events_total", "The events", "type", "a");
+        assertThat(registry.counter("events_total", "The events", "type", "a")).isSameAs(counter);
+        assertThat(registry.counter("events_total", "The events", "type", "b")).isNotSameAs(counter);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void counterInvalidName() {
+        registry.counter("events-total", "The events");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void counterOddLabels() {
+        registry.counter("events_total", "The events", "type");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void histogramExistingCounterName() {
+        registry.counter("events_total", "The events");
+        registry.histogram("events_total", "The events");
+    }
+
+    @Test
+    public void scrapeCounters() {
+        registry.counter("events_total", "The events", "type", "b").add(2);
+        registry.counter("events_total", "The events", "type", "a").increment();
+        registry.counter("computed_total", "The computed events", () -> 42);
+        assertThat(registry.scrape()).isEqualTo("# HELP computed_total The computed events\n"
+                + "# TYPE computed_total counter\n"
+                + "computed_total 42\n"
+                + "# HELP events_total The events\n"
+                + "# TYPE events_total counter\n"
+                + "events_total{type=\"a\"} 1\n"
+                + "events_total{type=\"b\"} 2\n");
+    }
+
+    @Test
+    public void scrapeGauge() {
+        registry.gauge("queue_depth", "The queue depth", () -> 3);
+        assertThat(registry.scrape()).contains("# TYPE queue_depth gauge\nqueue_depth 3.0\n");
+    }
+
+    @Test
+    public void scrapeEscapesLabelValuesAndHelp() {
+        registry.counter("events_total", "The \\ events\nof the bot", "name", "a\"b\\c\nd").increment();
+        assertThat(registry.scrape()).contains("# HELP events_total The \\\\ events\\nof the bot\n")
+                .contains("events_total{name=\"a\\\"b\\\\c\\nd\"} 1\n");
+    }
+
+    @Test
+    public void scrapeHistogram() {
+        Histogram histogram = registry.histogram("latency_seconds", "The latency", "event", "init");
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        String scrape = registry.scrape();
+        assertThat(scrape).contains("# TYPE latency_seconds summary\n")
+                .contains("latency_seconds{event=\"init\",quantile=\"0.5\"} ")
+                .contains("latency_seconds{event=\"init\",quantile=\"0.999\"} 0.002\n")
+                .contains("latency_seconds_sum{event=\"init\"} 0.002\n")
+                .contains("latency_seconds_count{event=\"init\"} 1\n")
+                .contains("# TYPE latency_seconds_max gauge\nlatency_seconds_max{event=\"init\"} 0.002\n");
+    }
+
+    @Test
+    public void scrapeRegisteredHistogram() {
+        Histogram histogram = new Histogram();
+        registry.histogram("wait_seconds", "The wait time", histogram);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        assertThat(registry.scrape()).contains("# TYPE wait_seconds summary\n")
+                .contains("wait_seconds_count 1\n")
+                .contains("wait_seconds_max 0.002\n");
+    }
+}
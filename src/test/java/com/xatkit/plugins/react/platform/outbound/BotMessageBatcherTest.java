@@ -0,0 +1,139 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BotMessageBatcherTest extends AbstractXatkitTest {
+
+    private ScheduledExecutorService scheduler;
+
+    private List<List<SendBotMessage>> emittedBatches;
+
+    private BotMessageBatcher batcher;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        emittedBatches = Collections.synchronizedList(new ArrayList<>());
+        batcher = new BotMessageBatcher(scheduler, 50, (channel, batch) -> emittedBatches.add(batch));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroWindow() {
+        new BotMessageBatcher(scheduler, 0, (channel, batch) -> {
+        });
+    }
+
+    @Test
+    public void addMessagesEmittedAfterWindow() throws InterruptedException {
+        SendBotMessage message1 = new SendBotMessage("xatkit", "message1");
+        SendBotMessage message2 = new SendBotMessage("xatkit", "message2");
+        batcher.add("channel", message1);
+        batcher.add("channel", message2);
+        assertThat(emittedBatches).as("Batch not emitted before the end of the window").isEmpty();
+        scheduler.schedule(() -> {
+        }, 100, TimeUnit.MILLISECONDS);
+        scheduler.shutdown();
+        assertThat(scheduler.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(emittedBatches).hasSize(1);
+        assertThat(emittedBatches.get(0)).containsExactly(message1, message2);
+        assertThat(batcher.getBatchCount()).isEqualTo(1);
+        assertThat(batcher.getMessageCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void flushEmitsPendingBatch() {
+        SendBotMessage message = new SendBotMessage("xatkit", "message");
+        batcher.add("channel", message);
+        batcher.flush("channel");
+        assertThat(emittedBatches).hasSize(1);
+        assertThat(emittedBatches.get(0)).containsExactly(message);
+        assertThat(batcher.getPendingBatchCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void flushNoPendingBatch() {
+        batcher.flush("channel");
+        assertThat(emittedBatches).isEmpty();
+    }
+
+    @Test
+    public void flushEmitterCallsBackBatcher() {
+        SendBotMessage message = new SendBotMessage("xatkit", "message");
+        SendBotMessage followUp = new SendBotMessage("xatkit", "follow-up");
+        AtomicReference<BotMessageBatcher> reentrantBatcher = new AtomicReference<>();
+        reentrantBatcher.set(new BotMessageBatcher(scheduler, 10_000, (channel, batch) -> {
+            emittedBatches.add(batch);
+            if (emittedBatches.size() == 1) {
+                /*
+                 * Would deadlock or fail with a recursive update if the batch was emitted while holding the
+                 * channel's entry in the pending batch map.
+                 */
+                reentrantBatcher.get().add(channel, followUp);
+                reentrantBatcher.get().flush(channel);
+            }
+        }));
+        reentrantBatcher.get().add("channel", message);
+        reentrantBatcher.get().flush("channel");
+        assertThat(emittedBatches).hasSize(2);
+        assertThat(emittedBatches.get(0)).containsExactly(message);
+        assertThat(emittedBatches.get(1)).containsExactly(followUp);
+        assertThat(reentrantBatcher.get().getPendingBatchCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void flushConcurrentFlushesPreserveOrder() throws InterruptedException {
+        CountDownLatch emitting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> emittedMessages = Collections.synchronizedList(new ArrayList<>());
+        BotMessageBatcher slowBatcher = new BotMessageBatcher(scheduler, 10_000, (channel, batch) -> {
+            if (emittedMessages.isEmpty()) {
+                emitting.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batch.forEach(m -> emittedMessages.add(m.getMessage()));
+        });
+        slowBatcher.add("channel", new SendBotMessage("xatkit", "message1"));
+        Thread slowFlush = new Thread(() -> slowBatcher.flush("channel"));
+        slowFlush.start();
+        assertThat(emitting.await(5, TimeUnit.SECONDS)).isTrue();
+        slowBatcher.add("channel", new SendBotMessage("xatkit", "message2"));
+        assertThat(slowBatcher.getPendingBatchCount()).as("Map not locked by the slow emission").isEqualTo(1);
+        Thread secondFlush = new Thread(() -> slowBatcher.flush("channel"));
+        secondFlush.start();
+        release.countDown();
+        slowFlush.join(5000);
+        secondFlush.join(5000);
+        assertThat(emittedMessages).containsExactly("message1", "message2");
+    }
+
+    @Test
+    public void addMessagesDifferentChannels() {
+        batcher.add("channel1", new SendBotMessage("xatkit", "message1"));
+        batcher.add("channel2", new SendBotMessage("xatkit", "message2"));
+        assertThat(batcher.getPendingBatchCount()).isEqualTo(2);
+    }
+}
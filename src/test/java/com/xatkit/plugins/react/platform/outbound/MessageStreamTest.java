@@ -0,0 +1,151 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.ReactPlatform;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessageChunk;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessageEnd;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MessageStreamTest extends AbstractXatkitTest {
+
+    private ScheduledExecutorService scheduler;
+
+    private ReactPlatform platform;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        platform = mock(ReactPlatform.class);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroChunkSize() {
+        new MessageStream(platform, "channel", "xatkit", true, scheduler, 0, 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroChunkDelay() {
+        new MessageStream(platform, "channel", "xatkit", true, scheduler, 16, 0);
+    }
+
+    @Test
+    public void appendFirstFragmentSentImmediately() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 16, 10_000);
+        stream.append("Hello");
+        SendBotMessageChunk chunk = captureChunks(1).get(0);
+        assertThat(chunk.getStreamId()).isEqualTo(stream.getStreamId());
+        assertThat(chunk.getIndex()).isEqualTo(0);
+        assertThat(chunk.getText()).isEqualTo("Hello");
+    }
+
+    @Test
+    public void appendCoalescesFragmentsUntilChunkSize() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 8, 10_000);
+        stream.append("Hello");
+        stream.append(" wo");
+        stream.append("rld");
+        verify(platform, times(1)).sendEvent(eq("channel"), eq(SocketEventTypes.BOT_MESSAGE_CHUNK.label),
+                any(SendBotMessageChunk.class));
+        stream.append("!!");
+        List<SendBotMessageChunk> chunks = captureChunks(2);
+        assertThat(chunks.get(1).getIndex()).isEqualTo(1);
+        assertThat(chunks.get(1).getText()).isEqualTo(" world!!");
+        assertThat(stream.getChunkCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void appendSendsPendingFragmentsAfterChunkDelay() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 1024, 20);
+        stream.append("Hello");
+        stream.append(" world");
+        verify(platform, timeout(1000).times(2)).sendEvent(eq("channel"),
+                eq(SocketEventTypes.BOT_MESSAGE_CHUNK.label), any(SendBotMessageChunk.class));
+        assertThat(captureChunks(2).get(1).getText()).isEqualTo(" world");
+    }
+
+    @Test
+    public void closeSendsPendingFragmentsAndEnd() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 1024, 10_000);
+        stream.append("Hello");
+        stream.append(" world");
+        stream.close();
+        InOrder inOrder = inOrder(platform);
+        inOrder.verify(platform, times(2)).sendEvent(eq("channel"), eq(SocketEventTypes.BOT_MESSAGE_CHUNK.label),
+                any(SendBotMessageChunk.class));
+        ArgumentCaptor<SendBotMessageEnd> endCaptor = ArgumentCaptor.forClass(SendBotMessageEnd.class);
+        inOrder.verify(platform).sendEvent(eq("channel"), eq(SocketEventTypes.BOT_MESSAGE_END.label),
+                endCaptor.capture());
+        assertThat(endCaptor.getValue().getStreamId()).isEqualTo(stream.getStreamId());
+        assertThat(endCaptor.getValue().getChunkCount()).isEqualTo(2);
+        assertThat(stream.isClosed()).isTrue();
+    }
+
+    @Test
+    public void closeTwice() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 1024, 10_000);
+        stream.close();
+        stream.close();
+        verify(platform, times(1)).sendEvent(eq("channel"), eq(SocketEventTypes.BOT_MESSAGE_END.label),
+                any(SendBotMessageEnd.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendClosedStream() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", true, scheduler, 1024, 10_000);
+        stream.close();
+        stream.append("Hello");
+    }
+
+    @Test
+    public void notStreamingSendsCompleteMessageOnClose() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", false, scheduler, 4, 10);
+        stream.append("Hello");
+        stream.append(" world");
+        verify(platform, never()).sendEvent(anyString(), anyString(), any());
+        stream.close();
+        ArgumentCaptor<SendBotMessage> messageCaptor = ArgumentCaptor.forClass(SendBotMessage.class);
+        verify(platform).sendBotMessage(eq("channel"), messageCaptor.capture());
+        assertThat(messageCaptor.getValue().getMessage()).isEqualTo("Hello world");
+        assertThat(messageCaptor.getValue().getUsername()).isEqualTo("xatkit");
+    }
+
+    @Test
+    public void notStreamingEmptyMessage() {
+        MessageStream stream = new MessageStream(platform, "channel", "xatkit", false, scheduler, 4, 10);
+        stream.close();
+        verify(platform, never()).sendBotMessage(anyString(), any(SendBotMessage.class));
+    }
+
+    private List<SendBotMessageChunk> captureChunks(int count) {
+        ArgumentCaptor<SendBotMessageChunk> captor = ArgumentCaptor.forClass(SendBotMessageChunk.class);
+        verify(platform, times(count)).sendEvent(eq("channel"), eq(SocketEventTypes.BOT_MESSAGE_CHUNK.label),
+                captor.capture());
+        return captor.getAllValues();
+    }
+}
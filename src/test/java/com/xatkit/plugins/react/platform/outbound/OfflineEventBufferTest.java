@@ -0,0 +1,140 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OfflineEventBufferTest extends AbstractXatkitTest {
+
+    private AtomicLong clock;
+
+    private OfflineEventBuffer buffer;
+
+    private List<String> replayedEvents;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong();
+        buffer = new OfflineEventBuffer(3, 1000, 2000, clock::get);
+        replayedEvents = new ArrayList<>();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxEvents() {
+        new OfflineEventBuffer(0, 1000, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxAge() {
+        new OfflineEventBuffer(10, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroRetention() {
+        new OfflineEventBuffer(10, 1000, 0);
+    }
+
+    @Test
+    public void getConversationIdDetachedSocket() {
+        buffer.detach("socket", "conversation");
+        clock.set(1999);
+        assertThat(buffer.getConversationId("socket")).isEqualTo("conversation");
+        clock.set(2000);
+        assertThat(buffer.getConversationId("socket")).as("Retention period elapsed").isNull();
+    }
+
+    @Test
+    public void getConversationIdUnknownSocket() {
+        assertThat(buffer.getConversationId("socket")).isNull();
+    }
+
+    @Test
+    public void evictDetachedSockets() {
+        buffer.detach("socket1", "conversation1");
+        clock.set(1500);
+        buffer.detach("socket2", "conversation2");
+        clock.set(2500);
+        assertThat(buffer.evictDetachedSockets()).isEqualTo(1);
+        assertThat(buffer.getDetachedSocketCount()).isEqualTo(1);
+        assertThat(buffer.getConversationId("socket2")).isEqualTo("conversation2");
+    }
+
+    @Test
+    public void discardCountsDroppedEvents() {
+        buffer.discard("socket", "bot_message");
+        assertThat(buffer.getDiscardedCount()).isEqualTo(1);
+        assertThat(buffer.getPendingEventCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void replayBufferedEventsInOrder() {
+        buffer.add("conversation", "event1", "data1");
+        buffer.add("conversation", "event2", "data2");
+        int replayed = buffer.replay("conversation",
+                (eventName, data) -> replayedEvents.add(eventName + ":" + data[0]));
+        assertThat(replayed).isEqualTo(2);
+        assertThat(replayedEvents).containsExactly("event1:data1", "event2:data2");
+        assertThat(buffer.getPendingEventCount()).isEqualTo(0);
+        assertThat(buffer.getReplayedCount()).isEqualTo(2);
+        assertThat(buffer.getConversationIds()).isEmpty();
+    }
+
+    @Test
+    public void replayUnknownConversation() {
+        int replayed = buffer.replay("conversation", (eventName, data) -> replayedEvents.add(eventName));
+        assertThat(replayed).isEqualTo(0);
+        assertThat(replayedEvents).isEmpty();
+    }
+
+    @Test
+    public void addFullBufferDropsOldestEvent() {
+        buffer.add("conversation", "event1");
+        buffer.add("conversation", "event2");
+        buffer.add("conversation", "event3");
+        buffer.add("conversation", "event4");
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        assertThat(buffer.getPendingEventCount()).isEqualTo(3);
+        buffer.replay("conversation", (eventName, data) -> replayedEvents.add(eventName));
+        assertThat(replayedEvents).containsExactly("event2", "event3", "event4");
+    }
+
+    @Test
+    public void replayDiscardsExpiredEvents() {
+        buffer.add("conversation", "event1");
+        clock.set(500);
+        buffer.add("conversation", "event2");
+        clock.set(1200);
+        buffer.replay("conversation", (eventName, data) -> replayedEvents.add(eventName));
+        assertThat(replayedEvents).containsExactly("event2");
+        assertThat(buffer.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictExpiredEvents() {
+        buffer.add("conversation1", "event1");
+        clock.set(500);
+        buffer.add("conversation2", "event2");
+        clock.set(1200);
+        assertThat(buffer.evictExpiredEvents()).isEqualTo(1);
+        assertThat(buffer.getConversationIds()).containsExactly("conversation2");
+        assertThat(buffer.getPendingEventCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void restoreKeepsOriginalTimestamp() {
+        clock.set(1500);
+        buffer.restore("conversation", "event1", 400, "data1");
+        buffer.restore("conversation", "event2", 600, "data2");
+        int replayed = buffer.replay("conversation",
+                (eventName, data) -> replayedEvents.add(eventName + ":" + data[0]));
+        assertThat(replayed).isEqualTo(1);
+        assertThat(replayedEvents).containsExactly("event2:data2");
+        assertThat(buffer.getExpiredCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.xatkit.plugins.react.platform.outbound;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.outbound.OutboundFlowControl.SlowConsumerPolicy;
+import com.xatkit.plugins.react.platform.socket.SocketEventTypes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OutboundFlowControlTest extends AbstractXatkitTest {
+
+    private static final String CHANNEL = "channel";
+
+    private SocketIOClient client;
+
+    @Before
+    public void setUp() {
+        client = mock(SocketIOClient.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxPendingEvents() {
+        new OutboundFlowControl(0, SlowConsumerPolicy.DROP_OLDEST);
+    }
+
+    @Test
+    public void sendWritableClient() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(2, SlowConsumerPolicy.DROP_OLDEST);
+        flowControl.send(CHANNEL, client, "event", "data");
+        verify(client).sendEvent("event", "data");
+        assertThat(flowControl.getPendingEventCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void sendUnwritableClientQueuesUntilWritable() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(2, SlowConsumerPolicy.DROP_OLDEST);
+        flowControl.setWritable(CHANNEL, false, client);
+        flowControl.send(CHANNEL, client, "event1");
+        flowControl.send(CHANNEL, client, "event2");
+        verify(client, never()).sendEvent(anyString(), any());
+        assertThat(flowControl.getSlowConsumerCount()).isEqualTo(1);
+        assertThat(flowControl.getPendingEventCount()).isEqualTo(2);
+        flowControl.setWritable(CHANNEL, true, client);
+        InOrder inOrder = inOrder(client);
+        inOrder.verify(client).sendEvent(eq("event1"), any());
+        inOrder.verify(client).sendEvent(eq("event2"), any());
+        assertThat(flowControl.getSlowConsumerCount()).isEqualTo(0);
+        assertThat(flowControl.getPendingEventCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void sendFullQueueDropOldest() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(2, SlowConsumerPolicy.DROP_OLDEST);
+        flowControl.setWritable(CHANNEL, false, client);
+        flowControl.send(CHANNEL, client, "event1");
+        flowControl.send(CHANNEL, client, "event2");
+        flowControl.send(CHANNEL, client, "event3");
+        assertThat(flowControl.getDroppedCount()).isEqualTo(1);
+        flowControl.setWritable(CHANNEL, true, client);
+        verify(client, never()).sendEvent(eq("event1"), any());
+        verify(client).sendEvent(eq("event2"), any());
+        verify(client).sendEvent(eq("event3"), any());
+    }
+
+    @Test
+    public void sendFullQueueCoalesceLoader() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(2, SlowConsumerPolicy.COALESCE_LOADER);
+        flowControl.setWritable(CHANNEL, false, client);
+        flowControl.send(CHANNEL, client, SocketEventTypes.SET_MESSAGE_LOADER.label);
+        flowControl.send(CHANNEL, client, "event1");
+        flowControl.send(CHANNEL, client, "event2");
+        assertThat(flowControl.getCoalescedCount()).isEqualTo(1);
+        assertThat(flowControl.getDroppedCount()).isEqualTo(0);
+        flowControl.setWritable(CHANNEL, true, client);
+        verify(client, never()).sendEvent(eq(SocketEventTypes.SET_MESSAGE_LOADER.label), any());
+        verify(client).sendEvent(eq("event1"), any());
+        verify(client).sendEvent(eq("event2"), any());
+    }
+
+    @Test
+    public void sendFullQueueDisconnect() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(1, SlowConsumerPolicy.DISCONNECT);
+        flowControl.setWritable(CHANNEL, false, client);
+        flowControl.send(CHANNEL, client, "event1");
+        flowControl.send(CHANNEL, client, "event2");
+        verify(client, times(1)).disconnect();
+        assertThat(flowControl.getDisconnectedCount()).isEqualTo(1);
+        assertThat(flowControl.getPendingEventCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void removeDiscardsQueuedEvents() {
+        OutboundFlowControl flowControl = new OutboundFlowControl(2, SlowConsumerPolicy.DROP_OLDEST);
+        flowControl.setWritable(CHANNEL, false, client);
+        flowControl.send(CHANNEL, client, "event1");
+        flowControl.remove(CHANNEL);
+        assertThat(flowControl.getSlowConsumerCount()).isEqualTo(0);
+        assertThat(flowControl.getPendingEventCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,321 @@
+package com.xatkit.plugins.react.platform.persistence;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.conversation.ConversationRecord;
+import com.xatkit.plugins.react.platform.conversation.ConversationStore;
+import com.xatkit.plugins.react.platform.conversation.InMemoryConversationStore;
+import com.xatkit.plugins.react.platform.socket.action.QuickButtonDescriptor;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import com.xatkit.plugins.react.platform.socket.action.SetMessageLoaderObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assume.assumeTrue;
+
+public class RoutingJournalTest extends AbstractXatkitTest {
+
+    /**
+     * The maximum time (in milliseconds) spent reloading a journal containing 1M conversations and restoring them
+     * in a {@link ConversationStore}.
+     */
+    private static final long MAX_MILLION_CONVERSATIONS_STARTUP_TIME = 10000;
+
+    /**
+     * The system property enabling {@link #reloadMillionConversationsWithinBound()}, e.g.
+     * {@code mvn test -Dtest=RoutingJournalTest -Dxatkit.react.journal.million=true}.
+     */
+    private static final String MILLION_CONVERSATIONS_PROPERTY = "xatkit.react.journal.million";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private AtomicLong clock;
+
+    private Path directory;
+
+    private RoutingJournal journal;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(0);
+        directory = temporaryFolder.getRoot().toPath();
+        journal = new RoutingJournal(directory, 10, clock::get);
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxEvents() {
+        new RoutingJournal(directory, 0);
+    }
+
+    @Test
+    public void reloadConversations() {
+        clock.set(10);
+        journal.recordConversation("conversation1");
+        clock.set(20);
+        journal.recordConversation("conversation2");
+        clock.set(30);
+        journal.recordConversation("conversation1");
+        RoutingJournal reloaded = reload();
+        assertThat(getConversations(reloaded)).containsOnly(entry("conversation1", 30L),
+                entry("conversation2", 20L));
+        assertThat(reloaded.getObsoleteRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void reloadPendingEventsInOrder() {
+        clock.set(10);
+        journal.recordEvent("conversation", "event1", "data1");
+        clock.set(20);
+        journal.recordEvent("conversation", "event2", Collections.singletonMap("key", "value"), 42);
+        RoutingJournal reloaded = reload();
+        List<Object[]> events = getPendingEvents(reloaded);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0)).containsExactly("conversation", "event1", 10L, "data1");
+        assertThat(events.get(1)).containsExactly("conversation", "event2", 20L,
+                Collections.singletonMap("key", "value"), 42);
+    }
+
+    @Test
+    public void reloadTypedEvents() {
+        SendBotMessage message = new SendBotMessage("bot", "Hello", Arrays.asList(
+                new QuickButtonDescriptor("Yes", "yes"), new QuickButtonDescriptor("No", "no")));
+        journal.recordEvent("conversation", "bot_message", message, new SetMessageLoaderObject(true), null);
+        List<Object[]> events = getPendingEvents(reload());
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)[3]).isInstanceOf(SendBotMessage.class).isEqualTo(message);
+        assertThat(events.get(0)[4]).isEqualTo(new SetMessageLoaderObject(true));
+        assertThat(events.get(0)[5]).isNull();
+    }
+
+    @Test
+    public void reloadDataWithoutCreatorAsJsonValue() {
+        journal.recordEvent("conversation", "event", new DataWithoutCreator("value"));
+        List<Object[]> events = getPendingEvents(reload());
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)[3]).isEqualTo(Collections.singletonMap("value", "value"));
+    }
+
+    @Test
+    public void reloadClearedEvents() {
+        journal.recordEvent("conversation1", "event1");
+        journal.recordEvent("conversation2", "event2");
+        journal.clearEvents("conversation1");
+        RoutingJournal reloaded = reload();
+        List<Object[]> events = getPendingEvents(reloaded);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)[0]).isEqualTo("conversation2");
+        assertThat(reloaded.getPendingEventCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordEventFullConversationDropsOldestEvent() {
+        for (int i = 0; i < 12; i++) {
+            journal.recordEvent("conversation", "event" + i);
+        }
+        assertThat(journal.getPendingEventCount()).isEqualTo(10);
+        List<Object[]> events = getPendingEvents(reload());
+        assertThat(events).hasSize(10);
+        assertThat(events.get(0)[1]).isEqualTo("event2");
+    }
+
+    @Test
+    public void compactRemovesObsoleteRecords() {
+        journal.recordConversation("conversation");
+        for (int i = 0; i < 5; i++) {
+            journal.recordEvent("conversation", "event" + i, "data");
+        }
+        journal.clearEvents("conversation");
+        journal.recordEvent("conversation", "event", "data");
+        long logSize = journal.getLogSize();
+        assertThat(journal.compact(Long.MAX_VALUE, Long.MAX_VALUE).join()).isTrue();
+        assertThat(journal.getLogSize()).isLessThan(logSize);
+        assertThat(journal.getObsoleteRecordCount()).isZero();
+        assertThat(journal.getCompactionCount()).isEqualTo(1);
+        RoutingJournal reloaded = reload();
+        assertThat(getConversations(reloaded)).containsOnlyKeys("conversation");
+        List<Object[]> events = getPendingEvents(reloaded);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)[1]).isEqualTo("event");
+    }
+
+    @Test
+    public void compactMostlyLiveJournal() {
+        journal.recordConversation("conversation1");
+        journal.recordConversation("conversation2");
+        journal.recordConversation("conversation1");
+        assertThat(journal.compact(Long.MAX_VALUE, Long.MAX_VALUE).join()).isFalse();
+        assertThat(journal.getObsoleteRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void compactDiscardsExpiredEntries() {
+        journal.recordConversation("conversation1");
+        journal.recordEvent("conversation1", "event1");
+        clock.set(100);
+        journal.recordConversation("conversation2");
+        journal.recordEvent("conversation2", "event2");
+        assertThat(journal.compact(100, 100).join()).isTrue();
+        assertThat(journal.getConversationCount()).isEqualTo(1);
+        assertThat(journal.getPendingEventCount()).isEqualTo(1);
+        RoutingJournal reloaded = reload();
+        assertThat(getConversations(reloaded)).containsOnlyKeys("conversation2");
+        assertThat(getPendingEvents(reloaded).get(0)[1]).isEqualTo("event2");
+    }
+
+    @Test
+    public void appendAfterCompaction() {
+        journal.recordConversation("conversation1");
+        journal.recordConversation("conversation1");
+        journal.compact(Long.MAX_VALUE, Long.MAX_VALUE).join();
+        journal.recordConversation("conversation2");
+        assertThat(getConversations(reload())).containsOnlyKeys("conversation1", "conversation2");
+    }
+
+    @Test
+    public void compactKeepsRecordsAppendedDuringCompaction() {
+        for (int i = 0; i < 100000; i++) {
+            journal.recordConversation("conversation" + i % 10000);
+        }
+        CompletableFuture<Boolean> compaction = journal.compact(Long.MAX_VALUE, Long.MAX_VALUE);
+        int appended = 0;
+        while (!compaction.isDone()) {
+            journal.recordConversation("appended" + appended++);
+        }
+        assertThat(compaction.join()).isTrue();
+        journal.recordConversation("appended" + appended++);
+        Map<String, Long> conversations = getConversations(reload());
+        assertThat(conversations).hasSize(10000 + appended).containsKey("conversation0");
+        for (int i = 0; i < appended; i++) {
+            assertThat(conversations).containsKey("appended" + i);
+        }
+    }
+
+    @Test
+    public void compactAfterClose() {
+        journal.close();
+        assertThat(journal.compact(Long.MAX_VALUE, Long.MAX_VALUE).join()).isFalse();
+    }
+
+    @Test
+    public void reloadConversationsIntoStore() {
+        for (int i = 0; i < 1000; i++) {
+            clock.set(i);
+            journal.recordConversation("conversation" + i);
+        }
+        journal.close();
+        journal = new RoutingJournal(directory, 10, clock::get);
+        try (ConversationStore store = new InMemoryConversationStore()) {
+            journal.forEachConversation((conversationId, lastAccess) ->
+                    store.restore(new ConversationRecord(conversationId, "node", lastAccess)));
+            assertThat(store.getConversationCount()).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    public void reloadMillionConversationsWithinBound() {
+        assumeTrue("The 1M conversations reload test is skipped, set " + MILLION_CONVERSATIONS_PROPERTY
+                + " to run it", Boolean.getBoolean(MILLION_CONVERSATIONS_PROPERTY));
+        for (int i = 0; i < 1000000; i++) {
+            journal.recordConversation(UUID.randomUUID().toString());
+        }
+        journal.close();
+        long start = System.nanoTime();
+        journal = new RoutingJournal(directory, 10, clock::get);
+        try (ConversationStore store = new InMemoryConversationStore()) {
+            journal.forEachConversation((conversationId, lastAccess) ->
+                    store.restore(new ConversationRecord(conversationId, "node", lastAccess)));
+            assertThat(store.getConversationCount()).isEqualTo(1000000);
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .isLessThan(MAX_MILLION_CONVERSATIONS_STARTUP_TIME);
+    }
+
+    @Test
+    public void reloadIgnoresCorruptedRecord() throws IOException {
+        journal.recordConversation("conversation1");
+        journal.recordConversation("conversation2");
+        long logSize = journal.getLogSize();
+        journal.close();
+        try (FileChannel channel = FileChannel.open(directory.resolve("routing.journal"),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'x'}), logSize - 1);
+        }
+        journal = new RoutingJournal(directory, 10, clock::get);
+        assertThat(getConversations(journal)).containsOnlyKeys("conversation1");
+        journal.recordConversation("conversation3");
+        assertThat(getConversations(reload())).containsOnlyKeys("conversation1", "conversation3");
+    }
+
+    @Test
+    public void recordAfterClose() {
+        journal.close();
+        journal.recordConversation("conversation");
+        journal.recordEvent("conversation", "event");
+        assertThat(journal.getLiveRecordCount()).isZero();
+        assertThat(getConversations(reload())).isEmpty();
+    }
+
+    private RoutingJournal reload() {
+        journal.close();
+        journal = new RoutingJournal(directory, 10, clock::get);
+        return journal;
+    }
+
+    private static Map<String, Long> getConversations(RoutingJournal journal) {
+        Map<String, Long> conversations = new HashMap<>();
+        journal.forEachConversation(conversations::put);
+        return conversations;
+    }
+
+    private static List<Object[]> getPendingEvents(RoutingJournal journal) {
+        List<Object[]> events = new ArrayList<>();
+        journal.forEachPendingEvent((conversationId, eventName, timestamp, data) -> {
+            Object[] event = new Object[3 + data.length];
+            event[0] = conversationId;
+            event[1] = eventName;
+            event[2] = timestamp;
+            System.arraycopy(data, 0, event, 3, data.length);
+            events.add(event);
+        });
+        return events;
+    }
+
+    public static class DataWithoutCreator {
+
+        private final String value;
+
+        public DataWithoutCreator(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
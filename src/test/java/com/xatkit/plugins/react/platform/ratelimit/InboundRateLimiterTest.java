@@ -0,0 +1,65 @@
+package com.xatkit.plugins.react.platform.ratelimit;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.ratelimit.InboundRateLimiter.Mode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InboundRateLimiterTest extends AbstractXatkitTest {
+
+    private AtomicLong clock;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeMaxDeferDelay() {
+        new InboundRateLimiter(null, null, Mode.DROP, -1);
+    }
+
+    @Test
+    public void acquireDropSocketLimit() {
+        InboundRateLimiter rateLimiter = new InboundRateLimiter(new TokenBucketRateLimiter(1, 1, clock::get), null,
+                Mode.DROP, 1000);
+        assertThat(rateLimiter.acquire("socket", "conversation")).isEqualTo(0);
+        assertThat(rateLimiter.acquire("socket", "conversation")).isNegative();
+        assertThat(rateLimiter.acquire("socket2", "conversation")).isEqualTo(0);
+        assertThat(rateLimiter.getAcceptedCount()).isEqualTo(2);
+        assertThat(rateLimiter.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void acquireDropConversationLimit() {
+        InboundRateLimiter rateLimiter = new InboundRateLimiter(new TokenBucketRateLimiter(5, 1, clock::get),
+                new TokenBucketRateLimiter(1, 1, clock::get), Mode.DROP, 1000);
+        assertThat(rateLimiter.acquire("socket", "conversation")).isEqualTo(0);
+        assertThat(rateLimiter.acquire("socket2", "conversation")).isNegative();
+        assertThat(rateLimiter.acquire("socket2", null)).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireDefer() {
+        InboundRateLimiter rateLimiter = new InboundRateLimiter(new TokenBucketRateLimiter(1, 1, clock::get), null,
+                Mode.DEFER, 1500);
+        assertThat(rateLimiter.acquire("socket", null)).isEqualTo(0);
+        assertThat(rateLimiter.acquire("socket", null)).isPositive();
+        assertThat(rateLimiter.acquire("socket", null)).isNegative();
+        assertThat(rateLimiter.getDeferredCount()).isEqualTo(1);
+        assertThat(rateLimiter.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void markThrottledOnce() {
+        InboundRateLimiter rateLimiter = new InboundRateLimiter(null, null, Mode.DROP, 0);
+        assertThat(rateLimiter.markThrottled("socket")).isTrue();
+        assertThat(rateLimiter.markThrottled("socket")).isFalse();
+        rateLimiter.clearThrottled("socket");
+        assertThat(rateLimiter.markThrottled("socket")).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package com.xatkit.plugins.react.platform.ratelimit;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketRateLimiterTest extends AbstractXatkitTest {
+
+    private static final String KEY = "key";
+
+    private static final long REFILL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AtomicLong clock;
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong(1000);
+        rateLimiter = new TokenBucketRateLimiter(3, 10, clock::get);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroCapacity() {
+        new TokenBucketRateLimiter(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroRefillRate() {
+        new TokenBucketRateLimiter(3, 0);
+    }
+
+    @Test
+    public void acquireBurst() {
+        assertThat(rateLimiter.acquire(KEY, 0)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(KEY, 0)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(KEY, 0)).isEqualTo(0);
+        assertThat(rateLimiter.getAvailableTokens(KEY)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(KEY, 0)).isEqualTo(-REFILL_INTERVAL);
+    }
+
+    @Test
+    public void acquireAfterRefill() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(KEY, 0);
+        }
+        clock.addAndGet(REFILL_INTERVAL);
+        assertThat(rateLimiter.acquire(KEY, 0)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(KEY, 0)).isNegative();
+    }
+
+    @Test
+    public void acquireReservesTokensInOrder() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(KEY, 0);
+        }
+        assertThat(rateLimiter.acquire(KEY, 2 * REFILL_INTERVAL)).isEqualTo(REFILL_INTERVAL);
+        assertThat(rateLimiter.acquire(KEY, 2 * REFILL_INTERVAL)).isEqualTo(2 * REFILL_INTERVAL);
+        assertThat(rateLimiter.acquire(KEY, 2 * REFILL_INTERVAL)).isEqualTo(-3 * REFILL_INTERVAL);
+    }
+
+    @Test
+    public void acquireKeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(KEY, 0);
+        }
+        assertThat(rateLimiter.acquire("other", 0)).isEqualTo(0);
+    }
+
+    @Test
+    public void evictIdleBuckets() {
+        rateLimiter.acquire(KEY, 0);
+        rateLimiter.acquire("other", 0);
+        rateLimiter.acquire("other", 0);
+        clock.addAndGet(REFILL_INTERVAL);
+        assertThat(rateLimiter.evictIdleBuckets()).isEqualTo(1);
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,145 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.xatkit.AbstractXatkitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutboundRouterTest extends AbstractXatkitTest {
+
+    private static final long LONG_WINDOW = 3600000;
+
+    private ScheduledExecutorService scheduler;
+
+    private LoopbackRoutingTransport transport;
+
+    private AtomicLong clock;
+
+    private List<RoutedEvent> deliveredToA;
+
+    private List<RoutedEvent> deliveredToB;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        transport = new LoopbackRoutingTransport();
+        clock = new AtomicLong(0);
+        deliveredToA = new ArrayList<>();
+        deliveredToB = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeWindow() {
+        new OutboundRouter("nodeA", transport, scheduler, -1, 10, deliveredToA::add);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxBatchSize() {
+        new OutboundRouter("nodeA", transport, scheduler, 0, 0, deliveredToA::add);
+    }
+
+    @Test
+    public void routeZeroWindowDeliversImmediately() {
+        OutboundRouter routerA = createRouter("nodeA", 0, 10, deliveredToA);
+        createRouter("nodeB", 0, 10, deliveredToB);
+        clock.set(5);
+        routerA.route("nodeB", "socket", "conversation", "event", "data");
+        assertThat(deliveredToA).isEmpty();
+        assertThat(deliveredToB).hasSize(1);
+        RoutedEvent event = deliveredToB.get(0);
+        assertThat(event.getChannel()).isEqualTo("socket");
+        assertThat(event.getConversationId()).isEqualTo("conversation");
+        assertThat(event.getEventName()).isEqualTo("event");
+        assertThat(event.getData()).containsExactly("data");
+        assertThat(routerA.getRoutedEventCount()).isEqualTo(1);
+        assertThat(routerA.getBatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void routeBatchesEventsOfSameNode() {
+        OutboundRouter routerA = createRouter("nodeA", LONG_WINDOW, 10, deliveredToA);
+        OutboundRouter routerB = createRouter("nodeB", LONG_WINDOW, 10, deliveredToB);
+        routerA.route("nodeB", "socket", "conversation", "event1");
+        routerA.route("nodeB", "socket", "conversation", "event2");
+        assertThat(deliveredToB).isEmpty();
+        assertThat(routerA.getPendingBatchCount()).isEqualTo(1);
+        routerA.flush("nodeB");
+        assertThat(deliveredToB).extracting(RoutedEvent::getEventName).containsExactly("event1", "event2");
+        assertThat(routerA.getBatchCount()).isEqualTo(1);
+        assertThat(routerB.getReceivedEventCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void routeFullBatchPublishedBeforeWindow() {
+        OutboundRouter routerA = createRouter("nodeA", LONG_WINDOW, 2, deliveredToA);
+        createRouter("nodeB", LONG_WINDOW, 2, deliveredToB);
+        routerA.route("nodeB", "socket", "conversation", "event1");
+        routerA.route("nodeB", "socket", "conversation", "event2");
+        assertThat(deliveredToB).hasSize(2);
+        assertThat(routerA.getPendingBatchCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void routeRecordsRoutingLatency() {
+        OutboundRouter routerA = createRouter("nodeA", LONG_WINDOW, 10, deliveredToA);
+        OutboundRouter routerB = createRouter("nodeB", LONG_WINDOW, 10, deliveredToB);
+        routerA.route("nodeB", "socket", "conversation", "event");
+        clock.set(20);
+        routerA.flush("nodeB");
+        assertThat(routerB.getRoutingLatency().getCount()).isEqualTo(1);
+        assertThat(routerB.getRoutingLatency().getMax()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void routeFromDeliveryOfPublishedBatch() {
+        OutboundRouter routerA = createRouter("nodeA", 0, 10, deliveredToA);
+        OutboundRouter routerB = new OutboundRouter("nodeB", transport, scheduler, 0, 10, event -> {
+            deliveredToB.add(event);
+            if (event.getEventName().equals("ping")) {
+                /*
+                 * The loopback transport delivers the batch while routerA is publishing it.
+                 */
+                routerA.route("nodeB", "socket", "conversation", "pong");
+            }
+        }, clock::get);
+        routerB.start();
+        routerA.route("nodeB", "socket", "conversation", "ping");
+        assertThat(deliveredToB).extracting(RoutedEvent::getEventName).containsExactly("ping", "pong");
+        assertThat(routerA.getBatchCount()).isEqualTo(2);
+        assertThat(routerA.getPendingBatchCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shutdownPublishesPendingBatchesAndUnsubscribes() {
+        OutboundRouter routerA = createRouter("nodeA", LONG_WINDOW, 10, deliveredToA);
+        OutboundRouter routerB = createRouter("nodeB", LONG_WINDOW, 10, deliveredToB);
+        routerA.route("nodeB", "socket", "conversation", "event");
+        routerA.shutdown();
+        assertThat(deliveredToB).hasSize(1);
+        routerB.shutdown();
+        routerA = createRouter("nodeA", 0, 10, deliveredToA);
+        routerA.route("nodeB", "socket", "conversation", "event");
+        assertThat(deliveredToB).hasSize(1);
+    }
+
+    private OutboundRouter createRouter(String nodeId, long window, int maxBatchSize, List<RoutedEvent> delivered) {
+        OutboundRouter router = new OutboundRouter(nodeId, transport, scheduler, window, maxBatchSize,
+                delivered::add, clock::get);
+        router.start();
+        return router;
+    }
+}
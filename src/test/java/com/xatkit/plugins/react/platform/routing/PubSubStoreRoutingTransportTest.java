@@ -0,0 +1,163 @@
+package com.xatkit.plugins.react.platform.routing;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.store.pubsub.DispatchMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubListener;
+import com.corundumstudio.socketio.store.pubsub.PubSubMessage;
+import com.corundumstudio.socketio.store.pubsub.PubSubStore;
+import com.corundumstudio.socketio.store.pubsub.PubSubType;
+import com.xatkit.AbstractXatkitTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PubSubStoreRoutingTransportTest extends AbstractXatkitTest {
+
+    private ScheduledExecutorService scheduler;
+
+    private SharedPubSubStore pubSubStore;
+
+    private PubSubStoreRoutingTransport transportA;
+
+    private PubSubStoreRoutingTransport transportB;
+
+    private List<RoutedEvents> receivedByB;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        pubSubStore = new SharedPubSubStore();
+        transportA = new PubSubStoreRoutingTransport(pubSubStore);
+        transportB = new PubSubStoreRoutingTransport(pubSubStore);
+        receivedByB = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void publishDeliversToSubscribersOfTopic() {
+        transportB.subscribe("nodeB", receivedByB::add, RoutedEvents.class);
+        RoutedEvents message = routedEvents("event");
+        transportA.publish("nodeB", message);
+        assertThat(receivedByB).containsExactly(message);
+    }
+
+    @Test
+    public void publishWrapsMessageInDispatchMessage() {
+        transportA.publish("nodeB", routedEvents("event"));
+        assertThat(pubSubStore.published).hasSize(1);
+        DispatchMessage dispatchMessage = (DispatchMessage) pubSubStore.published.get(0);
+        assertThat(dispatchMessage.getRoom()).isEqualTo("nodeB");
+        assertThat(dispatchMessage.getNamespace()).isEqualTo(Namespace.DEFAULT_NAME);
+        assertThat(dispatchMessage.getPacket().getName()).isEqualTo(PubSubStoreRoutingTransport.PACKET_NAME);
+    }
+
+    @Test
+    public void publishOtherTopicNotDelivered() {
+        transportB.subscribe("nodeB", receivedByB::add, RoutedEvents.class);
+        transportA.publish("nodeC", routedEvents("event"));
+        assertThat(receivedByB).isEmpty();
+    }
+
+    @Test
+    public void socketServerDispatchIgnored() {
+        transportB.subscribe("nodeB", receivedByB::add, RoutedEvents.class);
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName("bot_message");
+        packet.setData(Collections.singletonList("Hello"));
+        pubSubStore.publish(PubSubType.DISPATCH, new DispatchMessage("nodeB", packet, Namespace.DEFAULT_NAME));
+        assertThat(receivedByB).isEmpty();
+    }
+
+    @Test
+    public void subscribeSeveralTopicsSubscribesStoreOnce() {
+        transportB.subscribe("nodeB", receivedByB::add, RoutedEvents.class);
+        transportB.subscribe("nodeB.admin", receivedByB::add, RoutedEvents.class);
+        assertThat(pubSubStore.listeners.get(PubSubType.DISPATCH)).hasSize(1);
+    }
+
+    @Test
+    public void unsubscribeKeepsStoreSubscription() {
+        transportB.subscribe("nodeB", receivedByB::add, RoutedEvents.class);
+        transportB.unsubscribe("nodeB");
+        transportA.publish("nodeB", routedEvents("event"));
+        assertThat(receivedByB).isEmpty();
+        assertThat(pubSubStore.unsubscribedTypes).isEmpty();
+    }
+
+    @Test
+    public void routerExchangesEventsThroughStore() {
+        List<RoutedEvent> deliveredToB = new ArrayList<>();
+        OutboundRouter routerA = new OutboundRouter("nodeA", transportA, scheduler, 0, 10, event -> {
+        });
+        OutboundRouter routerB = new OutboundRouter("nodeB", transportB, scheduler, 0, 10, deliveredToB::add);
+        routerA.start();
+        routerB.start();
+        routerA.route("nodeB", "socket", "conversation", "event", "data");
+        assertThat(deliveredToB).extracting(RoutedEvent::getEventName).containsExactly("event");
+        routerA.shutdown();
+        routerB.shutdown();
+    }
+
+    private static RoutedEvents routedEvents(String eventName) {
+        return new RoutedEvents("nodeA", Collections.singletonList(new RoutedEvent("socket", "conversation",
+                eventName, new Object[0], 0)));
+    }
+
+    /**
+     * A {@link PubSubStore} shared by several transports, delivering the published messages synchronously.
+     * <p>
+     * Like the broker-based stores, this store delivers the messages of a channel to all its listeners without
+     * checking their message class.
+     */
+    private static class SharedPubSubStore implements PubSubStore {
+
+        private final Map<PubSubType, List<PubSubListener<PubSubMessage>>> listeners =
+                new EnumMap<>(PubSubType.class);
+
+        private final List<PubSubMessage> published = new ArrayList<>();
+
+        private final List<PubSubType> unsubscribedTypes = new ArrayList<>();
+
+        @Override
+        public void publish(PubSubType type, PubSubMessage msg) {
+            published.add(msg);
+            for (PubSubListener<PubSubMessage> listener : listeners.getOrDefault(type, Collections.emptyList())) {
+                listener.onMessage(msg);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends PubSubMessage> void subscribe(PubSubType type, PubSubListener<T> listener, Class<T> clazz) {
+            listeners.computeIfAbsent(type, k -> new ArrayList<>()).add((PubSubListener<PubSubMessage>) listener);
+        }
+
+        @Override
+        public void unsubscribe(PubSubType type) {
+            unsubscribedTypes.add(type);
+            listeners.remove(type);
+        }
+
+        @Override
+        public void shutdown() {
+            listeners.clear();
+        }
+    }
+}
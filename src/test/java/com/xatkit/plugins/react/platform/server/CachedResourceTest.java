@@ -0,0 +1,134 @@
+package com.xatkit.plugins.react.platform.server;
+
+import com.xatkit.AbstractXatkitTest;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachedResourceTest extends AbstractXatkitTest {
+
+    private static final String CONTENT = "body { color: red; }";
+
+    private CachedResource resource;
+
+    @Before
+    public void setUp() {
+        resource = new CachedResource(CONTENT.getBytes(StandardCharsets.UTF_8), "text/css");
+    }
+
+    @Test
+    public void createResponseSetsCachingHeaders() {
+        HttpResponse response = resource.createResponse(Collections.emptyList());
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HttpStatus.SC_OK);
+        assertThat(response.getFirstHeader(HttpHeaders.ETAG).getValue()).isEqualTo(resource.getEtag());
+        assertThat(response.getFirstHeader(HttpHeaders.CACHE_CONTROL).getValue())
+                .isEqualTo(CachedResource.CACHE_CONTROL);
+        assertThat(response.getEntity()).isNotNull();
+    }
+
+    @Test
+    public void etagIsStrongAndContentBased() {
+        CachedResource sameContent = new CachedResource(CONTENT.getBytes(StandardCharsets.UTF_8), "text/css");
+        CachedResource otherContent = new CachedResource("body {}".getBytes(StandardCharsets.UTF_8), "text/css");
+        assertThat(resource.getEtag()).startsWith("\"").endsWith("\"");
+        assertThat(sameContent.getEtag()).isEqualTo(resource.getEtag());
+        assertThat(otherContent.getEtag()).isNotEqualTo(resource.getEtag());
+    }
+
+    @Test
+    public void etagRoundTripReturnsNotModified() {
+        HttpResponse first = resource.createResponse(Collections.emptyList());
+        String etag = first.getFirstHeader(HttpHeaders.ETAG).getValue();
+        HttpResponse second = resource.createResponse(headers(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(second.getStatusLine().getStatusCode()).isEqualTo(HttpStatus.SC_NOT_MODIFIED);
+        assertThat(second.getEntity()).isNull();
+        assertThat(second.getFirstHeader(HttpHeaders.ETAG).getValue()).isEqualTo(etag);
+        assertThat(second.getFirstHeader(HttpHeaders.CACHE_CONTROL).getValue())
+                .isEqualTo(CachedResource.CACHE_CONTROL);
+    }
+
+    @Test
+    public void ifNoneMatchListContainingEtagReturnsNotModified() {
+        HttpResponse response = resource.createResponse(headers(HttpHeaders.IF_NONE_MATCH,
+                "\"other\", " + resource.getEtag()));
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HttpStatus.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void staleEtagReturnsContent() throws IOException {
+        HttpResponse response = resource.createResponse(headers(HttpHeaders.IF_NONE_MATCH, "\"stale\""));
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(HttpStatus.SC_OK);
+        assertThat(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void gzipAcceptedReturnsGzippedContent() throws IOException {
+        HttpResponse response = resource.createResponse(headers(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        assertThat(response.getEntity().getContentEncoding().getValue()).isEqualTo("gzip");
+        assertThat(gunzip(EntityUtils.toByteArray(response.getEntity()))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void acceptsGzipWithPositiveQuality() {
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip"))).isTrue();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "GZIP;q=0.5"))).isTrue();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip ; q=0.001"))).isTrue();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "br, *"))).isTrue();
+    }
+
+    @Test
+    public void acceptsGzipWithZeroQuality() {
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.0"))).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip; q=0.000"))).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzip;q=invalid"))).isFalse();
+    }
+
+    @Test
+    public void acceptsGzipWithoutAcceptEncoding() {
+        assertThat(CachedResource.acceptsGzip(Collections.emptyList())).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "deflate, br"))).isFalse();
+        assertThat(CachedResource.acceptsGzip(headers(HttpHeaders.ACCEPT_ENCODING, "gzipx"))).isFalse();
+    }
+
+    @Test
+    public void gzipRejectedReturnsRawContent() throws IOException {
+        HttpResponse response = resource.createResponse(headers(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.0"));
+        assertThat(response.getEntity().getContentEncoding().getValue()).isNotEqualTo("gzip");
+        assertThat(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+
+    private static List<Header> headers(String name, String value) {
+        return Arrays.asList(new BasicHeader(name, value));
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
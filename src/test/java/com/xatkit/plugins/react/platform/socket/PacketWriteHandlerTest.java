@@ -0,0 +1,38 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PacketWriteHandlerTest extends AbstractXatkitTest {
+
+    @Test
+    public void hasEventPacketEmptyQueue() {
+        assertThat(PacketWriteHandler.hasEventPacket(new ArrayDeque<>())).isFalse();
+    }
+
+    @Test
+    public void hasEventPacketOnlyPings() {
+        Queue<Packet> packets = new ArrayDeque<>();
+        packets.add(new Packet(PacketType.PING));
+        packets.add(new Packet(PacketType.PONG));
+        assertThat(PacketWriteHandler.hasEventPacket(packets)).isFalse();
+    }
+
+    @Test
+    public void hasEventPacketWithEvent() {
+        Queue<Packet> packets = new ArrayDeque<>();
+        packets.add(new Packet(PacketType.PING));
+        Packet event = new Packet(PacketType.MESSAGE);
+        event.setSubType(PacketType.EVENT);
+        event.setName("bot_message");
+        packets.add(event);
+        assertThat(PacketWriteHandler.hasEventPacket(packets)).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package com.xatkit.plugins.react.platform.socket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.xatkit.AbstractXatkitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SocketClientCacheTest extends AbstractXatkitTest {
+
+    private SocketClientCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new SocketClientCache();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void putNullClient() {
+        cache.put(null);
+    }
+
+    @Test
+    public void putConnectedClient() {
+        SocketIOClient client = mockClient(UUID.randomUUID());
+        cache.put(client);
+        String channel = client.getSessionId().toString();
+        assertThat(cache.get(channel)).isSameAs(client);
+        assertThat(cache.contains(channel)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void getUnknownChannel() {
+        assertThat(cache.get(UUID.randomUUID().toString())).isNull();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void removeDisconnectedClient() {
+        SocketIOClient client = mockClient(UUID.randomUUID());
+        String channel = client.getSessionId().toString();
+        cache.put(client);
+        cache.remove(client);
+        assertThat(cache.get(channel)).as("Disconnected client invalidated").isNull();
+        assertThat(cache.contains(channel)).isFalse();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void removeStaleClientKeepsCurrentClient() {
+        UUID sessionId = UUID.randomUUID();
+        SocketIOClient staleClient = mockClient(sessionId);
+        SocketIOClient currentClient = mockClient(sessionId);
+        cache.put(staleClient);
+        cache.put(currentClient);
+        assertThat(cache.get(sessionId.toString())).as("Stale entry replaced").isSameAs(currentClient);
+        cache.remove(staleClient);
+        assertThat(cache.get(sessionId.toString())).as("Disconnection of the stale client ignored")
+                .isSameAs(currentClient);
+        cache.remove(currentClient);
+        assertThat(cache.get(sessionId.toString())).isNull();
+    }
+
+    @Test
+    public void removeUnknownClient() {
+        cache.put(mockClient(UUID.randomUUID()));
+        cache.remove(mockClient(UUID.randomUUID()));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private static SocketIOClient mockClient(UUID sessionId) {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(sessionId);
+        return client;
+    }
+}
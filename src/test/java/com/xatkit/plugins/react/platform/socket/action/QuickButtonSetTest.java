@@ -0,0 +1,86 @@
+package com.xatkit.plugins.react.platform.socket.action;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.socket.codec.CborPayload;
+import com.xatkit.plugins.react.platform.socket.codec.PayloadCodecModule;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QuickButtonSetTest extends AbstractXatkitTest {
+
+    @Test(expected = NullPointerException.class)
+    public void ofNullLabels() {
+        QuickButtonSet.of(null);
+    }
+
+    @Test
+    public void ofEmptyLabels() {
+        assertThat(QuickButtonSet.of(Collections.emptyList())).isSameAs(QuickButtonSet.EMPTY).isEmpty();
+    }
+
+    @Test
+    public void ofReturnsInternedSet() {
+        List<String> labels = new ArrayList<>(Arrays.asList("Yes", "No"));
+        QuickButtonSet set = QuickButtonSet.of(labels);
+        assertThat(set).containsExactly(new QuickButtonDescriptor("Yes", "Yes"), new QuickButtonDescriptor("No",
+                "No"));
+        assertThat(QuickButtonSet.of(Arrays.asList("Yes", "No"))).isSameAs(set);
+        labels.add("Maybe");
+        assertThat(set).as("The set does not depend on the provided list").hasSize(2);
+        assertThat(QuickButtonSet.of(labels)).isNotSameAs(set).hasSize(3);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addToSet() {
+        QuickButtonSet.of(Arrays.asList("Yes", "No")).add(new QuickButtonDescriptor("Maybe", "Maybe"));
+    }
+
+    @Test
+    public void updateReturnedDescriptor() throws Exception {
+        QuickButtonSet set = QuickButtonSet.of(Arrays.asList("Yes", "No"));
+        String json = new ObjectMapper().writeValueAsString(set);
+        set.get(0).setLabel("Maybe");
+        assertThat(set.get(0).getLabel()).isEqualTo("Yes");
+        assertThat(new ObjectMapper().writeValueAsString(set)).isEqualTo(json);
+    }
+
+    @Test
+    public void serializeJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        QuickButtonSet set = QuickButtonSet.of(Arrays.asList("Yes", "No \"quoted\""));
+        String expected = mapper.writeValueAsString(new SendBotMessage("xatkit", "Continue?",
+                new ArrayList<>(set)));
+        assertThat(mapper.writeValueAsString(new SendBotMessage("xatkit", "Continue?", set))).isEqualTo(expected);
+        assertThat(mapper.writeValueAsString(new SendBotMessage("xatkit", "Continue?", set)))
+                .as("Cached encoding").isEqualTo(expected);
+    }
+
+    @Test
+    public void serializeCbor() throws Exception {
+        JacksonJsonSupport jsonSupport = new JacksonJsonSupport(new PayloadCodecModule());
+        ByteBuf buffer = Unpooled.buffer();
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), Arrays.asList("bot_message",
+                new CborPayload(new SendBotMessage("xatkit", "Continue?",
+                        QuickButtonSet.of(Arrays.asList("Yes", "No"))))));
+        assertThat(buffer.toString(CharsetUtil.UTF_8)).contains("_placeholder");
+        JsonNode decoded = PayloadCodecModule.getCborMapper().readTree(jsonSupport.getArrays().get(0));
+        JsonNode buttons = decoded.get("quickButtonValues");
+        assertThat(buttons.isArray()).isTrue();
+        assertThat(buttons).hasSize(2);
+        assertThat(buttons.get(1).get("label").asText()).isEqualTo("No");
+        assertThat(buttons.get(1).get("value").asText()).isEqualTo("No");
+    }
+}
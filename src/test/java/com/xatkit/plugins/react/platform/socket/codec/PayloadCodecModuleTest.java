@@ -0,0 +1,87 @@
+package com.xatkit.plugins.react.platform.socket.codec;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.plugins.react.platform.socket.action.SendBotMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PayloadCodecModuleTest extends AbstractXatkitTest {
+
+    private JacksonJsonSupport jsonSupport;
+
+    @Before
+    public void setUp() {
+        jsonSupport = new JacksonJsonSupport(new PayloadCodecModule());
+    }
+
+    @Test
+    public void writeCborPayload() throws Exception {
+        String text = write(Arrays.asList("bot_message", new CborPayload(new SendBotMessage("xatkit", "Hello"))));
+        assertThat(text).isEqualTo("[\"bot_message\",{\"_placeholder\":true,\"num\":0}]");
+        List<byte[]> attachments = jsonSupport.getArrays();
+        assertThat(attachments).hasSize(1);
+        JsonNode decoded = PayloadCodecModule.getCborMapper().readTree(attachments.get(0));
+        assertThat(decoded.get("username").asText()).isEqualTo("xatkit");
+        assertThat(decoded.get("message").asText()).isEqualTo("Hello");
+    }
+
+    @Test
+    public void writeJsonPayload() throws Exception {
+        String text = write(Arrays.asList("bot_message", new SendBotMessage("xatkit", "Hello")));
+        assertThat(text).startsWith("[\"bot_message\",{").contains("\"message\":\"Hello\"");
+        assertThat(jsonSupport.getArrays()).isNullOrEmpty();
+    }
+
+    @Test
+    public void writeEncodedPayload() throws Exception {
+        EncodedPayload payload = new EncodedPayload(new SendBotMessage("xatkit", "Maintenance at 10pm"));
+        String expected = write(Arrays.asList("bot_message", payload.getValue()));
+        assertThat(write(Arrays.asList("bot_message", payload))).isEqualTo(expected);
+        assertThat(payload.getJson()).as("JSON encoding cached").isSameAs(payload.getJson());
+    }
+
+    @Test
+    public void writeCborEncodedPayload() throws Exception {
+        EncodedPayload payload = new EncodedPayload(new SendBotMessage("xatkit", "Maintenance at 10pm"));
+        write(Arrays.asList("bot_message", new CborPayload(payload)));
+        List<byte[]> attachments = jsonSupport.getArrays();
+        assertThat(attachments).hasSize(1);
+        assertThat(attachments.get(0)).as("CBOR encoding cached").isSameAs(payload.getCbor());
+        JsonNode decoded = PayloadCodecModule.getCborMapper().readTree(attachments.get(0));
+        assertThat(decoded.get("message").asText()).isEqualTo("Maintenance at 10pm");
+    }
+
+    @Test
+    public void writeCborPayloadOmitsNullValues() throws Exception {
+        write(Arrays.asList("bot_message", new CborPayload(new SendBotMessage("xatkit", "Hello", null))));
+        JsonNode decoded = PayloadCodecModule.getCborMapper().readTree(jsonSupport.getArrays().get(0));
+        assertThat(decoded.has("quickButtonValues")).isFalse();
+        assertThat(decoded.get("message").asText()).isEqualTo("Hello");
+    }
+
+    @Test
+    public void fromLabel() {
+        assertThat(PayloadEncoding.fromLabel("cbor")).isEqualTo(PayloadEncoding.CBOR);
+        assertThat(PayloadEncoding.fromLabel("CBOR")).isEqualTo(PayloadEncoding.CBOR);
+        assertThat(PayloadEncoding.fromLabel("json")).isEqualTo(PayloadEncoding.JSON);
+        assertThat(PayloadEncoding.fromLabel("msgpack")).isEqualTo(PayloadEncoding.JSON);
+        assertThat(PayloadEncoding.fromLabel(null)).isEqualTo(PayloadEncoding.JSON);
+    }
+
+    private String write(Object value) throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), value);
+        return buffer.toString(CharsetUtil.UTF_8);
+    }
+}
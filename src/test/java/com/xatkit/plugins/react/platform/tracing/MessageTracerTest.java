@@ -0,0 +1,160 @@
+package com.xatkit.plugins.react.platform.tracing;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.react.platform.utils.ReactUtils;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MessageTracerTest extends AbstractXatkitTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidSampleRate() {
+        new MessageTracer(1.5, 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidBufferSize() {
+        new MessageTracer(1, 0);
+    }
+
+    @Test
+    public void constructRoundsUpBufferSize() {
+        assertThat(new MessageTracer(1, 100).getCapacity()).isEqualTo(128);
+        assertThat(new MessageTracer(1, 64).getCapacity()).isEqualTo(64);
+    }
+
+    @Test
+    public void startSampleRateZero() {
+        MessageTracer tracer = new MessageTracer(0, 16);
+        assertThat(tracer.isEnabled()).isFalse();
+        assertThat(tracer.start("channel", "user_message", System.nanoTime())).isEqualTo(MessageTracer.NO_TRACE);
+        assertThat(tracer.getTraces()).isEmpty();
+    }
+
+    @Test
+    public void startSampleRateOne() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        assertThat(traceId).isEqualTo(0);
+        MessageTrace trace = tracer.getTrace(traceId);
+        assertThat(trace).isNotNull();
+        assertThat(trace.getChannel()).isEqualTo("channel");
+        assertThat(trace.getEvent()).isEqualTo("user_message");
+        assertThat(trace.getRecognized()).isNull();
+        assertThat(trace.getWritten()).isNull();
+    }
+
+    @Test
+    public void startOverwritesOldestTrace() {
+        MessageTracer tracer = new MessageTracer(1, 4);
+        for (int i = 0; i < 6; i++) {
+            tracer.start("channel" + i, "user_message", System.nanoTime());
+        }
+        assertThat(tracer.getTrace(0)).isNull();
+        assertThat(tracer.getTrace(1)).isNull();
+        assertThat(tracer.getTrace(5)).isNotNull();
+        assertThat(tracer.getTraces().stream().map(MessageTrace::getId).collect(Collectors.toList()))
+                .containsExactly(2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void recordStages() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        tracer.recognized(traceId);
+        tracer.actionStarted(traceId);
+        tracer.actionCompleted(traceId);
+        tracer.actionStarted(traceId);
+        tracer.actionCompleted(traceId);
+        MessageTrace trace = tracer.getTrace(traceId);
+        assertThat(trace.getRecognized()).isNotNull().isNotNegative();
+        assertThat(trace.getActionStart()).isNotNull().isGreaterThanOrEqualTo(trace.getRecognized());
+        assertThat(trace.getActionEnd()).isNotNull().isGreaterThanOrEqualTo(trace.getActionStart());
+        assertThat(trace.getActionCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void recordNoTrace() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        tracer.recognized(MessageTracer.NO_TRACE);
+        tracer.actionStarted(MessageTracer.NO_TRACE);
+        tracer.beforeWrite(MessageTracer.NO_TRACE, "channel");
+        assertThat(tracer.getTraces()).isEmpty();
+    }
+
+    @Test
+    public void onWriteCompletesPendingTraces() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        tracer.beforeWrite(traceId, "channel");
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelPromise otherChannelWrite = channel.newPromise();
+        tracer.onWrite("other", otherChannelWrite);
+        otherChannelWrite.setSuccess();
+        assertThat(tracer.getTrace(traceId).getWritten()).isNull();
+        ChannelPromise write = channel.newPromise();
+        tracer.onWrite("channel", write);
+        assertThat(tracer.getTrace(traceId).getWritten()).as("Not written before the promise completes").isNull();
+        write.setSuccess();
+        assertThat(tracer.getTrace(traceId).getWritten()).isNotNull();
+        assertThat(tracer.getTrace(traceId).getWriteCount()).isEqualTo(1);
+        ChannelPromise nextWrite = channel.newPromise();
+        tracer.onWrite("channel", nextWrite);
+        nextWrite.setSuccess();
+        assertThat(tracer.getTrace(traceId).getWriteCount()).as("Only the next write is recorded").isEqualTo(1);
+    }
+
+    @Test
+    public void onWriteFailedWrite() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        tracer.beforeWrite(traceId, "channel");
+        ChannelPromise write = new EmbeddedChannel().newPromise();
+        tracer.onWrite("channel", write);
+        write.setFailure(new RuntimeException("Write failure"));
+        assertThat(tracer.getTrace(traceId).getWritten()).isNull();
+    }
+
+    @Test
+    public void removeChannelDiscardsPendingTraces() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        tracer.beforeWrite(traceId, "channel");
+        tracer.removeChannel("channel");
+        ChannelPromise write = new EmbeddedChannel().newPromise();
+        tracer.onWrite("channel", write);
+        write.setSuccess();
+        assertThat(tracer.getTrace(traceId).getWritten()).isNull();
+    }
+
+    @Test
+    public void getTraceIdFromContext() {
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        StateContext context = mock(StateContext.class);
+        when(context.getEventInstance()).thenReturn(eventInstance);
+        assertThat(MessageTracer.getTraceId(context)).isEqualTo(MessageTracer.NO_TRACE);
+        eventInstance.getPlatformData().put(ReactUtils.REACT_TRACE_ID_CONTEXT_KEY, 42L);
+        assertThat(MessageTracer.getTraceId(context)).isEqualTo(42L);
+        assertThat(MessageTracer.getTraceId(null)).isEqualTo(MessageTracer.NO_TRACE);
+    }
+
+    @Test
+    public void toJson() {
+        MessageTracer tracer = new MessageTracer(1, 16);
+        long traceId = tracer.start("channel", "user_message", System.nanoTime());
+        tracer.recognized(traceId);
+        String json = tracer.toJson();
+        assertThat(json).startsWith("[{\"id\":0,\"channel\":\"channel\",\"event\":\"user_message\"");
+        assertThat(json).contains("\"recognized\":").doesNotContain("\"written\"");
+    }
+}
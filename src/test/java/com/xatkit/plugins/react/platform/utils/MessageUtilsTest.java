@@ -3,6 +3,13 @@ package com.xatkit.plugins.react.platform.utils;
 import com.xatkit.AbstractXatkitTest;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class MessageUtilsTest extends AbstractXatkitTest {
@@ -28,4 +35,65 @@ public class MessageUtilsTest extends AbstractXatkitTest {
         String eventLink = MessageUtils.eventLink("name", "value");
         assertThat(eventLink).isEqualTo("[name](##value)");
     }
+
+    @Test
+    public void testEventLinkEncodedValue() throws UnsupportedEncodingException {
+        String value = "caf\u00e9 & cr\u00e8me {0} 'quoted' \ud83d\ude00 \ud83d";
+        String eventLink = MessageUtils.eventLink("name", value);
+        assertThat(eventLink).isEqualTo("[name](##" + URLEncoder.encode(value, "UTF-8") + ")");
+    }
+
+    @Test
+    public void testAppendEventLinkToBuilder() {
+        StringBuilder builder = new StringBuilder("Select ");
+        MessageUtils.appendEventLink(builder, "first value", "first value");
+        assertThat(builder.toString()).isEqualTo("Select [first value](##first+value)");
+    }
+
+    @Test
+    public void testAppendEventLinkToAppendable() throws IOException {
+        StringWriter writer = MessageUtils.appendEventLink(new StringWriter(), "name", "a/b");
+        assertThat(writer.toString()).isEqualTo("[name](##a%2Fb)");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testItemizeListNullList() {
+        MessageUtils.itemizeList(null);
+    }
+
+    @Test
+    public void testItemizeListEmptyList() {
+        assertThat(MessageUtils.itemizeList(Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void testItemizeList() {
+        assertThat(MessageUtils.itemizeList(Arrays.asList("a", 1))).isEqualTo("- a  \n- 1  \n");
+    }
+
+    @Test
+    public void testAppendItemizedListToAppendable() throws IOException {
+        StringWriter writer = MessageUtils.appendItemizedList(new StringWriter(), Arrays.asList("a", 1));
+        assertThat(writer.toString()).isEqualTo(MessageUtils.itemizeList(Arrays.asList("a", 1)));
+    }
+
+    @Test
+    public void testEnumerateList() {
+        assertThat(MessageUtils.enumerateList(Arrays.asList("a", 1))).isEqualTo("[0] a  \n[1] 1  \n");
+    }
+
+    @Test
+    public void testAppendEnumeratedListReusedBuilder() {
+        StringBuilder builder = new StringBuilder();
+        MessageUtils.appendEnumeratedList(builder, Arrays.asList("a", "b"));
+        builder.setLength(0);
+        MessageUtils.appendEnumeratedList(builder, Collections.singletonList("c"));
+        assertThat(builder.toString()).isEqualTo("[0] c  \n");
+    }
+
+    @Test
+    public void testAppendEnumeratedListToAppendable() throws IOException {
+        StringWriter writer = MessageUtils.appendEnumeratedList(new StringWriter(), Arrays.asList("a", 1));
+        assertThat(writer.toString()).isEqualTo(MessageUtils.enumerateList(Arrays.asList("a", 1)));
+    }
 }